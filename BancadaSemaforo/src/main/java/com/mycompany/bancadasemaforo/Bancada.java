@@ -0,0 +1,48 @@
+package com.mycompany.bancadasemaforo;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Corre os benchmarks com as opções do JMH da linha de comandos e, se não
+ * forem indicadas, com o perfil de alocações ({@code -prof gc}) e os
+ * resultados em JSON em {@code target/bancada.json}, para comparar versões.
+ *
+ * <pre>
+ * java -jar target/bancada.jar                       (todos)
+ * java -jar target/bancada.jar Vitoria -rff base.json (só a deteção de vitória)
+ * </pre>
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Bancada {
+
+    private static final String RESULTADOS = "target/bancada.json";
+
+    private Bancada() {
+    }
+
+    /**
+     * @param args opções do JMH
+     * @throws CommandLineOptionException se as opções forem inválidas
+     * @throws RunnerException se algum benchmark falhar
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions linha = new CommandLineOptions(args);
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linha);
+        if (linha.getProfilers().isEmpty()) opcoes.addProfiler(GCProfiler.class);
+        if (!linha.getResultFormat().hasValue()) {
+            opcoes.resultFormat(ResultFormatType.JSON);
+            if (!linha.getResult().hasValue()) opcoes.result(RESULTADOS);
+        }
+        new Runner(opcoes.build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.bancadasemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Verificação de jogadas legais: a comparação de Strings e contadores do
+ * cliente original, {@link Regras#jogadaLegal}, a máscara de todas as
+ * jogadas de {@link Regras#jogadasLegais} e {@link Geometria#jogadaLegal}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JogadaLegalBench {
+
+    private final Posicoes posicoes = new Posicoes(2, true);
+    private final Geometria geometria = Geometria.PADRAO;
+
+    /** Peças por usar de cada posição, como os contadores do cliente original */
+    private final int[][] disponiveis = new int[Posicoes.N][4];
+    private int i;
+
+    /**
+     * Conta as peças de cada posição.
+     */
+    @Setup
+    public void preparar() {
+        for (int k = 0; k < Posicoes.N; k++)
+            for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++)
+                disponiveis[k][cor] = Regras.disponiveis(posicoes.tabuleiros[k], cor);
+    }
+
+    /** @return cor que a jogada deixaria, no tabuleiro antigo */
+    @Benchmark
+    public String legadoJogada() {
+        i = (i + 1) & Posicoes.MASCARA;
+        int celula = i % Tabuleiro.CELULAS;
+        int[] d = disponiveis[i];
+        return Legado.jogada(posicoes.legado[i], celula / Tabuleiro.COLUNAS, celula % Tabuleiro.COLUNAS,
+                d[Tabuleiro.VERDE], d[Tabuleiro.AMARELO], d[Tabuleiro.VERMELHO]);
+    }
+
+    /** @return true se a jogada for legal */
+    @Benchmark
+    public boolean regrasJogadaLegal() {
+        i = (i + 1) & Posicoes.MASCARA;
+        return Regras.jogadaLegal(posicoes.tabuleiros[i], i % Tabuleiro.CELULAS);
+    }
+
+    /** @return máscara de todas as jogadas legais */
+    @Benchmark
+    public int regrasJogadasLegais() {
+        i = (i + 1) & Posicoes.MASCARA;
+        return Regras.jogadasLegais(posicoes.tabuleiros[i]);
+    }
+
+    /** @return true se a jogada for legal */
+    @Benchmark
+    public boolean geometriaJogadaLegal() {
+        i = (i + 1) & Posicoes.MASCARA;
+        return geometria.jogadaLegal(posicoes.tabuleiros[i], i % Tabuleiro.CELULAS);
+    }
+}
@@ -0,0 +1,123 @@
+package com.mycompany.bancadasemaforo;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Cópia da lógica original do cliente, de antes do tabuleiro compacto, para
+ * servir de referência nos benchmarks: o tabuleiro {@code String[3][4]} com
+ * {@code null}, "verde", "amarelo" ou "vermelho", o {@code verificarVitoria}
+ * do GameController e as jogadas em texto {@code JOGADA:r:c:tipo} escritas
+ * com {@code writeUTF} e lidas com {@code split(":")}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Legado {
+
+    private static final String[] TIPOS = {null, "verde", "amarelo", "vermelho"};
+
+    private Legado() {
+    }
+
+    /**
+     * Converte um tabuleiro compacto no formato antigo.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return tabuleiro {@code String[3][4]}
+     */
+    static String[][] tabuleiro(long tabuleiro) {
+        String[][] t = new String[Tabuleiro.LINHAS][Tabuleiro.COLUNAS];
+        for (int i = 0; i < Tabuleiro.LINHAS; i++)
+            for (int j = 0; j < Tabuleiro.COLUNAS; j++)
+                t[i][j] = TIPOS[Tabuleiro.celula(tabuleiro, i, j)];
+        return t;
+    }
+
+    /**
+     * Verifica se há 3 peças da mesma cor em linha, coluna ou diagonal
+     * (o {@code verificarVitoria} original).
+     *
+     * @param tabuleiro tabuleiro no formato antigo
+     * @param tipo cor da peça ("verde", "amarelo", "vermelho")
+     * @return true se houve vitória
+     */
+    static boolean verificarVitoria(String[][] tabuleiro, String tipo) {
+        for (int i = 0; i < 3; i++)
+            for (int j = 0; j < 2; j++)
+                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i][j+1]) && tipo.equals(tabuleiro[i][j+2]))
+                    return true;
+
+        for (int j = 0; j < 4; j++)
+            for (int i = 0; i < 1; i++)
+                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i+1][j]) && tipo.equals(tabuleiro[i+2][j]))
+                    return true;
+
+        for (int i = 0; i < 1; i++)
+            for (int j = 0; j < 2; j++)
+                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i+1][j+1]) && tipo.equals(tabuleiro[i+2][j+2]))
+                    return true;
+
+        for (int i = 0; i < 1; i++)
+            for (int j = 2; j < 4; j++)
+                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i+1][j-1]) && tipo.equals(tabuleiro[i+2][j-2]))
+                    return true;
+
+        return false;
+    }
+
+    /**
+     * Verifica se uma jogada é permitida, como no {@code tratarJogada}
+     * original: célula vazia com verdes, verde com amarelas ou amarela com
+     * vermelhas por usar.
+     *
+     * @return cor que a jogada lá deixa, ou null se não for permitida
+     */
+    static String jogada(String[][] tabuleiro, int row, int col, int verdes, int amarelas, int vermelhas) {
+        String atual = tabuleiro[row][col];
+        if (atual == null) return verdes > 0 ? "verde" : null;
+        if (atual.equals("verde")) return amarelas > 0 ? "amarelo" : null;
+        if (atual.equals("amarelo")) return vermelhas > 0 ? "vermelho" : null;
+        return null;
+    }
+
+    /**
+     * Escreve uma jogada como o cliente original.
+     *
+     * @param saida fluxo de saída (normalmente sobre um buffer)
+     */
+    static void enviarJogada(DataOutputStream saida, int row, int col, String tipo) throws IOException {
+        saida.writeUTF("JOGADA:" + row + ":" + col + ":" + tipo);
+    }
+
+    /**
+     * Lê uma jogada como o cliente original.
+     *
+     * @param trama trama de {@code writeUTF}
+     * @return linha, coluna e cor, juntos num inteiro ({@code linha << 8 | coluna << 4 | cor})
+     */
+    static int receberJogada(byte[] trama) throws IOException {
+        String msg = new DataInputStream(new ByteArrayInputStream(trama)).readUTF();
+        if (!msg.startsWith("JOGADA")) return -1;
+        String[] partes = msg.split(":");
+        int row = Integer.parseInt(partes[1]);
+        int col = Integer.parseInt(partes[2]);
+        String tipo = partes[3];
+        return row << 8 | col << 4 | Tabuleiro.cor(tipo);
+    }
+
+    /**
+     * Codifica uma jogada numa trama nova.
+     */
+    static byte[] trama(int row, int col, String tipo) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        enviarJogada(new DataOutputStream(bytes), row, col, tipo);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.bancadasemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.torneio.Aleatorio;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jogos completos com jogadas aleatórias, do tabuleiro vazio até ao fim: o
+ * ciclo do {@link com.mycompany.nucleosemaforo.torneio.Torneio} sobre
+ * {@link Regras}, o mesmo sobre {@link Geometria} e o cliente original
+ * sobre {@code String[][]}. Com {@code -prof gc} (ligado por omissão em
+ * {@link Bancada}) mostra também as alocações por jogo, que nos dois
+ * primeiros devem ser zero.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PartidaBench {
+
+    private final Aleatorio aleatorio = new Aleatorio(3);
+    private final Geometria geometria = Geometria.PADRAO;
+
+    /** @return tabuleiro final */
+    @Benchmark
+    public long regras() {
+        long tabuleiro = Tabuleiro.INICIAL;
+        for (int legais; (legais = Regras.jogadasLegais(tabuleiro)) != 0; )
+            tabuleiro = Regras.jogar(tabuleiro, aleatorio.sortear(legais));
+        return tabuleiro;
+    }
+
+    /** @return tabuleiro final */
+    @Benchmark
+    public long geometria() {
+        long tabuleiro = Tabuleiro.INICIAL;
+        for (int possiveis; (possiveis = geometria.jogadasPossiveis(tabuleiro)) != 0; ) {
+            int celula = aleatorio.sortear(possiveis);
+            tabuleiro = Regras.jogar(tabuleiro, celula);
+            if (geometria.vitoriaEm(tabuleiro, celula)) break;
+        }
+        return tabuleiro;
+    }
+
+    /** @return número de jogadas */
+    @Benchmark
+    public int legado() {
+        String[][] tabuleiro = new String[Tabuleiro.LINHAS][Tabuleiro.COLUNAS];
+        int[] disponiveis = {0, Regras.PECAS_POR_COR, Regras.PECAS_POR_COR, Regras.PECAS_POR_COR};
+        int[] celulas = new int[Tabuleiro.CELULAS];
+        for (int jogadas = 0; ; jogadas++) {
+            // Junta as células onde o cliente original aceitaria o clique
+            int n = 0;
+            for (int c = 0; c < Tabuleiro.CELULAS; c++) {
+                if (Legado.jogada(tabuleiro, c / Tabuleiro.COLUNAS, c % Tabuleiro.COLUNAS, disponiveis[Tabuleiro.VERDE],
+                        disponiveis[Tabuleiro.AMARELO], disponiveis[Tabuleiro.VERMELHO]) != null)
+                    celulas[n++] = c;
+            }
+            if (n == 0) return jogadas;
+            int c = celulas[aleatorio.proximo(n)];
+            int row = c / Tabuleiro.COLUNAS, col = c % Tabuleiro.COLUNAS;
+            String tipo = Legado.jogada(tabuleiro, row, col, disponiveis[Tabuleiro.VERDE],
+                    disponiveis[Tabuleiro.AMARELO], disponiveis[Tabuleiro.VERMELHO]);
+            tabuleiro[row][col] = tipo;
+            disponiveis[Tabuleiro.cor(tipo)]--;
+            if (Legado.verificarVitoria(tabuleiro, tipo)) return jogadas + 1;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mycompany.bancadasemaforo;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.torneio.Aleatorio;
+
+/**
+ * Conjunto fixo de posições de jogos aleatórios, gerado a partir de uma
+ * semente, para os benchmarks percorrerem em ciclo sem que o JIT possa
+ * tratar o tabuleiro como constante.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Posicoes {
+
+    /** Número de posições (potência de 2, para o índice dar a volta com uma máscara) */
+    static final int N = 1024;
+    static final int MASCARA = N - 1;
+
+    /** Posições, a célula da última jogada de cada uma e a mesma posição no formato antigo */
+    final long[] tabuleiros = new long[N];
+    final int[] ultimas = new int[N];
+    final String[][][] legado = new String[N][][];
+
+    /**
+     * @param semente semente do gerador
+     * @param emCurso true para parar antes de uma jogada vencedora, para todas
+     *                as posições terem o jogo em curso
+     */
+    Posicoes(long semente, boolean emCurso) {
+        Aleatorio aleatorio = new Aleatorio(semente);
+        for (int i = 0; i < N; i++) {
+            // Joga ao acaso até uma profundidade sorteada ou até ao fim do jogo
+            long tabuleiro = Tabuleiro.INICIAL;
+            int ultima = 0;
+            int jogadas = 1 + aleatorio.proximo(16);
+            for (int n = 0; n < jogadas; n++) {
+                int legais = Regras.jogadasLegais(tabuleiro);
+                if (legais == 0) break;
+                int celula = aleatorio.sortear(legais);
+                long seguinte = Regras.jogar(tabuleiro, celula);
+                if (emCurso && Tabuleiro.vitoria(seguinte)) break;
+                ultima = celula;
+                tabuleiro = seguinte;
+            }
+            tabuleiros[i] = tabuleiro;
+            ultimas[i] = ultima;
+            legado[i] = Legado.tabuleiro(tabuleiro);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mycompany.bancadasemaforo;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.protocolo.Codec;
+import com.mycompany.nucleosemaforo.protocolo.CodecBinario;
+import com.mycompany.nucleosemaforo.protocolo.CodecTexto;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.ProtocoloException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Codificação e leitura das mensagens {@code JOGADA:r:c:tipo}: o
+ * {@code writeUTF} com concatenação e o {@code readUTF} com
+ * {@code split(":")} do cliente original, o {@link CodecTexto}, que escreve
+ * e compara bytes sem criar Strings, e o {@link CodecBinario}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocoloBench {
+
+    private static final String[] TIPOS = {null, "verde", "amarelo", "vermelho"};
+
+    /** Jogadas percorridas em ciclo: todas as células com as três cores */
+    private static final int JOGADAS = Tabuleiro.CELULAS * 3;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    private final DataOutputStream saida = new DataOutputStream(bytes);
+    private final byte[][] tramasLegado = new byte[JOGADAS][];
+
+    private final Codec texto = new CodecTexto();
+    private final Codec binario = new CodecBinario();
+    private final ByteBuffer buffer = ByteBuffer.allocate(64);
+    private final ByteBuffer[] tramasTexto = new ByteBuffer[JOGADAS];
+    private final ByteBuffer[] tramasBinario = new ByteBuffer[JOGADAS];
+    private final Mensagem mensagem = new Mensagem();
+    private int i;
+
+    /**
+     * Codifica de antemão todas as jogadas nos três formatos.
+     *
+     * @throws IOException nunca, a escrita é em memória
+     */
+    @Setup
+    public void preparar() throws IOException {
+        for (int k = 0; k < JOGADAS; k++) {
+            int celula = k / 3, cor = k % 3 + 1;
+            int linha = celula / Tabuleiro.COLUNAS, coluna = celula % Tabuleiro.COLUNAS;
+            tramasLegado[k] = Legado.trama(linha, coluna, TIPOS[cor]);
+            tramasTexto[k] = trama(texto, mensagem.jogada(linha, coluna, cor));
+            tramasBinario[k] = trama(binario, mensagem.jogada(linha, coluna, cor));
+        }
+    }
+
+    private static ByteBuffer trama(Codec codec, Mensagem m) {
+        ByteBuffer b = ByteBuffer.allocate(64);
+        codec.codificar(m, b);
+        b.flip();
+        return b;
+    }
+
+    private int proxima() {
+        i = i + 1 == JOGADAS ? 0 : i + 1;
+        return i;
+    }
+
+    /** @return bytes escritos */
+    @Benchmark
+    public int legadoCodificar() throws IOException {
+        int k = proxima();
+        bytes.reset();
+        Legado.enviarJogada(saida, k / 3 / Tabuleiro.COLUNAS, k / 3 % Tabuleiro.COLUNAS, TIPOS[k % 3 + 1]);
+        return bytes.size();
+    }
+
+    /** @return jogada lida */
+    @Benchmark
+    public int legadoDescodificar() throws IOException {
+        return Legado.receberJogada(tramasLegado[proxima()]);
+    }
+
+    /** @return bytes escritos */
+    @Benchmark
+    public int textoCodificar() {
+        return codificar(texto);
+    }
+
+    /** @return jogada lida */
+    @Benchmark
+    public int textoDescodificar() throws ProtocoloException {
+        return descodificar(texto, tramasTexto[proxima()]);
+    }
+
+    /** @return bytes escritos */
+    @Benchmark
+    public int binarioCodificar() {
+        return codificar(binario);
+    }
+
+    /** @return jogada lida */
+    @Benchmark
+    public int binarioDescodificar() throws ProtocoloException {
+        return descodificar(binario, tramasBinario[proxima()]);
+    }
+
+    private int codificar(Codec codec) {
+        int k = proxima();
+        buffer.clear();
+        codec.codificar(mensagem.jogada(k / 3 / Tabuleiro.COLUNAS, k / 3 % Tabuleiro.COLUNAS, k % 3 + 1), buffer);
+        return buffer.position();
+    }
+
+    private int descodificar(Codec codec, ByteBuffer trama) throws ProtocoloException {
+        trama.rewind();
+        codec.descodificar(trama, mensagem);
+        return mensagem.getLinha() << 8 | mensagem.getColuna() << 4 | mensagem.getCor();
+    }
+}
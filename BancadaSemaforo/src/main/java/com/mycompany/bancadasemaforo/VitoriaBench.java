@@ -0,0 +1,71 @@
+package com.mycompany.bancadasemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deteção de vitória depois de uma jogada: o {@code verificarVitoria}
+ * original sobre {@code String[][]}, as máscaras deslocadas de
+ * {@link Tabuleiro} e a verificação incremental de {@link Geometria}, que
+ * só olha para as linhas que passam pela célula jogada.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VitoriaBench {
+
+    private final Posicoes posicoes = new Posicoes(1, false);
+    private final Geometria geometria = Geometria.PADRAO;
+    private int i;
+
+    /** @return true se a cor da última jogada fez linha, no tabuleiro antigo */
+    @Benchmark
+    public boolean legadoVerificarVitoria() {
+        i = (i + 1) & Posicoes.MASCARA;
+        int celula = posicoes.ultimas[i];
+        String[][] tabuleiro = posicoes.legado[i];
+        String tipo = tabuleiro[celula / Tabuleiro.COLUNAS][celula % Tabuleiro.COLUNAS];
+        return tipo != null && Legado.verificarVitoria(tabuleiro, tipo);
+    }
+
+    /** @return true se a cor da última jogada fez linha */
+    @Benchmark
+    public boolean tabuleiroVitoriaCor() {
+        i = (i + 1) & Posicoes.MASCARA;
+        long tabuleiro = posicoes.tabuleiros[i];
+        return Tabuleiro.vitoria(tabuleiro, Tabuleiro.celula(tabuleiro, posicoes.ultimas[i]));
+    }
+
+    /** @return true se houver uma linha de qualquer cor */
+    @Benchmark
+    public boolean tabuleiroVitoria() {
+        i = (i + 1) & Posicoes.MASCARA;
+        return Tabuleiro.vitoria(posicoes.tabuleiros[i]);
+    }
+
+    /** @return true se a última jogada fez linha, vendo só as linhas da célula */
+    @Benchmark
+    public boolean geometriaVitoriaEm() {
+        i = (i + 1) & Posicoes.MASCARA;
+        return geometria.vitoriaEm(posicoes.tabuleiros[i], posicoes.ultimas[i]);
+    }
+}
@@ -0,0 +1,159 @@
+package com.mycompany.cargasemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+import com.mycompany.nucleosemaforo.rede.Ligacao;
+import com.mycompany.nucleosemaforo.rede.OuvinteLigacao;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jogador automático que segue o mesmo protocolo do cliente gráfico.
+ *
+ * Apresenta-se, pede adversário (no tabuleiro da {@link Geometria} indicada), joga uma jogada legal ao acaso depois do
+ * tempo de reflexão configurado e, no fim de cada jogo, pede logo outro.
+ * As mensagens chegam na thread do {@link com.mycompany.nucleosemaforo.rede.CicloRede};
+ * as jogadas com tempo de reflexão são feitas na thread do agendador, daí os
+ * métodos sincronizados.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Bot implements OuvinteLigacao, OuvinteJogo {
+
+    private final String nome;
+    private final Estatisticas estatisticas;
+    private final ScheduledExecutorService agendador;
+    private final long pensamentoNs;
+    private final Geometria geometria;
+    private final Mensagem saida = new Mensagem();
+    private Ligacao ligacao;
+    private long tabuleiro = Tabuleiro.INICIAL;
+    private boolean minhaVez;
+    /** Instante (System.nanoTime) da última jogada enviada, ou 0 se não se espera resposta */
+    private long enviadaEm;
+
+    Bot(String nome, Estatisticas estatisticas, ScheduledExecutorService agendador, long pensamentoMs,
+            Geometria geometria) {
+        this.geometria = geometria;
+        this.nome = nome;
+        this.estatisticas = estatisticas;
+        this.agendador = agendador;
+        this.pensamentoNs = TimeUnit.MILLISECONDS.toNanos(pensamentoMs);
+    }
+
+    /**
+     * Começa a conversa com o servidor depois de a ligação estar aberta.
+     *
+     * @param ligacao ligação ao servidor
+     */
+    synchronized void iniciar(Ligacao ligacao) {
+        this.ligacao = ligacao;
+        enviar(saida.ola(nome, Protocolo.capacidadesPorOmissao()));
+        if (!geometria.equals(Geometria.PADRAO)) enviar(saida.geometria(geometria));
+        enviar(saida.sinal(Mensagem.PRONTO));
+    }
+
+    @Override
+    public synchronized void mensagem(Ligacao ligacao, Mensagem mensagem) {
+        estatisticas.recebida();
+        OuvinteJogo.despachar(mensagem, this);
+    }
+
+    @Override
+    public void fechada(Ligacao ligacao, IOException causa) {
+        if (causa != null) estatisticas.erro();
+    }
+
+    @Override
+    public void comecar() {
+        minhaVez = true;
+        agendarJogada();
+    }
+
+    @Override
+    public void jogada(int linha, int coluna, int cor) {
+        long agora = System.nanoTime();
+        if (enviadaEm != 0) {
+            // Ida e volta vista por este jogador, sem o tempo que o adversário passou a pensar
+            estatisticas.idaEVolta(agora - enviadaEm - pensamentoNs);
+            enviadaEm = 0;
+        }
+        int celula = geometria.celula(linha, coluna);
+        tabuleiro = Tabuleiro.colocar(tabuleiro, celula, cor);
+        if (geometria.resultado(tabuleiro, celula) != Regras.EM_CURSO) {
+            enviar(saida.sinal(Mensagem.RECOMECAR));
+        } else {
+            minhaVez = true;
+            agendarJogada();
+        }
+    }
+
+    @Override
+    public void novoJogo(boolean comecar) {
+        tabuleiro = Tabuleiro.INICIAL;
+        enviadaEm = 0;
+        minhaVez = comecar;
+        if (comecar) agendarJogada();
+    }
+
+    @Override
+    public void saiu() {
+        estatisticas.abandono();
+        ligacao.close();
+    }
+
+    private void agendarJogada() {
+        if (pensamentoNs == 0) {
+            jogar();
+        } else {
+            try {
+                agendador.schedule(this::jogar, pensamentoNs, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // O teste terminou enquanto ainda chegavam mensagens
+            }
+        }
+    }
+
+    /**
+     * Faz uma jogada legal ao acaso e, se terminar o jogo, pede o seguinte.
+     */
+    private synchronized void jogar() {
+        if (!minhaVez || ligacao.isFechada()) return;
+        minhaVez = false;
+        int legais = geometria.jogadasPossiveis(tabuleiro);
+        int n = ThreadLocalRandom.current().nextInt(Integer.bitCount(legais));
+        for (int i = 0; i < n; i++) legais &= legais - 1;
+        int celula = Integer.numberOfTrailingZeros(legais);
+        tabuleiro = Regras.jogar(tabuleiro, celula);
+        int colunas = geometria.getColunas();
+        enviar(saida.jogada(celula / colunas, celula % colunas, Tabuleiro.celula(tabuleiro, celula)));
+        int resultado = geometria.resultado(tabuleiro, celula);
+        if (resultado == Regras.EM_CURSO) {
+            enviadaEm = System.nanoTime();
+            return;
+        }
+        if (resultado == Regras.VITORIA) enviar(saida.fim(nome));
+        enviar(saida.sinal(Mensagem.RECOMECAR));
+        estatisticas.jogo();
+    }
+
+    private void enviar(Mensagem mensagem) {
+        try {
+            ligacao.enviar(mensagem);
+            estatisticas.enviada();
+        } catch (IOException e) {
+            estatisticas.erro();
+            ligacao.close();
+        }
+    }
+}
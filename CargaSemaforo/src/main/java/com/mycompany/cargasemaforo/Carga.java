@@ -0,0 +1,165 @@
+package com.mycompany.cargasemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.metricas.Histograma;
+import com.mycompany.nucleosemaforo.rede.CicloRede;
+import com.mycompany.servidorsemaforo.Servidor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gerador de carga para o servidor do Jogo Semáforo.
+ *
+ * Liga muitos {@link Bot}s a um servidor, repartidos por alguns
+ * {@link CicloRede} (cada um é uma única thread para milhares de ligações), e
+ * mostra em cada segundo os jogos e mensagens por segundo e os percentis do
+ * tempo de ida e volta de uma jogada. Com {@code --local} arranca também um
+ * servidor no mesmo processo, numa porta livre do loopback. Com
+ * {@code --espectadores N}, liga ainda N {@link Espectador}es, que se juntam
+ * todos à mesa mais concorrida. Com {@code --geometria 5x6:4:10}, os
+ * jogadores pedem um tabuleiro com outras dimensões (ver {@link Geometria}).
+ *
+ * <pre>
+ * opções: --host H  --porta P  --jogadores N  --espectadores N  --pensamento ms
+ *         --duracao s  --aquecimento s  --ciclos N  --geometria LxC:n:p  --local
+ * </pre>
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Carga {
+
+    private String host = "127.0.0.1";
+    private int porta = Servidor.PORTA_POR_OMISSAO;
+    private int jogadores = 1000;
+    private int espectadores;
+    private long pensamentoMs = 0;
+    private int duracao = 30;
+    private int aquecimento = 5;
+    private int ciclos = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private Geometria geometria = Geometria.PADRAO;
+    private boolean local;
+
+    private Carga() {
+    }
+
+    /**
+     * Arranca o teste de carga.
+     *
+     * @param args opções (ver a documentação da classe)
+     * @throws Exception se não for possível ligar ao servidor
+     */
+    public static void main(String[] args) throws Exception {
+        Carga carga = new Carga();
+        carga.lerOpcoes(args);
+        carga.executar();
+    }
+
+    private void lerOpcoes(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host" -> host = args[++i];
+                case "--porta" -> porta = Integer.parseInt(args[++i]);
+                case "--jogadores" -> jogadores = Integer.parseInt(args[++i]);
+                case "--espectadores" -> espectadores = Integer.parseInt(args[++i]);
+                case "--pensamento" -> pensamentoMs = Long.parseLong(args[++i]);
+                case "--duracao" -> duracao = Integer.parseInt(args[++i]);
+                case "--aquecimento" -> aquecimento = Integer.parseInt(args[++i]);
+                case "--ciclos" -> ciclos = Integer.parseInt(args[++i]);
+                case "--geometria" -> geometria = Geometria.ler(args[++i]);
+                case "--local" -> local = true;
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (jogadores < 2 || jogadores % 2 != 0)
+            throw new IllegalArgumentException("O número de jogadores deve ser par e maior do que 0");
+    }
+
+    private void executar() throws Exception {
+        Servidor servidor = null;
+        if (local) {
+            servidor = new Servidor(0);
+            porta = servidor.getPorta();
+            Servidor s = servidor;
+            Thread.ofPlatform().daemon().name("servidor-local").start(() -> {
+                try {
+                    s.servir();
+                } catch (IOException e) {
+                    System.err.println("Servidor local: " + e.getMessage());
+                }
+            });
+        }
+
+        Estatisticas estatisticas = new Estatisticas();
+        ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "carga-agendador");
+            t.setDaemon(true);
+            return t;
+        });
+        List<CicloRede> redes = new ArrayList<>();
+        for (int i = 0; i < ciclos; i++) redes.add(new CicloRede("carga-rede-" + i));
+
+        System.out.printf("A ligar %d jogadores a %s:%d (%d ciclos, reflexão %d ms, tabuleiro %s)%n",
+                jogadores, host, porta, ciclos, pensamentoMs, geometria);
+        InetSocketAddress endereco = new InetSocketAddress(host, porta);
+        List<CompletableFuture<?>> ligacoes = new ArrayList<>(jogadores);
+        for (int i = 0; i < jogadores; i++) {
+            Bot bot = new Bot("Bot" + i, estatisticas, agendador, pensamentoMs, geometria);
+            ligacoes.add(redes.get(i % ciclos).ligar(endereco, bot).thenAccept(bot::iniciar));
+        }
+        CompletableFuture.allOf(ligacoes.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        if (espectadores > 0) {
+            System.out.printf("A ligar %d espectadores%n", espectadores);
+            ligacoes.clear();
+            for (int i = 0; i < espectadores; i++) {
+                Espectador espectador = new Espectador("Espectador" + i, estatisticas);
+                ligacoes.add(redes.get(i % ciclos).ligar(endereco, espectador).thenAccept(espectador::iniciar));
+            }
+            CompletableFuture.allOf(ligacoes.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        }
+
+        Histograma latencia = estatisticas.getIdaEVolta();
+        long jogosAntes = 0, mensagensAntes = 0, vistasAntes = 0;
+        long inicioMedicao = 0, jogosInicio = 0, mensagensInicio = 0;
+        for (int s = 1; s <= aquecimento + duracao; s++) {
+            Thread.sleep(1000);
+            long jogos = estatisticas.getJogos(), mensagens = estatisticas.getMensagens();
+            long vistas = estatisticas.getVistas();
+            System.out.printf("[%3ds] %s jogos/s=%d msgs/s=%d vistas/s=%d ida-e-volta %s erros=%d%n",
+                    s, s <= aquecimento ? "aquecimento" : "medição", jogos - jogosAntes, mensagens - mensagensAntes,
+                    vistas - vistasAntes, latencia.resumo("µs"), estatisticas.getErros());
+            jogosAntes = jogos;
+            mensagensAntes = mensagens;
+            vistasAntes = vistas;
+            if (s == aquecimento) {
+                latencia.limpar();
+                inicioMedicao = System.nanoTime();
+                jogosInicio = jogos;
+                mensagensInicio = mensagens;
+            }
+        }
+        if (inicioMedicao == 0) inicioMedicao = System.nanoTime() - TimeUnit.SECONDS.toNanos(duracao);
+
+        double segundos = (System.nanoTime() - inicioMedicao) / 1e9;
+        System.out.printf("%nResumo (%d jogadores, %.1f s): jogos/s=%.1f msgs/s=%.1f%n", jogadores, segundos,
+                (estatisticas.getJogos() - jogosInicio) / segundos,
+                (estatisticas.getMensagens() - mensagensInicio) / segundos);
+        System.out.printf("Ida e volta de uma jogada: %s%n", latencia.resumo("µs"));
+        if (espectadores > 0)
+            System.out.printf("Espectadores: %d mensagens recebidas, %d ressincronizações%n",
+                    estatisticas.getVistas(), estatisticas.getRessincronizacoes());
+        System.out.printf("Erros: %d, abandonos: %d%n", estatisticas.getErros(), estatisticas.getAbandonos());
+
+        redes.forEach(CicloRede::close);
+        agendador.shutdownNow();
+        if (servidor != null) servidor.close();
+    }
+}
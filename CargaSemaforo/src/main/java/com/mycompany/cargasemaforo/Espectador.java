@@ -0,0 +1,108 @@
+package com.mycompany.cargasemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+import com.mycompany.nucleosemaforo.rede.Ligacao;
+import com.mycompany.nucleosemaforo.rede.OuvinteLigacao;
+
+import java.io.IOException;
+
+/**
+ * Espectador automático: assiste à mesa mais concorrida e confirma que cada
+ * jogada recebida é legal no tabuleiro que foi montando a partir do estado
+ * inicial da mesa. Quando a mesa termina, passa para outra.
+ *
+ * Todas as mensagens chegam na thread do {@link com.mycompany.nucleosemaforo.rede.CicloRede}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Espectador implements OuvinteLigacao, OuvinteJogo {
+
+    private final String nome;
+    private final Estatisticas estatisticas;
+    private final Mensagem saida = new Mensagem();
+    private Ligacao ligacao;
+    private long tabuleiro = Tabuleiro.INICIAL;
+    private Geometria geometria = Geometria.PADRAO;
+    private boolean sincronizado;
+
+    Espectador(String nome, Estatisticas estatisticas) {
+        this.nome = nome;
+        this.estatisticas = estatisticas;
+    }
+
+    /**
+     * Apresenta-se e pede uma mesa depois de a ligação estar aberta.
+     *
+     * @param ligacao ligação ao servidor
+     */
+    void iniciar(Ligacao ligacao) {
+        this.ligacao = ligacao;
+        enviar(saida.ola(nome, Protocolo.capacidadesPorOmissao()));
+        enviar(saida.assistir(Mensagem.QUALQUER_MESA));
+    }
+
+    @Override
+    public void mensagem(Ligacao ligacao, Mensagem mensagem) {
+        estatisticas.vista();
+        OuvinteJogo.despachar(mensagem, this);
+    }
+
+    @Override
+    public void fechada(Ligacao ligacao, IOException causa) {
+        if (causa != null) estatisticas.erro();
+    }
+
+    @Override
+    public void geometria(Geometria geometria) {
+        this.geometria = geometria;
+    }
+
+    @Override
+    public void sincronizar(long tabuleiro, boolean comecou) {
+        if (sincronizado) estatisticas.ressincronizacao();
+        sincronizado = true;
+        this.tabuleiro = tabuleiro;
+    }
+
+    @Override
+    public void jogada(int linha, int coluna, int cor) {
+        int celula = geometria.celula(linha, coluna);
+        if (!sincronizado || !geometria.jogadaLegal(tabuleiro, celula) || Regras.proximaCor(tabuleiro, celula) != cor) {
+            estatisticas.erro();
+            return;
+        }
+        tabuleiro = Regras.jogar(tabuleiro, celula);
+    }
+
+    @Override
+    public void novoJogo(boolean comecar) {
+        tabuleiro = Tabuleiro.INICIAL;
+    }
+
+    @Override
+    public void saiu() {
+        // Sem mesas em jogo, desiste; se a mesa terminou, procura outra
+        if (!sincronizado) {
+            ligacao.close();
+            return;
+        }
+        sincronizado = false;
+        enviar(saida.assistir(Mensagem.QUALQUER_MESA));
+    }
+
+    private void enviar(Mensagem mensagem) {
+        try {
+            ligacao.enviar(mensagem);
+        } catch (IOException e) {
+            estatisticas.erro();
+            ligacao.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mycompany.cargasemaforo;
+
+import com.mycompany.nucleosemaforo.metricas.Histograma;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores partilhados por todos os jogadores automáticos.
+ *
+ * Os contadores usam {@link LongAdder} para que centenas de ligações a
+ * incrementar ao mesmo tempo não disputem a mesma linha de cache.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Estatisticas {
+
+    private final LongAdder jogos = new LongAdder();
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder recebidas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder abandonos = new LongAdder();
+    private final LongAdder vistas = new LongAdder();
+    private final LongAdder ressincronizacoes = new LongAdder();
+    private final Histograma idaEVolta = new Histograma();
+
+    void jogo() {
+        jogos.increment();
+    }
+
+    void enviada() {
+        enviadas.increment();
+    }
+
+    void recebida() {
+        recebidas.increment();
+    }
+
+    void erro() {
+        erros.increment();
+    }
+
+    void abandono() {
+        abandonos.increment();
+    }
+
+    void vista() {
+        vistas.increment();
+    }
+
+    void ressincronizacao() {
+        ressincronizacoes.increment();
+    }
+
+    /**
+     * Regista o tempo entre enviar uma jogada e receber a resposta do adversário.
+     *
+     * @param nanos tempo em nanossegundos, já sem o tempo de reflexão
+     */
+    void idaEVolta(long nanos) {
+        idaEVolta.registar(nanos / 1000);
+    }
+
+    long getJogos() {
+        return jogos.sum();
+    }
+
+    long getMensagens() {
+        return enviadas.sum() + recebidas.sum();
+    }
+
+    long getErros() {
+        return erros.sum();
+    }
+
+    long getAbandonos() {
+        return abandonos.sum();
+    }
+
+    /** @return mensagens recebidas pelos espectadores */
+    long getVistas() {
+        return vistas.sum();
+    }
+
+    /** @return vezes que um espectador atrasado recebeu de novo o estado da mesa */
+    long getRessincronizacoes() {
+        return ressincronizacoes.sum();
+    }
+
+    /** @return histograma das idas e voltas, em microssegundos */
+    Histograma getIdaEVolta() {
+        return idaEVolta;
+    }
+}
@@ -0,0 +1,4 @@
+module com.mycompany.cargasemaforo {
+    requires com.mycompany.nucleosemaforo;
+    requires com.mycompany.servidorsemaforo;
+}
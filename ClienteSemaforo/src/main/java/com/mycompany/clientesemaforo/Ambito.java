@@ -0,0 +1,110 @@
+package com.mycompany.clientesemaforo;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Conjunto de tarefas com o mesmo ciclo de vida (a aplicação, uma sessão ou
+ * um ecrã), executadas pelas {@link Tarefas}.
+ *
+ * Fechar o âmbito interrompe as tarefas em curso e fecha os âmbitos filhos;
+ * depois disso, as tarefas novas são recusadas. As tarefas devem terminar
+ * depressa quando interrompidas (por exemplo, a pesquisa do motor consulta
+ * {@link Thread#isInterrupted()}).
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Ambito implements AutoCloseable {
+
+    private final String nome;
+    private final Ambito pai;
+    private final Set<Future<?>> tarefas = ConcurrentHashMap.newKeySet();
+    private final Set<Ambito> filhos = ConcurrentHashMap.newKeySet();
+    private boolean fechado;
+
+    Ambito(String nome, Ambito pai) {
+        this.nome = nome;
+        this.pai = pai;
+    }
+
+    /**
+     * Cria um âmbito filho, fechado ao fechar este.
+     *
+     * @param nome nome do filho, usado no nome das suas threads
+     * @return âmbito novo (já fechado, se este estiver fechado)
+     */
+    synchronized Ambito filho(String nome) {
+        Ambito filho = new Ambito(this.nome + "/" + nome, this);
+        if (fechado) filho.fechado = true;
+        else filhos.add(filho);
+        return filho;
+    }
+
+    /**
+     * Inicia uma tarefa numa thread virtual chamada "âmbito/nome".
+     *
+     * @param nome nome da tarefa
+     * @param tarefa tarefa a correr
+     * @return futuro da tarefa, que pode ser cancelado
+     * @throws RejectedExecutionException se o âmbito estiver fechado
+     */
+    synchronized Future<?> iniciar(String nome, Runnable tarefa) {
+        if (fechado) throw new RejectedExecutionException("Âmbito " + this.nome + " fechado");
+        FutureTask<Void> futuro = new FutureTask<Void>(tarefa, null) {
+            @Override
+            protected void done() {
+                tarefas.remove(this);
+            }
+        };
+        tarefas.add(futuro);
+        Tarefas.executar(this.nome + "/" + nome, futuro);
+        return futuro;
+    }
+
+    /**
+     * Devolve um executor que corre cada tarefa neste âmbito, para usar com
+     * {@link java.util.concurrent.CompletableFuture}.
+     *
+     * @param nome nome das tarefas
+     * @return executor
+     */
+    Executor executor(String nome) {
+        return tarefa -> iniciar(nome, tarefa);
+    }
+
+    /** @return true depois de {@link #close} */
+    synchronized boolean isFechado() {
+        return fechado;
+    }
+
+    /** @return tarefas deste âmbito ainda por terminar */
+    int getPendentes() {
+        return tarefas.size();
+    }
+
+    /**
+     * Interrompe as tarefas e fecha os âmbitos filhos, sem esperar por eles.
+     * Pode ser chamado mais do que uma vez.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (fechado) return;
+            fechado = true;
+        }
+        for (Ambito filho : filhos) filho.close();
+        for (Future<?> tarefa : tarefas) tarefa.cancel(true);
+        if (pai != null) pai.filhos.remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return nome;
+    }
+}
@@ -1,44 +1,183 @@
 package com.mycompany.clientesemaforo;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
+import javafx.application.Platform;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
+import com.mycompany.nucleosemaforo.registo.GravadorJogos;
+import com.mycompany.nucleosemaforo.tablebase.Tablebase;
+
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 
 public class App extends Application {
 
     private static Scene scene;
 
+    /** Raiz fixa da cena: o ecrã atual, com o painel de depuração por cima */
+    private static StackPane camadas;
+
+    private static final MetricasCliente METRICAS = new MetricasCliente();
+
+    /** Tarefas do ecrã mostrado, canceladas ao mudar de ecrã */
+    private static Ambito ambitoEcra = Tarefas.aplicacao().filho("ecra");
+
+    /** Tempo máximo de espera pelas tarefas ao sair */
+    private static final long ESPERA_SAIDA_MS = 2000;
+
+    /** Tablebase opcional, indicada com -Dsemaforo.tablebase=caminho */
+    private static Tablebase tablebase;
+
+    /** Ficheiro onde os jogos são registados; -Dsemaforo.registo= (vazio) desliga o registo */
+    private static final String REGISTO = System.getProperty("semaforo.registo",
+            Paths.get(System.getProperty("user.home"), ".semaforo", "jogos.smg").toString());
+
+    private static GravadorJogos gravador;
+
     @Override
     public void start(Stage stage) throws IOException {
-        // Carrega a interface inicial (connection.fxml)
-        scene = new Scene(loadFXML("connection"), 800, 600);
+        carregarTablebase();
+        abrirRegisto();
+        METRICAS.registar();
+
+        // Carrega a interface inicial (connection.fxml); a imagem de fundo já está a ser lida
+        Parent raiz = loadFXML("connection");
+        Ecras.aplicarFundo(raiz);
+        PainelDepuracao depuracao = new PainelDepuracao(METRICAS);
+        camadas = new StackPane(raiz, depuracao.getEtiqueta());
+        scene = new Scene(camadas, 800, 600);
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F3) depuracao.alternar();
+        });
         scene.getStylesheets().add(App.class.getResource("style.css").toExternalForm());
         stage.setTitle("Jogo Semáforo - Cliente");
         stage.setScene(scene);
+        TemposArranque.marcarNoProximoFrame(scene, "primeiro frame");
         stage.show();
+
+        // Os ecrãs seguintes são lidos enquanto o utilizador escreve o nome
+        Ecras.preCarregar("rules", "game", "mesas");
+
+        // Execução de treino para o arquivo AppCDS (perfil "arranque"): percorre os ecrãs e sai
+        if (Boolean.getBoolean("semaforo.treino")) Platform.runLater(App::treinar);
+    }
+
+    @Override
+    public void stop() {
+        // Fecha as ligações, termina a thread de rede e cancela as tarefas
+        Sessao.terminarRede();
+        Tarefas.terminar(ESPERA_SAIDA_MS);
+        if (gravador != null) {
+            try {
+                gravador.close();
+            } catch (IOException e) {
+                METRICAS.erro("fechar o registo de jogos", e);
+            }
+        }
     }
 
     // Permite mudar de interface durante a execução
     public static void setRoot(String fxml) throws IOException {
-        scene.setRoot(loadFXML(fxml));
+        mostrar(loadFXML(fxml));
+    }
+
+    /**
+     * Mostra um ecrã já carregado, com a imagem de fundo.
+     */
+    public static void mostrar(Parent raiz) {
+        Ecras.aplicarFundo(raiz);
+        camadas.getChildren().set(0, raiz);
+        ambitoEcra.close();
+        ambitoEcra = Tarefas.aplicacao().filho("ecra");
+    }
+
+    /**
+     * Devolve o âmbito das tarefas do ecrã mostrado, fechado quando se muda de ecrã.
+     */
+    static Ambito getAmbitoEcra() {
+        return ambitoEcra;
     }
     
     public static Scene getScene(){
         return scene;
     }
 
-    // Método para carregar FXMLs
+    /**
+     * Devolve as métricas de rede e de interface do cliente.
+     */
+    public static MetricasCliente getMetricas() {
+        return METRICAS;
+    }
+
+    /**
+     * Devolve a tablebase aberta no arranque, ou null se não foi indicada.
+     */
+    public static Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Devolve o gravador de jogos, ou null se o registo estiver desligado.
+     */
+    public static GravadorJogos getGravador() {
+        return gravador;
+    }
+
+    /**
+     * Devolve o ficheiro de registo de jogos, ou null se estiver desligado.
+     */
+    public static Path getRegisto() {
+        return REGISTO.isEmpty() ? null : Paths.get(REGISTO);
+    }
+
+    // Abre o registo de jogos; sem ele o jogo funciona na mesma, sem ficar registado
+    private static void abrirRegisto() {
+        if (REGISTO.isEmpty()) return;
+        try {
+            gravador = GravadorJogos.abrir(Paths.get(REGISTO));
+        } catch (IOException e) {
+            METRICAS.erro("abrir o registo de jogos", e);
+        }
+    }
+
+    // Abre a tablebase, se existir; sem ela o jogo funciona na mesma, sem sugestões
+    private static void carregarTablebase() {
+        String caminho = System.getProperty("semaforo.tablebase");
+        if (caminho == null) return;
+        try {
+            tablebase = Tablebase.abrir(Paths.get(caminho));
+        } catch (IOException e) {
+            METRICAS.erro("abrir a tablebase", e);
+        }
+    }
+
+    // Mostra os ecrãs de regras e de jogo e termina, para carregar as suas classes
+    private static void treinar() {
+        try {
+            setRoot("rules");
+            setRoot("game");
+            setRoot("mesas");
+            TemposArranque.jogoPronto(scene);
+        } catch (IOException e) {
+            METRICAS.erro("percorrer os ecrãs", e);
+        }
+        Platform.runLater(Platform::exit);
+    }
+
+    // Método para carregar FXMLs (usa o ecrã pré-carregado, se existir)
     private static Parent loadFXML(String fxml) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(App.class.getResource(fxml + ".fxml"));
-        return fxmlLoader.load();
+        return Ecras.carregar(fxml).getRoot();
     }
 
     public static void main(String[] args) {
+        TemposArranque.marcar("main");
         launch();
     }
 }
@@ -0,0 +1,59 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Célula do tabuleiro com as três peças já construídas.
+ *
+ * As peças são criadas uma única vez e mudar a cor da célula só altera qual
+ * delas está visível, pelo que uma jogada não cria nós nem obriga a refazer
+ * o layout do tabuleiro.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class CelulaTabuleiro extends StackPane {
+
+    private static final Color COR_VERDE = Color.web("#58d68d");
+    private static final Color COR_AMARELA = Color.web("#f4d03f");
+    private static final Color COR_VERMELHA = Color.web("#e74c3c");
+
+    private final Circle circulo = new Circle(25, COR_VERDE);
+    private final Polygon triangulo = new Polygon(30.0, 0.0, 60.0, 60.0, 0.0, 60.0);
+    private final Rectangle quadrado = new Rectangle(50, 50, COR_VERMELHA);
+    private int cor = Tabuleiro.VAZIO;
+
+    /**
+     * Cria uma célula vazia.
+     */
+    CelulaTabuleiro() {
+        setPrefSize(80, 80);
+        setStyle("-fx-border-color: black; -fx-background-color: white;");
+        triangulo.setFill(COR_AMARELA);
+        circulo.setVisible(false);
+        triangulo.setVisible(false);
+        quadrado.setVisible(false);
+        // As peças escondidas continuam a ocupar espaço, pelo que o tamanho da célula nunca muda
+        getChildren().addAll(circulo, triangulo, quadrado);
+    }
+
+    /**
+     * Mostra a peça de uma cor, ou nenhuma.
+     *
+     * @param cor cor de {@link Tabuleiro}
+     */
+    void mostrar(int cor) {
+        if (cor == this.cor) return;
+        this.cor = cor;
+        circulo.setVisible(cor == Tabuleiro.VERDE);
+        triangulo.setVisible(cor == Tabuleiro.AMARELO);
+        quadrado.setVisible(cor == Tabuleiro.VERMELHO);
+    }
+}
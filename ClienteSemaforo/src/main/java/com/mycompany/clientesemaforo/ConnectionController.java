@@ -1,8 +1,13 @@
 package com.mycompany.clientesemaforo;
 
-import java.io.DataOutputStream;
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+
+import java.io.File;
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -10,6 +15,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Alert;
+import javafx.stage.FileChooser;
 
 /**
  * Controlador da interface de conexão do Cliente do Jogo Semáforo.
@@ -25,9 +31,13 @@ public class ConnectionController {
     @FXML private TextField txtIp;
     @FXML private TextField txtPorta;
     @FXML private TextField txtNome;
+    @FXML private TextField txtMesa;
+
+    /** Tamanho máximo do nome, para caber numa trama de fim de jogo */
+    private static final int MAXIMO_NOME = 32;
 
-    /** Socket usado para comunicar com o servidor */
-    private Socket socket;
+    /** Sessão com o servidor, aberta ao conectar */
+    private Sessao sessao;
 
     /**
      * Método chamado ao clicar no botão "Conectar".
@@ -44,6 +54,11 @@ public class ConnectionController {
             return;
         }
 
+        if (nome.length() > MAXIMO_NOME) {
+            mostrarAlerta("O nome não pode ter mais de " + MAXIMO_NOME + " caracteres.");
+            return;
+        }
+
         int porta;
         try {
             porta = Integer.parseInt(portaStr);
@@ -51,36 +66,151 @@ public class ConnectionController {
             mostrarAlerta("Porta inválida.");
             return;
         }
+        if (!portaValida(porta)) {
+            mostrarAlerta("Porta inválida.");
+            return;
+        }
+
+        // Dimensões do tabuleiro pedidas com -Dsemaforo.geometria; o servidor anuncia as da partida
+        Geometria geometria;
+        try {
+            geometria = Geometria.porOmissao();
+        } catch (IllegalArgumentException e) {
+            mostrarAlerta(e.getMessage());
+            return;
+        }
 
         // Conectar em background para não bloquear a UI
-        new Thread(() -> {
+        Sessao.ligar(ip, porta).whenComplete((nova, erro) -> Platform.runLater(() -> {
+            if (erro != null) {
+                Throwable causa = erro.getCause() != null ? erro.getCause() : erro;
+                mostrarAlerta("Erro ao conectar ao servidor:\n" + causa.getMessage());
+                return;
+            }
+            sessao = nova;
             try {
-                socket = new Socket(ip, porta);
-
-                DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
-                dos.writeUTF("Jogador " + nome + " conectado!");
-
-                Platform.runLater(() -> {
-                    try {
-                        FXMLLoader loader = new FXMLLoader(App.class.getResource("rules.fxml"));
-                        Parent root = loader.load();
-                        RulesController controller = loader.getController();
-                        controller.setSocket(socket);
-                        controller.setNomeJogador(nome);  // Passa o nome do jogador ao próximo controlador
-                        App.getScene().setRoot(root);
-                    } catch (IOException e) {
-                        mostrarAlerta("Erro ao mudar de ecrã: " + e.getMessage());
-                    }
-                });
-
-                // O socket permanece aberto para uso posterior (ex: no ecrã de regras e jogo)
+                // Saudação em texto, com as capacidades oferecidas (ex: protocolo binário)
+                sessao.enviar(new Mensagem().ola(nome, Protocolo.capacidadesPorOmissao()));
+                if (!geometria.equals(Geometria.PADRAO)) sessao.enviar(new Mensagem().geometria(geometria));
 
+                FXMLLoader loader = Ecras.carregar("rules");
+                Parent root = loader.getRoot();
+                RulesController controller = loader.getController();
+                controller.setSessao(sessao);
+                controller.setNomeJogador(nome);  // Passa o nome do jogador ao próximo controlador
+                App.mostrar(root);
             } catch (IOException e) {
-                Platform.runLater(() ->
-                    mostrarAlerta("Erro ao conectar ao servidor:\n" + e.getMessage())
-                );
+                mostrarAlerta("Erro ao mudar de ecrã: " + e.getMessage());
             }
-        }).start();
+
+            // A sessão permanece aberta para uso posterior (ex: no ecrã de regras e jogo)
+        }));
+    }
+
+    /**
+     * Método chamado ao clicar no botão "ASSISTIR".
+     * Liga ao servidor como espectador e mostra a mesa indicada, ou a mais
+     * concorrida se o número da mesa ficar em branco.
+     */
+    @FXML
+    private void assistir() {
+        String ip = txtIp.getText().trim();
+        String portaStr = txtPorta.getText().trim();
+        String nome = txtNome.getText().trim();
+        String mesaStr = txtMesa.getText().trim();
+
+        if (ip.isEmpty() || portaStr.isEmpty()) {
+            mostrarAlerta("Indique o IP e a porta do servidor.");
+            return;
+        }
+
+        int porta, mesa;
+        try {
+            porta = Integer.parseInt(portaStr);
+            mesa = mesaStr.isEmpty() ? Mensagem.QUALQUER_MESA : Integer.parseInt(mesaStr);
+        } catch (NumberFormatException e) {
+            mostrarAlerta("Porta ou mesa inválida.");
+            return;
+        }
+        if (!portaValida(porta)) {
+            mostrarAlerta("Porta inválida.");
+            return;
+        }
+
+        Sessao.ligar(ip, porta).whenComplete((nova, erro) -> Platform.runLater(() -> {
+            if (erro != null) {
+                Throwable causa = erro.getCause() != null ? erro.getCause() : erro;
+                mostrarAlerta("Erro ao conectar ao servidor:\n" + causa.getMessage());
+                return;
+            }
+            sessao = nova;
+            try {
+                sessao.enviar(new Mensagem().ola(nome.isEmpty() || nome.length() > MAXIMO_NOME ? "Espectador" : nome,
+                        Protocolo.capacidadesPorOmissao()));
+                FXMLLoader loader = Ecras.carregar("game");
+                Parent root = loader.getRoot();
+                GameController controller = loader.getController();
+                controller.assistir(sessao, mesa);
+                App.mostrar(root);
+            } catch (IOException e) {
+                mostrarAlerta("Erro ao mudar de ecrã: " + e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Método chamado ao clicar no botão "JOGAR CONTRA O COMPUTADOR".
+     * Abre o tabuleiro num jogo local, sem ligação ao servidor.
+     */
+    @FXML
+    private void jogarContraComputador() {
+        String nome = txtNome.getText().trim();
+        try {
+            FXMLLoader loader = Ecras.carregar("game");
+            Parent root = loader.getRoot();
+            GameController controller = loader.getController();
+            controller.setNomeJogador(nome.isEmpty() ? "Jogador" : nome);
+            controller.iniciarContraComputador();
+            App.mostrar(root);
+            TemposArranque.jogoPronto(App.getScene());
+        } catch (IOException e) {
+            mostrarAlerta("Erro ao mudar de ecrã: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Método chamado ao clicar no botão "REVER JOGOS".
+     * Escolhe um ficheiro de registo e revê os seus jogos no tabuleiro.
+     */
+    @FXML
+    private void reverJogos() {
+        FileChooser escolha = new FileChooser();
+        escolha.setTitle("Rever jogos");
+        escolha.getExtensionFilters().add(new FileChooser.ExtensionFilter("Registo de jogos", "*.smg"));
+        Path registo = App.getRegisto();
+        if (registo != null && Files.isDirectory(registo.toAbsolutePath().getParent())) {
+            escolha.setInitialDirectory(registo.toAbsolutePath().getParent().toFile());
+            escolha.setInitialFileName(registo.getFileName().toString());
+        }
+        File ficheiro = escolha.showOpenDialog(App.getScene().getWindow());
+        if (ficheiro == null) return;
+        try {
+            FXMLLoader loader = Ecras.carregar("game");
+            Parent root = loader.getRoot();
+            GameController controller = loader.getController();
+            controller.rever(ficheiro.toPath());
+            App.mostrar(root);
+        } catch (IOException e) {
+            mostrarAlerta("Não foi possível abrir o registo:\n" + e.getMessage());
+        }
+    }
+
+    /**
+     * @param porta porta indicada
+     * @return true se for uma porta TCP (0 a 65535)
+     */
+    private static boolean portaValida(int porta) {
+        return porta >= 0 && porta <= 0xFFFF;
     }
 
     /**
@@ -0,0 +1,106 @@
+package com.mycompany.clientesemaforo;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.BackgroundPosition;
+import javafx.scene.layout.BackgroundRepeat;
+import javafx.scene.layout.BackgroundSize;
+import javafx.scene.layout.Region;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carregamento antecipado dos ecrãs e da imagem de fundo.
+ *
+ * Enquanto o utilizador está num ecrã, os FXML dos seguintes são lidos em
+ * tarefas do âmbito da aplicação ({@link Tarefas}), um de cada vez. O JavaFX permite criar nós fora da thread da interface desde
+ * que ainda não pertençam a uma cena visível, pelo que o ecrã fica pronto a
+ * mostrar, com o controlador já inicializado. Cada ecrã pré-carregado só é
+ * usado uma vez.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Ecras {
+
+    private static final Executor FUNDO = Tarefas.aplicacao().executor("precarga");
+
+    /** Os FXML são lidos um de cada vez, como na thread da interface */
+    private static final ReentrantLock LEITURA = new ReentrantLock();
+
+    private static final Map<String, CompletableFuture<FXMLLoader>> PRONTOS = new ConcurrentHashMap<>();
+
+    /** Imagem de fundo, descodificada em segundo plano desde o arranque */
+    private static final CompletableFuture<Background> IMAGEM_FUNDO = CompletableFuture.supplyAsync(() -> {
+        Image imagem = new Image(App.class.getResource("madeira.jpg").toExternalForm());
+        return new Background(new BackgroundImage(imagem, BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT,
+                BackgroundPosition.CENTER, new BackgroundSize(1, 1, true, true, false, true)));
+    }, FUNDO);
+
+    private Ecras() {
+    }
+
+    /**
+     * Começa a carregar ecrãs em segundo plano, se ainda não estiverem a ser carregados.
+     *
+     * @param nomes nomes dos ficheiros FXML, sem extensão
+     */
+    static void preCarregar(String... nomes) {
+        for (String nome : nomes)
+            PRONTOS.computeIfAbsent(nome, n -> CompletableFuture.supplyAsync(() -> ler(n), FUNDO));
+    }
+
+    /**
+     * Devolve um ecrã carregado, usando o pré-carregado se existir.
+     *
+     * @param nome nome do ficheiro FXML, sem extensão
+     * @return loader já carregado, com a raiz e o controlador
+     * @throws IOException se o FXML não puder ser lido
+     */
+    static FXMLLoader carregar(String nome) throws IOException {
+        CompletableFuture<FXMLLoader> pronto = PRONTOS.remove(nome);
+        if (pronto != null) {
+            try {
+                return pronto.join();
+            } catch (CompletionException e) {
+                // Tenta outra vez na thread da interface, onde o erro é tratado pelo chamador
+            }
+        }
+        FXMLLoader loader = new FXMLLoader(App.class.getResource(nome + ".fxml"));
+        loader.load();
+        return loader;
+    }
+
+    /**
+     * Aplica o fundo de madeira a um ecrã, esperando pela imagem se ainda não estiver pronta.
+     *
+     * @param raiz raiz do ecrã
+     */
+    static void aplicarFundo(Parent raiz) {
+        if (raiz instanceof Region) ((Region) raiz).setBackground(IMAGEM_FUNDO.join());
+    }
+
+    private static FXMLLoader ler(String nome) {
+        FXMLLoader loader = new FXMLLoader(App.class.getResource(nome + ".fxml"));
+        LEITURA.lock();
+        try {
+            loader.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            LEITURA.unlock();
+        }
+        return loader;
+    }
+}
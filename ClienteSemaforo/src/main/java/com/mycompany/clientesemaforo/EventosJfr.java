@@ -0,0 +1,84 @@
+package com.mycompany.clientesemaforo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * Eventos JFR do cliente, na categoria "Semáforo" de uma gravação
+ * ({@code -XX:StartFlightRecording} ou {@code jcmd <pid> JFR.start}).
+ * Com a gravação desligada, criar e confirmar um evento não custa quase nada.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class EventosJfr {
+
+    private EventosJfr() {
+    }
+
+    @Name("com.mycompany.semaforo.Eco")
+    @Label("Eco de jogada")
+    @Category("Semáforo")
+    @Description("Tempo entre enviar uma jogada e receber o eco do servidor")
+    static final class Eco extends Event {
+        @Label("Latência")
+        @Timespan(Timespan.MICROSECONDS)
+        long latencia;
+    }
+
+    @Name("com.mycompany.semaforo.FilaInterface")
+    @Label("Fila da interface")
+    @Category("Semáforo")
+    @Description("Tempo entre ler mensagens do socket e tratá-las na thread da interface")
+    static final class FilaInterface extends Event {
+        @Label("Atraso")
+        @Timespan(Timespan.MICROSECONDS)
+        long atraso;
+
+        @Label("Eventos entregues")
+        int eventos;
+    }
+
+    @Name("com.mycompany.semaforo.Religacao")
+    @Label("Religação")
+    @Category("Semáforo")
+    static final class Religacao extends Event {
+        @Label("Motivo")
+        String motivo;
+
+        @Label("Tentativa")
+        int tentativa;
+    }
+
+    @Name("com.mycompany.semaforo.Erro")
+    @Label("Erro")
+    @Category("Semáforo")
+    static final class Erro extends Event {
+        @Label("Origem")
+        String origem;
+
+        @Label("Mensagem")
+        String mensagem;
+    }
+
+    @Name("com.mycompany.semaforo.Trafego")
+    @Label("Tráfego")
+    @Category("Semáforo")
+    @Period("1 s")
+    static final class Trafego extends Event {
+        @Label("Mensagens por segundo")
+        double mensagens;
+
+        @Label("Bytes por segundo")
+        double bytes;
+
+        @Label("Fila de saída")
+        int filaSaida;
+    }
+}
@@ -3,61 +3,249 @@ package com.mycompany.clientesemaforo;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Polygon;
-import javafx.scene.shape.Rectangle;
-
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.HistoriaJogo;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.motor.Motor;
+import com.mycompany.nucleosemaforo.registo.FormatoRegisto;
+import com.mycompany.nucleosemaforo.registo.GravadorJogos;
+import com.mycompany.nucleosemaforo.registo.LeitorJogos;
+import com.mycompany.nucleosemaforo.tablebase.Tablebase;
+
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
 
 /**
  * Controlador da interface do tabuleiro do Cliente no Jogo Semáforo.
- * Controla a lógica do jogo entre dois jogadores com comunicação via socket.
+ * Controla a lógica do jogo entre dois jogadores com comunicação via socket,
+ * ou de um jogador contra o computador. Serve também para assistir a uma
+ * mesa do servidor, só de leitura, e para rever jogos registados.
+ * 
+ * Numa sessão com vários jogos, cada instância mostra um deles ({@link Mesa})
+ * e marca com o seu número tudo o que envia.
  * 
  * Permite jogar alternadamente, exibe o estado do jogo, processa jogadas
- * e controla reinícios ou saídas.
+ * e controla reinícios ou saídas. As posições do jogo ficam numa
+ * {@link HistoriaJogo}, que o navegador por baixo do tabuleiro percorre;
+ * contra o computador, jogar numa posição anterior desfaz as seguintes.
+ * Depois de recomeçar, o navegador continua a percorrer o jogo terminado
+ * até à primeira jogada do novo.
  * 
  * @author Grupo 07
  * @version 1.0
  * @since 2025-06-16
  */
-public class GameController {
+public class GameController implements OuvinteJogo {
 
     @FXML private Label lblEstado;
-    @FXML private Label lblVerdes, lblAmarelas, lblVermelhas;
+    @FXML private Label lblVerdes, lblAmarelas, lblVermelhas, lblSugestao, lblMesa, lblAnalise;
+    @FXML private CheckBox chkAnalise;
     @FXML private GridPane grid;
-    @FXML private Button btnRecomecar, btnSair;
+    @FXML private Button btnRecomecar, btnSair, btnAnterior, btnSeguinte;
+    @FXML private Slider sldJogadas;
+    @FXML private Label lblJogada;
 
-    private Socket socket;
-    private DataOutputStream dos;
-    private DataInputStream dis;
+    private Sessao sessao;
+
+    /** Número do jogo na sessão (0 para o jogo principal) */
+    private int jogo;
+
+    /** O que fazer ao sair de um jogo que não é o principal; null para sair da aplicação */
+    private Runnable aoSair;
+
+    /** Mensagem reutilizada para tudo o que é enviado a partir da thread da interface */
+    private final Mensagem saida = new Mensagem();
     private boolean minhaVez;
-    private int verdes = 8, amarelas = 8, vermelhas = 8;
     private boolean jogoFinalizado = false;
-    private String[][] tabuleiro = new String[3][4];
+    private long tabuleiro = Tabuleiro.INICIAL;
+    private CelulaTabuleiro[] celulas;
+
+    /** Posições do jogo mostrado, da primeira à atual */
+    private HistoriaJogo historia = HistoriaJogo.inicio(Tabuleiro.INICIAL);
+
+    /** Jogo terminado antes de recomeçar, percorrido pelo navegador até à primeira jogada do novo */
+    private HistoriaJogo terminada;
+
+    /** Jogada mostrada pelo navegador, ou -1 para acompanhar o jogo */
+    private int jogadaVista = -1;
+
+    /** true enquanto o navegador é atualizado pelo código, e não pelo utilizador */
+    private boolean atualizandoNavegador;
+
+    /** Dimensões do tabuleiro, anunciadas pelo servidor no início da partida */
+    private Geometria geometria = Geometria.PADRAO;
     private String nomeJogador = "Jogador";
     private String nomeAdversario = "Adversário";
 
+    /** Tempo de pesquisa do computador por jogada, em milissegundos */
+    private static final long TEMPO_COMPUTADOR_MS = Long.getLong("semaforo.computador.tempo", 100);
+
+    /** Motor de pesquisa, presente apenas no modo contra o computador */
+    private Motor motor;
+
+    /** Uma pesquisa de cada vez; um ReentrantLock não prende a thread de suporte da tarefa virtual */
+    private final ReentrantLock pesquisa = new ReentrantLock();
+    private boolean computadorComeca = false;
+
+    /** Tablebase para sugestões e para o computador jogar na perfeição (opcional) */
+    private final Tablebase tablebase = App.getTablebase();
+
+    /** Incrementado a cada jogo ou cancelamento, para descartar pesquisas antigas */
+    private int geracao = 0;
+
+    /** Registo dos jogos (null se estiver desligado) */
+    private GravadorJogos gravador = App.getGravador();
+
+    /** Intervalo entre jogadas ao rever um registo, em milissegundos */
+    private static final long PASSO_REVISAO_MS = Long.getLong("semaforo.revisao.passo", 400);
+
+    /** Mesa assistida, no modo de espectador (-1 se estiver a jogar) */
+    private int mesaAssistida = -1;
+
+    /** Painel lateral de análise da posição */
+    private PainelAnalise painelAnalise;
+
+    /** Leitor e animação do modo de revisão; null durante um jogo */
+    private LeitorJogos revisao;
+    private Timeline animacao;
+
     /**
-     * Define o socket de comunicação e inicia a escuta por jogadas.
+     * Define a sessão com o servidor e passa a receber os seus eventos.
      * 
-     * @param socket socket TCP com o servidor
+     * @param sessao sessão com o servidor
      */
-    public void setSocket(Socket socket) {
-        this.socket = socket;
-        try {
-            this.dos = new DataOutputStream(socket.getOutputStream());
-            this.dis = new DataInputStream(socket.getInputStream());
-            esperarJogadas();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public void setSessao(Sessao sessao) {
+        this.sessao = sessao;
+        sessao.setOuvinte(jogo, this);
+    }
+
+    /**
+     * Mostra um dos jogos de uma sessão com vários jogos, a partir do resumo
+     * guardado enquanto o seu separador estava fechado. Os eventos seguintes
+     * chegam através da mesa, que já é o ouvinte do jogo na sessão.
+     *
+     * @param sessao sessão com o servidor
+     * @param mesa resumo do jogo
+     */
+    void abrirMesa(Sessao sessao, Mesa mesa) {
+        this.sessao = sessao;
+        jogo = mesa.getJogo();
+        setGeometria(mesa.getGeometria());
+        if (mesa.getNumero() >= 0) lblMesa.setText("Mesa " + mesa.getNumero());
+        btnSair.setVisible(true);
+        if (mesa.getMesaAssistida() >= 0) {
+            mesaAssistida = mesa.getMesaAssistida();
+            jogoFinalizado = true;
+            if (mesa.isIniciada()) sincronizar(mesa.getTabuleiro(), mesa.isComecou());
+            else lblEstado.setText("À procura da mesa...");
+            return;
+        }
+        if (!mesa.isIniciada()) {
+            lblEstado.setText("À espera de adversário...");
+            return;
         }
+        sincronizar(mesa.getTabuleiro(), mesa.isComecou());
+        if (mesa.isSaiu()) saiu();
+    }
+
+    /**
+     * Define o que fazer quando o jogador sai deste jogo, em vez de sair da aplicação.
+     *
+     * @param aoSair ação a executar na thread da interface
+     */
+    public void setAoSair(Runnable aoSair) {
+        this.aoSair = aoSair;
+    }
+
+    /**
+     * Para as pesquisas e a análise em curso, quando o ecrã é fechado sem sair da aplicação.
+     */
+    public void parar() {
+        cancelarPesquisa();
+        painelAnalise.parar();
+    }
+
+    /** @return tabuleiro compacto mostrado */
+    public long getTabuleiro() {
+        return tabuleiro;
+    }
+
+    /** @return true se o jogo está em curso e é a vez do jogador */
+    public boolean isMinhaVez() {
+        return minhaVez && !jogoFinalizado;
+    }
+
+    /**
+     * Assiste a uma mesa do servidor: o tabuleiro só mostra as jogadas
+     * recebidas e não aceita cliques.
+     *
+     * @param sessao sessão com o servidor, já saudado
+     * @param mesa número da mesa, ou {@link Mensagem#QUALQUER_MESA}
+     * @throws IOException se o pedido não puder ser enviado
+     */
+    public void assistir(Sessao sessao, int mesa) throws IOException {
+        mesaAssistida = mesa;
+        jogoFinalizado = true;
+        setSessao(sessao);
+        lblEstado.setText("À procura da mesa...");
+        btnSair.setVisible(true);
+        enviar(saida.assistir(mesa));
+    }
+
+    /**
+     * Inicia um jogo local contra o computador, sem ligação ao servidor.
+     * O jogador começa o primeiro jogo; nos seguintes a vez de começar alterna.
+     */
+    public void iniciarContraComputador() {
+        motor = new Motor();
+        nomeAdversario = "Computador";
+        iniciarJogo(true);
+    }
+
+    /**
+     * Começa um jogo e o seu registo.
+     *
+     * @param comecar true se este jogador faz a primeira jogada
+     */
+    public void iniciarJogo(boolean comecar) {
+        int flags = (comecar ? FormatoRegisto.COMECOU : 0) | (motor != null ? FormatoRegisto.COMPUTADOR : 0);
+        registar(g -> g.iniciar(flags));
+        setMinhaVez(comecar);
+    }
+
+    /**
+     * Muda as dimensões do tabuleiro, recriando as células se forem outras.
+     * O computador e as sugestões só existem no tabuleiro {@link Geometria#PADRAO}.
+     *
+     * @param geometria dimensões do tabuleiro
+     */
+    public void setGeometria(Geometria geometria) {
+        if (geometria.equals(this.geometria)) return;
+        this.geometria = geometria;
+        criarTabuleiro();
+        desenharTabuleiro();
+        atualizarContadores();
+        atualizarAnalise();
+    }
+
+    @Override
+    public void geometria(Geometria geometria) {
+        setGeometria(geometria);
     }
 
     /**
@@ -67,226 +255,622 @@ public class GameController {
     public void initialize() {
         criarTabuleiro();
         atualizarContadores();
+        painelAnalise = new PainelAnalise(lblAnalise);
+        painelAnalise.setLigado(false);
+        sldJogadas.valueProperty().addListener((obs, antes, valor) -> {
+            if (!atualizandoNavegador) verJogada((int) Math.round(valor.doubleValue()));
+        });
+        atualizarNavegador();
         lblEstado.setText("A espera da jogada adversária");
         btnRecomecar.setVisible(false);
         btnSair.setVisible(false);
     }
 
     /**
-     * Cria o tabuleiro inicial com células clicáveis.
+     * Cria as células clicáveis do tabuleiro; são criadas uma só vez e
+     * reutilizadas em todos os jogos.
      */
     private void criarTabuleiro() {
         grid.getChildren().clear();
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 4; j++) {
-                StackPane cell = new StackPane();
-                cell.setPrefSize(80, 80);
-                cell.setStyle("-fx-border-color: black; -fx-background-color: white;");
+        celulas = new CelulaTabuleiro[geometria.getCelulas()];
+        for (int i = 0; i < geometria.getLinhas(); i++) {
+            for (int j = 0; j < geometria.getColunas(); j++) {
+                CelulaTabuleiro cell = new CelulaTabuleiro();
                 int row = i;
                 int col = j;
                 cell.setOnMouseClicked(e -> tratarJogada(cell, row, col));
+                celulas[geometria.celula(row, col)] = cell;
                 grid.add(cell, j, i);
             }
         }
     }
 
+    /**
+     * Mostra em todas as células as peças do tabuleiro atual.
+     */
+    private void desenharTabuleiro() {
+        desenhar(tabuleiro);
+    }
+
+    /**
+     * Mostra em todas as células as peças de uma posição.
+     */
+    private void desenhar(long posicao) {
+        for (int i = 0; i < celulas.length; i++) celulas[i].mostrar(Tabuleiro.celula(posicao, i));
+    }
+
     /**
      * Trata o clique do jogador numa célula do tabuleiro.
-     * Executa a jogada e envia ao servidor.
+     * Executa a jogada, se for legal, e envia ao servidor.
      */
-    private void tratarJogada(StackPane cell, int row, int col) {
+    private void tratarJogada(CelulaTabuleiro cell, int row, int col) {
+        if (jogadaVista >= 0 && !desfazerAteVista()) return;
         if (!minhaVez || jogoFinalizado) return;
 
-        if (cell.getChildren().isEmpty() && verdes > 0) {
-            Circle circle = new Circle(25);
-            circle.setFill(Color.web("#58d68d"));
-            cell.getChildren().add(circle);
-            verdes--;
-            tabuleiro[row][col] = "verde";
-            enviarJogada(row, col, "verde");
-            if (verificarVitoria("verde")) {
+        int celula = geometria.celula(row, col);
+        if (!geometria.jogadaLegal(tabuleiro, celula)) return;
+
+        tabuleiro = Regras.jogar(tabuleiro, celula);
+        int cor = Tabuleiro.celula(tabuleiro, celula);
+        cell.mostrar(cor);
+        atualizarContadores();
+        registarPosicao();
+        enviarJogada(row, col, cor);
+
+        switch (geometria.resultado(tabuleiro, celula)) {
+            case Regras.VITORIA:
                 fimDeJogo(nomeJogador + " venceu!!");
-                try { dos.writeUTF("FIM:" + nomeJogador); } catch (IOException e) {}
-                return;
-            }
-        } else if (!cell.getChildren().isEmpty()) {
-            if (cell.getChildren().get(0) instanceof Circle && amarelas > 0) {
-                cell.getChildren().clear();
-                Polygon triangle = new Polygon(30.0, 0.0, 60.0, 60.0, 0.0, 60.0);
-                triangle.setFill(Color.web("#f4d03f"));
-                cell.getChildren().add(triangle);
-                amarelas--;
-                tabuleiro[row][col] = "amarelo";
-                enviarJogada(row, col, "amarelo");
-                if (verificarVitoria("amarelo")) {
-                    fimDeJogo(nomeJogador + " venceu!!");
-                    try { dos.writeUTF("FIM:" + nomeJogador); } catch (IOException e) {}
-                    return;
-                }
-            } else if (cell.getChildren().get(0) instanceof Polygon && vermelhas > 0) {
-                cell.getChildren().clear();
-                Rectangle square = new Rectangle(50, 50);
-                square.setFill(Color.web("#e74c3c"));
-                cell.getChildren().add(square);
-                vermelhas--;
-                tabuleiro[row][col] = "vermelho";
-                enviarJogada(row, col, "vermelho");
-                if (verificarVitoria("vermelho")) {
-                    fimDeJogo(nomeJogador + " venceu!!");
-                    try { dos.writeUTF("FIM:" + nomeJogador); } catch (IOException e) {}
-                    return;
+                if (motor == null) {
+                    try { enviar(saida.fim(nomeJogador)); } catch (IOException e) { App.getMetricas().erro("enviar fim de jogo", e); }
                 }
-            }
+                return;
+            case Regras.EMPATE:
+                fimDeJogo("Empate! Não há mais jogadas possíveis.");
+                return;
+            default:
+                break;
         }
 
-        minhaVez = false;
-        atualizarContadores();
-        lblEstado.setText("A espera da jogada adversária");
+        setMinhaVez(false);
+        if (motor != null) jogadaComputador();
     }
 
     /**
      * Envia uma jogada ao servidor.
      */
-    private void enviarJogada(int row, int col, String tipo) {
+    private void enviarJogada(int row, int col, int cor) {
+        int celula = geometria.celula(row, col);
+        registar(g -> g.jogada(celula));
+        if (motor != null) return;
         try {
-            dos.writeUTF("JOGADA:" + row + ":" + col + ":" + tipo);
+            enviar(saida.jogada(row, col, cor));
         } catch (IOException e) {
-            e.printStackTrace();
+            App.getMetricas().erro("enviar jogada", e);
         }
     }
 
     /**
-     * Fica à escuta de mensagens recebidas do servidor.
+     * Pede ao motor a jogada do computador, numa tarefa do ecrã para não
+     * bloquear a interface, e aplica-a quando a pesquisa termina. Sair do
+     * ecrã interrompe a tarefa e a pesquisa para.
      */
-    private void esperarJogadas() {
-        new Thread(() -> {
-            try {
-                while (true) {
-                    String msg = dis.readUTF();
-                    if (msg.startsWith("JOGADA")) {
-                        String[] partes = msg.split(":");
-                        int row = Integer.parseInt(partes[1]);
-                        int col = Integer.parseInt(partes[2]);
-                        String tipo = partes[3];
-                        Platform.runLater(() -> aplicarJogadaAdversario(row, col, tipo));
-                    } else if (msg.equals("COMEÇAR")) {
-                        Platform.runLater(() -> setMinhaVez(true));
-                    } else if (msg.equals("ESPERAR")) {
-                        Platform.runLater(() -> setMinhaVez(false));
-                    } else if (msg.startsWith("FIM:")) {
-                        String nomeVencedor = msg.substring(4);
-                        Platform.runLater(() -> fimDeJogo(nomeVencedor + " venceu!!"));
-                    } else if (msg.equals("SAIU")) {
-                        Platform.runLater(() -> fimDeJogo("O adversário saiu do jogo."));
-                    } else if (msg.startsWith("NOVO_JOGO")) {
-                        String[] partes = msg.split(":");
-                        Platform.runLater(() -> {
-                            resetarJogo();
-                            if (partes.length > 1 && partes[1].equals("COMEÇAR")) {
-                                setMinhaVez(true);
-                            } else {
-                                setMinhaVez(false);
-                            }
-                        });
-                    }
+    private void jogadaComputador() {
+        long posicao = tabuleiro;
+        int jogo = geracao;
+        // Um cancelamento enquanto a tarefa espera pela pesquisa anterior também conta
+        int pedido = motor.getGeracao();
+        App.getAmbitoEcra().iniciar("motor", () -> {
+            int celula;
+            if (tablebase != null) {
+                celula = tablebase.melhorJogada(posicao);
+            } else {
+                // Uma pesquisa cancelada pode ainda estar a terminar; o motor só faz uma de cada vez
+                pesquisa.lock();
+                try {
+                    celula = motor.pesquisar(posicao, Integer.MAX_VALUE, TEMPO_COMPUTADOR_MS,
+                            Thread.currentThread()::isInterrupted, pedido).getCelula();
+                } finally {
+                    pesquisa.unlock();
                 }
+            }
+            if (celula < 0 || Thread.currentThread().isInterrupted()) return;
+            int cor = Regras.proximaCor(posicao, celula);
+            Platform.runLater(() -> {
+                if (jogo == geracao)
+                    aplicarJogadaAdversario(celula / Tabuleiro.COLUNAS, celula % Tabuleiro.COLUNAS, cor);
+            });
+        });
+    }
+
+    /**
+     * Envia uma mensagem ao servidor, marcada com o número deste jogo.
+     */
+    private void enviar(Mensagem m) throws IOException {
+        sessao.enviar(m.paraJogo(jogo));
+    }
+
+    /**
+     * Cancela a pesquisa do computador em curso, se houver, e descarta o seu resultado.
+     */
+    private void cancelarPesquisa() {
+        geracao++;
+        if (motor != null) motor.cancelar();
+    }
+
+    @Override
+    public void jogada(int linha, int coluna, int cor) {
+        if (mesaAssistida >= 0) {
+            int celula = geometria.celula(linha, coluna);
+            tabuleiro = Tabuleiro.colocar(tabuleiro, celula, cor);
+            celulas[celula].mostrar(cor);
+            atualizarContadores();
+            registarPosicao();
+            atualizarAnalise();
+            if (geometria.resultado(tabuleiro, celula) == Regras.EMPATE) lblEstado.setText("Empate! Não há mais jogadas possíveis.");
+            return;
+        }
+        aplicarJogadaAdversario(linha, coluna, cor);
+    }
+
+    @Override
+    public void comecar() {
+        setMinhaVez(true);
+    }
+
+    @Override
+    public void esperar() {
+        setMinhaVez(false);
+    }
+
+    @Override
+    public void fim(String vencedor) {
+        if (mesaAssistida >= 0) {
+            lblEstado.setText(vencedor + " venceu!!");
+            return;
+        }
+        fimDeJogo(vencedor + " venceu!!");
+    }
+
+    @Override
+    public void saiu() {
+        if (mesaAssistida >= 0) {
+            lblEstado.setText(lblMesa.getText().isEmpty() ? "Mesa não encontrada." : "A mesa terminou.");
+            return;
+        }
+        fimDeJogo("O adversário saiu do jogo.");
+    }
+
+    @Override
+    public void novoJogo(boolean comecar) {
+        if (mesaAssistida >= 0) {
+            sincronizar(Tabuleiro.INICIAL, comecar);
+            return;
+        }
+        resetarJogo();
+        iniciarJogo(comecar);
+    }
+
+    @Override
+    public void ligacaoPerdida(String motivo) {
+        fimDeJogo("Ligação ao servidor perdida.");
+        btnRecomecar.setVisible(false);
+    }
+
+    @Override
+    public void ligacaoInterrompida() {
+        if (!jogoFinalizado) lblEstado.setText("Ligação interrompida, a restabelecer...");
+    }
+
+    @Override
+    public void ligacaoRetomada() {
+        if (mesaAssistida >= 0) {
+            // A transmissão não é retomada: volta a pedir a mesa, que começa pelo estado completo
+            try {
+                enviar(saida.assistir(mesaAssistida));
             } catch (IOException e) {
-                e.printStackTrace();
+                // A ligação voltou a cair; será retomada de novo
             }
-        }).start();
+            return;
+        }
+        if (!jogoFinalizado) setMinhaVez(minhaVez);
+    }
+
+    @Override
+    public void mesa(int mesa) {
+        lblMesa.setText("Mesa " + mesa);
+        // Ao assistir a qualquer mesa, fica-se nesta se a ligação for retomada
+        if (mesaAssistida == Mensagem.QUALQUER_MESA) mesaAssistida = mesa;
     }
 
     /**
-     * Aplica a jogada recebida do adversário.
+     * Substitui o tabuleiro pelo estado enviado pelo servidor, depois de uma
+     * ligação retomada com demasiadas mensagens em falta.
      */
-    private void aplicarJogadaAdversario(int row, int col, String tipo) {
-        StackPane cell = (StackPane) grid.getChildren().get(row * 4 + col);
-        cell.getChildren().clear();
+    @Override
+    public void sincronizar(long tabuleiro, boolean comecou) {
+        if (mesaAssistida >= 0) {
+            this.tabuleiro = tabuleiro;
+            desenharTabuleiro();
+            atualizarContadores();
+            reiniciarHistoria();
+            atualizarAnalise();
+            lblEstado.setText(geometria.resultado(tabuleiro) != Regras.EM_CURSO ? "Jogo terminado" : "A assistir");
+            return;
+        }
+        // As jogadas em falta não são conhecidas, pelo que o jogo fica registado só até aqui
+        registar(g -> g.terminar(FormatoRegisto.INTERROMPIDO));
+        resetarJogo();
+        this.tabuleiro = tabuleiro;
+        desenharTabuleiro();
+        atualizarContadores();
+        // As posições anteriores não são conhecidas: a história começa aqui
+        reiniciarHistoria();
 
-        switch (tipo) {
-            case "verde":
-                cell.getChildren().add(new Circle(25, Color.web("#58d68d")));
-                break;
-            case "amarelo":
-                Polygon triangle = new Polygon(30.0, 0.0, 60.0, 60.0, 0.0, 60.0);
-                triangle.setFill(Color.web("#f4d03f"));
-                cell.getChildren().add(triangle);
+        boolean vez = Regras.vezDoPrimeiro(tabuleiro) == comecou;
+        switch (geometria.resultado(tabuleiro)) {
+            case Regras.VITORIA:
+                // Quem tem a vez não fez a última jogada, logo perdeu
+                fimDeJogo(vez ? "Vitória do adversário" : nomeJogador + " venceu!!");
+                return;
+            case Regras.EMPATE:
+                fimDeJogo("Empate! Não há mais jogadas possíveis.");
+                return;
+            default:
                 break;
-            case "vermelho":
-                Rectangle square = new Rectangle(50, 50);
-                square.setFill(Color.web("#e74c3c"));
-                cell.getChildren().add(square);
+        }
+        setMinhaVez(vez);
+    }
+
+    /**
+     * Aplica a jogada recebida do adversário.
+     */
+    private void aplicarJogadaAdversario(int row, int col, int cor) {
+        int celula = geometria.celula(row, col);
+        tabuleiro = Tabuleiro.colocar(tabuleiro, celula, cor);
+        celulas[celula].mostrar(cor);
+        registar(g -> g.jogada(celula));
+        atualizarContadores();
+        registarPosicao();
+
+        switch (geometria.resultado(tabuleiro, celula)) {
+            case Regras.VITORIA:
+                fimDeJogo("Vitória do adversário");
+                return;
+            case Regras.EMPATE:
+                fimDeJogo("Empate! Não há mais jogadas possíveis.");
+                return;
+            default:
                 break;
         }
-        tabuleiro[row][col] = tipo;
 
-        if (verificarVitoria(tipo)) {
-            fimDeJogo("Vitória do adversário");
+        setMinhaVez(true);
+    }
+
+    /**
+     * Atualiza os contadores de peças visuais (as peças são partilhadas pelos dois jogadores).
+     */
+    private void atualizarContadores() {
+        atualizarContadores(tabuleiro);
+    }
+
+    /**
+     * Atualiza os contadores de peças para uma posição.
+     */
+    private void atualizarContadores(long posicao) {
+        lblVerdes.setText("Peças Verdes: " + geometria.disponiveis(posicao, Tabuleiro.VERDE));
+        lblAmarelas.setText("Peças Amarelas: " + geometria.disponiveis(posicao, Tabuleiro.AMARELO));
+        lblVermelhas.setText("Peças Vermelhas: " + geometria.disponiveis(posicao, Tabuleiro.VERMELHO));
+    }
+
+    /**
+     * Acrescenta à história a posição atual, depois de uma jogada. Se o
+     * navegador estava numa jogada anterior, volta a mostrar o jogo.
+     */
+    private void registarPosicao() {
+        historia = historia.jogar(tabuleiro);
+        terminada = null;
+        if (jogadaVista >= 0) {
+            jogadaVista = -1;
+            desenharTabuleiro();
+            atualizarContadores();
+        }
+        atualizarNavegador();
+    }
+
+    /**
+     * Começa a história na posição atual, num jogo novo ou sincronizado.
+     */
+    private void reiniciarHistoria() {
+        historia = HistoriaJogo.inicio(tabuleiro);
+        terminada = null;
+        if (jogadaVista >= 0) {
+            jogadaVista = -1;
+            desenharTabuleiro();
+            atualizarContadores();
+        }
+        atualizarNavegador();
+    }
+
+    /** @return história percorrida pelo navegador: a do jogo terminado, se ainda lá estiver */
+    private HistoriaJogo historiaNavegada() {
+        return terminada != null ? terminada : historia;
+    }
+
+    /**
+     * @return última posição do navegador, a do jogo em curso; depois de
+     *         recomeçar, vem a seguir às do jogo terminado
+     */
+    private int ultimaJogada() {
+        return terminada != null ? terminada.getJogadas() + 1 : historia.getJogadas();
+    }
+
+    /** @return jogada mostrada no tabuleiro */
+    private int jogadaMostrada() {
+        return jogadaVista < 0 ? ultimaJogada() : jogadaVista;
+    }
+
+    /**
+     * Mostra o tabuleiro depois de uma jogada do jogo, sem o alterar. A última
+     * jogada volta a acompanhar o jogo. Na revisão de um registo, a animação
+     * fica em pausa enquanto se vê uma jogada anterior.
+     *
+     * @param jogada de 0 (posição de partida) até à última jogada
+     */
+    private void verJogada(int jogada) {
+        int jogadas = ultimaJogada();
+        jogada = Math.max(0, Math.min(jogada, jogadas));
+        jogadaVista = jogada == jogadas ? -1 : jogada;
+        // A seguir ao jogo terminado vem a posição do novo, que ainda não tem jogadas
+        long posicao = terminada != null && jogadaVista < 0 ? historia.getAtual() : historiaNavegada().posicao(jogada);
+        desenhar(posicao);
+        atualizarContadores(posicao);
+        analisar(posicao);
+        if (revisao != null) {
+            if (jogadaVista >= 0) animacao.pause();
+            else animacao.play();
+        }
+        atualizarNavegador();
+    }
+
+    /**
+     * Contra o computador, desfaz as jogadas depois da que está a ser vista,
+     * se nela for a vez do jogador e o jogo ainda não tiver terminado.
+     *
+     * @return true se o jogo continua a partir dessa posição
+     */
+    private boolean desfazerAteVista() {
+        // Um jogo terminado só se revê
+        if (terminada != null) return false;
+        long posicao = historia.posicao(jogadaVista);
+        if (motor == null || Regras.vezDoPrimeiro(posicao) == computadorComeca
+                || geometria.resultado(posicao) != Regras.EM_CURSO) return false;
+        cancelarPesquisa();
+        // O registo só guarda jogos seguidos: o jogo fica registado até aqui
+        registar(g -> g.terminar(FormatoRegisto.INTERROMPIDO));
+        historia = historia.ate(jogadaVista);
+        jogadaVista = -1;
+        tabuleiro = posicao;
+        jogoFinalizado = false;
+        btnRecomecar.setVisible(false);
+        desenharTabuleiro();
+        atualizarContadores();
+        atualizarNavegador();
+        setMinhaVez(true);
+        return true;
+    }
+
+    /**
+     * Acerta o navegador com a história e a jogada mostrada.
+     */
+    private void atualizarNavegador() {
+        int jogadas = ultimaJogada();
+        int jogada = jogadaMostrada();
+        atualizandoNavegador = true;
+        sldJogadas.setMax(jogadas);
+        sldJogadas.setValue(jogada);
+        atualizandoNavegador = false;
+        sldJogadas.setDisable(jogadas == 0);
+        btnAnterior.setDisable(jogada == 0);
+        btnSeguinte.setDisable(jogada == jogadas);
+        if (jogadas == 0) {
+            lblJogada.setText("");
             return;
         }
+        if (terminada != null && jogada == jogadas) {
+            lblJogada.setText("Novo jogo (anterior: " + terminada.getJogadas() + " jogadas)");
+            return;
+        }
+        String texto = (terminada != null ? "Jogo anterior: jogada " : "Jogada ") + jogada + " de "
+                + historiaNavegada().getJogadas();
+        // Os nomes das células só existem no tabuleiro 3x4
+        if (jogada > 0 && geometria == Geometria.PADRAO)
+            texto += " (" + Tablebase.nomeCelula(historiaNavegada().celulaJogada(jogada)) + ")";
+        lblJogada.setText(texto);
+    }
 
-        minhaVez = true;
-        lblEstado.setText("É a tua vez!");
+    /**
+     * Mostra a jogada anterior à que está no tabuleiro.
+     */
+    @FXML
+    private void jogadaAnterior() {
+        verJogada(jogadaMostrada() - 1);
     }
 
     /**
-     * Atualiza os contadores de peças visuais.
+     * Mostra a jogada seguinte à que está no tabuleiro.
      */
-    private void atualizarContadores() {
-        lblVerdes.setText("Peças Verdes: " + verdes);
-        lblAmarelas.setText("Peças Amarelas: " + amarelas);
-        lblVermelhas.setText("Peças Vermelhas: " + vermelhas);
+    @FXML
+    private void jogadaSeguinte() {
+        verJogada(jogadaMostrada() + 1);
     }
 
     /**
      * Finaliza o jogo com mensagem e mostra os botões.
      */
     private void fimDeJogo(String mensagem) {
+        int resultado = geometria.resultado(tabuleiro);
+        registar(g -> g.terminar(resultado == Regras.VITORIA ? FormatoRegisto.VITORIA
+                : resultado == Regras.EMPATE ? FormatoRegisto.EMPATE : FormatoRegisto.ABANDONADO));
         jogoFinalizado = true;
+        lblSugestao.setText("");
+        atualizarAnalise();
         lblEstado.setText(mensagem);
         btnRecomecar.setVisible(true);
         btnSair.setVisible(true);
     }
 
     /**
-     * Envia pedido de reinício ao servidor.
+     * Envia pedido de reinício ao servidor, ou recomeça logo o jogo contra o computador.
      */
     @FXML
     private void recomecar() {
+        if (motor != null) {
+            resetarJogo();
+            motor.limpar();
+            computadorComeca = !computadorComeca;
+            iniciarJogo(!computadorComeca);
+            if (computadorComeca) jogadaComputador();
+            return;
+        }
         try {
-            dos.writeUTF("RECOMEÇAR");
+            enviar(saida.sinal(Mensagem.RECOMECAR));
             btnRecomecar.setText("À espera do outro jogador");
             btnRecomecar.setDisable(true);
             btnRecomecar.setStyle("-fx-background-color: yellow; -fx-font-weight: bold;");
         } catch (IOException e) {
-            e.printStackTrace();
+            App.getMetricas().erro("pedir novo jogo", e);
         }
     }
 
     /**
-     * Fecha o socket e sai da aplicação.
+     * Fecha a ligação e sai da aplicação, ou sai só deste jogo se não for o principal.
      */
     @FXML
     private void sair() {
+        if (animacao != null) {
+            terminarRevisao("");
+            try {
+                App.setRoot("connection");
+            } catch (IOException e) {
+                Platform.exit();
+            }
+            return;
+        }
+        if (aoSair != null) {
+            aoSair.run();
+            return;
+        }
+        cancelarPesquisa();
+        painelAnalise.parar();
+        registar(g -> g.terminar(FormatoRegisto.ABANDONADO));
+        if (sessao != null) sessao.fechar();
+        Platform.exit();
+    }
+
+    /**
+     * Revê os jogos de um ficheiro de registo, uma jogada de cada vez. O
+     * ficheiro é lido à medida que a revisão avança, pelo que pode ter
+     * qualquer tamanho.
+     *
+     * @param ficheiro ficheiro de registo
+     * @throws IOException se o ficheiro não puder ser aberto
+     */
+    public void rever(Path ficheiro) throws IOException {
+        revisao = LeitorJogos.abrir(ficheiro);
+        jogoFinalizado = true;
+        lblEstado.setText("A rever " + ficheiro.getFileName());
+        btnSair.setVisible(true);
+        animacao = new Timeline(new KeyFrame(Duration.millis(PASSO_REVISAO_MS), e -> passoRevisao()));
+        animacao.setCycleCount(Timeline.INDEFINITE);
+        animacao.play();
+    }
+
+    /**
+     * Avança um evento na revisão.
+     */
+    private void passoRevisao() {
+        try {
+            switch (revisao.proximo()) {
+                case LeitorJogos.INICIO:
+                    lblEstado.setText("Jogo " + (revisao.getJogo() + 1) + " - " + Instant.ofEpochSecond(revisao.getInstante()));
+                    tabuleiro = revisao.getTabuleiro();
+                    reiniciarHistoria();
+                    break;
+                case LeitorJogos.JOGADA:
+                    tabuleiro = revisao.getTabuleiro();
+                    registarPosicao();
+                    break;
+                case LeitorJogos.FIM:
+                    lblEstado.setText("Jogo " + (revisao.getJogo() + 1) + ": " + FormatoRegisto.texto(revisao.getResultado())
+                            + " em " + revisao.getJogadas() + " jogadas");
+                    return;
+                default:
+                    terminarRevisao("Fim do registo");
+                    return;
+            }
+            desenharTabuleiro();
+            atualizarContadores();
+            atualizarAnalise();
+        } catch (IOException e) {
+            terminarRevisao("Erro no registo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Para a revisão e fecha o ficheiro.
+     */
+    private void terminarRevisao(String mensagem) {
+        animacao.stop();
+        painelAnalise.parar();
+        if (!mensagem.isEmpty()) lblEstado.setText(mensagem);
+        if (revisao == null) return;
+        try {
+            revisao.close();
+        } catch (IOException e) {
+            // Só estava a ser lido
+        }
+        revisao = null;
+    }
+
+    /** Operação sobre o registo de jogos */
+    private interface Registo {
+        void aplicar(GravadorJogos gravador) throws IOException;
+    }
+
+    /**
+     * Aplica uma operação ao registo de jogos; se falhar, o registo fica
+     * desligado para o resto do jogo, que continua normalmente.
+     */
+    private void registar(Registo operacao) {
+        // O formato do registo só descreve o tabuleiro 3x4, e um jogo de cada vez
+        if (gravador == null || animacao != null || mesaAssistida >= 0 || geometria != Geometria.PADRAO || jogo != 0) return;
         try {
-            socket.close();
-            Platform.exit();
+            operacao.aplicar(gravador);
         } catch (IOException e) {
-            e.printStackTrace();
+            App.getMetricas().erro("gravar o registo de jogos", e);
+            gravador = null;
         }
     }
 
     /**
-     * Reinicia o tabuleiro e as variáveis.
+     * Reinicia o tabuleiro e as variáveis. O jogo anterior continua no
+     * navegador até à primeira jogada do novo.
      */
     private void resetarJogo() {
-        criarTabuleiro();
-        verdes = amarelas = vermelhas = 8;
-        tabuleiro = new String[3][4];
+        cancelarPesquisa();
+        HistoriaJogo anterior = historia;
+        tabuleiro = Tabuleiro.INICIAL;
+        desenharTabuleiro();
         atualizarContadores();
+        reiniciarHistoria();
+        if (anterior.getJogadas() > 0) {
+            terminada = anterior;
+            atualizarNavegador();
+        }
         lblEstado.setText("A tua vez ou espera do adversário");
         btnRecomecar.setVisible(false);
-        btnSair.setVisible(false);
+        // De um jogo que não é o principal pode sair-se a qualquer momento
+        btnSair.setVisible(aoSair != null);
         btnRecomecar.setDisable(false);
         btnRecomecar.setText("RECOMEÇAR");
         btnRecomecar.setStyle("-fx-background-color: #58d68d; -fx-font-weight: bold; -fx-text-fill: white; -fx-border-color: black; -fx-border-width: 2;");
@@ -303,42 +887,62 @@ public class GameController {
         } else {
             lblEstado.setText("A espera da jogada adversária");
         }
+        atualizarSugestao();
+        atualizarAnalise();
     }
 
     /**
-     * Define o nome do jogador local.
-     * @param nome nome do jogador
+     * Liga ou desliga o painel de análise.
      */
-    public void setNomeJogador(String nome) {
-        this.nomeJogador = nome;
+    @FXML
+    private void alternarAnalise() {
+        painelAnalise.setLigado(chkAnalise.isSelected());
+        if (chkAnalise.isSelected()) atualizarAnalise();
     }
 
     /**
-     * Verifica se há 3 peças da mesma cor em linha, coluna ou diagonal.
-     * @param tipo cor da peça ("verde", "amarelo", "vermelho")
-     * @return true se houve vitória
+     * Analisa a posição atual, cancelando a análise da anterior. É chamado a
+     * cada jogada, feita aqui ou recebida, e não espera pela análise.
      */
-    private boolean verificarVitoria(String tipo) {
-        for (int i = 0; i < 3; i++)
-            for (int j = 0; j < 2; j++)
-                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i][j+1]) && tipo.equals(tabuleiro[i][j+2]))
-                    return true;
-
-        for (int j = 0; j < 4; j++)
-            for (int i = 0; i < 1; i++)
-                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i+1][j]) && tipo.equals(tabuleiro[i+2][j]))
-                    return true;
+    private void atualizarAnalise() {
+        // Enquanto se vê uma jogada anterior, é essa que fica analisada
+        if (jogadaVista < 0) analisar(tabuleiro);
+    }
 
-        for (int i = 0; i < 1; i++)
-            for (int j = 0; j < 2; j++)
-                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i+1][j+1]) && tipo.equals(tabuleiro[i+2][j+2]))
-                    return true;
+    /**
+     * Analisa uma posição, atual ou vista no navegador.
+     */
+    private void analisar(long posicao) {
+        // O motor só conhece o tabuleiro 3x4
+        if (geometria != Geometria.PADRAO) {
+            painelAnalise.indisponivel("Análise só disponível no tabuleiro 3x4.");
+            return;
+        }
+        painelAnalise.analisar(posicao);
+    }
 
-        for (int i = 0; i < 1; i++)
-            for (int j = 2; j < 4; j++)
-                if (tipo.equals(tabuleiro[i][j]) && tipo.equals(tabuleiro[i+1][j-1]) && tipo.equals(tabuleiro[i+2][j-2]))
-                    return true;
+    /**
+     * Mostra a melhor jogada segundo a tablebase, quando é a vez do jogador.
+     */
+    private void atualizarSugestao() {
+        if (tablebase == null || !minhaVez || jogoFinalizado || geometria != Geometria.PADRAO) {
+            lblSugestao.setText("");
+            return;
+        }
+        int celula = tablebase.melhorJogada(tabuleiro);
+        if (celula < 0) {
+            lblSugestao.setText("");
+            return;
+        }
+        lblSugestao.setText("Sugestão: " + Tablebase.nomeCelula(celula)
+                + " (" + tablebase.descrever(tabuleiro) + ")");
+    }
 
-        return false;
+    /**
+     * Define o nome do jogador local.
+     * @param nome nome do jogador
+     */
+    public void setNomeJogador(String nome) {
+        this.nomeJogador = nome;
     }
 }
@@ -0,0 +1,236 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+
+import java.io.IOException;
+
+import javafx.scene.control.Tab;
+
+/**
+ * Um dos jogos de uma sessão com vários jogos, mostrado num separador do
+ * ecrã das mesas ({@link MesasController}).
+ *
+ * Enquanto o separador não for aberto, o jogo é só este resumo: o tabuleiro
+ * compacto e meia dúzia de campos, atualizados pelos eventos do servidor. O
+ * ecrã do tabuleiro ({@link GameController}) só é criado quando o separador é
+ * escolhido pela primeira vez; parte deste resumo e passa a receber os eventos.
+ *
+ * Só é usada na thread da interface.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Mesa implements OuvinteJogo {
+
+    private final Sessao sessao;
+    private final int jogo;
+    private final Tab separador = new Tab();
+
+    /** Mesa assistida, no modo de espectador (-1 se estiver a jogar) */
+    private int mesaAssistida;
+    private int numero = -1;
+
+    private long tabuleiro = Tabuleiro.INICIAL;
+    private Geometria geometria = Geometria.PADRAO;
+    private boolean iniciada;
+    private boolean comecou;
+    private boolean minhaVez;
+    private boolean terminada;
+    private boolean saiu;
+
+    /** Ecrã do tabuleiro; null até o separador ser aberto */
+    private GameController vista;
+
+    /**
+     * @param sessao sessão com o servidor
+     * @param jogo número do jogo na sessão
+     * @param mesaAssistida mesa a assistir, {@link Mensagem#QUALQUER_MESA}, ou -1 para jogar
+     */
+    Mesa(Sessao sessao, int jogo, int mesaAssistida) {
+        this.sessao = sessao;
+        this.jogo = jogo;
+        this.mesaAssistida = mesaAssistida;
+        separador.setUserData(this);
+        atualizarTitulo();
+    }
+
+    int getJogo() {
+        return jogo;
+    }
+
+    Tab getSeparador() {
+        return separador;
+    }
+
+    int getMesaAssistida() {
+        return mesaAssistida;
+    }
+
+    int getNumero() {
+        return numero;
+    }
+
+    long getTabuleiro() {
+        return tabuleiro;
+    }
+
+    Geometria getGeometria() {
+        return geometria;
+    }
+
+    boolean isIniciada() {
+        return iniciada;
+    }
+
+    boolean isComecou() {
+        return comecou;
+    }
+
+    boolean isSaiu() {
+        return saiu;
+    }
+
+    GameController getVista() {
+        return vista;
+    }
+
+    /**
+     * Passa a entregar os eventos ao ecrã do tabuleiro, já preparado a partir deste resumo.
+     *
+     * @param vista ecrã do tabuleiro
+     */
+    void setVista(GameController vista) {
+        this.vista = vista;
+    }
+
+    /**
+     * Mostra no título do separador o número da mesa e se é a vez do jogador.
+     * Com o ecrã aberto, as jogadas feitas nele não passam por aqui, pelo que
+     * o estado é lido do ecrã.
+     */
+    void atualizarTitulo() {
+        String nome = numero >= 0 ? "Mesa " + numero : mesaAssistida >= 0 ? "À procura..." : "À espera...";
+        if (mesaAssistida >= 0) {
+            separador.setText("A assistir: " + nome);
+            return;
+        }
+        boolean vez = vista != null ? vista.isMinhaVez() : minhaVez && !terminada;
+        separador.setText(vez ? nome + " - a tua vez" : nome);
+    }
+
+    @Override
+    public void jogada(int linha, int coluna, int cor) {
+        int celula = geometria.celula(linha, coluna);
+        tabuleiro = Tabuleiro.colocar(tabuleiro, celula, cor);
+        if (geometria.resultado(tabuleiro, celula) != Regras.EM_CURSO) terminada = true;
+        minhaVez = true;
+        if (vista != null) vista.jogada(linha, coluna, cor);
+        atualizarTitulo();
+    }
+
+    @Override
+    public void comecar() {
+        iniciar(true);
+        if (vista != null) vista.comecar();
+        atualizarTitulo();
+    }
+
+    @Override
+    public void esperar() {
+        iniciar(false);
+        if (vista != null) vista.esperar();
+        atualizarTitulo();
+    }
+
+    private void iniciar(boolean vez) {
+        if (!iniciada) {
+            iniciada = true;
+            comecou = vez;
+        }
+        minhaVez = vez;
+    }
+
+    @Override
+    public void fim(String vencedor) {
+        terminada = true;
+        if (vista != null) vista.fim(vencedor);
+        atualizarTitulo();
+    }
+
+    @Override
+    public void saiu() {
+        terminada = true;
+        saiu = true;
+        if (vista != null) vista.saiu();
+        atualizarTitulo();
+    }
+
+    @Override
+    public void novoJogo(boolean comecar) {
+        tabuleiro = Tabuleiro.INICIAL;
+        iniciada = true;
+        comecou = comecar;
+        minhaVez = comecar;
+        terminada = false;
+        if (vista != null) vista.novoJogo(comecar);
+        atualizarTitulo();
+    }
+
+    @Override
+    public void sincronizar(long tabuleiro, boolean comecou) {
+        this.tabuleiro = tabuleiro;
+        this.comecou = comecou;
+        iniciada = true;
+        minhaVez = Regras.vezDoPrimeiro(tabuleiro) == comecou;
+        terminada = geometria.resultado(tabuleiro) != Regras.EM_CURSO;
+        if (vista != null) vista.sincronizar(tabuleiro, comecou);
+        atualizarTitulo();
+    }
+
+    @Override
+    public void mesa(int mesa) {
+        numero = mesa;
+        // Ao assistir a qualquer mesa, fica-se nesta se a ligação for retomada
+        if (mesaAssistida == Mensagem.QUALQUER_MESA) mesaAssistida = mesa;
+        if (vista != null) vista.mesa(mesa);
+        atualizarTitulo();
+    }
+
+    @Override
+    public void geometria(Geometria geometria) {
+        this.geometria = geometria;
+        if (vista != null) vista.geometria(geometria);
+    }
+
+    @Override
+    public void ligacaoPerdida(String motivo) {
+        terminada = true;
+        if (vista != null) vista.ligacaoPerdida(motivo);
+        atualizarTitulo();
+    }
+
+    @Override
+    public void ligacaoInterrompida() {
+        if (vista != null) vista.ligacaoInterrompida();
+    }
+
+    @Override
+    public void ligacaoRetomada() {
+        if (vista != null) {
+            vista.ligacaoRetomada();
+            return;
+        }
+        if (mesaAssistida < 0) return;
+        // A transmissão não é retomada: volta a pedir a mesa, que começa pelo estado completo
+        try {
+            sessao.enviar(new Mensagem().assistir(mesaAssistida).paraJogo(jogo));
+        } catch (IOException e) {
+            // A ligação voltou a cair; será retomada de novo
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.metricas.EstimativaRtt;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+
+import java.io.IOException;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.util.Duration;
+
+/**
+ * Controlador do ecrã das mesas do Cliente do Jogo Semáforo: vários jogos ao
+ * mesmo tempo na mesma ligação, cada um no seu separador.
+ *
+ * O primeiro separador tem o jogo principal, aberto pelo ecrã das regras, e
+ * não pode ser fechado. Os outros são jogos novos ou mesas assistidas, pedidos
+ * aqui com um número de jogo próprio ({@link Sessao#novoJogo}); o seu ecrã do
+ * tabuleiro só é criado quando o separador é escolhido (ver {@link Mesa}).
+ * Fechar um separador sai desse jogo no servidor.
+ *
+ * O canto superior direito mostra o estado da ligação, atualizado a cada
+ * segundo: o tempo de ida e volta suavizado e a sua variação, ou o aviso de
+ * que o servidor deixou de responder.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public class MesasController {
+
+    @FXML private Button btnNovaMesa, btnAssistir;
+    @FXML private Label lblMesas, lblLigacao;
+    @FXML private TabPane separadores;
+
+    private Sessao sessao;
+    private String nomeJogador;
+
+    /** Mensagem reutilizada para os pedidos deste ecrã */
+    private final Mensagem saida = new Mensagem();
+
+    private final Timeline relogio = new Timeline(new KeyFrame(Duration.seconds(1), e -> atualizarLigacao()));
+
+    /**
+     * Abre o ecrã do tabuleiro de uma mesa quando o seu separador é escolhido,
+     * e atualiza o título do que deixou de estar à vista.
+     */
+    @FXML
+    public void initialize() {
+        separadores.getSelectionModel().selectedItemProperty().addListener((o, antes, depois) -> {
+            if (antes != null && antes.getUserData() != null) ((Mesa) antes.getUserData()).atualizarTitulo();
+            if (depois != null && depois.getUserData() != null) abrirVista((Mesa) depois.getUserData());
+        });
+    }
+
+    /**
+     * Mostra o jogo principal no primeiro separador.
+     *
+     * @param sessao sessão com o servidor
+     * @param nomeJogador nome do jogador local
+     * @param jogo ecrã do tabuleiro do jogo principal
+     */
+    public void setJogoPrincipal(Sessao sessao, String nomeJogador, Parent jogo) {
+        this.sessao = sessao;
+        this.nomeJogador = nomeJogador;
+        Tab principal = new Tab("Jogo principal", jogo);
+        principal.setClosable(false);
+        separadores.getTabs().add(principal);
+
+        if (!sessao.aceitaVariosJogos()) {
+            btnNovaMesa.setDisable(true);
+            btnAssistir.setDisable(true);
+            lblMesas.setText("Este servidor só permite um jogo por ligação.");
+        }
+        relogio.setCycleCount(Timeline.INDEFINITE);
+        relogio.play();
+        atualizarLigacao();
+    }
+
+    /**
+     * Mostra o estado da ligação ao servidor.
+     */
+    private void atualizarLigacao() {
+        if (!sessao.isAberta()) {
+            lblLigacao.setText("Ligação perdida");
+            relogio.stop();
+        } else if (!sessao.isLigada()) {
+            lblLigacao.setText("Sem resposta do servidor, a restabelecer...");
+        } else {
+            // Sem batimentos nem eco (servidor antigo) não há amostras
+            EstimativaRtt rtt = sessao.getRtt();
+            lblLigacao.setText(rtt.getAmostras() == 0 ? "Ligação ativa" : "Ida e volta: " + rtt);
+        }
+    }
+
+    /**
+     * Pede ao servidor um novo jogo, emparelhado com o próximo jogador pronto.
+     */
+    @FXML
+    private void novaMesa() {
+        Mesa mesa = criarMesa(-1);
+        pedir(mesa, saida.sinal(Mensagem.PRONTO));
+    }
+
+    /**
+     * Pede ao servidor para assistir a uma mesa qualquer.
+     */
+    @FXML
+    private void assistir() {
+        Mesa mesa = criarMesa(Mensagem.QUALQUER_MESA);
+        pedir(mesa, saida.assistir(Mensagem.QUALQUER_MESA));
+    }
+
+    /**
+     * Cria o resumo e o separador de um novo jogo e passa a receber os seus
+     * eventos; o separador não é escolhido, pelo que não cria o tabuleiro.
+     */
+    private Mesa criarMesa(int mesaAssistida) {
+        Mesa mesa = new Mesa(sessao, sessao.novoJogo(), mesaAssistida);
+        sessao.setOuvinte(mesa.getJogo(), mesa);
+        mesa.getSeparador().setOnClosed(e -> fechar(mesa));
+        separadores.getTabs().add(mesa.getSeparador());
+        return mesa;
+    }
+
+    private void pedir(Mesa mesa, Mensagem pedido) {
+        try {
+            sessao.enviar(pedido.paraJogo(mesa.getJogo()));
+            lblMesas.setText("");
+        } catch (IOException e) {
+            App.getMetricas().erro("abrir uma mesa", e);
+            separadores.getTabs().remove(mesa.getSeparador());
+            fechar(mesa);
+        }
+    }
+
+    /**
+     * Cria o ecrã do tabuleiro de uma mesa, se ainda não existir.
+     */
+    private void abrirVista(Mesa mesa) {
+        if (mesa.getVista() != null) return;
+        try {
+            FXMLLoader loader = Ecras.carregar("game");
+            GameController controller = loader.getController();
+            controller.setNomeJogador(nomeJogador);
+            controller.setAoSair(() -> {
+                separadores.getTabs().remove(mesa.getSeparador());
+                fechar(mesa);
+            });
+            controller.abrirMesa(sessao, mesa);
+            mesa.setVista(controller);
+            mesa.getSeparador().setContent(loader.getRoot());
+            mesa.atualizarTitulo();
+        } catch (IOException e) {
+            App.getMetricas().erro("abrir o ecrã de jogo", e);
+        }
+    }
+
+    /**
+     * Deixa de receber os eventos de uma mesa e sai desse jogo no servidor.
+     */
+    private void fechar(Mesa mesa) {
+        sessao.setOuvinte(mesa.getJogo(), null);
+        if (mesa.getVista() != null) mesa.getVista().parar();
+        if (!sessao.isAberta()) return;
+        try {
+            sessao.enviar(saida.sinal(Mensagem.SAIU).paraJogo(mesa.getJogo()));
+        } catch (IOException e) {
+            // A ligação caiu; o servidor fecha o jogo com ela
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.metricas.Histograma;
+import com.mycompany.nucleosemaforo.rede.Ligacao;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Métricas de rede e de interface do cliente, publicadas por JMX
+ * ({@link MetricasClienteMBean}), como eventos JFR ({@link EventosJfr}) e no
+ * painel de depuração (F3).
+ *
+ * Mede o eco de cada jogada (ida e volta até ao servidor, com PING/PONG), a
+ * espera das mensagens na fila da thread da interface, o tráfego, a fila de
+ * saída da ligação, as religações e os erros que antes só eram impressos.
+ * Registar é barato e não bloqueia: os histogramas são atómicos e as taxas
+ * são calculadas apenas quando alguém as lê.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class MetricasCliente implements MetricasClienteMBean {
+
+    private static final String NOME_JMX = "com.mycompany.clientesemaforo:type=Metricas";
+
+    /** Intervalo mínimo entre duas amostras das taxas */
+    private static final long AMOSTRA_NS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Histograma eco = new Histograma();
+    private final Histograma filaInterface = new Histograma();
+    private final AtomicLong religacoes = new AtomicLong();
+    private final AtomicLong erros = new AtomicLong();
+    private volatile String ultimoErro = "";
+
+    // Tráfego das ligações já fechadas e ligação atual
+    private long bytesRecebidosAntes, mensagensRecebidasAntes, bytesEnviadosAntes, mensagensEnviadasAntes;
+    private Ligacao ligacao;
+
+    // Última amostra das taxas
+    private long instanteAmostra = System.nanoTime();
+    private long mensagensAmostra, bytesAmostra;
+    private double mensagensPorSegundo, bytesPorSegundo;
+
+    /**
+     * Publica as métricas no servidor JMX da plataforma e regista o evento
+     * periódico de tráfego no JFR. Sem JMX, as métricas funcionam na mesma.
+     */
+    void registar() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(NOME_JMX));
+        } catch (JMException e) {
+            System.err.println("Métricas JMX indisponíveis: " + e.getMessage());
+        }
+        FlightRecorder.addPeriodicEvent(EventosJfr.Trafego.class, () -> {
+            EventosJfr.Trafego evento = new EventosJfr.Trafego();
+            amostrar();
+            synchronized (this) {
+                evento.mensagens = mensagensPorSegundo;
+                evento.bytes = bytesPorSegundo;
+            }
+            evento.filaSaida = getFilaSaida();
+            evento.commit();
+        });
+    }
+
+    /**
+     * Regista o eco de uma jogada.
+     *
+     * @param nanos tempo entre enviar a jogada e receber o PONG
+     */
+    void eco(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        eco.registar(micros);
+        EventosJfr.Eco evento = new EventosJfr.Eco();
+        evento.latencia = micros;
+        evento.commit();
+    }
+
+    /**
+     * Regista a espera de uma entrega na fila da thread da interface.
+     *
+     * @param nanos tempo entre agendar a entrega e ela começar
+     * @param eventos número de eventos entregues de uma vez
+     */
+    void filaInterface(long nanos, int eventos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        filaInterface.registar(micros);
+        EventosJfr.FilaInterface evento = new EventosJfr.FilaInterface();
+        evento.atraso = micros;
+        evento.eventos = eventos;
+        evento.commit();
+    }
+
+    /**
+     * Regista uma tentativa de religação.
+     *
+     * @param motivo causa da queda da ligação
+     * @param tentativa número da tentativa, a partir de 1
+     */
+    void religacao(String motivo, int tentativa) {
+        religacoes.incrementAndGet();
+        EventosJfr.Religacao evento = new EventosJfr.Religacao();
+        evento.motivo = motivo;
+        evento.tentativa = tentativa;
+        evento.commit();
+    }
+
+    /**
+     * Regista um erro e mostra-o na consola.
+     *
+     * @param origem onde aconteceu, por exemplo "enviar jogada"
+     * @param erro exceção apanhada
+     */
+    void erro(String origem, Throwable erro) {
+        erros.incrementAndGet();
+        ultimoErro = origem + ": " + erro;
+        System.err.println("Erro ao " + ultimoErro);
+        EventosJfr.Erro evento = new EventosJfr.Erro();
+        evento.origem = origem;
+        evento.mensagem = String.valueOf(erro);
+        evento.commit();
+    }
+
+    /**
+     * Passa a contar o tráfego de uma nova ligação, somando o da anterior.
+     *
+     * @param nova ligação ao servidor
+     */
+    synchronized void setLigacao(Ligacao nova) {
+        if (ligacao != null) {
+            bytesRecebidosAntes += ligacao.getBytesRecebidos();
+            mensagensRecebidasAntes += ligacao.getMensagensRecebidas();
+            bytesEnviadosAntes += ligacao.getBytesEnviados();
+            mensagensEnviadasAntes += ligacao.getMensagensEnviadas();
+        }
+        ligacao = nova;
+    }
+
+    /**
+     * Atualiza as taxas se já passou um segundo desde a última amostra.
+     */
+    private synchronized void amostrar() {
+        long agora = System.nanoTime();
+        long decorrido = agora - instanteAmostra;
+        if (decorrido < AMOSTRA_NS) return;
+        long mensagens = getMensagensRecebidas() + getMensagensEnviadas();
+        long bytes = getBytesRecebidos() + getBytesEnviados();
+        double segundos = decorrido / 1e9;
+        mensagensPorSegundo = (mensagens - mensagensAmostra) / segundos;
+        bytesPorSegundo = (bytes - bytesAmostra) / segundos;
+        mensagensAmostra = mensagens;
+        bytesAmostra = bytes;
+        instanteAmostra = agora;
+    }
+
+    /**
+     * Resume as métricas em poucas linhas, para o painel de depuração.
+     *
+     * @return texto com os percentis e o tráfego
+     */
+    String resumo() {
+        amostrar();
+        synchronized (this) {
+            return String.format("eco          %s%nfila IU      %s%nrtt          %s%ntráfego      %.0f msg/s  %.1f KB/s%n"
+                    + "fila saída   %d  (máx %d)%nreligações   %d   erros %d%ntarefas      %d ativas  %d iniciadas  %d threads",
+                    eco.resumo("µs"), filaInterface.resumo("µs"), ligacao != null ? ligacao.getRtt() : "-", mensagensPorSegundo, bytesPorSegundo / 1024,
+                    getFilaSaida(), getMaximoFilaSaida(), religacoes.get(), erros.get(), getTarefasAtivas(),
+                    getTarefasIniciadas(), getThreadsPlataforma());
+        }
+    }
+
+    @Override
+    public long getEcoAmostras() {
+        return eco.getTotal();
+    }
+
+    @Override
+    public long getEcoP50Us() {
+        return eco.percentil(50);
+    }
+
+    @Override
+    public long getEcoP99Us() {
+        return eco.percentil(99);
+    }
+
+    @Override
+    public long getEcoP999Us() {
+        return eco.percentil(99.9);
+    }
+
+    @Override
+    public long getFilaInterfaceP50Us() {
+        return filaInterface.percentil(50);
+    }
+
+    @Override
+    public long getFilaInterfaceP99Us() {
+        return filaInterface.percentil(99);
+    }
+
+    @Override
+    public long getFilaInterfaceP999Us() {
+        return filaInterface.percentil(99.9);
+    }
+
+    @Override
+    public synchronized long getRttUs() {
+        long rtt = ligacao != null ? ligacao.getRtt().getSuavizado() : -1;
+        return rtt < 0 ? -1 : rtt / 1000;
+    }
+
+    @Override
+    public synchronized long getVariacaoRttUs() {
+        return ligacao != null ? ligacao.getRtt().getVariacao() / 1000 : 0;
+    }
+
+    @Override
+    public synchronized int getFilaSaida() {
+        return ligacao != null ? ligacao.getPendentes() : 0;
+    }
+
+    @Override
+    public synchronized int getMaximoFilaSaida() {
+        return ligacao != null ? ligacao.getMaximoPendentes() : 0;
+    }
+
+    @Override
+    public synchronized long getMensagensRecebidas() {
+        return mensagensRecebidasAntes + (ligacao != null ? ligacao.getMensagensRecebidas() : 0);
+    }
+
+    @Override
+    public synchronized long getMensagensEnviadas() {
+        return mensagensEnviadasAntes + (ligacao != null ? ligacao.getMensagensEnviadas() : 0);
+    }
+
+    @Override
+    public synchronized long getBytesRecebidos() {
+        return bytesRecebidosAntes + (ligacao != null ? ligacao.getBytesRecebidos() : 0);
+    }
+
+    @Override
+    public synchronized long getBytesEnviados() {
+        return bytesEnviadosAntes + (ligacao != null ? ligacao.getBytesEnviados() : 0);
+    }
+
+    @Override
+    public double getMensagensPorSegundo() {
+        amostrar();
+        synchronized (this) {
+            return mensagensPorSegundo;
+        }
+    }
+
+    @Override
+    public double getBytesPorSegundo() {
+        amostrar();
+        synchronized (this) {
+            return bytesPorSegundo;
+        }
+    }
+
+    @Override
+    public long getReligacoes() {
+        return religacoes.get();
+    }
+
+    @Override
+    public long getErros() {
+        return erros.get();
+    }
+
+    @Override
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    @Override
+    public int getTarefasAtivas() {
+        return Tarefas.getAtivas();
+    }
+
+    @Override
+    public long getTarefasIniciadas() {
+        return Tarefas.getIniciadas();
+    }
+
+    @Override
+    public int getThreadsPlataforma() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    @Override
+    public void limpar() {
+        eco.limpar();
+        filaInterface.limpar();
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.clientesemaforo;
+
+/**
+ * Interface JMX das {@link MetricasCliente}, visível no JConsole ou no
+ * Mission Control em {@code com.mycompany.clientesemaforo:type=Metricas}.
+ * Os tempos estão em microssegundos.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public interface MetricasClienteMBean {
+
+    /** @return jogadas cujo eco já chegou */
+    long getEcoAmostras();
+
+    /** @return mediana do tempo entre enviar uma jogada e receber o eco do servidor */
+    long getEcoP50Us();
+
+    /** @return percentil 99 do tempo de eco */
+    long getEcoP99Us();
+
+    /** @return percentil 99.9 do tempo de eco */
+    long getEcoP999Us();
+
+    /** @return mediana do tempo entre ler uma mensagem do socket e tratá-la na thread da interface */
+    long getFilaInterfaceP50Us();
+
+    /** @return percentil 99 da espera na fila da interface */
+    long getFilaInterfaceP99Us();
+
+    /** @return percentil 99.9 da espera na fila da interface */
+    long getFilaInterfaceP999Us();
+
+    /** @return tempo de ida e volta suavizado da ligação atual (SRTT), ou -1 sem amostras */
+    long getRttUs();
+
+    /** @return variação do tempo de ida e volta da ligação atual (RTTVAR) */
+    long getVariacaoRttUs();
+
+    /** @return mensagens à espera na fila de saída da ligação atual */
+    int getFilaSaida();
+
+    /** @return maior número de mensagens que esteve na fila de saída da ligação atual */
+    int getMaximoFilaSaida();
+
+    /** @return mensagens recebidas do servidor */
+    long getMensagensRecebidas();
+
+    /** @return mensagens enviadas ao servidor */
+    long getMensagensEnviadas();
+
+    /** @return bytes recebidos do servidor */
+    long getBytesRecebidos();
+
+    /** @return bytes enviados ao servidor */
+    long getBytesEnviados();
+
+    /** @return mensagens por segundo (recebidas e enviadas), no último segundo medido */
+    double getMensagensPorSegundo();
+
+    /** @return bytes por segundo (recebidos e enviados), no último segundo medido */
+    double getBytesPorSegundo();
+
+    /** @return tentativas de religação ao servidor */
+    long getReligacoes();
+
+    /** @return erros registados (rede, envio, ecrãs) */
+    long getErros();
+
+    /** @return descrição do último erro, ou vazio */
+    String getUltimoErro();
+
+    /** @return tarefas do cliente a correr, cada uma numa thread virtual */
+    int getTarefasAtivas();
+
+    /** @return tarefas do cliente iniciadas desde o arranque */
+    long getTarefasIniciadas();
+
+    /** @return threads de plataforma vivas no processo */
+    int getThreadsPlataforma();
+
+    /** Apaga os histogramas de latência. */
+    void limpar();
+}
@@ -0,0 +1,125 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.motor.Analise;
+import com.mycompany.nucleosemaforo.motor.ResultadoAnalise;
+import com.mycompany.nucleosemaforo.tablebase.Tablebase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+
+/**
+ * Painel lateral de análise: mostra a avaliação de cada jogada legal e a
+ * variante principal da posição do tabuleiro, atualizadas à medida que a
+ * {@link Analise} aprofunda.
+ *
+ * A análise corre num {@link ForkJoinPool} próprio, com um núcleo a menos
+ * do que a máquina para a interface continuar fluida. Os resultados chegam
+ * nas threads do pool e ficam numa referência atómica; só há um
+ * {@link Platform#runLater} agendado de cada vez, que mostra o mais recente,
+ * pelo que uma rajada de resultados nunca enche a fila da interface. Nada
+ * aqui bloqueia a thread da interface.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class PainelAnalise implements Consumer<ResultadoAnalise> {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    private final Label lblAnalise;
+    private final Analise analise = new Analise(POOL);
+
+    /** Resultado mais recente e se já há uma atualização agendada na thread da interface */
+    private final AtomicReference<ResultadoAnalise> ultimo = new AtomicReference<>();
+    private final AtomicBoolean agendado = new AtomicBoolean();
+
+    /** Posição em análise, para descartar resultados de análises já canceladas */
+    private volatile long posicao;
+    private boolean ligado;
+
+    /**
+     * @param lblAnalise etiqueta onde a análise é mostrada
+     */
+    PainelAnalise(Label lblAnalise) {
+        this.lblAnalise = lblAnalise;
+    }
+
+    /**
+     * Liga ou desliga a análise; ao ligar, a posição é indicada a seguir com {@link #analisar}.
+     *
+     * @param ligado true para analisar
+     */
+    void setLigado(boolean ligado) {
+        this.ligado = ligado;
+        lblAnalise.setVisible(ligado);
+        if (!ligado) parar();
+    }
+
+    /**
+     * Passa a analisar uma nova posição, cancelando logo a análise anterior.
+     * Deve ser chamado na thread da interface a cada jogada.
+     *
+     * @param tabuleiro posição do tabuleiro 3x4
+     */
+    void analisar(long tabuleiro) {
+        if (!ligado) return;
+        posicao = tabuleiro;
+        lblAnalise.setText(Regras.jogadasLegais(tabuleiro) != 0 ? "A analisar..." : "");
+        analise.analisar(tabuleiro, this);
+    }
+
+    /**
+     * Para a análise e limpa o painel.
+     */
+    void parar() {
+        analise.parar();
+        lblAnalise.setText("");
+    }
+
+    /**
+     * Mostra que a posição não pode ser analisada (por exemplo, noutro tabuleiro).
+     *
+     * @param motivo texto a mostrar
+     */
+    void indisponivel(String motivo) {
+        analise.parar();
+        if (ligado) lblAnalise.setText(motivo);
+    }
+
+    /**
+     * Recebe um resultado novo numa thread do pool.
+     */
+    @Override
+    public void accept(ResultadoAnalise resultado) {
+        if (resultado.getTabuleiro() != posicao) return;
+        ultimo.set(resultado);
+        if (agendado.compareAndSet(false, true)) Platform.runLater(this::mostrar);
+    }
+
+    /**
+     * Mostra o resultado mais recente, na thread da interface.
+     */
+    private void mostrar() {
+        agendado.set(false);
+        ResultadoAnalise r = ultimo.get();
+        if (!ligado || r == null || r.getTabuleiro() != posicao) return;
+
+        StringBuilder texto = new StringBuilder("Análise (profundidade ").append(r.getProfundidade()).append(")\n");
+        for (int i = 0; i < r.getNumeroJogadas(); i++) {
+            texto.append(Tablebase.nomeCelula(r.getCelula(i))).append(": ")
+                    .append(r.descrever(r.getPontuacao(i))).append('\n');
+        }
+        texto.append("Variante:");
+        for (int celula : r.getVariante())
+            texto.append(' ').append(celula / Tabuleiro.COLUNAS + 1).append('x').append(celula % Tabuleiro.COLUNAS + 1);
+        lblAnalise.setText(texto.toString());
+    }
+}
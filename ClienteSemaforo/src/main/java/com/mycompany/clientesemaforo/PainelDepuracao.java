@@ -0,0 +1,70 @@
+package com.mycompany.clientesemaforo;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+/**
+ * Painel de depuração por cima de todos os ecrãs, ligado e desligado com F3
+ * (ou ligado no arranque com -Dsemaforo.depuracao=true).
+ *
+ * Mostra os percentis do eco das jogadas e da espera na fila da interface, o
+ * tráfego e os erros, lidos das {@link MetricasCliente} duas vezes por segundo
+ * enquanto estiver visível. Não recebe cliques, pelo que não atrapalha o jogo.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class PainelDepuracao {
+
+    private final MetricasCliente metricas;
+    private final Label lblMetricas = new Label();
+    private final Timeline atualizacao;
+
+    /**
+     * @param metricas métricas a mostrar
+     */
+    PainelDepuracao(MetricasCliente metricas) {
+        this.metricas = metricas;
+        lblMetricas.setMouseTransparent(true);
+        lblMetricas.setVisible(false);
+        lblMetricas.setPadding(new Insets(6));
+        lblMetricas.setStyle("-fx-background-color: rgba(0, 0, 0, 0.7); -fx-text-fill: white; "
+                + "-fx-font-family: monospace; -fx-font-size: 11px;");
+        StackPane.setAlignment(lblMetricas, Pos.TOP_RIGHT);
+        StackPane.setMargin(lblMetricas, new Insets(8));
+
+        atualizacao = new Timeline(new KeyFrame(Duration.millis(500), e -> atualizar()));
+        atualizacao.setCycleCount(Animation.INDEFINITE);
+        if (Boolean.getBoolean("semaforo.depuracao")) alternar();
+    }
+
+    /** @return etiqueta a colocar por cima dos ecrãs */
+    Label getEtiqueta() {
+        return lblMetricas;
+    }
+
+    /**
+     * Mostra ou esconde o painel; escondido, deixa de ler as métricas.
+     */
+    void alternar() {
+        boolean visivel = !lblMetricas.isVisible();
+        lblMetricas.setVisible(visivel);
+        if (visivel) {
+            atualizar();
+            atualizacao.play();
+        } else {
+            atualizacao.stop();
+        }
+    }
+
+    private void atualizar() {
+        lblMetricas.setText(metricas.resumo());
+    }
+}
@@ -1,11 +1,11 @@
 package com.mycompany.clientesemaforo;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+
 import java.io.IOException;
-import java.net.Socket;
 
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -16,23 +16,31 @@ import javafx.scene.control.Button;
  * Responsável por comunicar ao servidor que o jogador está pronto
  * e por aguardar que ambos os jogadores estejam prontos para iniciar o jogo.
  * 
- * Após ambos os jogadores estarem prontos, este controlador muda para o ecrã do tabuleiro (game.fxml).
+ * Após ambos os jogadores estarem prontos, este controlador muda para o ecrã do tabuleiro (game.fxml),
+ * mostrado no primeiro separador do ecrã das mesas (mesas.fxml).
  * 
  * @author Grupo 07
  * @version 1.0
  * @since 2025-06-16
  */
-public class RulesController {
+public class RulesController implements OuvinteJogo {
 
     @FXML
     private Button prontoButton;
 
-    /** Socket de comunicação com o servidor */
-    private Socket socket;
+    /** Sessão com o servidor */
+    private Sessao sessao;
 
     /** Nome do jogador, passado a partir do ConnectionController */
     private String nomeJogador;
 
+    /** Dimensões do tabuleiro anunciadas pelo servidor (3x4 se não forem anunciadas) */
+    private Geometria geometria = Geometria.PADRAO;
+
+    /** Estado do botão antes de a ligação cair, reposto quando for retomada */
+    private String textoPronto;
+    private boolean prontoDesativado;
+
     /**
      * Define o nome do jogador atual.
      * 
@@ -43,68 +51,108 @@ public class RulesController {
     }
 
     /**
-     * Define o socket que será utilizado para a comunicação com o servidor.
+     * Define a sessão que será utilizada para a comunicação com o servidor
+     * e passa a receber os seus eventos.
      * 
-     * @param socket socket já estabelecido
+     * @param sessao sessão já estabelecida
      */
-    public void setSocket(Socket socket) {
-        this.socket = socket;
+    public void setSessao(Sessao sessao) {
+        this.sessao = sessao;
+        sessao.setOuvinte(this);
     }
 
     /**
      * Método chamado ao clicar no botão "PRONTO".
      * Envia ao servidor a mensagem indicando que o jogador está pronto.
-     * Depois aguarda a resposta do servidor (COMEÇAR ou ESPERAR) para avançar para o tabuleiro.
+     * A resposta do servidor (COMEÇAR ou ESPERAR) chega depois por {@link #comecar()} ou {@link #esperar()}.
      */
     @FXML
     private void switchToPrimary() throws IOException {
-        if (socket != null && !socket.isClosed()) {
-            new Thread(() -> {
-                try {
-                    // Enviar "PRONTO" ao servidor
-                    DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
-                    dos.writeUTF("PRONTO");
-                    dos.flush();
-
-                    // Atualiza o botão visualmente
-                    Platform.runLater(() -> {
-                        prontoButton.setText("A ESPERA DO OUTRO JOGADOR");
-                        prontoButton.setStyle("-fx-background-color: #6fd96f; -fx-font-weight: bold;");
-                        prontoButton.setDisable(true);
-                    });
-
-                    // Esperar a resposta do servidor
-                    DataInputStream dis = new DataInputStream(socket.getInputStream());
-                    String resposta = dis.readUTF();
-
-                    Platform.runLater(() -> {
-                        try {
-                            // Carrega a interface do jogo
-                            FXMLLoader loader = new FXMLLoader(App.class.getResource("game.fxml"));
-                            Parent root = loader.load();
-
-                            GameController controller = loader.getController();
-                            controller.setSocket(socket);
-                            controller.setNomeJogador(nomeJogador);
-
-                            // Define de quem é a vez, conforme resposta do servidor
-                            if (resposta.equals("COMEÇAR")) {
-                                controller.setMinhaVez(true);
-                            } else if (resposta.equals("ESPERAR")) {
-                                controller.setMinhaVez(false);
-                            }
-
-                            // Avança para o tabuleiro
-                            App.getScene().setRoot(root);
-                        } catch (IOException e) {
-                            e.printStackTrace();
-                        }
-                    });
-
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }).start();
+        if (sessao != null && sessao.isAberta()) {
+            // Enviar "PRONTO" ao servidor
+            sessao.enviar(new Mensagem().sinal(Mensagem.PRONTO));
+
+            // Atualiza o botão visualmente
+            prontoButton.setText("A ESPERA DO OUTRO JOGADOR");
+            prontoButton.setStyle("-fx-background-color: #6fd96f; -fx-font-weight: bold;");
+            prontoButton.setDisable(true);
+        }
+    }
+
+    @Override
+    public void comecar() {
+        abrirJogo(true);
+    }
+
+    @Override
+    public void esperar() {
+        abrirJogo(false);
+    }
+
+    @Override
+    public void geometria(Geometria geometria) {
+        this.geometria = geometria;
+    }
+
+    @Override
+    public void ligacaoPerdida(String motivo) {
+        prontoButton.setText("LIGAÇÃO PERDIDA");
+        prontoButton.setDisable(true);
+    }
+
+    @Override
+    public void ligacaoInterrompida() {
+        textoPronto = prontoButton.getText();
+        prontoDesativado = prontoButton.isDisable();
+        prontoButton.setText("A RESTABELECER LIGAÇÃO...");
+        prontoButton.setDisable(true);
+    }
+
+    @Override
+    public void ligacaoRetomada() {
+        if (textoPronto == null) return;
+        prontoButton.setText(textoPronto);
+        prontoButton.setDisable(prontoDesativado);
+        textoPronto = null;
+    }
+
+    @Override
+    public void sincronizar(long tabuleiro, boolean comecou) {
+        // A partida começou enquanto a ligação estava em baixo
+        GameController controller = abrirJogo(comecou);
+        if (controller != null) controller.sincronizar(tabuleiro, comecou);
+    }
+
+    /**
+     * Muda para o ecrã do tabuleiro, passando-lhe a sessão, dentro do ecrã das mesas.
+     *
+     * @param comecar true se este jogador faz a primeira jogada
+     * @return controlador do tabuleiro, ou null se não foi possível abri-lo
+     */
+    private GameController abrirJogo(boolean comecar) {
+        try {
+            // Carrega a interface do jogo
+            FXMLLoader loader = Ecras.carregar("game");
+            Parent root = loader.getRoot();
+
+            GameController controller = loader.getController();
+            controller.setSessao(sessao);
+            controller.setNomeJogador(nomeJogador);
+            controller.setGeometria(geometria);
+
+            // Define de quem é a vez, conforme resposta do servidor
+            controller.iniciarJogo(comecar);
+
+            // Avança para o tabuleiro, no separador do jogo principal
+            FXMLLoader mesas = Ecras.carregar("mesas");
+            MesasController separadores = mesas.getController();
+            separadores.setJogoPrincipal(sessao, nomeJogador, root);
+            App.mostrar(mesas.getRoot());
+            TemposArranque.jogoPronto(App.getScene());
+            return controller;
+        } catch (IOException e) {
+            App.getMetricas().erro("abrir o ecrã de jogo", e);
+            return null;
         }
     }
-}
\ No newline at end of file
+}
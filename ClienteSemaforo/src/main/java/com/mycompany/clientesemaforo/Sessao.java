@@ -0,0 +1,494 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.metricas.EstimativaRtt;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+import com.mycompany.nucleosemaforo.rede.CicloRede;
+import com.mycompany.nucleosemaforo.rede.Ligacao;
+import com.mycompany.nucleosemaforo.rede.OuvinteLigacao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+
+/**
+ * Sessão de um jogador com o servidor, desde a ligação até à saída.
+ *
+ * É a única dona da ligação: os ecrãs não tocam no socket, apenas se registam
+ * como ouvinte ativo com {@link #setOuvinte}. Cada mensagem recebida é entregue
+ * na thread da interface ao ouvinte que estiver ativo nesse momento, pelo que
+ * nenhuma mensagem se perde durante uma mudança de ecrã. As mensagens que
+ * chegam em rajada (por exemplo, as jogadas de uma mesa a que se assiste) são
+ * juntas numa fila e entregues todas no mesmo {@link Platform#runLater}, em vez
+ * de uma tarefa da interface por mensagem.
+ *
+ * Se o servidor aceitar {@link Protocolo#SEQUENCIA}, a sessão sobrevive à queda
+ * da ligação: volta a ligar com esperas crescentes, apresenta o token recebido
+ * em SESSAO e o número da última mensagem aplicada, e reenvia as suas mensagens
+ * que o servidor ainda não aplicou; se forem mais do que as {@value #REGISTO}
+ * guardadas, a sessão dá a ligação por perdida em vez de saltar jogadas. As
+ * mensagens repetidas são descartadas.
+ *
+ * Se o servidor aceitar {@link Protocolo#ECO}, cada jogada enviada é seguida de
+ * um PING com o instante do envio; o PONG do servidor dá o tempo de ida e volta
+ * da jogada, registado nas {@link MetricasCliente}, tal como a espera de cada
+ * entrega na fila da thread da interface.
+ *
+ * Se o servidor aceitar {@link Protocolo#BATIMENTO}, a ligação troca PING e
+ * PONG a cada poucos segundos e fecha-se sozinha se o servidor deixar de
+ * responder (ver {@link Ligacao}); a sessão trata isso como qualquer outra
+ * queda. O tempo de ida e volta estimado a partir desses PONG é mostrado no
+ * ecrã das mesas.
+ *
+ * Se o servidor aceitar {@link Protocolo#JOGOS}, a mesma sessão pode ter vários
+ * jogos: cada um tem o seu número ({@link #novoJogo}) e o seu ouvinte, e cada
+ * mensagem recebida é entregue ao ouvinte do jogo indicado nela. Os eventos da
+ * ligação (queda, retoma) são entregues a todos.
+ *
+ * Ao sair, a sessão envia SAIU e fecha a ligação com {@link Ligacao#close()},
+ * que só fecha o canal depois de o escrever; ao sair da aplicação,
+ * {@link #terminarRede} espera por esses fechos antes de terminar o ciclo.
+ *
+ * Todas as sessões partilham um único {@link CicloRede}. As esperas entre
+ * tentativas de religação são tarefas do {@link Ambito} da sessão, canceladas
+ * quando ela termina.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Sessao implements OuvinteLigacao {
+
+    /** Número de mensagens enviadas guardadas para reenvio (potência de 2) */
+    static final int REGISTO = 64;
+
+    /** Tentativas de religação antes de dar a ligação como perdida (cerca de 30 s) */
+    private static final int TENTATIVAS = 8;
+
+    private static final long ESPERA_INICIAL_MS = 250, ESPERA_MAXIMA_MS = 8000;
+
+    /** Tempo máximo, ao sair da aplicação, para as ligações escreverem o que têm na fila */
+    private static final long ESPERA_FECHO_MS = 2000;
+
+    private static CicloRede rede;
+
+    private final InetSocketAddress endereco;
+    private final Ambito ambito;
+
+    /** Executa as entregas na thread da interface ({@link Platform#runLater}) */
+    private final Executor interfaceGrafica;
+
+    // Protegidos pelo monitor da sessão (thread da interface e thread de rede)
+    private Ligacao ligacao;
+    private int capacidades;
+    private long token;
+    private Mensagem[] registo;
+    private int enviadas;
+    private int recebidas;
+    private int tentativas;
+    private boolean terminada;
+
+    /** Destino dos eventos da ligação, que são entregues a todos os jogos */
+    private static final int TODOS = -1;
+
+    /** Ecrãs que recebem os eventos, por número de jogo; só são usados na thread da interface */
+    private final Map<Integer, OuvinteJogo> ouvintes = new HashMap<>();
+    private int ultimoJogo;
+
+    /** Eventos por entregar e se já há uma entrega agendada na thread da interface */
+    private final ConcurrentLinkedQueue<Evento> pendentes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean agendada = new AtomicBoolean();
+
+    /** Instante em que a entrega pendente foi agendada */
+    private volatile long agendadaEm;
+
+    private final MetricasCliente metricas = App.getMetricas();
+
+    private Sessao(InetSocketAddress endereco, Executor interfaceGrafica) {
+        this.endereco = endereco;
+        this.interfaceGrafica = interfaceGrafica;
+        this.ambito = Tarefas.aplicacao().filho("sessao-" + endereco.getHostString() + ":" + endereco.getPort());
+    }
+
+    /**
+     * Liga ao servidor sem bloquear. O nome do servidor é resolvido numa
+     * tarefa da sessão, nunca na thread de quem chama.
+     *
+     * @param ip endereço ou nome do servidor
+     * @param porta porta do servidor, entre 0 e 65535
+     * @return sessão, disponível quando a ligação estiver estabelecida
+     * @throws IllegalArgumentException se a porta estiver fora dos limites
+     */
+    public static CompletableFuture<Sessao> ligar(String ip, int porta) {
+        return ligar(ip, porta, Platform::runLater);
+    }
+
+    /**
+     * Liga ao servidor, com as entregas feitas por outro executor que não o
+     * da interface (nos testes, sem JavaFX).
+     *
+     * @param ip endereço ou nome do servidor
+     * @param porta porta do servidor, entre 0 e 65535
+     * @param interfaceGrafica executor onde os eventos são entregues aos ouvintes
+     * @return sessão, disponível quando a ligação estiver estabelecida
+     */
+    static CompletableFuture<Sessao> ligar(String ip, int porta, Executor interfaceGrafica) {
+        Sessao sessao = new Sessao(InetSocketAddress.createUnresolved(ip, porta), interfaceGrafica);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return sessao.resolver();
+            } catch (UnknownHostException e) {
+                throw new CompletionException(e);
+            }
+        }, sessao.ambito.executor("resolver")).thenCompose(endereco -> rede().ligar(endereco, sessao)).thenApply(ligacao -> {
+            synchronized (sessao) {
+                sessao.ligacao = ligacao;
+            }
+            sessao.metricas.setLigacao(ligacao);
+            return sessao;
+        }).whenComplete((s, erro) -> {
+            if (erro != null) sessao.ambito.close();
+        });
+    }
+
+    /**
+     * Resolve o nome do servidor, a cada tentativa de ligação; bloqueia.
+     */
+    private InetSocketAddress resolver() throws UnknownHostException {
+        InetSocketAddress resolvido = new InetSocketAddress(endereco.getHostString(), endereco.getPort());
+        if (resolvido.isUnresolved()) throw new UnknownHostException("Servidor desconhecido: " + endereco.getHostString());
+        return resolvido;
+    }
+
+    private static synchronized CicloRede rede() {
+        // Um ciclo que terminou com erro já fechou as suas ligações: as sessões religam num novo
+        if (rede == null || !rede.isAberto()) {
+            try {
+                rede = new CicloRede("rede-semaforo");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rede;
+    }
+
+    /**
+     * Termina o ciclo de rede e fecha todas as sessões, ao sair da aplicação;
+     * espera até {@value #ESPERA_FECHO_MS} ms que as ligações escrevam o que
+     * têm na fila, como o SAIU de {@link #fechar}.
+     */
+    public static synchronized void terminarRede() {
+        if (rede != null) rede.terminar(ESPERA_FECHO_MS);
+        rede = null;
+    }
+
+    /**
+     * Define o ecrã que recebe os eventos do servidor (do jogo 0).
+     *
+     * @param ouvinte ecrã ativo
+     */
+    public void setOuvinte(OuvinteJogo ouvinte) {
+        setOuvinte(0, ouvinte);
+    }
+
+    /**
+     * Define quem recebe os eventos de um jogo; null deixa de os entregar.
+     * Só pode ser chamado na thread da interface.
+     *
+     * @param jogo número do jogo
+     * @param ouvinte destino dos eventos, ou null
+     */
+    public void setOuvinte(int jogo, OuvinteJogo ouvinte) {
+        if (ouvinte != null) ouvintes.put(jogo, ouvinte);
+        else ouvintes.remove(jogo);
+    }
+
+    /** @return true se o servidor aceita vários jogos nesta ligação */
+    public synchronized boolean aceitaVariosJogos() {
+        return (capacidades & Protocolo.JOGOS) != 0;
+    }
+
+    /**
+     * Reserva o número de um novo jogo na ligação, a indicar nas suas mensagens
+     * com {@link Mensagem#paraJogo}. Só pode ser chamado na thread da interface.
+     *
+     * @return número do jogo, diferente de todos os anteriores
+     */
+    public int novoJogo() {
+        return ++ultimoJogo;
+    }
+
+    /**
+     * Envia uma mensagem ao servidor sem bloquear. Numa sessão retomável, as
+     * mensagens do jogo são numeradas e, se a ligação estiver em baixo, ficam
+     * guardadas até ser retomada.
+     *
+     * @param mensagem mensagem a enviar
+     * @throws IOException se a sessão tiver terminado
+     */
+    public synchronized void enviar(Mensagem mensagem) throws IOException {
+        if (terminada) throw new IOException("Ligação ao servidor terminada");
+        if (registo == null) {
+            ligacao.enviar(mensagem);
+            ecoar(mensagem);
+            return;
+        }
+        if (mensagem.getTipo() < Mensagem.OLA) {
+            mensagem.numerar(++enviadas);
+            registo[enviadas & (REGISTO - 1)].copiar(mensagem);
+        }
+        try {
+            if (!ligacao.isFechada()) {
+                ligacao.enviar(mensagem);
+                ecoar(mensagem);
+            }
+        } catch (IOException e) {
+            // A ligação caiu, ou fechou-se com a fila de saída cheia: a mensagem
+            // fica no registo e é reenviada quando a sessão for retomada
+        }
+    }
+
+    /**
+     * Depois de uma jogada, pede o eco ao servidor para medir a ida e volta.
+     * O servidor trata as mensagens de uma ligação pela ordem de chegada, pelo
+     * que o PONG só volta depois de a jogada ter sido aplicada.
+     */
+    private void ecoar(Mensagem mensagem) throws IOException {
+        if (mensagem.getTipo() == Mensagem.JOGADA && (capacidades & Protocolo.ECO) != 0)
+            // Os valores ímpares são dos batimentos da ligação
+            ligacao.enviar(new Mensagem().ping(System.nanoTime() & ~1L));
+    }
+
+    /** @return true se houver uma ligação aberta ao servidor (false enquanto religa) */
+    public synchronized boolean isLigada() {
+        return !terminada && ligacao != null && !ligacao.isFechada();
+    }
+
+    /** @return estimativa do tempo de ida e volta da ligação atual */
+    public synchronized EstimativaRtt getRtt() {
+        return ligacao.getRtt();
+    }
+
+    /** @return true se a sessão ainda estiver ativa (mesmo que a religar) */
+    public synchronized boolean isAberta() {
+        return !terminada;
+    }
+
+    /**
+     * Sai do servidor e fecha a ligação.
+     */
+    public synchronized void fechar() {
+        if (terminada) return;
+        terminar();
+        try {
+            // Numa sessão retomável, o servidor só avisa logo o adversário se souber que saímos
+            if (registo != null && !ligacao.isFechada()) ligacao.enviar(new Mensagem().sinal(Mensagem.SAIU));
+        } catch (IOException e) {
+            // Fecha na mesma
+        }
+        // Só fecha o canal depois de escrever o SAIU
+        ligacao.close();
+    }
+
+    @Override
+    public void mensagem(Ligacao origem, Mensagem mensagem) {
+        synchronized (this) {
+            if (origem != ligacao) return;
+            switch (mensagem.getTipo()) {
+                case Mensagem.CAPACIDADES:
+                    capacidades = mensagem.getCapacidades();
+                    return;
+                case Mensagem.SESSAO:
+                    iniciarRegisto(mensagem.getValor());
+                    return;
+                case Mensagem.RETOMADA:
+                    retomada(mensagem.getUltima());
+                    return;
+                case Mensagem.PONG:
+                    metricas.eco(System.nanoTime() - mensagem.getValor());
+                    return;
+                default:
+                    break;
+            }
+            if (mensagem.getSeq() != 0) {
+                // Repetida: já tinha sido aplicada antes da queda da ligação
+                if (mensagem.getSeq() <= recebidas) return;
+                recebidas = mensagem.getSeq();
+            }
+        }
+        Mensagem copia = new Mensagem().copiar(mensagem);
+        entregar(copia.getJogo(), o -> OuvinteJogo.despachar(copia, o));
+    }
+
+    @Override
+    public synchronized void fechada(Ligacao origem, IOException causa) {
+        if (origem != ligacao || terminada || causa == null) return;
+        metricas.erro("ler do servidor", causa);
+        if (token == 0) {
+            terminar();
+            entregar(TODOS, o -> o.ligacaoPerdida(causa.getMessage()));
+            return;
+        }
+        if (tentativas == 0) entregar(TODOS, OuvinteJogo::ligacaoInterrompida);
+        religar(causa.getMessage());
+    }
+
+    private void iniciarRegisto(long token) {
+        this.token = token;
+        if (registo != null) return;
+        registo = new Mensagem[REGISTO];
+        for (int i = 0; i < REGISTO; i++) registo[i] = new Mensagem();
+    }
+
+    /**
+     * O servidor aceitou a retoma: reenvia o que ele ainda não aplicou. Se
+     * faltarem mais mensagens do que as guardadas, o servidor e o cliente já
+     * não estão de acordo sobre o jogo e a sessão termina.
+     */
+    private void retomada(int ultima) {
+        if (ultima < 0) {
+            terminar();
+            ligacao.close();
+            entregar(TODOS, o -> o.ligacaoPerdida("A sessão expirou no servidor"));
+            return;
+        }
+        if (enviadas - ultima > REGISTO) {
+            terminar();
+            try {
+                // Avisa o servidor, para não deixar o adversário à espera da retoma
+                ligacao.enviar(new Mensagem().sinal(Mensagem.SAIU));
+            } catch (IOException e) {
+                // Fecha na mesma
+            }
+            // Só fecha o canal depois de escrever o SAIU
+            ligacao.close();
+            String motivo = "Perderam-se " + (enviadas - ultima) + " mensagens enviadas durante a queda da ligação";
+            metricas.erro("retomar a sessão", new IOException(motivo));
+            entregar(TODOS, o -> o.ligacaoPerdida(motivo));
+            return;
+        }
+        tentativas = 0;
+        try {
+            for (int seq = ultima + 1; seq <= enviadas; seq++)
+                ligacao.enviar(registo[seq & (REGISTO - 1)]);
+        } catch (IOException e) {
+            // A nova ligação também caiu; fechada() volta a tentar
+        }
+        entregar(TODOS, OuvinteJogo::ligacaoRetomada);
+    }
+
+    /**
+     * Agenda uma nova tentativa de ligação, com esperas que duplicam até {@value #ESPERA_MAXIMA_MS} ms.
+     */
+    private void religar(String motivo) {
+        if (tentativas >= TENTATIVAS) {
+            terminar();
+            entregar(TODOS, o -> o.ligacaoPerdida(motivo));
+            return;
+        }
+        long espera = Math.min(ESPERA_MAXIMA_MS, ESPERA_INICIAL_MS << tentativas++);
+        metricas.religacao(motivo, tentativas);
+        ambito.iniciar("religar", () -> {
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                // A sessão terminou entretanto
+                return;
+            }
+            InetSocketAddress resolvido;
+            try {
+                resolvido = resolver();
+            } catch (UnknownHostException e) {
+                religada(null, e);
+                return;
+            }
+            rede().ligar(resolvido, this).whenComplete(this::religada);
+        });
+    }
+
+    /**
+     * Dá a sessão por terminada e cancela as suas tarefas.
+     */
+    private void terminar() {
+        terminada = true;
+        ambito.close();
+    }
+
+    private synchronized void religada(Ligacao nova, Throwable erro) {
+        if (terminada) {
+            if (nova != null) nova.close();
+            return;
+        }
+        if (erro != null) {
+            Throwable causa = erro.getCause() != null ? erro.getCause() : erro;
+            religar(causa.getMessage());
+            return;
+        }
+        ligacao = nova;
+        metricas.setLigacao(nova);
+        // A retoma não volta a negociar: ativa as capacidades e os batimentos da sessão
+        nova.ativar(capacidades);
+        try {
+            nova.enviar(new Mensagem().retomar(token, recebidas));
+        } catch (IOException e) {
+            // Tratado abaixo
+        }
+        // Fechou antes de ficar associada à sessão, pelo que fechada() a ignorou
+        if (nova.isFechada()) religar("Ligação recusada");
+    }
+
+    /**
+     * Junta um evento aos pendentes e, se ainda não houver, agenda uma entrega
+     * na thread da interface; os eventos que chegarem até lá vão na mesma.
+     */
+    private void entregar(int jogo, Consumer<OuvinteJogo> acao) {
+        pendentes.add(new Evento(jogo, acao));
+        if (agendada.compareAndSet(false, true)) {
+            agendadaEm = System.nanoTime();
+            interfaceGrafica.execute(this::entregarPendentes);
+        }
+    }
+
+    private void entregarPendentes() {
+        long espera = System.nanoTime() - agendadaEm;
+        // Limpa antes de esvaziar: um evento que chegue a meio agenda nova entrega ou é apanhado já
+        agendada.set(false);
+        int entregues = 0;
+        Evento evento;
+        while ((evento = pendentes.poll()) != null) {
+            if (evento.jogo == TODOS) {
+                // Cópia: um ouvinte pode fechar o seu jogo ao receber o evento
+                for (OuvinteJogo o : new ArrayList<>(ouvintes.values())) evento.acao.accept(o);
+            } else {
+                OuvinteJogo o = ouvintes.get(evento.jogo);
+                if (o != null) evento.acao.accept(o);
+            }
+            entregues++;
+        }
+        metricas.filaInterface(espera, entregues);
+    }
+
+    /** Evento por entregar ao ouvinte de um jogo, ou a todos */
+    private static final class Evento {
+        final int jogo;
+        final Consumer<OuvinteJogo> acao;
+
+        Evento(int jogo, Consumer<OuvinteJogo> acao) {
+            this.jogo = jogo;
+            this.acao = acao;
+        }
+    }
+}
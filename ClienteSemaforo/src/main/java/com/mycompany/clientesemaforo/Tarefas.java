@@ -0,0 +1,86 @@
+package com.mycompany.clientesemaforo;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor único do cliente: cada tarefa corre numa thread virtual própria,
+ * com nome, e pertence a um {@link Ambito}.
+ *
+ * Os âmbitos seguem o ciclo de vida de quem lança as tarefas: o da aplicação
+ * dura até sair, cada {@link Sessao} tem o seu e cada ecrã mostrado tem outro.
+ * Fechar um âmbito interrompe as suas tarefas e as dos âmbitos filhos, pelo
+ * que uma pesquisa ou uma religação nunca sobrevive ao ecrã ou à sessão que a
+ * pediu. Como as threads virtuais são baratas, o mesmo processo pode ter muitas
+ * sessões (bots, espectadores, várias mesas) sem um pool para dimensionar.
+ *
+ * O trabalho de cálculo intenso, como a {@link PainelAnalise análise}, continua
+ * no seu {@link java.util.concurrent.ForkJoinPool}, com um número fixo de threads.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Tarefas {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("semaforo-", 0).factory());
+
+    private static final Ambito APLICACAO = new Ambito("aplicacao", null);
+
+    private static final AtomicInteger ATIVAS = new AtomicInteger();
+    private static final AtomicLong INICIADAS = new AtomicLong();
+
+    private Tarefas() {
+    }
+
+    /** @return âmbito da aplicação, raiz de todos os outros */
+    static Ambito aplicacao() {
+        return APLICACAO;
+    }
+
+    /** @return tarefas a correr neste momento */
+    static int getAtivas() {
+        return ATIVAS.get();
+    }
+
+    /** @return tarefas iniciadas desde o arranque */
+    static long getIniciadas() {
+        return INICIADAS.get();
+    }
+
+    /**
+     * Cancela todas as tarefas e espera que terminem, ao sair da aplicação.
+     *
+     * @param esperaMs tempo máximo de espera
+     */
+    static void terminar(long esperaMs) {
+        APLICACAO.close();
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(esperaMs, TimeUnit.MILLISECONDS))
+                System.err.println("Tarefas por terminar ao sair: " + ATIVAS.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Corre uma tarefa numa thread virtual com o nome indicado.
+     */
+    static void executar(String nome, Runnable tarefa) {
+        INICIADAS.incrementAndGet();
+        EXECUTOR.execute(() -> {
+            Thread.currentThread().setName(nome);
+            ATIVAS.incrementAndGet();
+            try {
+                tarefa.run();
+            } finally {
+                ATIVAS.decrementAndGet();
+            }
+        });
+    }
+}
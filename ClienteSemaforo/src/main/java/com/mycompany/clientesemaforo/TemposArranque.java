@@ -0,0 +1,67 @@
+package com.mycompany.clientesemaforo;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.time.Instant;
+
+/**
+ * Relatório dos tempos de arranque, ativado com -Dsemaforo.tempos=true.
+ *
+ * Mede, a partir do arranque da JVM, quando é chamado o main, quando é
+ * desenhado o primeiro frame e quando o ecrã de jogo fica pronto, para
+ * detetar regressões no arranque a frio.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class TemposArranque {
+
+    static final boolean ATIVO = Boolean.getBoolean("semaforo.tempos");
+
+    private static final long INICIO_JVM = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+
+    private static boolean jogoMedido;
+
+    private TemposArranque() {
+    }
+
+    /**
+     * Regista um instante do arranque.
+     *
+     * @param etapa descrição da etapa
+     */
+    static void marcar(String etapa) {
+        if (ATIVO) System.out.printf("[arranque] %-22s %5d ms%n", etapa, System.currentTimeMillis() - INICIO_JVM);
+    }
+
+    /**
+     * Regista a etapa quando a cena acabar de desenhar o próximo frame.
+     *
+     * @param cena cena a observar
+     * @param etapa descrição da etapa
+     */
+    static void marcarNoProximoFrame(Scene cena, String etapa) {
+        if (!ATIVO) return;
+        Runnable[] ouvinte = new Runnable[1];
+        ouvinte[0] = () -> {
+            // Não se pode remover o ouvinte enquanto a cena percorre a lista
+            Platform.runLater(() -> cena.removePostLayoutPulseListener(ouvinte[0]));
+            marcar(etapa);
+        };
+        cena.addPostLayoutPulseListener(ouvinte[0]);
+    }
+
+    /**
+     * Regista a primeira vez que o ecrã de jogo fica pronto.
+     *
+     * @param cena cena da aplicação
+     */
+    static void jogoPronto(Scene cena) {
+        if (jogoMedido) return;
+        jogoMedido = true;
+        marcarNoProximoFrame(cena, "ecrã de jogo pronto");
+    }
+}
@@ -1,6 +1,9 @@
 module com.mycompany.clientesemaforo {
     requires javafx.controls;
     requires javafx.fxml;
+    requires com.mycompany.nucleosemaforo;
+    requires jdk.jfr;
+    requires java.management;
 
     opens com.mycompany.clientesemaforo to javafx.fxml;
     exports com.mycompany.clientesemaforo;
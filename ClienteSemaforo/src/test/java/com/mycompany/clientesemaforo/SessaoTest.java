@@ -0,0 +1,125 @@
+package com.mycompany.clientesemaforo;
+
+import com.mycompany.nucleosemaforo.protocolo.CanalMensagens;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.OuvinteJogo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testes da {@link Sessao} contra um servidor falso: numa sessão retomável, o
+ * servidor recebe SAIU antes do fim da ligação quando o jogador sai, quando a
+ * aplicação termina logo a seguir e quando a retoma falha por faltarem
+ * mensagens. Sem JavaFX, os eventos são entregues na própria thread de rede.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class SessaoTest {
+
+    /** Servidor falso com uma sessão ligada a ele */
+    private static final class Ligados implements AutoCloseable {
+        final ServerSocket servidor;
+        final CanalMensagens canal;
+        final Sessao sessao;
+        final CompletableFuture<String> perdida = new CompletableFuture<>();
+
+        Ligados() throws Exception {
+            servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            CompletableFuture<Sessao> futuro = Sessao.ligar(InetAddress.getLoopbackAddress().getHostAddress(),
+                    servidor.getLocalPort(), Runnable::run);
+            canal = new CanalMensagens(servidor.accept());
+            sessao = futuro.get(5, TimeUnit.SECONDS);
+
+            // A sessão fica retomável; ESPERAR só chega ao ouvinte depois de SESSAO ter sido tratada
+            CompletableFuture<Void> sincronizada = new CompletableFuture<>();
+            sessao.setOuvinte(new OuvinteJogo() {
+                @Override
+                public void esperar() {
+                    sincronizada.complete(null);
+                }
+
+                @Override
+                public void ligacaoPerdida(String motivo) {
+                    perdida.complete(motivo);
+                }
+            });
+            canal.enviar(new Mensagem().sessao(42));
+            canal.enviar(new Mensagem().sinal(Mensagem.ESPERAR));
+            sincronizada.get(5, TimeUnit.SECONDS);
+        }
+
+        /** Lê, numa outra thread, até ao fim da ligação e fecha-a do lado do servidor */
+        CompletableFuture<List<Integer>> lerAteAoFim() {
+            return CompletableFuture.supplyAsync(() -> {
+                List<Integer> tipos = new ArrayList<>();
+                Mensagem m = new Mensagem();
+                try (CanalMensagens c = canal) {
+                    while (true) tipos.add(c.receber(m).getTipo());
+                } catch (EOFException e) {
+                    return tipos;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+            servidor.close();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void sairEnviaSaiu() throws Exception {
+        try (Ligados l = new Ligados()) {
+            CompletableFuture<List<Integer>> recebidas = l.lerAteAoFim();
+            l.sessao.fechar();
+            Assertions.assertEquals(List.of(Mensagem.SAIU), recebidas.get(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(l.sessao.isAberta());
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void sairDaAplicacaoEnviaSaiu() throws Exception {
+        // Como o botão de sair: fecha a sessão e termina a rede logo a seguir
+        try (Ligados l = new Ligados()) {
+            CompletableFuture<List<Integer>> recebidas = l.lerAteAoFim();
+            l.sessao.fechar();
+            Sessao.terminarRede();
+            Assertions.assertEquals(List.of(Mensagem.SAIU), recebidas.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void retomaSemAsMensagensEmFaltaEnviaSaiu() throws Exception {
+        try (Ligados l = new Ligados()) {
+            // Uma jogada a mais do que as guardadas, nenhuma aplicada pelo servidor
+            for (int n = 0; n <= Sessao.REGISTO; n++) l.sessao.enviar(new Mensagem().jogada(0, 0, 1));
+            CompletableFuture<List<Integer>> recebidas = l.lerAteAoFim();
+            l.canal.enviar(new Mensagem().retomada(0));
+
+            List<Integer> tipos = recebidas.get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(Sessao.REGISTO + 2, tipos.size(), tipos.toString());
+            Assertions.assertEquals(Mensagem.SAIU, tipos.get(tipos.size() - 1));
+            Assertions.assertTrue(l.perdida.get(5, TimeUnit.SECONDS).startsWith("Perderam-se"));
+            Assertions.assertFalse(l.sessao.isAberta());
+        }
+    }
+}
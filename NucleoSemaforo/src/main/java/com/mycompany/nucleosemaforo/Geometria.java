@@ -0,0 +1,308 @@
+package com.mycompany.nucleosemaforo;
+
+import java.util.Arrays;
+
+/**
+ * Dimensões de uma variante do Jogo Semáforo: linhas e colunas do tabuleiro,
+ * comprimento de uma linha vencedora e número de peças de cada cor.
+ *
+ * O tabuleiro continua a ser o {@code long} de {@link Tabuleiro}, com a célula
+ * {@code linha * colunas + coluna}, pelo que cabem no máximo 32 células; cada
+ * lado vai até {@value #MAXIMO_LADO}, o que cabe numa jogada do protocolo
+ * binário. {@link Regras} e {@link Tabuleiro} tratam só do tabuleiro 3x4
+ * ({@link #PADRAO}), com operações mais rápidas para o motor de pesquisa.
+ *
+ * A vitória é verificada de forma incremental: para cada célula guarda-se a
+ * lista das linhas vencedoras que passam por ela, e depois de uma jogada só se
+ * testam essas, com uma comparação de máscaras por linha. Como o jogo acaba
+ * na primeira linha completa, não é preciso voltar a percorrer o tabuleiro, e
+ * o custo de uma jogada depende do comprimento da linha e não do tamanho do
+ * tabuleiro.
+ *
+ * As instâncias são imutáveis.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Geometria {
+
+    /** Maior número de linhas ou de colunas */
+    public static final int MAXIMO_LADO = 8;
+
+    /** Maior número de células, limitado pelos planos de 32 bits de {@link Tabuleiro} */
+    public static final int MAXIMO_CELULAS = 32;
+
+    /** Direções de uma linha: horizontal, vertical, diagonal e antidiagonal */
+    private static final int[][] DIRECOES = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    /** Tabuleiro 3x4 com linhas de 3 e 8 peças de cada cor */
+    public static final Geometria PADRAO = new Geometria(Tabuleiro.LINHAS, Tabuleiro.COLUNAS, 3, Regras.PECAS_POR_COR);
+
+    private final int linhas;
+    private final int colunas;
+    private final int comprimento;
+    private final int pecasPorCor;
+    private final int celulas;
+    private final int todas;
+    private final int[] linhasVencedoras;
+    private final int[][] linhasPorCelula;
+
+    /**
+     * @param linhas número de linhas (1 a {@value #MAXIMO_LADO})
+     * @param colunas número de colunas (1 a {@value #MAXIMO_LADO})
+     * @param comprimento peças alinhadas para vencer (2 até ao maior lado)
+     * @param pecasPorCor peças disponíveis de cada cor (pelo menos 1)
+     * @throws IllegalArgumentException se as dimensões não forem suportadas
+     */
+    public Geometria(int linhas, int colunas, int comprimento, int pecasPorCor) {
+        if (linhas < 1 || colunas < 1 || linhas > MAXIMO_LADO || colunas > MAXIMO_LADO
+                || linhas * colunas > MAXIMO_CELULAS)
+            throw new IllegalArgumentException("Tabuleiro não suportado: " + linhas + "x" + colunas);
+        if (comprimento < 2 || comprimento > Math.max(linhas, colunas))
+            throw new IllegalArgumentException("Comprimento de linha inválido: " + comprimento);
+        if (pecasPorCor < 1)
+            throw new IllegalArgumentException("Número de peças inválido: " + pecasPorCor);
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.comprimento = comprimento;
+        this.pecasPorCor = pecasPorCor;
+        this.celulas = linhas * colunas;
+        this.todas = (int) ((1L << celulas) - 1);
+        this.linhasVencedoras = calcularLinhas();
+        this.linhasPorCelula = indexarLinhas();
+    }
+
+    /**
+     * Lê uma geometria no formato {@code LxC:comprimento:peças}, por exemplo
+     * {@code "5x6:4:10"}; o comprimento e as peças podem ser omitidos
+     * (por omissão, 3 e 8).
+     *
+     * @param texto descrição da geometria
+     * @return geometria correspondente
+     * @throws IllegalArgumentException se o texto for inválido
+     */
+    public static Geometria ler(String texto) {
+        String[] partes = texto.trim().split(":");
+        String[] lados = partes[0].split("x");
+        if (lados.length != 2 || partes.length > 3) throw new IllegalArgumentException("Geometria inválida: " + texto);
+        try {
+            int comprimento = partes.length > 1 ? Integer.parseInt(partes[1]) : PADRAO.comprimento;
+            int pecas = partes.length > 2 ? Integer.parseInt(partes[2]) : PADRAO.pecasPorCor;
+            Geometria g = new Geometria(Integer.parseInt(lados[0]), Integer.parseInt(lados[1]), comprimento, pecas);
+            return g.equals(PADRAO) ? PADRAO : g;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Geometria inválida: " + texto);
+        }
+    }
+
+    /**
+     * Geometria pedida com {@code -Dsemaforo.geometria=LxC:comprimento:peças},
+     * ou a {@link #PADRAO} se não for indicada.
+     *
+     * @return geometria configurada
+     * @throws IllegalArgumentException se a propriedade for inválida
+     */
+    public static Geometria porOmissao() {
+        String texto = System.getProperty("semaforo.geometria");
+        return texto == null || texto.isBlank() ? PADRAO : ler(texto);
+    }
+
+    /** @return número de linhas */
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /** @return número de colunas */
+    public int getColunas() {
+        return colunas;
+    }
+
+    /** @return número de células */
+    public int getCelulas() {
+        return celulas;
+    }
+
+    /** @return peças alinhadas necessárias para vencer */
+    public int getComprimento() {
+        return comprimento;
+    }
+
+    /** @return peças disponíveis de cada cor no início do jogo */
+    public int getPecasPorCor() {
+        return pecasPorCor;
+    }
+
+    /** @return número de linhas vencedoras no tabuleiro */
+    public int getNumeroLinhasVencedoras() {
+        return linhasVencedoras.length;
+    }
+
+    /**
+     * @param linha linha da célula
+     * @param coluna coluna da célula
+     * @return índice da célula
+     */
+    public int celula(int linha, int coluna) {
+        return linha * colunas + coluna;
+    }
+
+    /**
+     * Devolve a máscara das células com um determinado valor (um bit por célula).
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param cor valor procurado
+     * @return máscara com {@link #getCelulas()} bits
+     */
+    public int mascara(long tabuleiro, int cor) {
+        if (cor == Tabuleiro.VAZIO) return ~((int) tabuleiro | (int) (tabuleiro >>> 32)) & todas;
+        return Tabuleiro.mascara(tabuleiro, cor);
+    }
+
+    /**
+     * Devolve quantas peças de uma cor ainda estão disponíveis.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param cor {@link Tabuleiro#VERDE}, {@link Tabuleiro#AMARELO} ou {@link Tabuleiro#VERMELHO}
+     * @return número de peças por usar
+     */
+    public int disponiveis(long tabuleiro, int cor) {
+        return pecasPorCor - (Regras.PECAS_POR_COR - Regras.disponiveis(tabuleiro, cor));
+    }
+
+    /**
+     * Devolve a máscara das células onde se pode jogar, sem verificar se o
+     * jogo já foi ganho (quem chama sabe-o por {@link #vitoriaEm}).
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return máscara de jogadas possíveis
+     */
+    public int jogadasPossiveis(long tabuleiro) {
+        int possiveis = 0;
+        if (disponiveis(tabuleiro, Tabuleiro.VERDE) > 0) possiveis |= mascara(tabuleiro, Tabuleiro.VAZIO);
+        if (disponiveis(tabuleiro, Tabuleiro.AMARELO) > 0) possiveis |= mascara(tabuleiro, Tabuleiro.VERDE);
+        if (disponiveis(tabuleiro, Tabuleiro.VERMELHO) > 0) possiveis |= mascara(tabuleiro, Tabuleiro.AMARELO);
+        return possiveis;
+    }
+
+    /**
+     * Verifica se é possível jogar numa célula de um jogo ainda não ganho.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param celula índice da célula
+     * @return true se a jogada for possível
+     */
+    public boolean jogadaLegal(long tabuleiro, int celula) {
+        return celula >= 0 && celula < celulas && (jogadasPossiveis(tabuleiro) >>> celula & 1) != 0;
+    }
+
+    /**
+     * Verifica se a peça da célula completa uma linha: só as linhas que passam
+     * por ela são testadas.
+     *
+     * @param tabuleiro tabuleiro compacto, depois da jogada
+     * @param celula célula jogada
+     * @return true se a jogada ganhou o jogo
+     */
+    public boolean vitoriaEm(long tabuleiro, int celula) {
+        int cor = Tabuleiro.celula(tabuleiro, celula);
+        if (cor == Tabuleiro.VAZIO) return false;
+        int m = Tabuleiro.mascara(tabuleiro, cor);
+        for (int linha : linhasPorCelula[celula])
+            if ((m & linha) == linha) return true;
+        return false;
+    }
+
+    /**
+     * Verifica todas as linhas do tabuleiro, por exemplo ao receber um estado
+     * completo em vez de uma jogada.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return true se houver uma linha completa de alguma cor
+     */
+    public boolean vitoria(long tabuleiro) {
+        for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++) {
+            int m = Tabuleiro.mascara(tabuleiro, cor);
+            for (int linha : linhasVencedoras)
+                if ((m & linha) == linha) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Devolve o estado do jogo depois de uma jogada, verificando só as linhas
+     * que passam pela célula jogada.
+     *
+     * @param tabuleiro tabuleiro compacto, depois da jogada
+     * @param celula célula jogada
+     * @return {@link Regras#EM_CURSO}, {@link Regras#VITORIA} (de quem jogou) ou {@link Regras#EMPATE}
+     */
+    public int resultado(long tabuleiro, int celula) {
+        if (vitoriaEm(tabuleiro, celula)) return Regras.VITORIA;
+        return jogadasPossiveis(tabuleiro) == 0 ? Regras.EMPATE : Regras.EM_CURSO;
+    }
+
+    /**
+     * Devolve o estado de um tabuleiro qualquer, percorrendo todas as linhas.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return {@link Regras#EM_CURSO}, {@link Regras#VITORIA} (de quem jogou por último) ou {@link Regras#EMPATE}
+     */
+    public int resultado(long tabuleiro) {
+        if (vitoria(tabuleiro)) return Regras.VITORIA;
+        return jogadasPossiveis(tabuleiro) == 0 ? Regras.EMPATE : Regras.EM_CURSO;
+    }
+
+    /**
+     * Calcula as máscaras de todas as linhas de {@link #comprimento} células alinhadas.
+     */
+    private int[] calcularLinhas() {
+        int[] encontradas = new int[4 * celulas];
+        int n = 0;
+        for (int[] d : DIRECOES) {
+            for (int i = 0; i < linhas; i++) {
+                for (int j = 0; j < colunas; j++) {
+                    int fimLinha = i + (comprimento - 1) * d[0], fimColuna = j + (comprimento - 1) * d[1];
+                    if (fimLinha >= linhas || fimColuna < 0 || fimColuna >= colunas) continue;
+                    int m = 0;
+                    for (int k = 0; k < comprimento; k++) m |= 1 << celula(i + k * d[0], j + k * d[1]);
+                    encontradas[n++] = m;
+                }
+            }
+        }
+        return Arrays.copyOf(encontradas, n);
+    }
+
+    /**
+     * Para cada célula, junta as linhas vencedoras que passam por ela.
+     */
+    private int[][] indexarLinhas() {
+        int[][] indice = new int[celulas][];
+        for (int c = 0; c < celulas; c++) {
+            int n = 0;
+            for (int linha : linhasVencedoras) if ((linha >>> c & 1) != 0) n++;
+            indice[c] = new int[n];
+            n = 0;
+            for (int linha : linhasVencedoras) if ((linha >>> c & 1) != 0) indice[c][n++] = linha;
+        }
+        return indice;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Geometria)) return false;
+        Geometria g = (Geometria) o;
+        return g.linhas == linhas && g.colunas == colunas && g.comprimento == comprimento && g.pecasPorCor == pecasPorCor;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((linhas * 31 + colunas) * 31 + comprimento) * 31 + pecasPorCor;
+    }
+
+    /** @return descrição no formato aceite por {@link #ler}, por exemplo "3x4:3:8" */
+    @Override
+    public String toString() {
+        return linhas + "x" + colunas + ":" + comprimento + ":" + pecasPorCor;
+    }
+}
@@ -0,0 +1,130 @@
+package com.mycompany.nucleosemaforo;
+
+import java.util.Arrays;
+
+/**
+ * Sequência imutável das posições de um jogo, da inicial à atual, para rever,
+ * desfazer e analisar jogadas sem voltar a jogar o jogo desde o início.
+ *
+ * Cada posição é um tabuleiro compacto ({@link Tabuleiro}), pelo que guardar
+ * uma posição inteira custa o mesmo que guardar a jogada. Uma história nunca
+ * muda: {@link #jogar(long)} e {@link #ate(int)} devolvem outra, que partilha
+ * as posições em comum. As histórias de um mesmo jogo partilham um único
+ * array, em que cada uma vê só o seu prefixo; acrescentar à história mais
+ * longa escreve no fim do array (que duplica quando enche), e acrescentar a
+ * um prefixo, depois de desfazer jogadas, copia-o para um array novo e passa
+ * a ser uma variante. Ir para qualquer jogada é um acesso ao array.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class HistoriaJogo {
+
+    /** Posições iniciais reservadas num array novo */
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    /**
+     * Posições partilhadas pelas histórias de um jogo; só cresce, sob o seu
+     * próprio lock. O array é republicado a cada posição escrita, para que
+     * quem o lê sem o lock veja as posições da sua história.
+     */
+    private static final class Posicoes {
+        volatile long[] tabuleiros;
+        int usadas;
+
+        Posicoes(long[] tabuleiros, int usadas) {
+            this.tabuleiros = tabuleiros;
+            this.usadas = usadas;
+        }
+    }
+
+    private final Posicoes posicoes;
+    private final int tamanho;
+
+    private HistoriaJogo(Posicoes posicoes, int tamanho) {
+        this.posicoes = posicoes;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Começa uma história.
+     *
+     * @param tabuleiro posição de partida (normalmente {@link Tabuleiro#INICIAL})
+     * @return história só com essa posição
+     */
+    public static HistoriaJogo inicio(long tabuleiro) {
+        long[] tabuleiros = new long[CAPACIDADE_INICIAL];
+        tabuleiros[0] = tabuleiro;
+        return new HistoriaJogo(new Posicoes(tabuleiros, 1), 1);
+    }
+
+    /**
+     * Acrescenta uma posição, sem alterar esta história.
+     *
+     * @param tabuleiro posição depois da jogada
+     * @return história com mais uma jogada
+     */
+    public HistoriaJogo jogar(long tabuleiro) {
+        synchronized (posicoes) {
+            if (posicoes.usadas == tamanho) {
+                long[] tabuleiros = posicoes.tabuleiros;
+                if (tamanho == tabuleiros.length) tabuleiros = Arrays.copyOf(tabuleiros, tamanho * 2);
+                tabuleiros[tamanho] = tabuleiro;
+                posicoes.tabuleiros = tabuleiros;
+                posicoes.usadas = tamanho + 1;
+                return new HistoriaJogo(posicoes, tamanho + 1);
+            }
+        }
+        // Outra história já continuou este prefixo: esta passa a ser uma variante
+        long[] tabuleiros = Arrays.copyOf(posicoes.tabuleiros, Math.max(CAPACIDADE_INICIAL, tamanho * 2));
+        tabuleiros[tamanho] = tabuleiro;
+        return new HistoriaJogo(new Posicoes(tabuleiros, tamanho + 1), tamanho + 1);
+    }
+
+    /**
+     * Prefixo desta história, por exemplo para desfazer jogadas.
+     *
+     * @param jogadas número de jogadas a manter, de 0 a {@link #getJogadas()}
+     * @return história até essa jogada, com as posições partilhadas
+     */
+    public HistoriaJogo ate(int jogadas) {
+        if (jogadas < 0 || jogadas >= tamanho)
+            throw new IndexOutOfBoundsException("Jogada " + jogadas + " de " + (tamanho - 1));
+        return jogadas == tamanho - 1 ? this : new HistoriaJogo(posicoes, jogadas + 1);
+    }
+
+    /**
+     * Posição depois de um número de jogadas.
+     *
+     * @param jogadas de 0 (posição de partida) a {@link #getJogadas()}
+     * @return tabuleiro compacto
+     */
+    public long posicao(int jogadas) {
+        if (jogadas < 0 || jogadas >= tamanho)
+            throw new IndexOutOfBoundsException("Jogada " + jogadas + " de " + (tamanho - 1));
+        return posicoes.tabuleiros[jogadas];
+    }
+
+    /**
+     * Célula jogada para chegar a uma posição.
+     *
+     * @param jogada de 1 a {@link #getJogadas()}
+     * @return índice da célula que mudou em relação à posição anterior
+     */
+    public int celulaJogada(int jogada) {
+        long diferenca = posicao(jogada - 1) ^ posicao(jogada);
+        // A célula i está no bit i de um plano e no bit 32 + i do outro
+        return Long.numberOfTrailingZeros(diferenca) & 31;
+    }
+
+    /** @return número de jogadas desde a posição de partida */
+    public int getJogadas() {
+        return tamanho - 1;
+    }
+
+    /** @return posição depois da última jogada */
+    public long getAtual() {
+        return posicoes.tabuleiros[tamanho - 1];
+    }
+}
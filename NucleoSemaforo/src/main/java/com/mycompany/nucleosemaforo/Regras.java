@@ -0,0 +1,162 @@
+package com.mycompany.nucleosemaforo;
+
+/**
+ * Regras do Jogo Semáforo sobre o tabuleiro compacto de {@link Tabuleiro}.
+ *
+ * Em cada jogada o jogador coloca uma peça verde num quadrado vazio, substitui
+ * uma verde por uma amarela ou uma amarela por uma vermelha. Há 8 peças de cada
+ * cor, partilhadas pelos dois jogadores, e ganha quem completar uma linha de 3
+ * peças da mesma cor.
+ *
+ * Como cada célula só pode avançar, o número de peças gastas e o número de
+ * jogadas feitas decorrem apenas do tabuleiro, pelo que nenhuma destas
+ * operações precisa de outro estado.
+ *
+ * Estas regras são as do tabuleiro 3x4 com 8 peças de cada cor, usadas pelo
+ * motor de pesquisa; as variantes com outras dimensões usam {@link Geometria}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Regras {
+
+    /** Número de peças de cada cor disponíveis no início do jogo */
+    public static final int PECAS_POR_COR = 8;
+
+    /** Estado de um jogo ainda por terminar */
+    public static final int EM_CURSO = 0;
+
+    /** O jogador que fez a última jogada completou uma linha */
+    public static final int VITORIA = 1;
+
+    /** Não há jogadas possíveis e ninguém completou uma linha */
+    public static final int EMPATE = 2;
+
+    private Regras() {
+    }
+
+    /**
+     * Devolve quantas peças de uma cor ainda estão disponíveis.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param cor {@link Tabuleiro#VERDE}, {@link Tabuleiro#AMARELO} ou {@link Tabuleiro#VERMELHO}
+     * @return número de peças por usar
+     */
+    public static int disponiveis(long tabuleiro, int cor) {
+        int baixo = (int) tabuleiro;
+        int alto = (int) (tabuleiro >>> 32);
+        int usadas;
+        switch (cor) {
+            case Tabuleiro.VERDE:
+                usadas = Integer.bitCount(baixo | alto);
+                break;
+            case Tabuleiro.AMARELO:
+                usadas = Integer.bitCount(alto);
+                break;
+            case Tabuleiro.VERMELHO:
+                usadas = Integer.bitCount(baixo & alto);
+                break;
+            default:
+                return 0;
+        }
+        return PECAS_POR_COR - usadas;
+    }
+
+    /**
+     * Devolve a máscara das células onde o jogador a jogar pode jogar
+     * (um bit por célula), ou 0 se o jogo já terminou.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return máscara de jogadas legais
+     */
+    public static int jogadasLegais(long tabuleiro) {
+        if (Tabuleiro.vitoria(tabuleiro)) return 0;
+        int legais = 0;
+        if (disponiveis(tabuleiro, Tabuleiro.VERDE) > 0)
+            legais |= Tabuleiro.mascara(tabuleiro, Tabuleiro.VAZIO);
+        if (disponiveis(tabuleiro, Tabuleiro.AMARELO) > 0)
+            legais |= Tabuleiro.mascara(tabuleiro, Tabuleiro.VERDE);
+        if (disponiveis(tabuleiro, Tabuleiro.VERMELHO) > 0)
+            legais |= Tabuleiro.mascara(tabuleiro, Tabuleiro.AMARELO);
+        return legais;
+    }
+
+    /**
+     * Verifica se é permitido jogar numa célula.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param celula índice da célula
+     * @return true se a jogada for legal
+     */
+    public static boolean jogadaLegal(long tabuleiro, int celula) {
+        return celula >= 0 && celula < Tabuleiro.CELULAS
+                && (jogadasLegais(tabuleiro) >>> celula & 1) != 0;
+    }
+
+    /**
+     * Devolve a cor que uma jogada na célula lá deixa (verde sobre vazio,
+     * amarela sobre verde, vermelha sobre amarela).
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param celula índice da célula
+     * @return cor resultante, ou {@link Tabuleiro#VAZIO} se a célula já for vermelha
+     */
+    public static int proximaCor(long tabuleiro, int celula) {
+        int atual = Tabuleiro.celula(tabuleiro, celula);
+        return atual == Tabuleiro.VERMELHO ? Tabuleiro.VAZIO : atual + 1;
+    }
+
+    /**
+     * Faz uma jogada, sem verificar se é legal.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param celula índice da célula
+     * @return tabuleiro resultante
+     */
+    public static long jogar(long tabuleiro, int celula) {
+        return Tabuleiro.colocar(tabuleiro, celula, proximaCor(tabuleiro, celula));
+    }
+
+    /**
+     * Devolve o número de jogadas feitas até chegar a este tabuleiro
+     * (cada célula vale 1 se verde, 2 se amarela e 3 se vermelha).
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return número de jogadas
+     */
+    public static int numeroJogadas(long tabuleiro) {
+        return Integer.bitCount((int) tabuleiro) + 2 * Integer.bitCount((int) (tabuleiro >>> 32));
+    }
+
+    /**
+     * Indica se é a vez do jogador que começou o jogo.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return true se for a vez do primeiro jogador
+     */
+    public static boolean vezDoPrimeiro(long tabuleiro) {
+        return (numeroJogadas(tabuleiro) & 1) == 0;
+    }
+
+    /**
+     * Devolve o estado do jogo.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return {@link #EM_CURSO}, {@link #VITORIA} (de quem jogou por último) ou {@link #EMPATE}
+     */
+    public static int resultado(long tabuleiro) {
+        if (Tabuleiro.vitoria(tabuleiro)) return VITORIA;
+        return jogadasLegais(tabuleiro) == 0 ? EMPATE : EM_CURSO;
+    }
+
+    /**
+     * Indica se o jogo terminou, por vitória ou por falta de jogadas.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return true se o jogo terminou
+     */
+    public static boolean terminado(long tabuleiro) {
+        return jogadasLegais(tabuleiro) == 0;
+    }
+}
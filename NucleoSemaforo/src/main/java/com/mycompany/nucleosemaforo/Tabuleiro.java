@@ -0,0 +1,229 @@
+package com.mycompany.nucleosemaforo;
+
+/**
+ * Representação compacta do tabuleiro 3x4 do Jogo Semáforo.
+ *
+ * O tabuleiro inteiro cabe num único {@code long}, com dois bits por célula
+ * repartidos por dois planos: o bit {@code i} (plano baixo) e o bit {@code 32 + i}
+ * (plano alto) da célula {@code i = linha * 4 + coluna}. Os valores são
+ * {@link #VAZIO}, {@link #VERDE}, {@link #AMARELO} e {@link #VERMELHO}.
+ *
+ * Todas as operações são estáticas e devolvem um novo valor, pelo que uma jogada
+ * não altera o tabuleiro anterior nem aloca memória. As operações por célula
+ * servem para qualquer tabuleiro até 32 células; as de máscaras e vitória são
+ * só do 3x4 (para outras dimensões, ver {@link Geometria}).
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Tabuleiro {
+
+    /** Número de linhas do tabuleiro */
+    public static final int LINHAS = 3;
+
+    /** Número de colunas do tabuleiro */
+    public static final int COLUNAS = 4;
+
+    /** Número total de células */
+    public static final int CELULAS = LINHAS * COLUNAS;
+
+    /** Valores possíveis de uma célula */
+    public static final int VAZIO = 0, VERDE = 1, AMARELO = 2, VERMELHO = 3;
+
+    /** Tabuleiro inicial, sem peças */
+    public static final long INICIAL = 0L;
+
+    /** Máscara com um bit por célula */
+    private static final int TODAS = (1 << CELULAS) - 1;
+
+    /** Inícios válidos de linhas horizontais (colunas 0 e 1 de cada linha) */
+    private static final int INICIO_HORIZONTAL = 0b0011_0011_0011;
+
+    /** Inícios válidos de linhas verticais (primeira linha) */
+    private static final int INICIO_VERTICAL = 0b1111;
+
+    /** Inícios válidos de diagonais descendentes para a direita */
+    private static final int INICIO_DIAGONAL = 0b0011;
+
+    /** Inícios válidos de diagonais descendentes para a esquerda */
+    private static final int INICIO_ANTIDIAGONAL = 0b1100;
+
+    /**
+     * Máscaras das 14 linhas vencedoras (3 células alinhadas), uma por entrada,
+     * com um bit por célula.
+     */
+    public static final int[] LINHAS_VENCEDORAS = calcularLinhas();
+
+    private Tabuleiro() {
+    }
+
+    /**
+     * Devolve o valor de uma célula.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param celula índice da célula ({@code linha * 4 + coluna})
+     * @return valor da célula
+     */
+    public static int celula(long tabuleiro, int celula) {
+        return (int) (tabuleiro >>> celula) & 1 | (int) (tabuleiro >>> (31 + celula)) & 2;
+    }
+
+    /**
+     * Devolve o valor de uma célula.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param linha linha da célula
+     * @param coluna coluna da célula
+     * @return valor da célula
+     */
+    public static int celula(long tabuleiro, int linha, int coluna) {
+        return celula(tabuleiro, linha * COLUNAS + coluna);
+    }
+
+    /**
+     * Coloca um valor numa célula, devolvendo o novo tabuleiro.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param celula índice da célula
+     * @param cor novo valor da célula
+     * @return tabuleiro resultante
+     */
+    public static long colocar(long tabuleiro, int celula, int cor) {
+        long limpo = tabuleiro & ~(1L << celula | 1L << (32 + celula));
+        return limpo | (long) (cor & 1) << celula | (long) (cor >>> 1) << (32 + celula);
+    }
+
+    /**
+     * Coloca um valor numa célula, devolvendo o novo tabuleiro.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param linha linha da célula
+     * @param coluna coluna da célula
+     * @param cor novo valor da célula
+     * @return tabuleiro resultante
+     */
+    public static long colocar(long tabuleiro, int linha, int coluna, int cor) {
+        return colocar(tabuleiro, linha * COLUNAS + coluna, cor);
+    }
+
+    /**
+     * Devolve a máscara das células com um determinado valor (um bit por célula).
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param cor valor procurado
+     * @return máscara de 12 bits
+     */
+    public static int mascara(long tabuleiro, int cor) {
+        int baixo = (int) tabuleiro;
+        int alto = (int) (tabuleiro >>> 32);
+        switch (cor) {
+            case VERDE:
+                return baixo & ~alto;
+            case AMARELO:
+                return ~baixo & alto;
+            case VERMELHO:
+                return baixo & alto;
+            default:
+                return ~(baixo | alto) & TODAS;
+        }
+    }
+
+    /**
+     * Verifica se há 3 peças da cor indicada em linha, coluna ou diagonal.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param cor cor da peça
+     * @return true se houver uma linha completa dessa cor
+     */
+    public static boolean vitoria(long tabuleiro, int cor) {
+        return temLinha(mascara(tabuleiro, cor));
+    }
+
+    /**
+     * Verifica se há 3 peças da mesma cor alinhadas, qualquer que seja a cor.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return true se houver uma linha completa
+     */
+    public static boolean vitoria(long tabuleiro) {
+        return temLinha(mascara(tabuleiro, VERDE))
+                || temLinha(mascara(tabuleiro, AMARELO))
+                || temLinha(mascara(tabuleiro, VERMELHO));
+    }
+
+    /**
+     * Verifica se uma máscara de células contém alguma linha vencedora,
+     * deslocando-a sobre si própria em cada direção.
+     */
+    private static boolean temLinha(int m) {
+        int horizontal = m & (m >>> 1) & (m >>> 2) & INICIO_HORIZONTAL;
+        int vertical = m & (m >>> COLUNAS) & (m >>> 2 * COLUNAS) & INICIO_VERTICAL;
+        int diagonal = m & (m >>> COLUNAS + 1) & (m >>> 2 * (COLUNAS + 1)) & INICIO_DIAGONAL;
+        int antidiagonal = m & (m >>> COLUNAS - 1) & (m >>> 2 * (COLUNAS - 1)) & INICIO_ANTIDIAGONAL;
+        return (horizontal | vertical | diagonal | antidiagonal) != 0;
+    }
+
+    /**
+     * Converte o nome de uma peça, tal como usado nas mensagens, no seu valor.
+     *
+     * @param tipo "verde", "amarelo" ou "vermelho"
+     * @return valor da peça, ou {@link #VAZIO} se o nome for desconhecido
+     */
+    public static int cor(String tipo) {
+        switch (tipo) {
+            case "verde":
+                return VERDE;
+            case "amarelo":
+                return AMARELO;
+            case "vermelho":
+                return VERMELHO;
+            default:
+                return VAZIO;
+        }
+    }
+
+    /**
+     * Converte o valor de uma peça no nome usado nas mensagens.
+     *
+     * @param cor valor da peça
+     * @return "verde", "amarelo", "vermelho" ou null se a célula estiver vazia
+     */
+    public static String tipo(int cor) {
+        switch (cor) {
+            case VERDE:
+                return "verde";
+            case AMARELO:
+                return "amarelo";
+            case VERMELHO:
+                return "vermelho";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Calcula as máscaras de todas as linhas de 3 células alinhadas.
+     */
+    private static int[] calcularLinhas() {
+        int[] linhas = new int[14];
+        int n = 0;
+        for (int i = 0; i < LINHAS; i++)
+            for (int j = 0; j + 2 < COLUNAS; j++)
+                linhas[n++] = bits(i, j, 0, 1);
+        for (int j = 0; j < COLUNAS; j++)
+            linhas[n++] = bits(0, j, 1, 0);
+        for (int j = 0; j + 2 < COLUNAS; j++)
+            linhas[n++] = bits(0, j, 1, 1);
+        for (int j = 2; j < COLUNAS; j++)
+            linhas[n++] = bits(0, j, 1, -1);
+        return linhas;
+    }
+
+    private static int bits(int linha, int coluna, int dl, int dc) {
+        int m = 0;
+        for (int k = 0; k < 3; k++)
+            m |= 1 << ((linha + k * dl) * COLUNAS + coluna + k * dc);
+        return m;
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.nucleosemaforo.historico;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta um histórico de partidas sem interface: balanço e partidas
+ * recentes de um jogador, frente a frente, partidas de um dia e compactação.
+ *
+ * <pre>
+ * java -p NucleoSemaforo-1.0-SNAPSHOT.jar -m com.mycompany.nucleosemaforo/com.mycompany.nucleosemaforo.historico.ConsultaHistorico pasta jogador Ana
+ * </pre>
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class ConsultaHistorico {
+
+    private ConsultaHistorico() {
+    }
+
+    /**
+     * Executa uma consulta e mostra quanto tempo levou.
+     *
+     * @param args pasta do histórico, comando e argumentos do comando
+     * @throws IOException se o histórico não puder ser lido
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) uso();
+        long abertura = System.nanoTime();
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(Paths.get(args[0]))) {
+            System.out.printf("%d partidas, %d jogadores (aberto em %.1f ms)%n", historico.getPartidas(),
+                    historico.getJogadores(), (System.nanoTime() - abertura) / 1e6);
+            long inicio = System.nanoTime();
+            switch (args[1]) {
+                case "jogador": {
+                    if (args.length < 3) uso();
+                    System.out.println(historico.estatisticas(args[2]));
+                    imprimir(historico.recentes(args[2], args.length > 3 ? Integer.parseInt(args[3]) : 10));
+                    break;
+                }
+                case "frente": {
+                    if (args.length < 4) uso();
+                    System.out.println(historico.frenteAFrente(args[2], args[3]));
+                    break;
+                }
+                case "dia": {
+                    if (args.length < 3) uso();
+                    long desde = LocalDate.parse(args[2]).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+                    imprimir(historico.entre(desde, desde + TimeUnit.DAYS.toMillis(1) - 1,
+                            args.length > 3 ? Integer.parseInt(args[3]) : 100));
+                    break;
+                }
+                case "compactar": {
+                    if (args.length < 3) uso();
+                    long antesDe = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(Long.parseLong(args[2]));
+                    long apagadas = historico.compactar(antesDe);
+                    System.out.printf("Apagadas %d partidas; ficam %d partidas e %d jogadores%n", apagadas,
+                            historico.getPartidas(), historico.getJogadores());
+                    break;
+                }
+                default:
+                    uso();
+            }
+            System.out.printf("Consulta em %.2f ms%n", (System.nanoTime() - inicio) / 1e6);
+        }
+    }
+
+    private static void imprimir(List<PartidaRegistada> partidas) {
+        for (PartidaRegistada partida : partidas) System.out.println("  " + partida);
+    }
+
+    private static void uso() {
+        System.err.println("Uso: ConsultaHistorico pasta jogador NOME [N]");
+        System.err.println("     ConsultaHistorico pasta frente NOME ADVERSARIO");
+        System.err.println("     ConsultaHistorico pasta dia AAAA-MM-DD [N]");
+        System.err.println("     ConsultaHistorico pasta compactar DIAS");
+        System.exit(1);
+    }
+}
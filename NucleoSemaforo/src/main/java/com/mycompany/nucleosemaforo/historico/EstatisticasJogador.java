@@ -0,0 +1,80 @@
+package com.mycompany.nucleosemaforo.historico;
+
+/**
+ * Balanço das partidas de um jogador, no total ou contra um adversário.
+ *
+ * Sair a meio de um jogo conta como derrota de quem sai e vitória do outro;
+ * os abandonos são as derrotas por ter saído.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class EstatisticasJogador {
+
+    private final String nome;
+    private final String adversario;
+    private final int jogos;
+    private final int vitorias;
+    private final int derrotas;
+    private final int empates;
+    private final int abandonos;
+
+    EstatisticasJogador(String nome, String adversario, int jogos, int vitorias, int derrotas, int empates,
+            int abandonos) {
+        this.nome = nome;
+        this.adversario = adversario;
+        this.jogos = jogos;
+        this.vitorias = vitorias;
+        this.derrotas = derrotas;
+        this.empates = empates;
+        this.abandonos = abandonos;
+    }
+
+    /** @return nome do jogador */
+    public String getNome() {
+        return nome;
+    }
+
+    /** @return adversário a que o balanço se restringe, ou null para todas as partidas */
+    public String getAdversario() {
+        return adversario;
+    }
+
+    /** @return número de partidas */
+    public int getJogos() {
+        return jogos;
+    }
+
+    /** @return partidas ganhas, incluindo as que o adversário abandonou */
+    public int getVitorias() {
+        return vitorias;
+    }
+
+    /** @return partidas perdidas, incluindo as abandonadas */
+    public int getDerrotas() {
+        return derrotas;
+    }
+
+    /** @return partidas empatadas */
+    public int getEmpates() {
+        return empates;
+    }
+
+    /** @return partidas que o jogador abandonou */
+    public int getAbandonos() {
+        return abandonos;
+    }
+
+    /** @return fração das partidas ganhas, entre 0 e 1 (0 sem partidas) */
+    public double getTaxaVitorias() {
+        return jogos == 0 ? 0 : (double) vitorias / jogos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s: %d jogos, %d vitórias (%.1f%%), %d derrotas (%d por abandono), %d empates",
+                nome, adversario == null ? "" : " contra " + adversario, jogos, vitorias, getTaxaVitorias() * 100,
+                derrotas, abandonos, empates);
+    }
+}
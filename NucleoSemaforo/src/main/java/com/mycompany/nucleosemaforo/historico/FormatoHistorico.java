@@ -0,0 +1,109 @@
+package com.mycompany.nucleosemaforo.historico;
+
+/**
+ * Formato dos ficheiros do histórico de partidas (versão 1).
+ *
+ * O histórico é uma pasta com um ficheiro {@value #ATUAL}, que indica a
+ * geração em uso, e uma subpasta por geração com:
+ *
+ * <pre>
+ * partidas.dat   "SMHP" versão 3 bytes reservados, depois uma partida por {@value #TAMANHO_PARTIDA} bytes:
+ *                instante do fim(8, ms desde 1970)  duração(4, ms)  jogador A(4)  jogador B(4)
+ *                partida anterior de A(4, -1 se nenhuma)  partida anterior de B(4)  resultado(1)  jogadas(1)  reservado(2)
+ * jogadores.dat  "SMHN" versão 3 bytes reservados, depois os nomes: comprimento(2) UTF-8
+ * jogadores.idx  "SMHJ" versão 3 bytes reservados  partidas indexadas(8),
+ *                depois {@value #TAMANHO_JOGADOR} bytes por jogador: última partida + 1(4, 0 se nenhuma)  jogos(4)
+ *                vitórias(4)  derrotas(4)  empates(4)  abandonos(4)  reservado(8)
+ * tempo.idx      uma em cada {@value #INTERVALO_TEMPO} partidas: instante(8) número(8)
+ * </pre>
+ *
+ * As partidas e os nomes só crescem: o número de uma partida é a sua posição
+ * e o de um jogador a ordem do seu nome. Cada partida aponta para a anterior
+ * de cada um dos jogadores, pelo que as partidas de um jogador formam uma
+ * lista ligada no próprio ficheiro, da mais recente para a mais antiga. Os
+ * dois índices são derivados e podem ser reconstruídos a partir das partidas;
+ * um jogador sem entrada no índice (zeros) ainda não jogou. As partidas ficam
+ * por ordem do instante em que terminaram.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class FormatoHistorico {
+
+    /** Identificação de cada ficheiro */
+    static final int MAGIC_PARTIDAS = 0x534D4850; // "SMHP"
+    static final int MAGIC_NOMES = 0x534D484E; // "SMHN"
+    static final int MAGIC_JOGADORES = 0x534D484A; // "SMHJ"
+
+    /** Versão do formato */
+    static final int VERSAO = 1;
+
+    /** Tamanho do cabeçalho de partidas.dat e de jogadores.dat, em bytes */
+    static final int CABECALHO = 8;
+
+    /** Tamanho do cabeçalho de jogadores.idx, em bytes */
+    static final int CABECALHO_JOGADORES = 16;
+
+    /** Tamanho de uma partida e de uma entrada do índice de jogadores, em bytes */
+    static final int TAMANHO_PARTIDA = 32;
+    static final int TAMANHO_JOGADOR = 32;
+
+    /** Número de partidas entre entradas do índice por tempo */
+    static final int INTERVALO_TEMPO = 1024;
+
+    /** Tamanho de uma entrada do índice por tempo, em bytes */
+    static final int TAMANHO_TEMPO = 16;
+
+    /** Partida anterior de quem ainda não tinha jogado */
+    static final int NENHUMA = -1;
+
+    /** Posições dos campos numa entrada do índice de jogadores */
+    static final int ULTIMA = 0;
+    static final int JOGOS = 4;
+    static final int VITORIAS = 8;
+    static final int DERROTAS = 12;
+    static final int EMPATES = 16;
+    static final int ABANDONOS = 20;
+
+    /** Nomes dos ficheiros */
+    static final String ATUAL = "ATUAL";
+    static final String PARTIDAS = "partidas.dat";
+    static final String NOMES = "jogadores.dat";
+    static final String JOGADORES = "jogadores.idx";
+    static final String TEMPO = "tempo.idx";
+
+    /** Resultado: o jogador A completou uma linha */
+    public static final int VITORIA_A = 0;
+
+    /** Resultado: o jogador B completou uma linha */
+    public static final int VITORIA_B = 1;
+
+    /** Resultado: não havia jogadas possíveis */
+    public static final int EMPATE = 2;
+
+    /** Resultado: o jogador A saiu a meio do jogo, o que conta como vitória de B */
+    public static final int SAIU_A = 3;
+
+    /** Resultado: o jogador B saiu a meio do jogo, o que conta como vitória de A */
+    public static final int SAIU_B = 4;
+
+    private FormatoHistorico() {
+    }
+
+    /**
+     * @param resultado código de resultado
+     * @return descrição em português
+     */
+    public static String texto(int resultado) {
+        switch (resultado) {
+            case VITORIA_A:
+            case VITORIA_B:
+                return "vitória";
+            case EMPATE:
+                return "empate";
+            default:
+                return "desistência";
+        }
+    }
+}
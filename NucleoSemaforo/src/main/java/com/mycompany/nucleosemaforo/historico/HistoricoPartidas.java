@@ -0,0 +1,684 @@
+package com.mycompany.nucleosemaforo.historico;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Histórico das partidas terminadas, guardado em disco e indexado por
+ * jogador e por tempo (ver {@link FormatoHistorico}).
+ *
+ * Só os nomes dos jogadores ficam no heap. As partidas são lidas do ficheiro
+ * uma a uma, com leituras posicionais, e o índice de jogadores está mapeado
+ * em memória, pelo que:
+ * <ul>
+ * <li>o balanço de um jogador é uma leitura do índice;</li>
+ * <li>as partidas recentes de um jogador seguem a lista dele, uma leitura
+ * por partida, sem passar pelas dos outros;</li>
+ * <li>o frente a frente percorre a lista do jogador com menos partidas;</li>
+ * <li>as partidas de um intervalo de tempo começam por uma pesquisa binária
+ * no índice por tempo.</li>
+ * </ul>
+ * Registar uma partida é uma escrita de {@value FormatoHistorico#TAMANHO_PARTIDA}
+ * bytes no fim do ficheiro e a atualização de duas entradas do índice. Se o
+ * processo terminar a meio, o índice não bate certo com as partidas e é
+ * reconstruído ao abrir.
+ *
+ * A {@link #compactar(long) compactação} apaga as partidas antigas e os
+ * jogadores que deixam de ter partidas: escreve uma geração nova dos
+ * ficheiros ao lado da atual e só depois troca o ficheiro ATUAL, pelo que
+ * uma compactação interrompida deixa o histórico como estava.
+ *
+ * Pode ser usado por várias threads.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class HistoricoPartidas implements Closeable {
+
+    /** Entradas do índice de jogadores mapeadas ao início; duplica quando enche */
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    /** Partidas lidas de cada vez ao percorrer o ficheiro por ordem */
+    private static final int BLOCO = 2048;
+
+    private final Path pasta;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> nomes = new ArrayList<>();
+    private final ByteBuffer partida = ByteBuffer.allocate(FormatoHistorico.TAMANHO_PARTIDA);
+    private final ByteBuffer entradaTempo = ByteBuffer.allocate(FormatoHistorico.TAMANHO_TEMPO);
+
+    private int geracao;
+    private FileChannel partidas;
+    private FileChannel ficheiroNomes;
+    private FileChannel ficheiroJogadores;
+    private FileChannel tempo;
+    private MappedByteBuffer jogadores;
+    private int capacidade;
+    private long total;
+    private long ultimoInstante;
+    private boolean fechado;
+
+    private HistoricoPartidas(Path pasta) {
+        this.pasta = pasta;
+    }
+
+    /**
+     * Abre o histórico de uma pasta, criando-o se não existir.
+     *
+     * @param pasta pasta do histórico
+     * @return histórico aberto
+     * @throws IOException se os ficheiros não puderem ser abertos ou não forem de um histórico
+     */
+    public static HistoricoPartidas abrir(Path pasta) throws IOException {
+        Files.createDirectories(pasta);
+        Path atual = pasta.resolve(FormatoHistorico.ATUAL);
+        int geracao = 1;
+        if (Files.exists(atual)) {
+            try {
+                geracao = Integer.parseInt(new String(Files.readAllBytes(atual), StandardCharsets.US_ASCII).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException(atual + " não indica uma geração do histórico", e);
+            }
+        }
+        HistoricoPartidas historico = new HistoricoPartidas(pasta);
+        try {
+            historico.abrirGeracao(geracao);
+        } catch (IOException | RuntimeException e) {
+            // Os ficheiros já abertos não ficam presos, por exemplo se o seguinte não for do histórico
+            try {
+                historico.fecharFicheiros();
+            } catch (IOException outro) {
+                e.addSuppressed(outro);
+            }
+            throw e;
+        }
+        if (!Files.exists(atual)) historico.escreverAtual(geracao);
+        historico.apagarOutrasGeracoes();
+        return historico;
+    }
+
+    /**
+     * Acrescenta uma partida terminada.
+     *
+     * As partidas ficam por ordem do fim: um instante anterior ao da última
+     * partida registada passa a ser igual a este.
+     *
+     * @param instante fim da partida, em ms desde 1970
+     * @param duracaoMs duração da partida, em ms
+     * @param jogadorA jogador que começou
+     * @param jogadorB o outro jogador
+     * @param resultado código de resultado de {@link FormatoHistorico}
+     * @param jogadas número de jogadas feitas
+     * @throws IOException se a escrita falhar
+     */
+    public void registar(long instante, long duracaoMs, String jogadorA, String jogadorB, int resultado, int jogadas)
+            throws IOException {
+        if (resultado < FormatoHistorico.VITORIA_A || resultado > FormatoHistorico.SAIU_B)
+            throw new IllegalArgumentException("Resultado inválido: " + resultado);
+        lock.lock();
+        try {
+            verificarAberto();
+            if (total == Integer.MAX_VALUE) throw new IOException("Histórico cheio: compacte-o");
+            int a = id(jogadorA);
+            int b = id(jogadorB);
+            long fim = Math.max(instante, ultimoInstante);
+            int numero = (int) total;
+            partida.clear();
+            partida.putLong(fim).putInt((int) Math.max(0, Math.min(duracaoMs, Integer.MAX_VALUE)))
+                    .putInt(a).putInt(b).putInt(ultima(a)).putInt(ultima(b))
+                    .put((byte) resultado).put((byte) Math.min(jogadas, 0xFF)).putShort((short) 0).flip();
+            escrever(partidas, partida, posicao(numero));
+            indexar(numero, fim, a, b, resultado);
+            total++;
+            ultimoInstante = fim;
+            jogadores.putLong(8, total);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Balanço de todas as partidas de um jogador, lido do índice.
+     *
+     * @param nome jogador
+     * @return balanço, a zeros se o jogador não tiver partidas
+     * @throws IOException se o histórico estiver fechado
+     */
+    public EstatisticasJogador estatisticas(String nome) throws IOException {
+        lock.lock();
+        try {
+            verificarAberto();
+            Integer id = ids.get(nome);
+            if (id == null) return new EstatisticasJogador(nome, null, 0, 0, 0, 0, 0);
+            int e = entrada(id);
+            return new EstatisticasJogador(nome, null, jogadores.getInt(e + FormatoHistorico.JOGOS),
+                    jogadores.getInt(e + FormatoHistorico.VITORIAS), jogadores.getInt(e + FormatoHistorico.DERROTAS),
+                    jogadores.getInt(e + FormatoHistorico.EMPATES), jogadores.getInt(e + FormatoHistorico.ABANDONOS));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Partidas mais recentes de um jogador, seguindo a lista dele.
+     *
+     * @param nome jogador
+     * @param limite número máximo de partidas
+     * @return partidas, da mais recente para a mais antiga
+     * @throws IOException se a leitura falhar
+     */
+    public List<PartidaRegistada> recentes(String nome, int limite) throws IOException {
+        lock.lock();
+        try {
+            verificarAberto();
+            List<PartidaRegistada> lista = new ArrayList<>();
+            Integer id = ids.get(nome);
+            if (id == null) return lista;
+            int numero = ultima(id);
+            while (numero >= 0 && lista.size() < limite) {
+                lerPartida(numero);
+                lista.add(partida(numero, partida, 0));
+                numero = anterior(partida, id);
+            }
+            return lista;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Balanço das partidas entre dois jogadores, do ponto de vista do
+     * primeiro. Percorre a lista do jogador com menos partidas.
+     *
+     * @param nome jogador
+     * @param adversario adversário
+     * @return balanço, a zeros se nunca tiverem jogado um contra o outro
+     * @throws IOException se a leitura falhar
+     */
+    public EstatisticasJogador frenteAFrente(String nome, String adversario) throws IOException {
+        lock.lock();
+        try {
+            verificarAberto();
+            Integer id = ids.get(nome);
+            Integer outro = ids.get(adversario);
+            int jogos = 0, vitorias = 0, derrotas = 0, empates = 0, abandonos = 0;
+            if (id != null && outro != null) {
+                int seguido = jogosDe(id) <= jogosDe(outro) ? id : outro;
+                int numero = ultima(seguido);
+                while (numero >= 0) {
+                    lerPartida(numero);
+                    int a = partida.getInt(12);
+                    int b = partida.getInt(16);
+                    if (a == id && b == outro || a == outro && b == id) {
+                        jogos++;
+                        int resultado = partida.get(28);
+                        boolean primeiro = a == id;
+                        boolean ganhouA = resultado == FormatoHistorico.VITORIA_A
+                                || resultado == FormatoHistorico.SAIU_B;
+                        if (resultado == FormatoHistorico.EMPATE) {
+                            empates++;
+                        } else if (ganhouA == primeiro) {
+                            vitorias++;
+                        } else {
+                            derrotas++;
+                            int saiu = primeiro ? FormatoHistorico.SAIU_A : FormatoHistorico.SAIU_B;
+                            if (resultado == saiu) abandonos++;
+                        }
+                    }
+                    numero = anterior(partida, seguido);
+                }
+            }
+            return new EstatisticasJogador(nome, adversario, jogos, vitorias, derrotas, empates, abandonos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Partidas terminadas num intervalo de tempo, a partir do índice por tempo.
+     *
+     * @param desde início do intervalo, em ms desde 1970 (inclusive)
+     * @param ate fim do intervalo, em ms desde 1970 (inclusive)
+     * @param limite número máximo de partidas
+     * @return partidas, da mais antiga para a mais recente
+     * @throws IOException se a leitura falhar
+     */
+    public List<PartidaRegistada> entre(long desde, long ate, int limite) throws IOException {
+        lock.lock();
+        try {
+            verificarAberto();
+            List<PartidaRegistada> lista = new ArrayList<>();
+            ByteBuffer bloco = ByteBuffer.allocate(BLOCO * FormatoHistorico.TAMANHO_PARTIDA);
+            long numero = primeiraDesde(desde);
+            while (numero < total && lista.size() < limite) {
+                int n = lerBloco(bloco, numero);
+                for (int i = 0; i < n && lista.size() < limite; i++) {
+                    long instante = bloco.getLong(i * FormatoHistorico.TAMANHO_PARTIDA);
+                    if (instante > ate) return lista;
+                    if (instante >= desde) lista.add(partida(numero + i, bloco, i * FormatoHistorico.TAMANHO_PARTIDA));
+                }
+                numero += n;
+            }
+            return lista;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apaga as partidas que terminaram antes de um instante e os jogadores
+     * que ficam sem partidas. Os balanços passam a contar só as partidas que
+     * ficam. Com {@link Long#MIN_VALUE} não apaga partidas, só os ficheiros
+     * são reescritos.
+     *
+     * @param antesDe instante, em ms desde 1970
+     * @return número de partidas apagadas
+     * @throws IOException se a escrita falhar; nesse caso o histórico fica como estava
+     */
+    public long compactar(long antesDe) throws IOException {
+        lock.lock();
+        try {
+            verificarAberto();
+            int nova = geracao + 1;
+            apagar(pastaGeracao(nova));
+            HistoricoPartidas destino = new HistoricoPartidas(pasta);
+            boolean trocado = false;
+            try {
+                destino.abrirGeracao(nova);
+                ByteBuffer bloco = ByteBuffer.allocate(BLOCO * FormatoHistorico.TAMANHO_PARTIDA);
+                long numero = primeiraDesde(antesDe);
+                while (numero < total) {
+                    int n = lerBloco(bloco, numero);
+                    for (int i = 0; i < n; i++) {
+                        int base = i * FormatoHistorico.TAMANHO_PARTIDA;
+                        long instante = bloco.getLong(base);
+                        if (instante < antesDe) continue;
+                        destino.registar(instante, bloco.getInt(base + 8), nomes.get(bloco.getInt(base + 12)),
+                                nomes.get(bloco.getInt(base + 16)), bloco.get(base + 28), bloco.get(base + 29) & 0xFF);
+                    }
+                    numero += n;
+                }
+                destino.forcar();
+                destino.close();
+                escreverAtual(nova);
+                trocado = true;
+            } finally {
+                if (!trocado) {
+                    destino.close();
+                    apagar(pastaGeracao(nova));
+                }
+            }
+            long apagadas = total - destino.total;
+            int antiga = geracao;
+            fecharFicheiros();
+            abrirGeracao(nova);
+            try {
+                apagar(pastaGeracao(antiga));
+            } catch (IOException e) {
+                // Fica para a próxima abertura, que apaga as gerações que não estão em uso
+            }
+            return apagadas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return número de partidas no histórico */
+    public long getPartidas() {
+        lock.lock();
+        try {
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return número de jogadores com nome no histórico */
+    public int getJogadores() {
+        lock.lock();
+        try {
+            return nomes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Escreve no disco o que ainda estiver só na cache do sistema operativo.
+     *
+     * @throws IOException se a escrita falhar
+     */
+    public void forcar() throws IOException {
+        lock.lock();
+        try {
+            verificarAberto();
+            partidas.force(false);
+            ficheiroNomes.force(false);
+            tempo.force(false);
+            jogadores.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (fechado) return;
+            fechado = true;
+            fecharFicheiros();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abrirGeracao(int geracao) throws IOException {
+        Path dir = pastaGeracao(geracao);
+        Files.createDirectories(dir);
+        this.geracao = geracao;
+        ids.clear();
+        nomes.clear();
+        ficheiroNomes = abrirFicheiro(dir.resolve(FormatoHistorico.NOMES), FormatoHistorico.MAGIC_NOMES);
+        partidas = abrirFicheiro(dir.resolve(FormatoHistorico.PARTIDAS), FormatoHistorico.MAGIC_PARTIDAS);
+        tempo = FileChannel.open(dir.resolve(FormatoHistorico.TEMPO), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ficheiroJogadores = FileChannel.open(dir.resolve(FormatoHistorico.JOGADORES), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lerNomes();
+
+        long bytes = partidas.size() - FormatoHistorico.CABECALHO;
+        total = bytes / FormatoHistorico.TAMANHO_PARTIDA;
+        // Uma partida escrita a meio quando o processo terminou
+        if (bytes % FormatoHistorico.TAMANHO_PARTIDA != 0) partidas.truncate(posicao(total));
+        ultimoInstante = Long.MIN_VALUE;
+        if (total > 0) {
+            lerPartida(total - 1);
+            ultimoInstante = partida.getLong(0);
+        }
+
+        long existentes = (ficheiroJogadores.size() - FormatoHistorico.CABECALHO_JOGADORES)
+                / FormatoHistorico.TAMANHO_JOGADOR;
+        capacidade = CAPACIDADE_INICIAL;
+        while (capacidade < nomes.size() || capacidade < existentes) capacidade *= 2;
+        boolean valido = ficheiroJogadores.size() >= FormatoHistorico.CABECALHO_JOGADORES;
+        mapear();
+        long entradasTempo = (total + FormatoHistorico.INTERVALO_TEMPO - 1) / FormatoHistorico.INTERVALO_TEMPO;
+        valido = valido && jogadores.getInt(0) == FormatoHistorico.MAGIC_JOGADORES
+                && jogadores.get(4) == FormatoHistorico.VERSAO && jogadores.getLong(8) == total
+                && tempo.size() == entradasTempo * FormatoHistorico.TAMANHO_TEMPO;
+        if (!valido) reconstruir();
+    }
+
+    private static FileChannel abrirFicheiro(Path caminho, int magic) throws IOException {
+        FileChannel canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ByteBuffer cabecalho = ByteBuffer.allocate(FormatoHistorico.CABECALHO);
+        if (canal.size() < FormatoHistorico.CABECALHO) {
+            canal.truncate(0);
+            cabecalho.putInt(magic).put((byte) FormatoHistorico.VERSAO).put(new byte[3]).flip();
+            escrever(canal, cabecalho, 0);
+            return canal;
+        }
+        ler(canal, cabecalho, 0);
+        if (cabecalho.getInt(0) != magic || cabecalho.get(4) != FormatoHistorico.VERSAO) {
+            canal.close();
+            throw new IOException(caminho + " não é um ficheiro do histórico");
+        }
+        return canal;
+    }
+
+    private void lerNomes() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (ficheiroNomes.size() - FormatoHistorico.CABECALHO));
+        ler(ficheiroNomes, buffer, FormatoHistorico.CABECALHO);
+        buffer.flip();
+        while (buffer.remaining() >= 2) {
+            int comprimento = buffer.getShort(buffer.position()) & 0xFFFF;
+            if (buffer.remaining() < 2 + comprimento) break;
+            buffer.getShort();
+            byte[] bytes = new byte[comprimento];
+            buffer.get(bytes);
+            String nome = new String(bytes, StandardCharsets.UTF_8);
+            ids.put(nome, nomes.size());
+            nomes.add(nome);
+        }
+        // Um nome escrito a meio quando o processo terminou
+        if (buffer.hasRemaining()) ficheiroNomes.truncate(FormatoHistorico.CABECALHO + buffer.position());
+    }
+
+    /** Reconstrói os dois índices percorrendo as partidas por ordem. */
+    private void reconstruir() throws IOException {
+        byte[] zeros = new byte[4096];
+        jogadores.clear();
+        while (jogadores.hasRemaining()) jogadores.put(zeros, 0, Math.min(zeros.length, jogadores.remaining()));
+        jogadores.putInt(0, FormatoHistorico.MAGIC_JOGADORES).put(4, (byte) FormatoHistorico.VERSAO);
+        tempo.truncate(0);
+        ByteBuffer bloco = ByteBuffer.allocate(BLOCO * FormatoHistorico.TAMANHO_PARTIDA);
+        long numero = 0;
+        while (numero < total) {
+            int n = lerBloco(bloco, numero);
+            for (int i = 0; i < n; i++) {
+                int base = i * FormatoHistorico.TAMANHO_PARTIDA;
+                int a = bloco.getInt(base + 12);
+                int b = bloco.getInt(base + 16);
+                if (a < 0 || a >= nomes.size() || b < 0 || b >= nomes.size())
+                    throw new IOException("A partida " + (numero + i) + " refere um jogador desconhecido");
+                indexar((int) (numero + i), bloco.getLong(base), a, b, bloco.get(base + 28));
+            }
+            numero += n;
+        }
+        jogadores.putLong(8, total);
+    }
+
+    private void indexar(int numero, long instante, int a, int b, int resultado) throws IOException {
+        int ea = entrada(a);
+        int eb = entrada(b);
+        jogadores.putInt(ea + FormatoHistorico.ULTIMA, numero + 1);
+        jogadores.putInt(eb + FormatoHistorico.ULTIMA, numero + 1);
+        // Uma partida de um jogador contra si próprio conta dos dois lados
+        somar(ea, FormatoHistorico.JOGOS);
+        somar(eb, FormatoHistorico.JOGOS);
+        switch (resultado) {
+            case FormatoHistorico.VITORIA_A:
+                somar(ea, FormatoHistorico.VITORIAS);
+                somar(eb, FormatoHistorico.DERROTAS);
+                break;
+            case FormatoHistorico.VITORIA_B:
+                somar(eb, FormatoHistorico.VITORIAS);
+                somar(ea, FormatoHistorico.DERROTAS);
+                break;
+            case FormatoHistorico.EMPATE:
+                somar(ea, FormatoHistorico.EMPATES);
+                somar(eb, FormatoHistorico.EMPATES);
+                break;
+            case FormatoHistorico.SAIU_A:
+                somar(eb, FormatoHistorico.VITORIAS);
+                somar(ea, FormatoHistorico.DERROTAS);
+                somar(ea, FormatoHistorico.ABANDONOS);
+                break;
+            default:
+                somar(ea, FormatoHistorico.VITORIAS);
+                somar(eb, FormatoHistorico.DERROTAS);
+                somar(eb, FormatoHistorico.ABANDONOS);
+                break;
+        }
+        if (numero % FormatoHistorico.INTERVALO_TEMPO == 0) {
+            entradaTempo.clear();
+            entradaTempo.putLong(instante).putLong(numero).flip();
+            long entrada = numero / FormatoHistorico.INTERVALO_TEMPO;
+            escrever(tempo, entradaTempo, entrada * FormatoHistorico.TAMANHO_TEMPO);
+        }
+    }
+
+    private void somar(int entrada, int campo) {
+        jogadores.putInt(entrada + campo, jogadores.getInt(entrada + campo) + 1);
+    }
+
+    /**
+     * Número da primeira partida a ler para chegar às que terminaram a partir
+     * de um instante: a da última entrada do índice por tempo anterior a ele.
+     */
+    private long primeiraDesde(long instante) throws IOException {
+        long inicio = 0;
+        long fim = tempo.size() / FormatoHistorico.TAMANHO_TEMPO - 1;
+        long numero = 0;
+        while (inicio <= fim) {
+            long meio = (inicio + fim) >>> 1;
+            entradaTempo.clear();
+            ler(tempo, entradaTempo, meio * FormatoHistorico.TAMANHO_TEMPO);
+            if (entradaTempo.getLong(0) < instante) {
+                numero = entradaTempo.getLong(8);
+                inicio = meio + 1;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        return numero;
+    }
+
+    private int id(String nome) throws IOException {
+        Integer id = ids.get(nome);
+        if (id != null) return id;
+        byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("Nome demasiado comprido");
+        ByteBuffer buffer = ByteBuffer.allocate(2 + bytes.length);
+        buffer.putShort((short) bytes.length).put(bytes).flip();
+        escrever(ficheiroNomes, buffer, ficheiroNomes.size());
+        int novo = nomes.size();
+        nomes.add(nome);
+        ids.put(nome, novo);
+        if (novo >= capacidade) {
+            capacidade *= 2;
+            mapear();
+        }
+        return novo;
+    }
+
+    private void mapear() throws IOException {
+        jogadores = ficheiroJogadores.map(FileChannel.MapMode.READ_WRITE, 0,
+                FormatoHistorico.CABECALHO_JOGADORES + (long) capacidade * FormatoHistorico.TAMANHO_JOGADOR);
+    }
+
+    private static int entrada(int id) {
+        return FormatoHistorico.CABECALHO_JOGADORES + id * FormatoHistorico.TAMANHO_JOGADOR;
+    }
+
+    private int ultima(int id) {
+        return jogadores.getInt(entrada(id) + FormatoHistorico.ULTIMA) - 1;
+    }
+
+    private int jogosDe(int id) {
+        return jogadores.getInt(entrada(id) + FormatoHistorico.JOGOS);
+    }
+
+    private static int anterior(ByteBuffer partida, int id) {
+        return partida.getInt(12) == id ? partida.getInt(20) : partida.getInt(24);
+    }
+
+    private static long posicao(long numero) {
+        return FormatoHistorico.CABECALHO + numero * FormatoHistorico.TAMANHO_PARTIDA;
+    }
+
+    private void lerPartida(long numero) throws IOException {
+        partida.clear();
+        ler(partidas, partida, posicao(numero));
+    }
+
+    /** Lê as partidas seguintes para o bloco e devolve quantas leu. */
+    private int lerBloco(ByteBuffer bloco, long numero) throws IOException {
+        int n = (int) Math.min(BLOCO, total - numero);
+        bloco.clear().limit(n * FormatoHistorico.TAMANHO_PARTIDA);
+        ler(partidas, bloco, posicao(numero));
+        return n;
+    }
+
+    private PartidaRegistada partida(long numero, ByteBuffer buffer, int base) {
+        return new PartidaRegistada(numero, buffer.getLong(base), buffer.getInt(base + 8),
+                nomes.get(buffer.getInt(base + 12)), nomes.get(buffer.getInt(base + 16)), buffer.get(base + 28),
+                buffer.get(base + 29) & 0xFF);
+    }
+
+    private static void ler(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicao + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+
+    private static void escrever(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        while (buffer.hasRemaining()) canal.write(buffer, posicao + buffer.position());
+    }
+
+    private void verificarAberto() throws IOException {
+        if (fechado) throw new IOException("Histórico fechado");
+    }
+
+    private void fecharFicheiros() throws IOException {
+        try {
+            if (jogadores != null) jogadores.force();
+        } finally {
+            jogadores = null;
+            fechar(partidas);
+            fechar(ficheiroNomes);
+            fechar(ficheiroJogadores);
+            fechar(tempo);
+        }
+    }
+
+    private static void fechar(FileChannel canal) throws IOException {
+        if (canal != null) canal.close();
+    }
+
+    private Path pastaGeracao(int geracao) {
+        return pasta.resolve("g" + geracao);
+    }
+
+    /** Troca a geração em uso, escrevendo ATUAL ao lado e mudando-lhe o nome. */
+    private void escreverAtual(int geracao) throws IOException {
+        Path novo = pasta.resolve(FormatoHistorico.ATUAL + ".novo");
+        try (FileChannel canal = FileChannel.open(novo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            escrever(canal, ByteBuffer.wrap(Integer.toString(geracao).getBytes(StandardCharsets.US_ASCII)), 0);
+            canal.force(true);
+        }
+        Files.move(novo, pasta.resolve(FormatoHistorico.ATUAL), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Apaga as gerações deixadas por uma compactação interrompida. */
+    private void apagarOutrasGeracoes() throws IOException {
+        try (DirectoryStream<Path> pastas = Files.newDirectoryStream(pasta, "g*")) {
+            for (Path outra : pastas) {
+                String nome = outra.getFileName().toString();
+                if (nome.matches("g\\d+") && !outra.equals(pastaGeracao(geracao))) apagar(outra);
+            }
+        }
+    }
+
+    private static void apagar(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> caminhos = Files.walk(dir)) {
+            for (Path caminho : (Iterable<Path>) caminhos.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(caminho);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mycompany.nucleosemaforo.historico;
+
+import java.time.Instant;
+
+/**
+ * Uma partida lida do histórico (ver {@link HistoricoPartidas}).
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class PartidaRegistada {
+
+    private final long numero;
+    private final long instante;
+    private final int duracaoMs;
+    private final String jogadorA;
+    private final String jogadorB;
+    private final int resultado;
+    private final int jogadas;
+
+    PartidaRegistada(long numero, long instante, int duracaoMs, String jogadorA, String jogadorB, int resultado,
+            int jogadas) {
+        this.numero = numero;
+        this.instante = instante;
+        this.duracaoMs = duracaoMs;
+        this.jogadorA = jogadorA;
+        this.jogadorB = jogadorB;
+        this.resultado = resultado;
+        this.jogadas = jogadas;
+    }
+
+    /** @return posição da partida no histórico */
+    public long getNumero() {
+        return numero;
+    }
+
+    /** @return instante em que a partida terminou, em ms desde 1970 */
+    public long getInstante() {
+        return instante;
+    }
+
+    /** @return duração da partida, em ms */
+    public int getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    /** @return jogador que começou */
+    public String getJogadorA() {
+        return jogadorA;
+    }
+
+    /** @return o outro jogador */
+    public String getJogadorB() {
+        return jogadorB;
+    }
+
+    /** @return código de resultado de {@link FormatoHistorico} */
+    public int getResultado() {
+        return resultado;
+    }
+
+    /** @return número de jogadas feitas */
+    public int getJogadas() {
+        return jogadas;
+    }
+
+    /** @return nome do vencedor, ou null num empate */
+    public String getVencedor() {
+        switch (resultado) {
+            case FormatoHistorico.VITORIA_A:
+            case FormatoHistorico.SAIU_B:
+                return jogadorA;
+            case FormatoHistorico.VITORIA_B:
+            case FormatoHistorico.SAIU_A:
+                return jogadorB;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String fim;
+        if (resultado == FormatoHistorico.EMPATE) {
+            fim = "empate";
+        } else if (resultado == FormatoHistorico.SAIU_A || resultado == FormatoHistorico.SAIU_B) {
+            fim = "desistência de " + (resultado == FormatoHistorico.SAIU_A ? jogadorA : jogadorB);
+        } else {
+            fim = "vitória de " + getVencedor();
+        }
+        return Instant.ofEpochMilli(instante) + "  " + jogadorA + " contra " + jogadorB + ": " + fim
+                + " (" + jogadas + " jogadas, " + duracaoMs / 1000 + " s)";
+    }
+}
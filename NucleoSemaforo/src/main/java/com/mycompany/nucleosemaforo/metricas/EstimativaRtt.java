@@ -0,0 +1,72 @@
+package com.mycompany.nucleosemaforo.metricas;
+
+/**
+ * Estimativa do tempo de ida e volta de uma ligação, como no TCP (RFC 6298):
+ * uma média suavizada das amostras (SRTT) e a sua variação (RTTVAR), das quais
+ * sai um limite acima do qual uma resposta já está atrasada.
+ *
+ * As amostras são registadas por uma única thread; os valores podem ser lidos
+ * de qualquer outra.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class EstimativaRtt {
+
+    /** Média suavizada e variação, em nanossegundos; -1 antes da primeira amostra */
+    private volatile long suavizado = -1;
+    private volatile long variacao;
+    private volatile long amostras;
+
+    /**
+     * Junta uma amostra: {@code RTTVAR = 3/4 RTTVAR + 1/4 |SRTT - R|} e
+     * {@code SRTT = 7/8 SRTT + 1/8 R}; a primeira amostra dá {@code SRTT = R}
+     * e {@code RTTVAR = R/2}.
+     *
+     * @param nanos tempo de ida e volta medido; os negativos são ignorados
+     */
+    public void registar(long nanos) {
+        if (nanos < 0) return;
+        long s = suavizado;
+        if (s < 0) {
+            variacao = nanos / 2;
+            suavizado = nanos;
+        } else {
+            variacao += (Math.abs(s - nanos) - variacao) / 4;
+            suavizado = s + (nanos - s) / 8;
+        }
+        amostras++;
+    }
+
+    /** @return número de amostras registadas */
+    public long getAmostras() {
+        return amostras;
+    }
+
+    /** @return tempo de ida e volta suavizado em nanossegundos, ou -1 sem amostras */
+    public long getSuavizado() {
+        return suavizado;
+    }
+
+    /** @return variação do tempo de ida e volta em nanossegundos */
+    public long getVariacao() {
+        return variacao;
+    }
+
+    /**
+     * @return {@code SRTT + 4 RTTVAR} em nanossegundos (0 sem amostras): uma
+     *         resposta mais demorada do que isto já é anormal
+     */
+    public long getLimite() {
+        long s = suavizado;
+        return s < 0 ? 0 : s + 4 * variacao;
+    }
+
+    @Override
+    public String toString() {
+        long s = suavizado;
+        if (s < 0) return "-";
+        return String.format("%.1f ms ± %.1f ms", s / 1e6, variacao / 1e6);
+    }
+}
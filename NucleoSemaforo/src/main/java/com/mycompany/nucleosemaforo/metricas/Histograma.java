@@ -0,0 +1,95 @@
+package com.mycompany.nucleosemaforo.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências com erro relativo limitado, seguro para várias threads.
+ *
+ * Os valores (por exemplo, em microssegundos) são contados em grupos por
+ * potência de 2, cada um dividido em 16 sub-intervalos iguais, o que dá um erro
+ * máximo de 1/16 em qualquer percentil. Registar um valor é um único incremento
+ * atómico, sem alocações nem bloqueios.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Histograma {
+
+    /** Bits de sub-intervalo por potência de 2 */
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+
+    /** Número de intervalos necessários para cobrir qualquer long positivo */
+    private static final int INTERVALOS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(INTERVALOS);
+
+    /**
+     * Regista um valor; os negativos contam como 0.
+     *
+     * @param valor valor a registar
+     */
+    public void registar(long valor) {
+        contagens.incrementAndGet(intervalo(Math.max(0, valor)));
+    }
+
+    /**
+     * Apaga todos os valores.
+     */
+    public void limpar() {
+        for (int i = 0; i < INTERVALOS; i++) contagens.set(i, 0);
+    }
+
+    /** @return número de valores registados */
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < INTERVALOS; i++) total += contagens.get(i);
+        return total;
+    }
+
+    /**
+     * Devolve um percentil.
+     *
+     * @param percentil entre 0 e 100 (por exemplo 99.9)
+     * @return limite superior do intervalo que contém o percentil, ou 0 se estiver vazio
+     */
+    public long percentil(double percentil) {
+        long[] copia = new long[INTERVALOS];
+        long total = 0;
+        for (int i = 0; i < INTERVALOS; i++) total += copia[i] = contagens.get(i);
+        if (total == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) return limiteSuperior(i);
+        }
+        return limiteSuperior(INTERVALOS - 1);
+    }
+
+    /**
+     * Resume o histograma numa linha.
+     *
+     * @param unidade unidade dos valores, por exemplo "µs"
+     * @return texto com total, p50, p99 e p99.9
+     */
+    public String resumo(String unidade) {
+        return "n=" + getTotal() + " p50=" + percentil(50) + unidade + " p99=" + percentil(99) + unidade
+                + " p999=" + percentil(99.9) + unidade;
+    }
+
+    static int intervalo(long valor) {
+        if (valor < SUB) return (int) valor;
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int sub = (int) (valor >>> (expoente - SUB_BITS)) & (SUB - 1);
+        return (expoente - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long limiteSuperior(int intervalo) {
+        if (intervalo < SUB) return intervalo;
+        int expoente = intervalo / SUB + SUB_BITS - 1;
+        long sub = intervalo % SUB;
+        return ((SUB + sub + 1) << (expoente - SUB_BITS)) - 1;
+    }
+}
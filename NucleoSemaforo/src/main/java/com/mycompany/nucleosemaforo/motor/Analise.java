@@ -0,0 +1,166 @@
+package com.mycompany.nucleosemaforo.motor;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Análise contínua de uma posição num {@link ForkJoinPool}.
+ *
+ * A análise aprofunda uma jogada de cada vez. Em cada profundidade, cada
+ * jogada legal da raiz é uma tarefa separada que o pool reparte pelos núcleos
+ * por roubo de trabalho, e cada thread do pool tem o seu {@link Motor} (com
+ * a sua tabela de transposição), que reaproveita de uma profundidade para a
+ * seguinte. No fim de cada profundidade o resultado é entregue ao ouvinte,
+ * numa thread do pool, mas só se for diferente do anterior.
+ *
+ * Pedir outra análise cancela a que estiver em curso: as pesquisas param
+ * dentro de 1024 posições e o resultado incompleto é descartado. Nenhum
+ * método espera pelas pesquisas, pelo que podem ser chamados da thread da
+ * interface.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Analise {
+
+    /** Tamanho da tabela de transposição de cada thread (2^16 entradas, 768 KB) */
+    private static final int BITS_TABELA = 16;
+
+    /** Tempo máximo de cada pesquisa de uma jogada, para uma posição muito difícil não prender o pool */
+    private static final long TEMPO_MAXIMO_MS = 60_000;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Motor> motores = ThreadLocal.withInitial(() -> new Motor(BITS_TABELA));
+    private Trabalho atual;
+
+    /**
+     * @param pool pool onde correm as pesquisas (partilhado ou dedicado)
+     */
+    public Analise(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Começa a analisar uma posição do tabuleiro 3x4, cancelando a análise anterior.
+     *
+     * @param tabuleiro posição a analisar
+     * @param ouvinte recebe cada resultado novo, numa thread do pool
+     */
+    public synchronized void analisar(long tabuleiro, Consumer<ResultadoAnalise> ouvinte) {
+        parar();
+        if (Regras.jogadasLegais(tabuleiro) == 0) return;
+        atual = new Trabalho(tabuleiro, ouvinte);
+        pool.execute(atual);
+    }
+
+    /**
+     * Cancela a análise em curso, se houver, sem esperar que as pesquisas parem.
+     */
+    public synchronized void parar() {
+        if (atual == null) return;
+        atual.cancelado = true;
+        atual = null;
+    }
+
+    /**
+     * Análise de uma posição, por profundidades crescentes.
+     */
+    private final class Trabalho extends RecursiveAction {
+
+        private final long tabuleiro;
+        private final Consumer<ResultadoAnalise> ouvinte;
+        private volatile boolean cancelado;
+
+        Trabalho(long tabuleiro, Consumer<ResultadoAnalise> ouvinte) {
+            this.tabuleiro = tabuleiro;
+            this.ouvinte = ouvinte;
+        }
+
+        @Override
+        protected void compute() {
+            int legais = Regras.jogadasLegais(tabuleiro);
+            Raiz[] raizes = new Raiz[Integer.bitCount(legais)];
+            for (int i = 0; legais != 0; legais &= legais - 1, i++)
+                raizes[i] = new Raiz(this, Integer.numberOfTrailingZeros(legais));
+
+            int restantes = Motor.MAXIMO_JOGADAS - Regras.numeroJogadas(tabuleiro);
+            ResultadoAnalise anterior = null;
+            long nos = 0;
+            for (int p = 1; p <= restantes; p++) {
+                for (Raiz r : raizes) {
+                    r.profundidade = p - 1;
+                    r.reinitialize();
+                }
+                ForkJoinTask.invokeAll(raizes);
+                if (cancelado) return;
+
+                for (Raiz r : raizes) nos += r.nos;
+                ResultadoAnalise resultado = juntar(raizes, p, nos);
+                if (!resultado.equals(anterior)) ouvinte.accept(resultado);
+                anterior = resultado;
+                if (resultado.isDecidido()) return;
+            }
+        }
+
+        /**
+         * Ordena as jogadas da melhor para a pior e junta a variante da melhor.
+         */
+        private ResultadoAnalise juntar(Raiz[] raizes, int profundidade, long nos) {
+            Raiz[] ordenadas = raizes.clone();
+            Arrays.sort(ordenadas, (a, b) -> Integer.compare(b.pontuacao, a.pontuacao));
+            int[] celulas = new int[ordenadas.length];
+            int[] pontuacoes = new int[ordenadas.length];
+            for (int i = 0; i < ordenadas.length; i++) {
+                celulas[i] = ordenadas[i].celula;
+                pontuacoes[i] = ordenadas[i].pontuacao;
+            }
+            int[] continuacao = ordenadas[0].variante;
+            int[] variante = new int[1 + continuacao.length];
+            variante[0] = celulas[0];
+            System.arraycopy(continuacao, 0, variante, 1, continuacao.length);
+            return new ResultadoAnalise(tabuleiro, profundidade, celulas, pontuacoes, variante, nos);
+        }
+    }
+
+    /**
+     * Avaliação de uma jogada da raiz a uma dada profundidade.
+     */
+    private final class Raiz extends RecursiveAction {
+
+        private final Trabalho trabalho;
+        private final int celula;
+        private int profundidade;
+        private int pontuacao;
+        private int[] variante = new int[0];
+        private long nos;
+
+        Raiz(Trabalho trabalho, int celula) {
+            this.trabalho = trabalho;
+            this.celula = celula;
+        }
+
+        @Override
+        protected void compute() {
+            nos = 0;
+            if (trabalho.cancelado) return;
+            long filho = Regras.jogar(trabalho.tabuleiro, celula);
+            if (Tabuleiro.vitoria(filho)) {
+                pontuacao = Motor.VITORIA - Regras.numeroJogadas(filho);
+                variante = new int[0];
+                return;
+            }
+            Motor motor = motores.get();
+            ResultadoPesquisa r = motor.pesquisar(filho, profundidade, TEMPO_MAXIMO_MS, () -> trabalho.cancelado);
+            pontuacao = -r.getPontuacao();
+            nos = r.getNos();
+            variante = motor.variante(filho, profundidade);
+        }
+    }
+}
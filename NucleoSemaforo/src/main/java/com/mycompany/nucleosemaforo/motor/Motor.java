@@ -0,0 +1,306 @@
+package com.mycompany.nucleosemaforo.motor;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Motor de pesquisa para jogar Semáforo contra o computador.
+ *
+ * Usa negamax com cortes alfa-beta e aprofundamento iterativo, parando quando
+ * acaba o tempo dado a cada jogada ou quando é cancelado por outra thread.
+ * As posições já avaliadas ficam numa {@link TabelaTransposicao} indexada por
+ * chaves de {@link Zobrist}, que é mantida entre jogadas do mesmo jogo.
+ *
+ * Uma instância só pode fazer uma pesquisa de cada vez; apenas
+ * {@link #cancelar()} e {@link #getGeracao()} podem ser chamados de outra
+ * thread. Cada cancelamento passa a uma nova geração: uma pesquisa é
+ * cancelada se a geração mudar depois de começar ou, quando a recebe, depois
+ * de ter sido pedida, mesmo que ainda esteja à espera de começar. Uma pesquisa pode
+ * também receber uma condição de paragem externa, partilhada por várias
+ * pesquisas em paralelo (ver {@link Analise}).
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Motor {
+
+    /**
+     * Pontuação de uma vitória. Uma vitória que termina o jogo ao fim de
+     * {@code n} jogadas vale {@code VITORIA - n}, para preferir as mais rápidas.
+     */
+    public static final int VITORIA = 10000;
+
+    /** Número máximo de jogadas de um jogo (uma por peça) */
+    static final int MAXIMO_JOGADAS = 3 * Regras.PECAS_POR_COR;
+
+    private static final BooleanSupplier NUNCA = () -> false;
+
+    /**
+     * Indica se uma pontuação é um resultado forçado (vitória ou derrota à
+     * vista), em vez de uma posição que a pesquisa não conseguiu decidir.
+     *
+     * @param pontuacao pontuação devolvida por uma pesquisa
+     * @return true se a pontuação for uma vitória ou uma derrota
+     */
+    public static boolean decisiva(int pontuacao) {
+        return Math.abs(pontuacao) > VITORIA - 2 * MAXIMO_JOGADAS;
+    }
+
+    private final TabelaTransposicao tabela;
+    private final AtomicInteger geracao = new AtomicInteger();
+    private int geracaoPesquisa;
+    private BooleanSupplier externo = NUNCA;
+    private boolean parar;
+    private long prazo;
+    private long nos;
+    private int melhorRaiz;
+
+    /**
+     * Cria um motor com uma tabela de transposição de 2^18 entradas (3 MB).
+     */
+    public Motor() {
+        this(18);
+    }
+
+    /**
+     * Cria um motor com uma tabela de transposição de {@code 2^bitsTabela} entradas.
+     *
+     * @param bitsTabela logaritmo de base 2 do tamanho da tabela
+     */
+    public Motor(int bitsTabela) {
+        this.tabela = new TabelaTransposicao(bitsTabela);
+    }
+
+    /**
+     * Pede à pesquisa em curso que termine o mais depressa possível, e às
+     * pedidas com uma geração anterior que nem cheguem a pesquisar.
+     * A pesquisa devolve a melhor jogada da última iteração completa.
+     */
+    public void cancelar() {
+        geracao.incrementAndGet();
+    }
+
+    /**
+     * Geração atual, a obter ao pedir uma pesquisa que só começa mais tarde
+     * (ver {@link #pesquisar(long, int, long, BooleanSupplier, int)}).
+     *
+     * @return número de cancelamentos até agora
+     */
+    public int getGeracao() {
+        return geracao.get();
+    }
+
+    /**
+     * Esquece as posições guardadas, por exemplo no início de um novo jogo.
+     */
+    public void limpar() {
+        tabela.limpar();
+    }
+
+    /**
+     * Procura a melhor jogada dentro do tempo indicado.
+     *
+     * @param tabuleiro posição atual
+     * @param tempoMs tempo máximo da pesquisa em milissegundos
+     * @return resultado da pesquisa
+     */
+    public ResultadoPesquisa pesquisar(long tabuleiro, long tempoMs) {
+        return pesquisar(tabuleiro, MAXIMO_JOGADAS, tempoMs);
+    }
+
+    /**
+     * Procura a melhor jogada até uma profundidade máxima ou até acabar o tempo.
+     *
+     * @param tabuleiro posição atual
+     * @param profundidadeMaxima número máximo de jogadas a pesquisar
+     * @param tempoMs tempo máximo da pesquisa em milissegundos
+     * @return resultado da pesquisa; a célula é -1 se não houver jogadas
+     */
+    public ResultadoPesquisa pesquisar(long tabuleiro, int profundidadeMaxima, long tempoMs) {
+        return pesquisar(tabuleiro, profundidadeMaxima, tempoMs, NUNCA);
+    }
+
+    /**
+     * Procura a melhor jogada até uma profundidade máxima, até acabar o tempo
+     * ou até a condição de paragem ficar verdadeira.
+     *
+     * @param tabuleiro posição atual
+     * @param profundidadeMaxima número máximo de jogadas a pesquisar
+     * @param tempoMs tempo máximo da pesquisa em milissegundos
+     * @param paragem condição consultada durante a pesquisa (a cada 1024 posições)
+     * @return resultado da pesquisa; a célula é -1 se não houver jogadas
+     */
+    public ResultadoPesquisa pesquisar(long tabuleiro, int profundidadeMaxima, long tempoMs, BooleanSupplier paragem) {
+        return pesquisar(tabuleiro, profundidadeMaxima, tempoMs, paragem, geracao.get());
+    }
+
+    /**
+     * Como {@link #pesquisar(long, int, long, BooleanSupplier)}, mas cancelada
+     * por qualquer {@link #cancelar()} desde que a geração foi obtida, incluindo
+     * os que chegam antes de a pesquisa começar.
+     *
+     * @param tabuleiro posição atual
+     * @param profundidadeMaxima número máximo de jogadas a pesquisar
+     * @param tempoMs tempo máximo da pesquisa em milissegundos
+     * @param paragem condição consultada durante a pesquisa (a cada 1024 posições)
+     * @param pedido valor de {@link #getGeracao()} quando a pesquisa foi pedida
+     * @return resultado da pesquisa; a célula é -1 se não houver jogadas
+     */
+    public ResultadoPesquisa pesquisar(long tabuleiro, int profundidadeMaxima, long tempoMs, BooleanSupplier paragem,
+            int pedido) {
+        externo = paragem;
+        geracaoPesquisa = pedido;
+        long inicio = System.nanoTime();
+        prazo = inicio + tempoMs * 1_000_000L;
+        // Cancelada antes de começar: nem a primeira iteração é feita
+        parar = cancelada();
+        nos = 0;
+        tabela.novaPesquisa();
+
+        int legais = Regras.jogadasLegais(tabuleiro);
+        if (legais == 0) {
+            int pontuacao = Tabuleiro.vitoria(tabuleiro) ? -(VITORIA - Regras.numeroJogadas(tabuleiro)) : 0;
+            return new ResultadoPesquisa(-1, pontuacao, 0, 0, 0);
+        }
+
+        long chave = Zobrist.chave(tabuleiro);
+        int restantes = MAXIMO_JOGADAS - Regras.numeroJogadas(tabuleiro);
+        int melhor = Integer.numberOfTrailingZeros(legais);
+        int pontuacao = 0;
+        int profundidade = 0;
+
+        for (int p = 1; p <= Math.min(profundidadeMaxima, restantes); p++) {
+            melhorRaiz = -1;
+            int valor = negamax(tabuleiro, chave, p, -VITORIA, VITORIA, true);
+            if (parar) break;
+            melhor = melhorRaiz;
+            pontuacao = valor;
+            profundidade = p;
+            if (decisiva(valor)) break;
+        }
+
+        long tempo = (System.nanoTime() - inicio) / 1_000_000L;
+        return new ResultadoPesquisa(melhor, pontuacao, profundidade, nos, tempo);
+    }
+
+    /**
+     * Indica se a última pesquisa terminou antes do tempo, por cancelamento ou
+     * pela condição de paragem, em vez de acabar as iterações.
+     *
+     * @return true se a pesquisa foi interrompida
+     */
+    public boolean isInterrompida() {
+        return parar && (cancelada() || externo.getAsBoolean());
+    }
+
+    private boolean cancelada() {
+        return geracao.get() != geracaoPesquisa;
+    }
+
+    /**
+     * Reconstrói a variante principal a partir de uma posição, seguindo as
+     * melhores jogadas guardadas na tabela de transposição.
+     *
+     * @param tabuleiro posição de partida
+     * @param maximo número máximo de jogadas
+     * @return células das jogadas, pela ordem em que seriam feitas
+     */
+    public int[] variante(long tabuleiro, int maximo) {
+        int[] jogadas = new int[maximo];
+        int n = 0;
+        long chave = Zobrist.chave(tabuleiro);
+        while (n < maximo) {
+            int dados = tabela.procurar(chave);
+            if (dados == TabelaTransposicao.AUSENTE) break;
+            int celula = TabelaTransposicao.jogada(dados);
+            if (!Regras.jogadaLegal(tabuleiro, celula)) break;
+            int antes = Tabuleiro.celula(tabuleiro, celula);
+            jogadas[n++] = celula;
+            tabuleiro = Tabuleiro.colocar(tabuleiro, celula, antes + 1);
+            chave = Zobrist.atualizar(chave, celula, antes, antes + 1);
+        }
+        return Arrays.copyOf(jogadas, n);
+    }
+
+    /**
+     * Pesquisa negamax com cortes alfa-beta.
+     *
+     * @return pontuação na perspetiva do jogador a jogar
+     */
+    private int negamax(long tabuleiro, long chave, int profundidade, int alfa, int beta, boolean raiz) {
+        if ((++nos & 1023) == 0 && (cancelada() || externo.getAsBoolean() || System.nanoTime() > prazo)) parar = true;
+        if (parar) return 0;
+
+        int legais = Regras.jogadasLegais(tabuleiro);
+        if (legais == 0)
+            return Tabuleiro.vitoria(tabuleiro) ? -(VITORIA - Regras.numeroJogadas(tabuleiro)) : 0;
+
+        // Uma jogada que completa uma linha é sempre a melhor
+        int jogadas = Regras.numeroJogadas(tabuleiro);
+        for (int m = legais; m != 0; m &= m - 1) {
+            int celula = Integer.numberOfTrailingZeros(m);
+            int cor = Regras.proximaCor(tabuleiro, celula);
+            if (Tabuleiro.vitoria(Tabuleiro.colocar(tabuleiro, celula, cor), cor)) {
+                if (raiz) melhorRaiz = celula;
+                return VITORIA - (jogadas + 1);
+            }
+        }
+        if (profundidade == 0) return 0;
+
+        int alfaOriginal = alfa;
+        int primeira = -1;
+        int dados = tabela.procurar(chave);
+        if (dados != TabelaTransposicao.AUSENTE) {
+            primeira = TabelaTransposicao.jogada(dados);
+            if (!raiz && TabelaTransposicao.profundidade(dados) >= profundidade) {
+                int valor = TabelaTransposicao.pontuacao(dados);
+                switch (TabelaTransposicao.limite(dados)) {
+                    case TabelaTransposicao.EXATO:
+                        return valor;
+                    case TabelaTransposicao.INFERIOR:
+                        alfa = Math.max(alfa, valor);
+                        break;
+                    default:
+                        beta = Math.min(beta, valor);
+                        break;
+                }
+                if (alfa >= beta) return valor;
+            }
+        }
+
+        int melhor = -VITORIA - 1;
+        int melhorJogada = -1;
+        int restantes = legais;
+        int celula = primeira >= 0 && (legais >>> primeira & 1) != 0
+                ? primeira : Integer.numberOfTrailingZeros(restantes);
+        while (true) {
+            restantes &= ~(1 << celula);
+            int antes = Tabuleiro.celula(tabuleiro, celula);
+            long filho = Tabuleiro.colocar(tabuleiro, celula, antes + 1);
+            int valor = -negamax(filho, Zobrist.atualizar(chave, celula, antes, antes + 1),
+                    profundidade - 1, -beta, -alfa, false);
+            if (parar) return 0;
+            if (valor > melhor) {
+                melhor = valor;
+                melhorJogada = celula;
+                if (valor > alfa) {
+                    alfa = valor;
+                    if (alfa >= beta) break;
+                }
+            }
+            if (restantes == 0) break;
+            celula = Integer.numberOfTrailingZeros(restantes);
+        }
+
+        int limite = melhor <= alfaOriginal ? TabelaTransposicao.SUPERIOR
+                : melhor >= beta ? TabelaTransposicao.INFERIOR : TabelaTransposicao.EXATO;
+        tabela.guardar(chave, melhor, profundidade, limite, melhorJogada);
+        if (raiz) melhorRaiz = melhorJogada;
+        return melhor;
+    }
+}
@@ -0,0 +1,125 @@
+package com.mycompany.nucleosemaforo.motor;
+
+import com.mycompany.nucleosemaforo.Regras;
+
+import java.util.Arrays;
+
+/**
+ * Resultado de uma iteração da {@link Analise} de uma posição: a avaliação
+ * de cada jogada legal, da melhor para a pior, e a variante principal.
+ *
+ * As instâncias são imutáveis; duas são iguais se mostrarem a mesma coisa
+ * (a contagem de posições visitadas não conta), o que permite publicar só
+ * os resultados que mudaram.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class ResultadoAnalise {
+
+    private final long tabuleiro;
+    private final int profundidade;
+    private final int[] celulas;
+    private final int[] pontuacoes;
+    private final int[] variante;
+    private final long nos;
+
+    /**
+     * @param tabuleiro posição analisada
+     * @param profundidade profundidade completa, em jogadas a partir da posição
+     * @param celulas jogadas legais, da melhor para a pior
+     * @param pontuacoes pontuação de cada jogada, na perspetiva de quem joga
+     * @param variante variante principal, a começar pela melhor jogada
+     * @param nos número de posições visitadas
+     */
+    ResultadoAnalise(long tabuleiro, int profundidade, int[] celulas, int[] pontuacoes, int[] variante, long nos) {
+        this.tabuleiro = tabuleiro;
+        this.profundidade = profundidade;
+        this.celulas = celulas;
+        this.pontuacoes = pontuacoes;
+        this.variante = variante;
+        this.nos = nos;
+    }
+
+    /** @return posição analisada */
+    public long getTabuleiro() {
+        return tabuleiro;
+    }
+
+    /** @return profundidade da última iteração completa */
+    public int getProfundidade() {
+        return profundidade;
+    }
+
+    /** @return número de jogadas avaliadas */
+    public int getNumeroJogadas() {
+        return celulas.length;
+    }
+
+    /**
+     * @param i posição na lista, 0 para a melhor
+     * @return célula da jogada
+     */
+    public int getCelula(int i) {
+        return celulas[i];
+    }
+
+    /**
+     * @param i posição na lista, 0 para a melhor
+     * @return pontuação da jogada, na perspetiva de quem joga
+     */
+    public int getPontuacao(int i) {
+        return pontuacoes[i];
+    }
+
+    /** @return cópia da variante principal (células, pela ordem das jogadas) */
+    public int[] getVariante() {
+        return variante.clone();
+    }
+
+    /** @return número de posições visitadas até esta iteração */
+    public long getNos() {
+        return nos;
+    }
+
+    /** @return true se todas as jogadas já têm um resultado forçado */
+    public boolean isDecidido() {
+        for (int p : pontuacoes)
+            if (!Motor.decisiva(p)) return false;
+        return true;
+    }
+
+    /**
+     * Descreve uma pontuação, por exemplo "ganha em 3" ou "perde em 2"
+     * (jogadas a contar desta posição), ou "sem vitória à vista" se a
+     * pesquisa não encontrou um resultado forçado.
+     *
+     * @param pontuacao pontuação devolvida por {@link #getPontuacao}
+     * @return descrição
+     */
+    public String descrever(int pontuacao) {
+        if (!Motor.decisiva(pontuacao)) return "sem vitória à vista";
+        int jogadas = Motor.VITORIA - Math.abs(pontuacao) - Regras.numeroJogadas(tabuleiro);
+        return (pontuacao > 0 ? "ganha em " : "perde em ") + jogadas;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ResultadoAnalise)) return false;
+        ResultadoAnalise r = (ResultadoAnalise) o;
+        return r.tabuleiro == tabuleiro && r.profundidade == profundidade && Arrays.equals(r.celulas, celulas)
+                && Arrays.equals(r.pontuacoes, pontuacoes) && Arrays.equals(r.variante, variante);
+    }
+
+    @Override
+    public int hashCode() {
+        return (Long.hashCode(tabuleiro) * 31 + profundidade) * 31 + Arrays.hashCode(pontuacoes);
+    }
+
+    @Override
+    public String toString() {
+        return "profundidade=" + profundidade + " melhor=" + (celulas.length > 0 ? celulas[0] : -1)
+                + " variante=" + Arrays.toString(variante) + " nos=" + nos;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mycompany.nucleosemaforo.motor;
+
+/**
+ * Resultado de uma pesquisa do {@link Motor}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class ResultadoPesquisa {
+
+    private final int celula;
+    private final int pontuacao;
+    private final int profundidade;
+    private final long nos;
+    private final long tempoMs;
+
+    /**
+     * @param celula melhor célula encontrada, ou -1 se não houver jogadas
+     * @param pontuacao pontuação na perspetiva de quem joga
+     * @param profundidade profundidade da última iteração completa
+     * @param nos número de posições visitadas
+     * @param tempoMs duração da pesquisa em milissegundos
+     */
+    public ResultadoPesquisa(int celula, int pontuacao, int profundidade, long nos, long tempoMs) {
+        this.celula = celula;
+        this.pontuacao = pontuacao;
+        this.profundidade = profundidade;
+        this.nos = nos;
+        this.tempoMs = tempoMs;
+    }
+
+    /** @return melhor célula encontrada, ou -1 se não houver jogadas */
+    public int getCelula() {
+        return celula;
+    }
+
+    /** @return pontuação na perspetiva de quem joga */
+    public int getPontuacao() {
+        return pontuacao;
+    }
+
+    /** @return profundidade da última iteração completa */
+    public int getProfundidade() {
+        return profundidade;
+    }
+
+    /** @return número de posições visitadas */
+    public long getNos() {
+        return nos;
+    }
+
+    /** @return duração da pesquisa em milissegundos */
+    public long getTempoMs() {
+        return tempoMs;
+    }
+
+    /**
+     * @return true se a pesquisa encontrou um resultado forçado (vitória ou derrota)
+     */
+    public boolean isDecidido() {
+        return Math.abs(pontuacao) > Motor.VITORIA - 100;
+    }
+
+    @Override
+    public String toString() {
+        return "celula=" + celula + " pontuacao=" + pontuacao + " profundidade=" + profundidade
+                + " nos=" + nos + " tempo=" + tempoMs + "ms";
+    }
+}
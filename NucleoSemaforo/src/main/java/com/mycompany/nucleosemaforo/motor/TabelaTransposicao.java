@@ -0,0 +1,123 @@
+package com.mycompany.nucleosemaforo.motor;
+
+/**
+ * Tabela de transposição de tamanho fixo para o {@link Motor}.
+ *
+ * Cada entrada ocupa um {@code long} (chave) e um {@code int} (dados empacotados),
+ * em dois vetores paralelos, para não criar objetos durante a pesquisa.
+ * As entradas estão agrupadas em pares: a primeira posição de cada par guarda a
+ * pesquisa mais profunda (ou a de uma pesquisa anterior, que é sempre substituída)
+ * e a segunda é substituída sempre.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class TabelaTransposicao {
+
+    /** Tipos de limite guardados com a pontuação */
+    public static final int EXATO = 0, INFERIOR = 1, SUPERIOR = 2;
+
+    /** Valor devolvido por {@link #procurar} quando a posição não está na tabela */
+    public static final int AUSENTE = 0;
+
+    private final long[] chaves;
+    private final int[] dados;
+    private final int mascara;
+    private int idade = 1;
+
+    /**
+     * Cria uma tabela com {@code 2^bits} entradas.
+     *
+     * @param bits logaritmo de base 2 do número de entradas (entre 2 e 26)
+     */
+    public TabelaTransposicao(int bits) {
+        if (bits < 2 || bits > 26)
+            throw new IllegalArgumentException("Tamanho inválido: " + bits);
+        this.chaves = new long[1 << bits];
+        this.dados = new int[1 << bits];
+        this.mascara = (1 << bits) - 2;
+    }
+
+    /**
+     * Marca o início de uma nova pesquisa, tornando as entradas anteriores
+     * candidatas preferenciais a substituição.
+     */
+    public void novaPesquisa() {
+        idade = idade % 15 + 1;
+    }
+
+    /**
+     * Apaga todas as entradas.
+     */
+    public void limpar() {
+        java.util.Arrays.fill(chaves, 0L);
+        java.util.Arrays.fill(dados, 0);
+    }
+
+    /**
+     * Procura uma posição.
+     *
+     * @param chave chave de Zobrist da posição
+     * @return dados empacotados, ou {@link #AUSENTE}
+     */
+    public int procurar(long chave) {
+        int i = (int) chave & mascara;
+        if (chaves[i] == chave && dados[i] != AUSENTE) return dados[i];
+        if (chaves[i + 1] == chave && dados[i + 1] != AUSENTE) return dados[i + 1];
+        return AUSENTE;
+    }
+
+    /**
+     * Guarda o resultado da pesquisa de uma posição.
+     *
+     * @param chave chave de Zobrist da posição
+     * @param pontuacao pontuação (entre -32767 e 32767)
+     * @param profundidade profundidade pesquisada (até 63)
+     * @param limite {@link #EXATO}, {@link #INFERIOR} ou {@link #SUPERIOR}
+     * @param jogada melhor célula encontrada, ou -1
+     */
+    public void guardar(long chave, int pontuacao, int profundidade, int limite, int jogada) {
+        int i = (int) chave & mascara;
+        int novo = empacotar(pontuacao, profundidade, limite, jogada);
+        int antigo = dados[i];
+        if (antigo == AUSENTE || chaves[i] == chave || idade(antigo) != idade
+                || profundidade(antigo) <= profundidade) {
+            chaves[i] = chave;
+            dados[i] = novo;
+        } else {
+            chaves[i + 1] = chave;
+            dados[i + 1] = novo;
+        }
+    }
+
+    private int empacotar(int pontuacao, int profundidade, int limite, int jogada) {
+        // 16 bits de pontuação, 6 de profundidade, 2 de limite, 4 de jogada e 4 de idade;
+        // a idade nunca é 0, pelo que nenhuma entrada válida vale AUSENTE
+        return pontuacao << 16 | profundidade << 10 | limite << 8 | ((jogada + 1) & 0xF) << 4 | idade;
+    }
+
+    /** @return pontuação guardada nos dados */
+    public static int pontuacao(int dados) {
+        return dados >> 16;
+    }
+
+    /** @return profundidade guardada nos dados */
+    public static int profundidade(int dados) {
+        return dados >>> 10 & 0x3F;
+    }
+
+    /** @return tipo de limite guardado nos dados */
+    public static int limite(int dados) {
+        return dados >>> 8 & 0x3;
+    }
+
+    /** @return melhor célula guardada nos dados, ou -1 */
+    public static int jogada(int dados) {
+        return (dados >>> 4 & 0xF) - 1;
+    }
+
+    private static int idade(int dados) {
+        return dados & 0xF;
+    }
+}
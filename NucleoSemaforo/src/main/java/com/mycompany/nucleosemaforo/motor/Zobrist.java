@@ -0,0 +1,58 @@
+package com.mycompany.nucleosemaforo.motor;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves de Zobrist para o tabuleiro do Jogo Semáforo.
+ *
+ * Cada par (célula, cor) tem uma chave aleatória fixa; a chave de um tabuleiro
+ * é o XOR das chaves das suas células ocupadas. Como a vez de jogar decorre do
+ * próprio tabuleiro, não é preciso uma chave para o jogador.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Zobrist {
+
+    /** Chaves indexadas por {@code celula * 4 + cor}; a cor vazia vale 0 */
+    private static final long[] CHAVES = new long[Tabuleiro.CELULAS * 4];
+
+    static {
+        SplittableRandom rnd = new SplittableRandom(0x5E4AF060L);
+        for (int celula = 0; celula < Tabuleiro.CELULAS; celula++)
+            for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++)
+                CHAVES[celula * 4 + cor] = rnd.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Calcula a chave de um tabuleiro completo.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return chave de Zobrist
+     */
+    public static long chave(long tabuleiro) {
+        long h = 0;
+        for (int celula = 0; celula < Tabuleiro.CELULAS; celula++)
+            h ^= CHAVES[celula * 4 + Tabuleiro.celula(tabuleiro, celula)];
+        return h;
+    }
+
+    /**
+     * Atualiza uma chave depois de uma célula passar de uma cor para outra.
+     *
+     * @param chave chave antes da jogada
+     * @param celula índice da célula alterada
+     * @param antes cor anterior
+     * @param depois nova cor
+     * @return chave depois da jogada
+     */
+    public static long atualizar(long chave, int celula, int antes, int depois) {
+        return chave ^ CHAVES[celula * 4 + antes] ^ CHAVES[celula * 4 + depois];
+    }
+}
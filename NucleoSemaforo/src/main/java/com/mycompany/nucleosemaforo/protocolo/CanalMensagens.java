@@ -0,0 +1,140 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Canal de mensagens sobre um socket bloqueante.
+ *
+ * É o único dono das streams do socket: lê e escreve sempre com os mesmos
+ * buffers, e trata da negociação de capacidades de forma transparente
+ * (ao enviar ou receber CAPACIDADES, ativa-as em {@link Protocolo}).
+ * Os buffers começam com o tamanho pedido e só crescem, até à maior trama do
+ * protocolo, quando uma mensagem não cabe.
+ *
+ * {@link #enviar} pode ser chamado de várias threads; {@link #receber} deve
+ * ser chamado sempre da mesma. A exclusão mútua usa um {@link ReentrantLock}
+ * em vez de {@code synchronized}, para não prender a thread de suporte de uma
+ * thread virtual bloqueada numa escrita.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class CanalMensagens implements Closeable {
+
+    /** Tamanho inicial por omissão dos buffers de entrada e de saída */
+    private static final int TAMANHO = 8 * 1024;
+
+    /** Maior trama que o protocolo pode produzir: o máximo de {@code writeUTF} e o comprimento */
+    private static final int MAXIMO_TRAMA = 2 + CodecTexto.MAXIMO_TRAMA;
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private final Protocolo protocolo = new Protocolo();
+    private ByteBuffer entrada;
+    private ByteBuffer saida;
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    /**
+     * @param socket socket já ligado
+     * @throws IOException se não for possível obter as streams
+     */
+    public CanalMensagens(Socket socket) throws IOException {
+        this(socket, TAMANHO);
+    }
+
+    /**
+     * @param socket socket já ligado
+     * @param tamanho tamanho inicial de cada buffer
+     * @throws IOException se não for possível obter as streams
+     */
+    public CanalMensagens(Socket socket, int tamanho) throws IOException {
+        this.socket = socket;
+        this.in = socket.getInputStream();
+        this.out = socket.getOutputStream();
+        this.entrada = ByteBuffer.allocate(tamanho);
+        this.saida = ByteBuffer.allocate(tamanho);
+        entrada.limit(0);
+    }
+
+    /**
+     * Envia uma mensagem numa única escrita.
+     *
+     * @param mensagem mensagem a enviar
+     * @throws IOException se a escrita falhar
+     */
+    public void enviar(Mensagem mensagem) throws IOException {
+        escrita.lock();
+        try {
+            saida.clear();
+            try {
+                protocolo.codificar(mensagem, saida);
+            } catch (BufferOverflowException e) {
+                if (saida.capacity() >= MAXIMO_TRAMA) throw new ProtocoloException("Mensagem demasiado grande");
+                saida = ByteBuffer.allocate(MAXIMO_TRAMA);
+                protocolo.codificar(mensagem, saida);
+            }
+            out.write(saida.array(), 0, saida.position());
+            out.flush();
+            if (mensagem.getTipo() == Mensagem.CAPACIDADES) protocolo.ativar(mensagem.getCapacidades());
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Bloqueia até receber a próxima mensagem.
+     *
+     * @param mensagem objeto a preencher
+     * @return a própria mensagem
+     * @throws IOException se a ligação fechar ou a trama for inválida
+     */
+    public Mensagem receber(Mensagem mensagem) throws IOException {
+        while (true) {
+            if (protocolo.descodificar(entrada, mensagem)) {
+                if (mensagem.getTipo() == Mensagem.CAPACIDADES) protocolo.ativar(mensagem.getCapacidades());
+                return mensagem;
+            }
+            entrada.compact();
+            if (!entrada.hasRemaining()) crescerEntrada();
+            int n = in.read(entrada.array(), entrada.position(), entrada.remaining());
+            if (n < 0) throw new EOFException("Ligação fechada pelo servidor");
+            entrada.position(entrada.position() + n);
+            entrada.flip();
+        }
+    }
+
+    /**
+     * Uma trama maior do que o buffer: cresce até à maior que o protocolo permite.
+     */
+    private void crescerEntrada() throws ProtocoloException {
+        if (entrada.capacity() >= MAXIMO_TRAMA) throw new ProtocoloException("Mensagem demasiado grande");
+        ByteBuffer maior = ByteBuffer.allocate(Math.min(MAXIMO_TRAMA, 2 * entrada.capacity()));
+        entrada.flip();
+        entrada = maior.put(entrada);
+    }
+
+    /** @return protocolo desta ligação */
+    public Protocolo getProtocolo() {
+        return protocolo;
+    }
+
+    /** @return socket subjacente */
+    public Socket getSocket() {
+        return socket;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificação de mensagens em tramas de bytes.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public interface Codec {
+
+    /**
+     * Escreve uma mensagem no buffer, a partir da posição atual.
+     *
+     * @param mensagem mensagem a codificar
+     * @param destino buffer em modo de escrita
+     */
+    void codificar(Mensagem mensagem, ByteBuffer destino);
+
+    /**
+     * Lê uma trama completa do buffer para a mensagem.
+     * Se a trama ainda não estiver completa, o buffer não é alterado.
+     *
+     * @param origem buffer em modo de leitura
+     * @param mensagem mensagem a preencher
+     * @return true se foi lida uma mensagem
+     * @throws ProtocoloException se a trama for inválida
+     */
+    boolean descodificar(ByteBuffer origem, Mensagem mensagem) throws ProtocoloException;
+}
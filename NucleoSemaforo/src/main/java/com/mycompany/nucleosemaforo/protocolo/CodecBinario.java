@@ -0,0 +1,173 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocolo binário (versão 1): cada trama começa por um byte com o código de
+ * operação ({@link Mensagem#getTipo()}), seguido de um conteúdo de tamanho fixo:
+ *
+ * <ul>
+ *   <li>JOGADA: 1 byte com linha (3 bits), coluna (3 bits) e cor (2 bits);</li>
+ *   <li>FIM: 1 byte de comprimento seguido do nome em UTF-8 modificado;</li>
+ *   <li>NOVO_JOGO: 1 byte, 1 se o destinatário começa;</li>
+ *   <li>restantes: sem conteúdo.</li>
+ * </ul>
+ *
+ * Numa mensagem numerada o código leva o bit 0x80 e é seguido do número de
+ * sequência, em grupos de 7 bits (1 byte até 127), antes do conteúdo. Numa
+ * mensagem de outro jogo da ligação leva o bit 0x40 e o número do jogo vem
+ * a seguir, no mesmo formato.
+ *
+ * Os códigos nunca são 0, ao contrário do primeiro byte de uma trama de texto
+ * curta, o que permite a {@link Protocolo} aceitar os dois formatos.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class CodecBinario implements Codec {
+
+    /** Tamanho máximo do nome numa mensagem FIM, em bytes */
+    public static final int MAXIMO_NOME = 255;
+
+    /** Bit do código de operação que indica uma mensagem numerada */
+    private static final int NUMERADA = 0x80;
+
+    /** Bit do código de operação que indica uma mensagem de outro jogo */
+    private static final int COM_JOGO = 0x40;
+
+    /**
+     * Corta um nome para que caiba numa mensagem FIM binária, com no máximo
+     * {@link #MAXIMO_NOME} bytes.
+     *
+     * @param nome nome a limitar, ou null
+     * @return o próprio nome, se couber, ou o seu maior início que caiba
+     */
+    public static String limitarNome(String nome) {
+        if (nome == null || Utf8Modificado.tamanho(nome) <= MAXIMO_NOME) return nome;
+        return Utf8Modificado.prefixo(nome, MAXIMO_NOME);
+    }
+
+    /** Último número lido por {@link #lerVariavel} (cada ligação tem o seu codec) */
+    private int valorLido;
+
+    @Override
+    public void codificar(Mensagem m, ByteBuffer d) {
+        d.put((byte) (m.getTipo() | (m.getSeq() != 0 ? NUMERADA : 0) | (m.getJogo() != 0 ? COM_JOGO : 0)));
+        if (m.getSeq() != 0) escreverVariavel(m.getSeq(), d);
+        if (m.getJogo() != 0) escreverVariavel(m.getJogo(), d);
+        switch (m.getTipo()) {
+            case Mensagem.JOGADA:
+                d.put((byte) (m.getLinha() << 5 | m.getColuna() << 2 | m.getCor()));
+                break;
+            case Mensagem.FIM:
+                int n = Utf8Modificado.tamanho(m.getTexto());
+                if (n > MAXIMO_NOME) throw new IllegalArgumentException("Nome demasiado comprido");
+                d.put((byte) n);
+                Utf8Modificado.escrever(m.getTexto(), d);
+                break;
+            case Mensagem.NOVO_JOGO:
+                d.put((byte) (m.isComecar() ? 1 : 0));
+                break;
+            case Mensagem.SAIU:
+            case Mensagem.COMECAR:
+            case Mensagem.ESPERAR:
+            case Mensagem.PRONTO:
+            case Mensagem.RECOMECAR:
+                break;
+            default:
+                throw new IllegalArgumentException("Mensagem só existe em texto: " + m);
+        }
+    }
+
+    @Override
+    public boolean descodificar(ByteBuffer o, Mensagem m) throws ProtocoloException {
+        if (!o.hasRemaining()) return false;
+        int inicio = o.position();
+        int tipo = o.get(inicio) & 0xFF;
+        int p = inicio;
+        int seq = 0, jogo = 0;
+        if ((tipo & NUMERADA) != 0) {
+            p = lerVariavel(o, p);
+            if (p < 0) return false;
+            seq = valorLido;
+        }
+        if ((tipo & COM_JOGO) != 0) {
+            p = lerVariavel(o, p);
+            if (p < 0) return false;
+            jogo = valorLido;
+        }
+        tipo &= ~(NUMERADA | COM_JOGO);
+        // p aponta para o último byte do cabeçalho, como se fosse o código sozinho
+        if (!lerConteudo(o, p, tipo, m)) {
+            o.position(inicio);
+            return false;
+        }
+        m.numerar(seq).paraJogo(jogo);
+        return true;
+    }
+
+    /**
+     * Lê um número em grupos de 7 bits a seguir à posição p.
+     *
+     * @return posição do último byte do número, ou -1 se ainda não chegou todo
+     */
+    private int lerVariavel(ByteBuffer o, int p) throws ProtocoloException {
+        int valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            if (++p >= o.limit()) return -1;
+            if (deslocamento > 28) throw new ProtocoloException("Número inválido no cabeçalho");
+            int b = o.get(p);
+            valor |= (b & 0x7F) << deslocamento;
+            if (b >= 0) break;
+        }
+        valorLido = valor;
+        return p;
+    }
+
+    private static void escreverVariavel(int valor, ByteBuffer d) {
+        for (; ; valor >>>= 7) {
+            if ((valor & ~0x7F) == 0) {
+                d.put((byte) valor);
+                return;
+            }
+            d.put((byte) (valor & 0x7F | 0x80));
+        }
+    }
+
+    private static boolean lerConteudo(ByteBuffer o, int p, int tipo, Mensagem m) throws ProtocoloException {
+        o.position(p);
+        switch (tipo) {
+            case Mensagem.JOGADA: {
+                if (o.remaining() < 2) return false;
+                int b = o.get(p + 1) & 0xFF;
+                m.jogada(b >>> 5, b >>> 2 & 0x7, b & 0x3);
+                o.position(p + 2);
+                return true;
+            }
+            case Mensagem.FIM: {
+                if (o.remaining() < 2) return false;
+                int n = o.get(p + 1) & 0xFF;
+                if (o.remaining() < 2 + n) return false;
+                o.position(p + 2);
+                m.fim(Utf8Modificado.ler(o, n));
+                return true;
+            }
+            case Mensagem.NOVO_JOGO:
+                if (o.remaining() < 2) return false;
+                m.novoJogo(o.get(p + 1) != 0);
+                o.position(p + 2);
+                return true;
+            case Mensagem.SAIU:
+            case Mensagem.COMECAR:
+            case Mensagem.ESPERAR:
+            case Mensagem.PRONTO:
+            case Mensagem.RECOMECAR:
+                m.sinal(tipo);
+                o.position(p + 1);
+                return true;
+            default:
+                throw new ProtocoloException("Código de operação desconhecido: " + tipo);
+        }
+    }
+}
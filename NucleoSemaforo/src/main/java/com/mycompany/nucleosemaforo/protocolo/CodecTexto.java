@@ -0,0 +1,327 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocolo de texto original: cada mensagem é uma trama de
+ * {@code DataOutputStream.writeUTF} (2 bytes de comprimento seguidos do texto em
+ * UTF-8 modificado), por exemplo {@code "JOGADA:1:2:verde"}.
+ *
+ * As mensagens do jogo são reconhecidas comparando bytes com constantes
+ * pré-codificadas, sem criar Strings nem partir o texto. Uma mensagem numerada
+ * leva o número de sequência à frente, por exemplo {@code "17#JOGADA:1:2:verde"},
+ * e uma mensagem de outro jogo da ligação leva o número do jogo a seguir, por
+ * exemplo {@code "17#3@JOGADA:1:2:verde"}; nenhuma mensagem sem número começa
+ * por um algarismo.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class CodecTexto implements Codec {
+
+    /** Tamanho máximo do texto de uma trama, em bytes, o mesmo de {@code writeUTF} */
+    public static final int MAXIMO_TRAMA = 0xFFFF;
+
+    /** Algarismos de uma coordenada da jogada: 9 nunca passam do maior int */
+    private static final int DIGITOS_JOGADA = 9;
+
+    private static final byte[] JOGADA = Utf8Modificado.bytes("JOGADA:");
+    private static final byte[] FIM = Utf8Modificado.bytes("FIM:");
+    private static final byte[] NOVO_JOGO = Utf8Modificado.bytes("NOVO_JOGO");
+    private static final byte[] NOVO_JOGO_COMECAR = Utf8Modificado.bytes("NOVO_JOGO:COMEÇAR");
+    private static final byte[] NOVO_JOGO_ESPERAR = Utf8Modificado.bytes("NOVO_JOGO:ESPERAR");
+    private static final byte[] SAIU = Utf8Modificado.bytes("SAIU");
+    private static final byte[] COMECAR = Utf8Modificado.bytes("COMEÇAR");
+    private static final byte[] ESPERAR = Utf8Modificado.bytes("ESPERAR");
+    private static final byte[] PRONTO = Utf8Modificado.bytes("PRONTO");
+    private static final byte[] RECOMECAR = Utf8Modificado.bytes("RECOMEÇAR");
+    private static final byte[] CAPACIDADES = Utf8Modificado.bytes("CAPACIDADES:");
+    private static final byte[] SESSAO = Utf8Modificado.bytes("SESSAO:");
+    private static final byte[] RETOMAR = Utf8Modificado.bytes("RETOMAR:");
+    private static final byte[] RETOMADA = Utf8Modificado.bytes("RETOMADA:");
+    private static final byte[] ESTADO = Utf8Modificado.bytes("ESTADO:");
+    private static final byte[] ASSISTIR = Utf8Modificado.bytes("ASSISTIR:");
+    private static final byte[] MESA = Utf8Modificado.bytes("MESA:");
+    private static final byte[] GEOMETRIA = Utf8Modificado.bytes("GEOMETRIA:");
+    private static final byte[] PING = Utf8Modificado.bytes("PING:");
+    private static final byte[] PONG = Utf8Modificado.bytes("PONG:");
+    private static final byte[][] CORES = {
+        null, Utf8Modificado.bytes("verde"), Utf8Modificado.bytes("amarelo"), Utf8Modificado.bytes("vermelho")
+    };
+
+    private static final String OLA_INICIO = "Jogador ";
+    private static final String OLA_FIM = " conectado!";
+
+    @Override
+    public void codificar(Mensagem m, ByteBuffer d) {
+        int inicio = d.position();
+        d.putShort((short) 0);
+        if (m.getSeq() != 0) {
+            escreverNumero(m.getSeq(), d);
+            d.put((byte) '#');
+        }
+        if (m.getJogo() != 0) {
+            escreverNumero(m.getJogo(), d);
+            d.put((byte) '@');
+        }
+        switch (m.getTipo()) {
+            case Mensagem.JOGADA:
+                d.put(JOGADA);
+                escreverNumero(m.getLinha(), d);
+                d.put((byte) ':');
+                escreverNumero(m.getColuna(), d);
+                d.put((byte) ':');
+                d.put(CORES[m.getCor()]);
+                break;
+            case Mensagem.FIM:
+                d.put(FIM);
+                Utf8Modificado.escrever(m.getTexto(), d);
+                break;
+            case Mensagem.NOVO_JOGO:
+                d.put(m.isComecar() ? NOVO_JOGO_COMECAR : NOVO_JOGO_ESPERAR);
+                break;
+            case Mensagem.SAIU:
+                d.put(SAIU);
+                break;
+            case Mensagem.COMECAR:
+                d.put(COMECAR);
+                break;
+            case Mensagem.ESPERAR:
+                d.put(ESPERAR);
+                break;
+            case Mensagem.PRONTO:
+                d.put(PRONTO);
+                break;
+            case Mensagem.RECOMECAR:
+                d.put(RECOMECAR);
+                break;
+            case Mensagem.OLA:
+                Utf8Modificado.escrever(OLA_INICIO + m.getTexto() + OLA_FIM
+                        + (m.getCapacidades() != 0 ? " [" + Protocolo.nomesCapacidades(m.getCapacidades()) + "]" : ""), d);
+                break;
+            case Mensagem.CAPACIDADES:
+                d.put(CAPACIDADES);
+                Utf8Modificado.escrever(Protocolo.nomesCapacidades(m.getCapacidades()), d);
+                break;
+            case Mensagem.SESSAO:
+                d.put(SESSAO);
+                Utf8Modificado.escrever(Long.toHexString(m.getValor()), d);
+                break;
+            case Mensagem.RETOMAR:
+                d.put(RETOMAR);
+                Utf8Modificado.escrever(Long.toHexString(m.getValor()) + ":" + m.getUltima(), d);
+                break;
+            case Mensagem.RETOMADA:
+                d.put(RETOMADA);
+                Utf8Modificado.escrever(Integer.toString(m.getUltima()), d);
+                break;
+            case Mensagem.ESTADO:
+                d.put(ESTADO);
+                Utf8Modificado.escrever(Long.toHexString(m.getValor()) + ":" + (m.isComecar() ? "COMEÇOU" : "ESPEROU"), d);
+                break;
+            case Mensagem.ASSISTIR:
+                d.put(ASSISTIR);
+                Utf8Modificado.escrever(Integer.toString(m.getMesa()), d);
+                break;
+            case Mensagem.MESA:
+                d.put(MESA);
+                Utf8Modificado.escrever(Integer.toString(m.getMesa()), d);
+                break;
+            case Mensagem.GEOMETRIA:
+                d.put(GEOMETRIA);
+                Utf8Modificado.escrever(m.getGeometria().toString(), d);
+                break;
+            case Mensagem.PING:
+                d.put(PING);
+                Utf8Modificado.escrever(Long.toHexString(m.getValor()), d);
+                break;
+            case Mensagem.PONG:
+                d.put(PONG);
+                Utf8Modificado.escrever(Long.toHexString(m.getValor()), d);
+                break;
+            default:
+                Utf8Modificado.escrever(m.getTexto(), d);
+                break;
+        }
+        int n = d.position() - inicio - 2;
+        if (n > MAXIMO_TRAMA) {
+            d.position(inicio);
+            throw new IllegalArgumentException("Trama de texto demasiado comprida");
+        }
+        d.putShort(inicio, (short) n);
+    }
+
+    @Override
+    public boolean descodificar(ByteBuffer o, Mensagem m) throws ProtocoloException {
+        if (o.remaining() < 2) return false;
+        int p = o.position();
+        int n = o.getShort(p) & 0xFFFF;
+        if (o.remaining() < 2 + n) return false;
+        int inicio = p + 2;
+        int fim = inicio + n;
+
+        // Número de sequência e número do jogo opcionais: algarismos seguidos de '#' e de '@'
+        int seq = lerPrefixo(o, inicio, fim, '#');
+        if (seq >= 0) inicio = o.position();
+        int jogo = lerPrefixo(o, inicio, fim, '@');
+        if (jogo >= 0) inicio = o.position();
+
+        if (igual(o, inicio, fim, COMECAR)) {
+            m.sinal(Mensagem.COMECAR);
+        } else if (igual(o, inicio, fim, ESPERAR)) {
+            m.sinal(Mensagem.ESPERAR);
+        } else if (comeca(o, inicio, fim, JOGADA)) {
+            lerJogada(o, inicio + JOGADA.length, fim, m);
+        } else if (comeca(o, inicio, fim, FIM)) {
+            o.position(inicio + FIM.length);
+            m.fim(Utf8Modificado.ler(o, fim - o.position()));
+        } else if (comeca(o, inicio, fim, NOVO_JOGO)) {
+            m.novoJogo(igual(o, inicio, fim, NOVO_JOGO_COMECAR));
+        } else if (igual(o, inicio, fim, SAIU)) {
+            m.sinal(Mensagem.SAIU);
+        } else if (igual(o, inicio, fim, PRONTO)) {
+            m.sinal(Mensagem.PRONTO);
+        } else if (igual(o, inicio, fim, RECOMECAR)) {
+            m.sinal(Mensagem.RECOMECAR);
+        } else if (comeca(o, inicio, fim, CAPACIDADES)) {
+            o.position(inicio + CAPACIDADES.length);
+            m.capacidades(Protocolo.lerCapacidades(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, SESSAO)) {
+            o.position(inicio + SESSAO.length);
+            m.sessao(lerHex(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, RETOMAR)) {
+            o.position(inicio + RETOMAR.length);
+            String[] partes = Utf8Modificado.ler(o, fim - o.position()).split(":");
+            if (partes.length != 2) throw new ProtocoloException("RETOMAR inválido");
+            m.retomar(lerHex(partes[0]), lerInteiro(partes[1]));
+        } else if (comeca(o, inicio, fim, RETOMADA)) {
+            o.position(inicio + RETOMADA.length);
+            m.retomada(lerInteiro(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, ESTADO)) {
+            o.position(inicio + ESTADO.length);
+            String[] partes = Utf8Modificado.ler(o, fim - o.position()).split(":");
+            if (partes.length != 2) throw new ProtocoloException("ESTADO inválido");
+            m.estado(lerHex(partes[0]), partes[1].equals("COMEÇOU"));
+        } else if (comeca(o, inicio, fim, ASSISTIR)) {
+            o.position(inicio + ASSISTIR.length);
+            m.assistir(lerInteiro(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, MESA)) {
+            o.position(inicio + MESA.length);
+            m.mesa(lerInteiro(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, GEOMETRIA)) {
+            o.position(inicio + GEOMETRIA.length);
+            m.geometria(lerGeometria(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, PING)) {
+            o.position(inicio + PING.length);
+            m.ping(lerHex(Utf8Modificado.ler(o, fim - o.position())));
+        } else if (comeca(o, inicio, fim, PONG)) {
+            o.position(inicio + PONG.length);
+            m.pong(lerHex(Utf8Modificado.ler(o, fim - o.position())));
+        } else {
+            o.position(inicio);
+            lerTextoLivre(Utf8Modificado.ler(o, fim - inicio), m);
+        }
+        m.numerar(Math.max(seq, 0)).paraJogo(Math.max(jogo, 0));
+        o.position(fim);
+        return true;
+    }
+
+    /**
+     * Lê um número seguido de um separador, no início da trama.
+     *
+     * @return o número, com a posição do buffer a seguir ao separador, ou -1 se não houver
+     */
+    private static int lerPrefixo(ByteBuffer o, int inicio, int fim, char separador) {
+        int n = 0, i = inicio;
+        for (; i < fim && i - inicio < 10 && o.get(i) >= '0' && o.get(i) <= '9'; i++) n = n * 10 + o.get(i) - '0';
+        if (i == inicio || i >= fim || o.get(i) != separador) return -1;
+        o.position(i + 1);
+        return n;
+    }
+
+    private static long lerHex(String texto) throws ProtocoloException {
+        try {
+            return Long.parseUnsignedLong(texto, 16);
+        } catch (NumberFormatException e) {
+            throw new ProtocoloException("Número hexadecimal inválido: " + texto);
+        }
+    }
+
+    private static Geometria lerGeometria(String texto) throws ProtocoloException {
+        try {
+            return Geometria.ler(texto);
+        } catch (IllegalArgumentException e) {
+            throw new ProtocoloException(e.getMessage());
+        }
+    }
+
+    private static int lerInteiro(String texto) throws ProtocoloException {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new ProtocoloException("Número inválido: " + texto);
+        }
+    }
+
+    /**
+     * Interpreta a saudação "Jogador nome conectado! [capacidades]" ou outro texto.
+     */
+    private static void lerTextoLivre(String texto, Mensagem m) {
+        int fimNome = texto.lastIndexOf(OLA_FIM);
+        if (!texto.startsWith(OLA_INICIO) || fimNome < OLA_INICIO.length()) {
+            m.desconhecida(texto);
+            return;
+        }
+        String nome = texto.substring(OLA_INICIO.length(), fimNome);
+        String resto = texto.substring(fimNome + OLA_FIM.length()).trim();
+        int capacidades = 0;
+        if (resto.startsWith("[") && resto.endsWith("]"))
+            capacidades = Protocolo.lerCapacidades(resto.substring(1, resto.length() - 1));
+        m.ola(nome, capacidades);
+    }
+
+    /**
+     * Lê "linha:coluna:cor" diretamente dos bytes. Cada coordenada tem no
+     * máximo {@value #DIGITOS_JOGADA} algarismos, para não dar a volta a um
+     * número negativo.
+     */
+    private static void lerJogada(ByteBuffer o, int i, int fim, Mensagem m) throws ProtocoloException {
+        int linha = 0, coluna = 0, digitos = 0;
+        for (; i < fim && o.get(i) != ':'; i++, digitos++) linha = linha * 10 + digito(o.get(i));
+        if (digitos == 0 || digitos > DIGITOS_JOGADA || ++i >= fim) throw new ProtocoloException("Jogada inválida");
+        for (digitos = 0; i < fim && o.get(i) != ':'; i++, digitos++) coluna = coluna * 10 + digito(o.get(i));
+        if (digitos == 0 || digitos > DIGITOS_JOGADA || ++i > fim) throw new ProtocoloException("Jogada inválida");
+        for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++) {
+            if (igual(o, i, fim, CORES[cor])) {
+                m.jogada(linha, coluna, cor);
+                return;
+            }
+        }
+        throw new ProtocoloException("Cor desconhecida na jogada");
+    }
+
+    private static int digito(byte b) throws ProtocoloException {
+        if (b < '0' || b > '9') throw new ProtocoloException("Número inválido na jogada");
+        return b - '0';
+    }
+
+    private static void escreverNumero(int n, ByteBuffer d) {
+        if (n >= 10) escreverNumero(n / 10, d);
+        d.put((byte) ('0' + n % 10));
+    }
+
+    private static boolean comeca(ByteBuffer o, int inicio, int fim, byte[] prefixo) {
+        if (fim - inicio < prefixo.length) return false;
+        for (int k = 0; k < prefixo.length; k++)
+            if (o.get(inicio + k) != prefixo[k]) return false;
+        return true;
+    }
+
+    private static boolean igual(ByteBuffer o, int inicio, int fim, byte[] texto) {
+        return fim - inicio == texto.length && comeca(o, inicio, fim, texto);
+    }
+}
@@ -0,0 +1,454 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+
+/**
+ * Mensagem trocada entre cliente e servidor.
+ *
+ * As instâncias são reutilizáveis: os métodos de preenchimento substituem o
+ * conteúdo anterior e devolvem a própria mensagem, para que quem lê o socket
+ * possa descodificar todas as mensagens para o mesmo objeto.
+ *
+ * Os tipos coincidem com os códigos de operação do protocolo binário.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Mensagem {
+
+    /** Tipos de mensagem (e códigos de operação do protocolo binário) */
+    public static final int JOGADA = 1, FIM = 2, NOVO_JOGO = 3, SAIU = 4, COMECAR = 5, ESPERAR = 6,
+            PRONTO = 7, RECOMECAR = 8;
+
+    /** Saudação enviada pelo cliente ao ligar-se ("Jogador nome conectado!"); só existe em texto */
+    public static final int OLA = 100;
+
+    /** Resposta do servidor com as capacidades aceites; só existe em texto */
+    public static final int CAPACIDADES = 101;
+
+    /** Mensagem de texto que não corresponde a nenhum tipo conhecido */
+    public static final int DESCONHECIDA = 102;
+
+    /** Token da sessão, enviado pelo servidor depois de aceitar {@link Protocolo#SEQUENCIA}; só existe em texto */
+    public static final int SESSAO = 103;
+
+    /** Pedido do cliente para retomar uma sessão numa nova ligação; só existe em texto */
+    public static final int RETOMAR = 104;
+
+    /** Resposta do servidor a RETOMAR, com a última mensagem do cliente aplicada; só existe em texto */
+    public static final int RETOMADA = 105;
+
+    /** Estado completo do jogo, enviado em vez das mensagens em falta quando são demasiadas; só existe em texto */
+    public static final int ESTADO = 106;
+
+    /** Pedido do cliente para assistir a uma mesa, como espectador; só existe em texto */
+    public static final int ASSISTIR = 107;
+
+    /** Número da mesa, enviado aos jogadores que aceitam {@link Protocolo#ESPECTADOR}; só existe em texto */
+    public static final int MESA = 108;
+
+    /**
+     * Dimensões do tabuleiro: pedidas pelo cliente antes de PRONTO, ou as da
+     * partida, anunciadas pelo servidor no início (ver {@link Protocolo#GEOMETRIA}); só existe em texto
+     */
+    public static final int GEOMETRIA = 109;
+
+    /**
+     * Pedido de eco, com um valor que o servidor devolve tal e qual em PONG
+     * (ver {@link Protocolo#ECO}); só existe em texto
+     */
+    public static final int PING = 110;
+
+    /** Resposta a PING, com o mesmo valor; só existe em texto */
+    public static final int PONG = 111;
+
+    /** Em ASSISTIR, pede a mesa com mais espectadores em vez de uma mesa concreta */
+    public static final int QUALQUER_MESA = 0;
+
+    private int tipo;
+    private int linha;
+    private int coluna;
+    private int cor;
+    private boolean comecar;
+    private int capacidades;
+    private String texto;
+    private long valor;
+    private int ultima;
+    private int mesa;
+    private Geometria geometria;
+    private int seq;
+    private int jogo;
+
+    /**
+     * Preenche uma jogada.
+     *
+     * @param linha linha da célula
+     * @param coluna coluna da célula
+     * @param cor cor colocada (ver {@link com.mycompany.nucleosemaforo.Tabuleiro})
+     * @return esta mensagem
+     */
+    public Mensagem jogada(int linha, int coluna, int cor) {
+        limpar(JOGADA);
+        this.linha = linha;
+        this.coluna = coluna;
+        this.cor = cor;
+        return this;
+    }
+
+    /**
+     * Preenche o anúncio do fim de jogo.
+     *
+     * @param vencedor nome do jogador que venceu
+     * @return esta mensagem
+     */
+    public Mensagem fim(String vencedor) {
+        limpar(FIM);
+        this.texto = vencedor;
+        return this;
+    }
+
+    /**
+     * Preenche o início de um novo jogo.
+     *
+     * @param comecar true se o destinatário faz a primeira jogada
+     * @return esta mensagem
+     */
+    public Mensagem novoJogo(boolean comecar) {
+        limpar(NOVO_JOGO);
+        this.comecar = comecar;
+        return this;
+    }
+
+    /**
+     * Preenche uma mensagem sem conteúdo (SAIU, COMEÇAR, ESPERAR, PRONTO ou RECOMEÇAR).
+     *
+     * @param tipo tipo da mensagem
+     * @return esta mensagem
+     */
+    public Mensagem sinal(int tipo) {
+        limpar(tipo);
+        return this;
+    }
+
+    /**
+     * Preenche a saudação inicial do cliente.
+     *
+     * @param nome nome do jogador
+     * @param capacidades capacidades oferecidas (ver {@link Protocolo})
+     * @return esta mensagem
+     */
+    public Mensagem ola(String nome, int capacidades) {
+        limpar(OLA);
+        this.texto = nome;
+        this.capacidades = capacidades;
+        return this;
+    }
+
+    /**
+     * Preenche a resposta do servidor à saudação.
+     *
+     * @param capacidades capacidades aceites
+     * @return esta mensagem
+     */
+    public Mensagem capacidades(int capacidades) {
+        limpar(CAPACIDADES);
+        this.capacidades = capacidades;
+        return this;
+    }
+
+    /**
+     * Preenche o anúncio do token da sessão.
+     *
+     * @param token token que o cliente apresenta para retomar a sessão
+     * @return esta mensagem
+     */
+    public Mensagem sessao(long token) {
+        limpar(SESSAO);
+        this.valor = token;
+        return this;
+    }
+
+    /**
+     * Preenche o pedido de retoma de uma sessão.
+     *
+     * @param token token recebido em SESSAO
+     * @param ultima número de sequência da última mensagem do servidor aplicada
+     * @return esta mensagem
+     */
+    public Mensagem retomar(long token, int ultima) {
+        limpar(RETOMAR);
+        this.valor = token;
+        this.ultima = ultima;
+        return this;
+    }
+
+    /**
+     * Preenche a resposta a um pedido de retoma.
+     *
+     * @param ultima número de sequência da última mensagem do cliente aplicada,
+     *               ou -1 se a sessão já não existir
+     * @return esta mensagem
+     */
+    public Mensagem retomada(int ultima) {
+        limpar(RETOMADA);
+        this.ultima = ultima;
+        return this;
+    }
+
+    /**
+     * Preenche o estado completo do jogo.
+     *
+     * @param tabuleiro tabuleiro compacto (ver {@link com.mycompany.nucleosemaforo.Tabuleiro})
+     * @param comecou true se o destinatário fez a primeira jogada deste jogo
+     * @return esta mensagem
+     */
+    public Mensagem estado(long tabuleiro, boolean comecou) {
+        limpar(ESTADO);
+        this.valor = tabuleiro;
+        this.comecar = comecou;
+        return this;
+    }
+
+    /**
+     * Preenche o pedido para assistir a uma mesa.
+     *
+     * @param mesa número da mesa, ou {@link #QUALQUER_MESA}
+     * @return esta mensagem
+     */
+    public Mensagem assistir(int mesa) {
+        limpar(ASSISTIR);
+        this.mesa = mesa;
+        return this;
+    }
+
+    /**
+     * Preenche o anúncio do número da mesa de uma partida.
+     *
+     * @param mesa número da mesa, que outros clientes podem indicar em ASSISTIR
+     * @return esta mensagem
+     */
+    public Mensagem mesa(int mesa) {
+        limpar(MESA);
+        this.mesa = mesa;
+        return this;
+    }
+
+    /**
+     * Preenche o pedido ou o anúncio das dimensões do tabuleiro.
+     *
+     * @param geometria dimensões do tabuleiro
+     * @return esta mensagem
+     */
+    public Mensagem geometria(Geometria geometria) {
+        limpar(GEOMETRIA);
+        this.geometria = geometria;
+        return this;
+    }
+
+    /**
+     * Preenche um pedido de eco.
+     *
+     * @param valor valor a devolver (por exemplo, o instante do envio)
+     * @return esta mensagem
+     */
+    public Mensagem ping(long valor) {
+        limpar(PING);
+        this.valor = valor;
+        return this;
+    }
+
+    /**
+     * Preenche a resposta a um pedido de eco.
+     *
+     * @param valor valor recebido em PING
+     * @return esta mensagem
+     */
+    public Mensagem pong(long valor) {
+        limpar(PONG);
+        this.valor = valor;
+        return this;
+    }
+
+    /**
+     * Atribui um número de sequência à mensagem, sem alterar o conteúdo.
+     *
+     * @param seq número de sequência (0 para nenhum)
+     * @return esta mensagem
+     */
+    public Mensagem numerar(int seq) {
+        this.seq = seq;
+        return this;
+    }
+
+    /**
+     * Associa a mensagem a um jogo da ligação, sem alterar o conteúdo
+     * (ver {@link Protocolo#JOGOS}).
+     *
+     * @param jogo número do jogo (0 para o jogo por omissão)
+     * @return esta mensagem
+     */
+    public Mensagem paraJogo(int jogo) {
+        this.jogo = jogo;
+        return this;
+    }
+
+    /**
+     * Preenche uma mensagem de texto desconhecida.
+     *
+     * @param texto texto recebido
+     * @return esta mensagem
+     */
+    Mensagem desconhecida(String texto) {
+        limpar(DESCONHECIDA);
+        this.texto = texto;
+        return this;
+    }
+
+    /**
+     * Copia o conteúdo de outra mensagem, por exemplo para a entregar a outra thread.
+     *
+     * @param outra mensagem a copiar
+     * @return esta mensagem
+     */
+    public Mensagem copiar(Mensagem outra) {
+        this.tipo = outra.tipo;
+        this.linha = outra.linha;
+        this.coluna = outra.coluna;
+        this.cor = outra.cor;
+        this.comecar = outra.comecar;
+        this.capacidades = outra.capacidades;
+        this.texto = outra.texto;
+        this.valor = outra.valor;
+        this.ultima = outra.ultima;
+        this.mesa = outra.mesa;
+        this.geometria = outra.geometria;
+        this.seq = outra.seq;
+        this.jogo = outra.jogo;
+        return this;
+    }
+
+    private void limpar(int tipo) {
+        this.tipo = tipo;
+        this.linha = 0;
+        this.coluna = 0;
+        this.cor = 0;
+        this.comecar = false;
+        this.capacidades = 0;
+        this.texto = null;
+        this.valor = 0;
+        this.ultima = 0;
+        this.mesa = 0;
+        this.geometria = null;
+        this.seq = 0;
+        this.jogo = 0;
+    }
+
+    /** @return tipo da mensagem */
+    public int getTipo() {
+        return tipo;
+    }
+
+    /** @return linha da jogada */
+    public int getLinha() {
+        return linha;
+    }
+
+    /** @return coluna da jogada */
+    public int getColuna() {
+        return coluna;
+    }
+
+    /** @return cor da jogada */
+    public int getCor() {
+        return cor;
+    }
+
+    /** @return true se, num NOVO_JOGO, o destinatário começa ou, num ESTADO, se começou */
+    public boolean isComecar() {
+        return comecar;
+    }
+
+    /** @return capacidades oferecidas (OLA) ou aceites (CAPACIDADES) */
+    public int getCapacidades() {
+        return capacidades;
+    }
+
+    /** @return última mensagem aplicada pelo outro lado (RETOMAR e RETOMADA) */
+    public int getUltima() {
+        return ultima;
+    }
+
+    /** @return número da mesa (ASSISTIR e MESA) */
+    public int getMesa() {
+        return mesa;
+    }
+
+    /** @return dimensões do tabuleiro (GEOMETRIA) */
+    public Geometria getGeometria() {
+        return geometria;
+    }
+
+    /** @return token (SESSAO e RETOMAR), tabuleiro compacto (ESTADO) ou valor do eco (PING e PONG) */
+    public long getValor() {
+        return valor;
+    }
+
+    /** @return número de sequência, ou 0 se a mensagem não estiver numerada */
+    public int getSeq() {
+        return seq;
+    }
+
+    /** @return número do jogo a que a mensagem pertence, ou 0 */
+    public int getJogo() {
+        return jogo;
+    }
+
+    /** @return nome do vencedor (FIM), do jogador (OLA) ou o texto de uma mensagem desconhecida */
+    public String getTexto() {
+        return texto;
+    }
+
+    @Override
+    public String toString() {
+        String texto = jogo != 0 ? "@" + jogo + " " + descrever() : descrever();
+        return seq != 0 ? "#" + seq + " " + texto : texto;
+    }
+
+    private String descrever() {
+        switch (tipo) {
+            case JOGADA:
+                return "JOGADA " + linha + ":" + coluna + ":" + cor;
+            case FIM:
+                return "FIM " + texto;
+            case NOVO_JOGO:
+                return "NOVO_JOGO " + (comecar ? "COMEÇAR" : "ESPERAR");
+            case OLA:
+                return "OLA " + texto + " " + Protocolo.nomesCapacidades(capacidades);
+            case CAPACIDADES:
+                return "CAPACIDADES " + Protocolo.nomesCapacidades(capacidades);
+            case DESCONHECIDA:
+                return "DESCONHECIDA " + texto;
+            case SESSAO:
+                return "SESSAO " + Long.toHexString(valor);
+            case RETOMAR:
+                return "RETOMAR " + Long.toHexString(valor) + " " + ultima;
+            case RETOMADA:
+                return "RETOMADA " + ultima;
+            case ESTADO:
+                return "ESTADO " + Long.toHexString(valor) + " " + (comecar ? "COMEÇOU" : "ESPEROU");
+            case ASSISTIR:
+                return "ASSISTIR " + mesa;
+            case MESA:
+                return "MESA " + mesa;
+            case GEOMETRIA:
+                return "GEOMETRIA " + geometria;
+            case PING:
+                return "PING " + Long.toHexString(valor);
+            case PONG:
+                return "PONG " + Long.toHexString(valor);
+            default:
+                return "SINAL " + tipo;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+
+/**
+ * Recetor dos eventos de jogo vindos do servidor, já separados por tipo.
+ * Todos os métodos têm uma implementação vazia, para que cada ecrã só
+ * trate dos eventos que lhe interessam.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public interface OuvinteJogo {
+
+    /**
+     * O adversário fez uma jogada.
+     *
+     * @param linha linha da célula
+     * @param coluna coluna da célula
+     * @param cor cor colocada
+     */
+    default void jogada(int linha, int coluna, int cor) {
+    }
+
+    /** É a vez deste jogador. */
+    default void comecar() {
+    }
+
+    /** É a vez do adversário. */
+    default void esperar() {
+    }
+
+    /**
+     * O jogo terminou.
+     *
+     * @param vencedor nome do vencedor
+     */
+    default void fim(String vencedor) {
+    }
+
+    /** O adversário saiu do jogo. */
+    default void saiu() {
+    }
+
+    /**
+     * Começou um novo jogo.
+     *
+     * @param comecar true se este jogador faz a primeira jogada
+     */
+    default void novoJogo(boolean comecar) {
+    }
+
+    /**
+     * A ligação ao servidor foi perdida.
+     *
+     * @param motivo descrição do erro
+     */
+    default void ligacaoPerdida(String motivo) {
+    }
+
+    /** A ligação caiu e está a ser restabelecida; o jogo continua no servidor. */
+    default void ligacaoInterrompida() {
+    }
+
+    /** A sessão foi retomada numa nova ligação e as mensagens em falta vão ser entregues. */
+    default void ligacaoRetomada() {
+    }
+
+    /**
+     * O servidor enviou o estado completo do jogo, em vez das mensagens em falta.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @param comecou true se este jogador fez a primeira jogada deste jogo
+     */
+    default void sincronizar(long tabuleiro, boolean comecou) {
+    }
+
+    /**
+     * O servidor indicou o número da mesa desta partida, a que outros clientes podem assistir.
+     *
+     * @param mesa número da mesa
+     */
+    default void mesa(int mesa) {
+    }
+
+    /**
+     * O servidor anunciou as dimensões do tabuleiro da partida, antes de COMEÇAR ou ESPERAR.
+     *
+     * @param geometria dimensões do tabuleiro
+     */
+    default void geometria(Geometria geometria) {
+    }
+
+    /**
+     * Entrega uma mensagem ao método correspondente do ouvinte.
+     * As mensagens de negociação e de sessão e as desconhecidas são ignoradas.
+     *
+     * @param m mensagem recebida
+     * @param ouvinte destino
+     */
+    static void despachar(Mensagem m, OuvinteJogo ouvinte) {
+        switch (m.getTipo()) {
+            case Mensagem.JOGADA:
+                ouvinte.jogada(m.getLinha(), m.getColuna(), m.getCor());
+                break;
+            case Mensagem.COMECAR:
+                ouvinte.comecar();
+                break;
+            case Mensagem.ESPERAR:
+                ouvinte.esperar();
+                break;
+            case Mensagem.FIM:
+                ouvinte.fim(m.getTexto());
+                break;
+            case Mensagem.SAIU:
+                ouvinte.saiu();
+                break;
+            case Mensagem.NOVO_JOGO:
+                ouvinte.novoJogo(m.isComecar());
+                break;
+            case Mensagem.ESTADO:
+                ouvinte.sincronizar(m.getValor(), m.isComecar());
+                break;
+            case Mensagem.MESA:
+                ouvinte.mesa(m.getMesa());
+                break;
+            case Mensagem.GEOMETRIA:
+                ouvinte.geometria(m.getGeometria());
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import java.nio.ByteBuffer;
+import java.util.StringJoiner;
+
+/**
+ * Estado do protocolo de uma ligação: escolhe o formato de cada trama
+ * de acordo com as capacidades negociadas.
+ *
+ * A negociação é feita em texto, para continuar compatível com servidores
+ * antigos: o cliente acrescenta as capacidades que oferece à saudação
+ * ({@code "Jogador nome conectado! [BIN1]"}) e um servidor que as entenda
+ * responde com {@code "CAPACIDADES:BIN1"}. Depois de enviar ou receber essa
+ * resposta, cada lado passa a escrever em binário, mas continua a aceitar
+ * tramas de texto, que reconhece pelo primeiro byte 0. Por isso, com o binário
+ * ativo, uma trama de texto não pode passar de {@value #MAXIMO_TEXTO_BINARIO}
+ * bytes: o primeiro byte do comprimento deixaria de ser 0. Um servidor antigo
+ * ignora as capacidades e a ligação fica em texto.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Protocolo {
+
+    /** Capacidade: tramas binárias, versão 1 */
+    public static final int BINARIO = 1;
+
+    /**
+     * Capacidade: mensagens do jogo numeradas e sessões retomáveis. O servidor
+     * envia o token da sessão em SESSAO; ao religar, o cliente envia RETOMAR com
+     * a última mensagem aplicada e recebe só as que lhe faltam (ou ESTADO).
+     */
+    public static final int SEQUENCIA = 2;
+
+    /**
+     * Capacidade: espectadores. O servidor envia aos jogadores o número da mesa
+     * em MESA; qualquer cliente pode enviar ASSISTIR com esse número em vez de
+     * PRONTO e passa a receber o estado da mesa (ESTADO) e as suas jogadas.
+     */
+    public static final int ESPECTADOR = 4;
+
+    /**
+     * Capacidade: tabuleiros de outras dimensões. O cliente pode pedir uma
+     * geometria com GEOMETRIA antes de PRONTO e só é emparelhado com quem pediu
+     * a mesma; no início de cada partida o servidor anuncia a geometria em uso.
+     * Sem esta capacidade joga-se sempre no tabuleiro 3x4.
+     */
+    public static final int GEOMETRIA = 8;
+
+    /**
+     * Capacidade: eco. O servidor responde logo a cada PING com um PONG com o
+     * mesmo valor, depois de tratar as mensagens que chegaram antes, o que
+     * permite ao cliente medir o tempo de ida e volta de uma jogada.
+     */
+    public static final int ECO = 16;
+
+    /**
+     * Capacidade: vários jogos na mesma ligação. O cliente escolhe um número
+     * para cada jogo que abre e associa-o às mensagens desse jogo (PRONTO,
+     * ASSISTIR, JOGADA, SAIU, ...); o servidor responde com o mesmo número.
+     * As mensagens sem número são do jogo 0, o único de uma ligação sem esta
+     * capacidade, e as de saudação e de sessão são sempre da ligação inteira.
+     */
+    public static final int JOGOS = 32;
+
+    /**
+     * Capacidade: batimentos. O cliente envia um PING pelo menos a cada
+     * {@value #INTERVALO_MAXIMO_BATIMENTO_MS} ms e o servidor responde sempre
+     * com PONG, mesmo sem {@link #ECO}. Cada lado pode assim dar a ligação por
+     * morta ao fim de alguns segundos de silêncio, em vez de esperar pelos
+     * minutos do TCP numa ligação meio aberta.
+     */
+    public static final int BATIMENTO = 64;
+
+    /** Intervalo máximo entre dois PING de um cliente com {@link #BATIMENTO} */
+    public static final long INTERVALO_MAXIMO_BATIMENTO_MS = 5000;
+
+    /** Tamanho máximo do texto de uma trama de texto com o binário ativo, em bytes */
+    public static final int MAXIMO_TEXTO_BINARIO = 0xFF;
+
+    /** Capacidades implementadas por esta versão */
+    public static final int SUPORTADAS = BINARIO | SEQUENCIA | ESPECTADOR | GEOMETRIA | ECO | JOGOS | BATIMENTO;
+
+    private static final String[] NOMES = {"BIN1", "SEQ1", "ESP1", "GEO1", "ECO1", "JOG1", "BAT1"};
+
+    private final CodecTexto texto = new CodecTexto();
+    private final CodecBinario binario = new CodecBinario();
+    private volatile int capacidades;
+
+    /**
+     * Capacidades que o cliente deve oferecer: todas, exceto o binário se for
+     * pedido o protocolo de texto com {@code -Dsemaforo.protocolo=texto}.
+     *
+     * @return capacidades a oferecer na saudação
+     */
+    public static int capacidadesPorOmissao() {
+        return "texto".equalsIgnoreCase(System.getProperty("semaforo.protocolo")) ? SUPORTADAS & ~BINARIO : SUPORTADAS;
+    }
+
+    /**
+     * Ativa as capacidades negociadas.
+     *
+     * @param capacidades capacidades aceites pelos dois lados
+     */
+    public void ativar(int capacidades) {
+        this.capacidades = capacidades & SUPORTADAS;
+    }
+
+    /** @return capacidades ativas */
+    public int getCapacidades() {
+        return capacidades;
+    }
+
+    /** @return true se as mensagens do jogo devem ser numeradas */
+    public boolean isNumerado() {
+        return (capacidades & SEQUENCIA) != 0;
+    }
+
+    /**
+     * Codifica uma mensagem no formato ativo.
+     *
+     * @param mensagem mensagem a codificar
+     * @param destino buffer em modo de escrita
+     * @throws IllegalArgumentException se a mensagem não couber numa trama, por
+     *         exemplo uma de texto com mais de {@value #MAXIMO_TEXTO_BINARIO}
+     *         bytes com o binário ativo; o buffer fica como estava
+     */
+    public void codificar(Mensagem mensagem, ByteBuffer destino) {
+        boolean soTexto = mensagem.getTipo() >= Mensagem.OLA;
+        if ((capacidades & BINARIO) == 0) {
+            texto.codificar(mensagem, destino);
+        } else if (!soTexto) {
+            binario.codificar(mensagem, destino);
+        } else {
+            int inicio = destino.position();
+            texto.codificar(mensagem, destino);
+            // O outro lado leria o byte alto do comprimento como o código de uma trama binária
+            if (destino.position() - inicio - 2 > MAXIMO_TEXTO_BINARIO) {
+                destino.position(inicio);
+                throw new IllegalArgumentException("Trama de texto demasiado comprida para o modo binário");
+            }
+        }
+    }
+
+    /**
+     * Descodifica a próxima trama, de texto ou binária.
+     *
+     * @param origem buffer em modo de leitura
+     * @param mensagem mensagem a preencher
+     * @return true se foi lida uma mensagem completa
+     * @throws ProtocoloException se a trama for inválida
+     */
+    public boolean descodificar(ByteBuffer origem, Mensagem mensagem) throws ProtocoloException {
+        if (!origem.hasRemaining()) return false;
+        if ((capacidades & BINARIO) == 0 || origem.get(origem.position()) == 0)
+            return texto.descodificar(origem, mensagem);
+        return binario.descodificar(origem, mensagem);
+    }
+
+    /**
+     * @param capacidades máscara de capacidades
+     * @return nomes separados por vírgulas, por exemplo "BIN1"
+     */
+    public static String nomesCapacidades(int capacidades) {
+        StringJoiner nomes = new StringJoiner(",");
+        for (int i = 0; i < NOMES.length; i++)
+            if ((capacidades >>> i & 1) != 0) nomes.add(NOMES[i]);
+        return nomes.toString();
+    }
+
+    /**
+     * @param nomes nomes separados por vírgulas; os desconhecidos são ignorados
+     * @return máscara de capacidades
+     */
+    public static int lerCapacidades(String nomes) {
+        int capacidades = 0;
+        for (String nome : nomes.split(","))
+            for (int i = 0; i < NOMES.length; i++)
+                if (NOMES[i].equals(nome.trim())) capacidades |= 1 << i;
+        return capacidades;
+    }
+}
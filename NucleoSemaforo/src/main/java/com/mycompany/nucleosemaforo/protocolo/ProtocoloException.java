@@ -0,0 +1,20 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import java.io.IOException;
+
+/**
+ * Erro ao descodificar uma mensagem recebida.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public class ProtocoloException extends IOException {
+
+    /**
+     * @param mensagem descrição do erro
+     */
+    public ProtocoloException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificação UTF-8 modificada, a mesma de {@code DataOutputStream.writeUTF},
+ * para que as tramas de texto sejam compatíveis com {@code readUTF}.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Utf8Modificado {
+
+    private Utf8Modificado() {
+    }
+
+    /**
+     * @return número de bytes que o texto ocupa
+     */
+    static int tamanho(CharSequence texto) {
+        int n = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            n += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return n;
+    }
+
+    /**
+     * @return o maior início do texto que ocupa no máximo {@code maximo}
+     *         bytes, sem separar um par de substitutos
+     */
+    static String prefixo(String texto, int maximo) {
+        int n = 0, fim = 0;
+        while (fim < texto.length()) {
+            char c = texto.charAt(fim);
+            n += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+            if (n > maximo) break;
+            fim++;
+        }
+        if (fim < texto.length() && fim > 0 && Character.isHighSurrogate(texto.charAt(fim - 1))) fim--;
+        return texto.substring(0, fim);
+    }
+
+    /**
+     * Escreve o texto no buffer.
+     */
+    static void escrever(CharSequence texto, ByteBuffer destino) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                destino.put((byte) c);
+            } else if (c <= 0x07FF) {
+                destino.put((byte) (0xC0 | c >> 6 & 0x1F));
+                destino.put((byte) (0x80 | c & 0x3F));
+            } else {
+                destino.put((byte) (0xE0 | c >> 12 & 0x0F));
+                destino.put((byte) (0x80 | c >> 6 & 0x3F));
+                destino.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Lê {@code n} bytes do buffer como texto.
+     */
+    static String ler(ByteBuffer origem, int n) throws ProtocoloException {
+        char[] chars = new char[n];
+        int fim = origem.position() + n;
+        int k = 0;
+        while (origem.position() < fim) {
+            int a = origem.get() & 0xFF;
+            if (a < 0x80) {
+                chars[k++] = (char) a;
+            } else if ((a & 0xE0) == 0xC0 && origem.position() < fim) {
+                chars[k++] = (char) ((a & 0x1F) << 6 | origem.get() & 0x3F);
+            } else if ((a & 0xF0) == 0xE0 && origem.position() + 1 < fim) {
+                int b = origem.get() & 0x3F;
+                chars[k++] = (char) ((a & 0x0F) << 12 | b << 6 | origem.get() & 0x3F);
+            } else {
+                throw new ProtocoloException("Texto UTF-8 inválido");
+            }
+        }
+        return new String(chars, 0, k);
+    }
+
+    /**
+     * Codifica um texto constante, para comparações sem alocações.
+     */
+    static byte[] bytes(String texto) {
+        ByteBuffer b = ByteBuffer.allocate(tamanho(texto));
+        escrever(texto, b);
+        return b.array();
+    }
+}
@@ -0,0 +1,296 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.net.SocketTimeoutException;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Ciclo de rede não bloqueante: uma única thread com um {@link Selector}
+ * serve todas as {@link Ligacao ligações} criadas por ele, quantas forem.
+ *
+ * As operações pedidas por outras threads são postas numa fila e executadas
+ * pela thread do ciclo, que é acordada com {@link Selector#wakeup()}. As
+ * tarefas com atraso ({@link #agendar}) ficam numa fila por instante e o
+ * selector só espera até à primeira: servem o prazo de ligação e os
+ * batimentos das ligações, sem outra thread.
+ *
+ * Um erro inesperado de um ouvinte ou de uma tarefa não para o ciclo, que é
+ * partilhado: fecha só a ligação em causa, com esse erro como causa, ou é
+ * entregue ao tratador de exceções da thread. Se o próprio ciclo falhar, as
+ * ligações são fechadas com uma causa e {@link #isAberto()} passa a false.
+ *
+ * {@link #close()} fecha as ligações de imediato; {@link #terminar} dá-lhes
+ * primeiro tempo para escreverem o que têm na fila, como o aviso de saída.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class CicloRede implements Closeable {
+
+    /** Tempo máximo para estabelecer a ligação TCP, em milissegundos */
+    private static final long TEMPO_LIGACAO_MS = Long.getLong("semaforo.rede.ligacao", 5000);
+
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Runnable> tarefas = new ConcurrentLinkedQueue<>();
+    private volatile boolean aberto = true;
+
+    /** Pedido por {@link #terminar}: o ciclo acaba quando não restar nenhuma ligação; só usado na thread do ciclo */
+    private boolean terminando;
+
+    /** Tarefas com atraso, pela ordem do instante; só usadas na thread do ciclo */
+    private final PriorityQueue<Agendada> agendadas = new PriorityQueue<>((a, b) -> Long.compare(a.instante, b.instante));
+
+    /**
+     * Cria o ciclo e arranca a sua thread (daemon).
+     *
+     * @param nome nome da thread
+     * @throws IOException se não for possível abrir o selector
+     */
+    public CicloRede(String nome) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this::ciclo, nome);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Abre uma ligação a um servidor. Se o TCP não ficar estabelecido em
+     * {@code semaforo.rede.ligacao} ms (5000 por omissão), a tentativa é
+     * abandonada com {@link SocketTimeoutException}. Um endereço que não
+     * possa ser usado (por resolver, por exemplo) falha o futuro com o erro de
+     * {@link SocketChannel#connect}.
+     *
+     * @param endereco endereço do servidor
+     * @param ouvinte recetor das mensagens da nova ligação
+     * @return ligação, disponível quando o TCP estiver estabelecido
+     */
+    public CompletableFuture<Ligacao> ligar(SocketAddress endereco, OuvinteLigacao ouvinte) {
+        CompletableFuture<Ligacao> futuro = new CompletableFuture<>();
+        if (!aberto) {
+            futuro.completeExceptionally(new IOException("Ciclo de rede terminado"));
+            return futuro;
+        }
+        executar(() -> {
+            SocketChannel canal = null;
+            try {
+                canal = SocketChannel.open();
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Ligacao ligacao = new Ligacao(this, canal, ouvinte);
+                if (canal.connect(endereco)) {
+                    ligacao.registar(selector, SelectionKey.OP_READ);
+                    futuro.complete(ligacao);
+                } else {
+                    ligacao.aguardarLigacao(futuro);
+                    ligacao.registar(selector, SelectionKey.OP_CONNECT);
+                    agendar(() -> ligacao.expirarLigacao(TEMPO_LIGACAO_MS), TEMPO_LIGACAO_MS);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Um endereço por resolver ou inválido falha com uma exceção não verificada
+                if (canal != null) {
+                    try {
+                        canal.close();
+                    } catch (IOException erro) {
+                        // O canal fica fechado na mesma
+                    }
+                }
+                futuro.completeExceptionally(e);
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * Executa uma tarefa na thread do ciclo.
+     *
+     * @param tarefa tarefa curta e não bloqueante
+     */
+    public void executar(Runnable tarefa) {
+        tarefas.add(tarefa);
+        // A própria thread do ciclo vê a tarefa antes de voltar a esperar
+        if (!naThreadDoCiclo()) selector.wakeup();
+    }
+
+    /**
+     * Executa uma tarefa na thread do ciclo depois de um atraso.
+     *
+     * @param tarefa tarefa curta e não bloqueante
+     * @param atrasoMs atraso em milissegundos
+     */
+    public void agendar(Runnable tarefa, long atrasoMs) {
+        Agendada agendada = new Agendada(System.nanoTime() + atrasoMs * 1_000_000L, tarefa);
+        if (naThreadDoCiclo()) agendadas.add(agendada);
+        else executar(() -> agendadas.add(agendada));
+    }
+
+    /** @return false depois de {@link #close()} ou se o ciclo terminou com erro */
+    public boolean isAberto() {
+        return aberto;
+    }
+
+    /** @return true se a thread atual for a do ciclo */
+    public boolean naThreadDoCiclo() {
+        return Thread.currentThread() == thread;
+    }
+
+    private void ciclo() {
+        Throwable erro = null;
+        try {
+            while (aberto) {
+                esperar();
+                Runnable tarefa;
+                while ((tarefa = tarefas.poll()) != null) correr(tarefa);
+                executarAgendadas();
+
+                Iterator<SelectionKey> chaves = selector.selectedKeys().iterator();
+                while (chaves.hasNext()) {
+                    SelectionKey chave = chaves.next();
+                    chaves.remove();
+                    Ligacao ligacao = (Ligacao) chave.attachment();
+                    try {
+                        if (chave.isValid() && chave.isConnectable()) ligacao.terminarLigacao();
+                        if (chave.isValid() && chave.isReadable()) ligacao.ler();
+                        if (chave.isValid() && chave.isWritable()) ligacao.escrever();
+                    } catch (IOException e) {
+                        fechar(ligacao, e);
+                    } catch (RuntimeException e) {
+                        // Por exemplo, um erro do ouvinte: só esta ligação é fechada
+                        fechar(ligacao, new IOException("Erro ao tratar a ligação: " + e, e));
+                    }
+                }
+                if (terminando && semLigacoes()) break;
+            }
+        } catch (IOException e) {
+            erro = e;
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            erro = e;
+            throw e;
+        } finally {
+            // Fechado com close(), as ligações fecham sem erro; se não, os ouvintes sabem que caíram
+            IOException causa = erro != null ? new IOException("Ciclo de rede terminado: " + erro, erro) : null;
+            aberto = false;
+            for (SelectionKey chave : selector.keys())
+                fechar((Ligacao) chave.attachment(), causa);
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nada mais a fazer: o ciclo já terminou
+            }
+        }
+    }
+
+    /**
+     * Espera por atividade nos canais, ou só até à próxima tarefa agendada.
+     */
+    private void esperar() throws IOException {
+        if (!tarefas.isEmpty()) {
+            selector.selectNow();
+            return;
+        }
+        Agendada proxima = agendadas.peek();
+        if (proxima == null) {
+            selector.select();
+            return;
+        }
+        long espera = proxima.instante - System.nanoTime();
+        // select(0) esperaria para sempre: arredonda para cima
+        if (espera > 0) selector.select((espera + 999_999) / 1_000_000L);
+        else selector.selectNow();
+    }
+
+    /** @return true se todas as ligações já tiverem fechado (as suas chaves deixam logo de ser válidas) */
+    private boolean semLigacoes() {
+        for (SelectionKey chave : selector.keys())
+            if (chave.isValid()) return false;
+        return true;
+    }
+
+    private void executarAgendadas() {
+        long agora = System.nanoTime();
+        while (!agendadas.isEmpty() && agendadas.peek().instante - agora <= 0)
+            correr(agendadas.poll().tarefa);
+    }
+
+    /**
+     * Executa uma tarefa; um erro seu vai para o tratador de exceções da thread
+     * em vez de parar o ciclo.
+     */
+    private static void correr(Runnable tarefa) {
+        try {
+            tarefa.run();
+        } catch (RuntimeException e) {
+            reportar(e);
+        }
+    }
+
+    /**
+     * Fecha uma ligação, sem deixar que um erro do ouvinte ao ser avisado pare o ciclo.
+     */
+    private static void fechar(Ligacao ligacao, IOException causa) {
+        try {
+            ligacao.fechar(causa);
+        } catch (RuntimeException e) {
+            reportar(e);
+        }
+    }
+
+    private static void reportar(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    /** Tarefa à espera do seu instante */
+    private static final class Agendada {
+        final long instante;
+        final Runnable tarefa;
+
+        Agendada(long instante, Runnable tarefa) {
+            this.instante = instante;
+            this.tarefa = tarefa;
+        }
+    }
+
+    /**
+     * Fecha todas as ligações com {@link Ligacao#close()}, que escreve o que
+     * cada uma ainda tem na fila, e termina o ciclo quando tiverem fechado;
+     * bloqueia até lá, no máximo {@code esperaMs}, e fecha as que restarem.
+     *
+     * @param esperaMs tempo máximo de espera
+     */
+    public void terminar(long esperaMs) {
+        if (!naThreadDoCiclo()) {
+            executar(() -> {
+                terminando = true;
+                for (SelectionKey chave : selector.keys()) ((Ligacao) chave.attachment()).close();
+            });
+            try {
+                thread.join(esperaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        close();
+    }
+
+    /**
+     * Termina o ciclo, fechando todas as ligações de imediato.
+     */
+    @Override
+    public void close() {
+        aberto = false;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,105 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila limitada e sem bloqueios das mensagens à espera de serem escritas
+ * numa {@link Ligacao}: várias threads acrescentam, só a do ciclo retira.
+ *
+ * É um anel de mensagens reservadas à partida, pelo que acrescentar é uma
+ * cópia e não cria objetos. Cada posição tem um número de sequência que diz a
+ * quem pertence: a quem escreve a volta atual quando é igual à posição
+ * absoluta, a quem lê quando é igual a ela mais um. Quem acrescenta reserva a
+ * posição com um compare-and-set na cauda, copia a mensagem e só então a
+ * publica; quem lê nunca vê uma mensagem a meio.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class FilaSaida {
+
+    private final Mensagem[] anel;
+    private final AtomicLongArray sequencias;
+    private final int mascara;
+
+    /** Próxima posição a reservar por quem acrescenta */
+    private final AtomicLong cauda = new AtomicLong();
+
+    /** Próxima posição a ler; só escrita pela thread do ciclo */
+    private volatile long cabeca;
+
+    /**
+     * @param capacidade número máximo de mensagens (potência de 2)
+     */
+    FilaSaida(int capacidade) {
+        if (Integer.bitCount(capacidade) != 1) throw new IllegalArgumentException("A capacidade tem de ser potência de 2");
+        anel = new Mensagem[capacidade];
+        sequencias = new AtomicLongArray(capacidade);
+        mascara = capacidade - 1;
+        for (int i = 0; i < capacidade; i++) {
+            anel[i] = new Mensagem();
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Acrescenta uma cópia da mensagem, sem esperar.
+     *
+     * @param mensagem mensagem a copiar
+     * @return false se a fila estiver cheia
+     */
+    boolean oferecer(Mensagem mensagem) {
+        long posicao = cauda.get();
+        while (true) {
+            int i = (int) posicao & mascara;
+            long diferenca = sequencias.getAcquire(i) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    anel[i].copiar(mensagem);
+                    sequencias.setRelease(i, posicao + 1);
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                // A posição ainda tem a mensagem de há uma volta: a fila está cheia
+                return false;
+            } else {
+                posicao = cauda.get();
+            }
+        }
+    }
+
+    /**
+     * Mensagem mais antiga, sem a retirar (thread do ciclo).
+     *
+     * @return mensagem, válida até {@link #retirar()}, ou null se a fila estiver vazia
+     */
+    Mensagem espreitar() {
+        long posicao = cabeca;
+        int i = (int) posicao & mascara;
+        return sequencias.getAcquire(i) == posicao + 1 ? anel[i] : null;
+    }
+
+    /**
+     * Liberta a posição da mensagem devolvida por {@link #espreitar()} (thread do ciclo).
+     */
+    void retirar() {
+        long posicao = cabeca;
+        sequencias.setRelease((int) posicao & mascara, posicao + anel.length);
+        cabeca = posicao + 1;
+    }
+
+    /** @return número de mensagens na fila, incluindo as que estão a ser copiadas */
+    int tamanho() {
+        return (int) Math.max(0, cauda.get() - cabeca);
+    }
+
+    /** @return número máximo de mensagens */
+    int capacidade() {
+        return anel.length;
+    }
+}
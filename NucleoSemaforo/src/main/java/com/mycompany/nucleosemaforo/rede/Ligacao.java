@@ -0,0 +1,431 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import com.mycompany.nucleosemaforo.metricas.EstimativaRtt;
+import com.mycompany.nucleosemaforo.protocolo.CodecTexto;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+import com.mycompany.nucleosemaforo.protocolo.ProtocoloException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ligação TCP não bloqueante servida por um {@link CicloRede}.
+ *
+ * Lê para um buffer direto reutilizado, descodifica as tramas com o
+ * {@link Protocolo} da ligação e entrega cada mensagem ao {@link OuvinteLigacao}.
+ * Os buffers começam com 8 KiB e só crescem, até à maior trama do protocolo,
+ * numa ligação que leia ou escreva uma trama maior.
+ * {@link #enviar} pode ser chamado de qualquer thread e nunca bloqueia nem
+ * escreve no socket: copia a mensagem para uma {@link FilaSaida} limitada e,
+ * se ainda não houver uma escrita pedida, acorda o ciclo. A thread do ciclo é a
+ * única que escreve: codifica tudo o que encontrar na fila para o buffer de
+ * saída e escreve-o de uma vez, pelo que as mensagens enviadas no mesmo
+ * instante (uma jogada e o anúncio de vitória, por exemplo) saem numa só
+ * escrita e, com TCP_NODELAY, num só segmento. O que não couber no socket
+ * fica no buffer até o selector indicar que pode ser escrito; enquanto o
+ * socket estiver cheio e a fila a mais de metade, a ligação deixa de ler, e o
+ * controlo de fluxo do TCP abranda o outro lado. Com a fila cheia, o outro lado
+ * não está a acompanhar: {@link #enviar} fecha a ligação e falha logo, em vez de
+ * esperar, e o ouvinte trata-a como qualquer outra queda.
+ *
+ * {@link #close()} não perde o que já foi enviado: deixa de aceitar mensagens
+ * e pede ao ciclo que escreva as da fila, feche o sentido de saída e espere
+ * pelo fim do outro lado (no máximo {@code semaforo.rede.fecho} ms, 2000 por
+ * omissão), descartando o que ainda chegar. Só um erro fecha o canal de
+ * imediato.
+ *
+ * Se a capacidade {@link Protocolo#BATIMENTO} for negociada, a ligação envia
+ * um PING a cada {@code semaforo.rede.batimento} ms (2000 por omissão) e
+ * fecha-se com {@link SocketTimeoutException} se não receber nada durante
+ * {@code semaforo.rede.prazo} ms (3 batimentos por omissão, ou mais se o
+ * tempo de ida e volta o justificar): uma ligação meio aberta é detetada em
+ * menos de prazo + batimento. Enquanto a leitura estiver parada, as respostas
+ * ficam por ler no socket; conta então como sinal de vida cada escrita que o
+ * outro lado aceite, e só uma ligação que nem lê nem responde é dada como
+ * morta. Cada PONG é uma amostra da {@link EstimativaRtt}; os dos batimentos,
+ * com valor ímpar, ficam na ligação e não chegam ao ouvinte.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Ligacao implements Closeable {
+
+    /** Tamanho inicial dos buffers de entrada e de saída */
+    private static final int TAMANHO = 8 * 1024;
+
+    /**
+     * Maior trama que o protocolo pode produzir: uma de texto com o máximo de
+     * {@code writeUTF}, mais os 2 bytes do comprimento. Os buffers crescem até
+     * aqui quando uma trama não cabe, para que se leia tudo o que o outro lado
+     * pode enviar.
+     */
+    static final int MAXIMO_TRAMA = 2 + CodecTexto.MAXIMO_TRAMA;
+
+    /** Mensagens que podem esperar pela escrita (potência de 2) */
+    private static final int FILA = 256;
+
+    /** Intervalo entre batimentos, limitado ao que o protocolo garante ao servidor */
+    private static final long BATIMENTO_MS = Math.min(Protocolo.INTERVALO_MAXIMO_BATIMENTO_MS,
+            Long.getLong("semaforo.rede.batimento", 2000));
+
+    /** Silêncio a partir do qual o outro lado é dado como morto */
+    private static final long PRAZO_MS = Long.getLong("semaforo.rede.prazo", 3 * BATIMENTO_MS);
+
+    /** Tempo máximo de um fecho pedido com {@link #close()} para acabar de escrever e ver o fim do outro lado */
+    private static final long FECHO_MS = Long.getLong("semaforo.rede.fecho", 2000);
+
+    private final CicloRede ciclo;
+    private final SocketChannel canal;
+    private final OuvinteLigacao ouvinte;
+    private final Protocolo protocolo = new Protocolo();
+    private ByteBuffer entrada = ByteBuffer.allocateDirect(TAMANHO);
+    private final Mensagem recebida = new Mensagem();
+    private final AtomicBoolean fechada = new AtomicBoolean();
+
+    /**
+     * Fecho pedido com close(), ou por um erro fora da thread do ciclo: não
+     * aceita mais mensagens, e a thread do ciclo trata do resto
+     */
+    private final AtomicBoolean aFechar = new AtomicBoolean();
+
+    /** Mensagens por codificar; a escrita pedida ao ciclo, se houver, trata delas */
+    private final FilaSaida fila = new FilaSaida(FILA);
+    private final AtomicBoolean escritaPedida = new AtomicBoolean();
+    private volatile int maximoFila;
+
+    /** Dados codificados por escrever, em modo de escrita; só usados na thread do ciclo */
+    private ByteBuffer saida = ByteBuffer.allocateDirect(TAMANHO);
+
+    /** Tudo escrito e o sentido de saída fechado, durante o fecho; só usado na thread do ciclo */
+    private boolean saidaFechada;
+
+    private SelectionKey chave;
+    private CompletableFuture<Ligacao> ligando;
+
+    /** Contadores de tráfego; só mudam na thread do ciclo */
+    private volatile long bytesRecebidos, mensagensRecebidas, bytesEnviados, mensagensEnviadas;
+
+    /**
+     * Vigilância da ligação: instante da última leitura (ou, com a leitura
+     * parada, da última escrita aceite), batimentos e tempo de ida e volta
+     */
+    private volatile long ultimaLeitura = System.nanoTime();
+    private boolean leituraParada;
+    private final AtomicBoolean vigiada = new AtomicBoolean();
+    private final Mensagem batimento = new Mensagem();
+    private final EstimativaRtt rtt = new EstimativaRtt();
+
+    Ligacao(CicloRede ciclo, SocketChannel canal, OuvinteLigacao ouvinte) {
+        this.ciclo = ciclo;
+        this.canal = canal;
+        this.ouvinte = ouvinte;
+    }
+
+    void registar(Selector selector, int operacoes) throws ClosedChannelException {
+        chave = canal.register(selector, operacoes, this);
+    }
+
+    void aguardarLigacao(CompletableFuture<Ligacao> futuro) {
+        this.ligando = futuro;
+    }
+
+    /**
+     * Conclui a ligação TCP (thread do ciclo).
+     */
+    void terminarLigacao() throws IOException {
+        canal.finishConnect();
+        chave.interestOps(SelectionKey.OP_READ);
+        CompletableFuture<Ligacao> futuro = ligando;
+        ligando = null;
+        futuro.complete(this);
+    }
+
+    /**
+     * Abandona a ligação se o TCP ainda não estiver estabelecido (thread do ciclo).
+     *
+     * @param tempoMs tempo dado para a ligação, para a mensagem de erro
+     */
+    void expirarLigacao(long tempoMs) {
+        if (ligando != null) fechar(new SocketTimeoutException("Sem resposta do servidor ao fim de " + tempoMs + " ms"));
+    }
+
+    /**
+     * Lê o que estiver disponível e entrega as mensagens completas (thread do ciclo).
+     */
+    void ler() throws IOException {
+        if (aFechar.get()) {
+            descartar();
+            return;
+        }
+        int n = canal.read(entrada);
+        if (n < 0) throw new EOFException("Ligação fechada pelo servidor");
+        bytesRecebidos += n;
+        ultimaLeitura = System.nanoTime();
+        entrada.flip();
+        try {
+            while (protocolo.descodificar(entrada, recebida)) {
+                mensagensRecebidas++;
+                if (recebida.getTipo() == Mensagem.CAPACIDADES) ativar(recebida.getCapacidades());
+                if (recebida.getTipo() == Mensagem.PONG) {
+                    rtt.registar(ultimaLeitura - recebida.getValor());
+                    if ((recebida.getValor() & 1) != 0) continue;
+                }
+                ouvinte.mensagem(this, recebida);
+            }
+        } finally {
+            entrada.compact();
+        }
+        if (entrada.hasRemaining()) return;
+        // Uma trama maior do que o buffer: cresce até à maior que o protocolo permite
+        if (entrada.capacity() >= MAXIMO_TRAMA) throw new ProtocoloException("Mensagem demasiado grande");
+        ByteBuffer maior = ByteBuffer.allocateDirect(Math.min(MAXIMO_TRAMA, 2 * entrada.capacity()));
+        entrada.flip();
+        entrada = maior.put(entrada);
+    }
+
+    /**
+     * Durante o fecho, lê e deita fora o que chegar, até ao fim do outro lado (thread do ciclo).
+     */
+    private void descartar() throws IOException {
+        entrada.clear();
+        int n = canal.read(entrada);
+        entrada.clear();
+        if (n < 0) fechar(null);
+    }
+
+    /**
+     * Põe uma mensagem na fila de saída, sem bloquear; é escrita pela thread
+     * do ciclo, junto com as que entretanto se juntarem.
+     *
+     * @param mensagem mensagem a enviar; é copiada
+     * @throws IOException se a ligação estiver fechada (ou a fechar), ou se a fila de saída
+     *         estiver cheia, caso em que a ligação é fechada com esta causa
+     */
+    public void enviar(Mensagem mensagem) throws IOException {
+        if (fechada.get() || aFechar.get()) throw new ClosedChannelException();
+        if (!fila.oferecer(mensagem)) {
+            // Uma mensagem perdida deixaria os dois lados em desacordo: quem usa a ligação religa ou desiste
+            IOException causa = new IOException("Fila de saída cheia");
+            fechar(causa);
+            throw causa;
+        }
+        int pendentes = fila.tamanho();
+        if (pendentes > maximoFila) maximoFila = pendentes;
+        if (escritaPedida.compareAndSet(false, true)) ciclo.executar(this::escreverPedido);
+    }
+
+    private void escreverPedido() {
+        // Antes de esvaziar a fila: o que for acrescentado a partir daqui pede outra escrita
+        escritaPedida.set(false);
+        if (fechada.get()) return;
+        try {
+            escrever();
+        } catch (IOException e) {
+            fechar(e);
+        } catch (CancelledKeyException e) {
+            // Fechada entretanto noutra thread
+        } catch (RuntimeException e) {
+            // Só esta ligação é afetada; o ciclo continua a servir as outras
+            fechar(new IOException("Erro ao escrever: " + e, e));
+        }
+    }
+
+    /**
+     * Codifica as mensagens da fila e escreve-as, tantas quantas o socket
+     * aceitar, e escolhe o que esperar do selector (thread do ciclo).
+     */
+    void escrever() throws IOException {
+        // Uma mensagem que se cruzou com close() já não tem por onde sair
+        if (saidaFechada) return;
+        while (true) {
+            Mensagem mensagem;
+            while ((mensagem = fila.espreitar()) != null) {
+                int antes = saida.position();
+                try {
+                    protocolo.codificar(mensagem, saida);
+                } catch (BufferOverflowException e) {
+                    saida.position(antes);
+                    if (antes > 0) break;
+                    if (saida.capacity() < MAXIMO_TRAMA) {
+                        // Sozinha não cabe: o buffer, vazio, passa a ter lugar para a maior trama
+                        saida = ByteBuffer.allocateDirect(MAXIMO_TRAMA);
+                        continue;
+                    }
+                    fila.retirar();
+                    throw new ProtocoloException("Mensagem demasiado grande");
+                }
+                if (mensagem.getTipo() == Mensagem.CAPACIDADES) protocolo.ativar(mensagem.getCapacidades());
+                bytesEnviados += saida.position() - antes;
+                mensagensEnviadas++;
+                fila.retirar();
+            }
+            if (saida.position() == 0) break;
+            saida.flip();
+            // O outro lado está a esvaziar o socket, ainda que devagar: está vivo
+            if (canal.write(saida) > 0 && leituraParada) ultimaLeitura = System.nanoTime();
+            saida.compact();
+            // Parar com o socket cheio ou com tudo escrito
+            if (saida.position() > 0 || fila.espreitar() == null) break;
+        }
+        boolean atrasada = saida.position() > 0;
+        if (!atrasada && aFechar.get()) {
+            // Tudo escrito: o FIN segue os dados, e o canal fecha quando o outro lado acabar
+            canal.shutdownOutput();
+            saidaFechada = true;
+            if (chave.isValid() && chave.interestOps() != SelectionKey.OP_READ) chave.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+        int operacoes = atrasada ? SelectionKey.OP_WRITE : 0;
+        if (!atrasada || fila.tamanho() < FILA / 2) operacoes |= SelectionKey.OP_READ;
+        leituraParada = (operacoes & SelectionKey.OP_READ) == 0;
+        if (chave.isValid() && chave.interestOps() != operacoes) chave.interestOps(operacoes);
+    }
+
+    /**
+     * Ativa as capacidades negociadas e, se incluírem {@link Protocolo#BATIMENTO},
+     * começa os batimentos. Ao receber CAPACIDADES isto é feito automaticamente;
+     * serve para uma ligação que retoma uma sessão já negociada.
+     *
+     * @param capacidades capacidades aceites pelos dois lados
+     */
+    public void ativar(int capacidades) {
+        // O protocolo só é usado pela thread do ciclo; a tarefa corre antes da escrita do que for enviado a seguir
+        if (!ciclo.naThreadDoCiclo()) {
+            ciclo.executar(() -> ativar(capacidades));
+            return;
+        }
+        protocolo.ativar(capacidades);
+        if ((protocolo.getCapacidades() & Protocolo.BATIMENTO) != 0 && vigiada.compareAndSet(false, true))
+            ciclo.agendar(this::vigiar, BATIMENTO_MS);
+    }
+
+    /**
+     * Fecha a ligação se o outro lado estiver calado há demasiado tempo; se
+     * não, envia um PING e volta daqui a um batimento (thread do ciclo).
+     */
+    private void vigiar() {
+        if (fechada.get() || aFechar.get()) return;
+        long agora = System.nanoTime();
+        long silencioMs = (agora - ultimaLeitura) / 1_000_000L;
+        // Numa ligação lenta, o prazo nunca fica abaixo de um batimento mais o atraso normal de uma resposta
+        long prazoMs = Math.max(PRAZO_MS, BATIMENTO_MS + rtt.getLimite() / 1_000_000L);
+        if (silencioMs > prazoMs) {
+            fechar(new SocketTimeoutException("Sem resposta do servidor há " + silencioMs + " ms"));
+            return;
+        }
+        try {
+            enviar(batimento.ping(agora | 1));
+        } catch (IOException e) {
+            fechar(e);
+            return;
+        }
+        ciclo.agendar(this::vigiar, BATIMENTO_MS);
+    }
+
+    /** @return estimativa do tempo de ida e volta, a partir dos PONG recebidos */
+    public EstimativaRtt getRtt() {
+        return rtt;
+    }
+
+    /** @return protocolo desta ligação */
+    public Protocolo getProtocolo() {
+        return protocolo;
+    }
+
+    /** @return bytes recebidos desde que a ligação abriu */
+    public long getBytesRecebidos() {
+        return bytesRecebidos;
+    }
+
+    /** @return mensagens recebidas desde que a ligação abriu */
+    public long getMensagensRecebidas() {
+        return mensagensRecebidas;
+    }
+
+    /** @return bytes codificados para envio (escritos ou à espera no buffer de saída) desde que a ligação abriu */
+    public long getBytesEnviados() {
+        return bytesEnviados;
+    }
+
+    /** @return mensagens enviadas desde que a ligação abriu */
+    public long getMensagensEnviadas() {
+        return mensagensEnviadas;
+    }
+
+    /** @return mensagens na fila de saída, ainda por codificar */
+    public int getPendentes() {
+        return fila.tamanho();
+    }
+
+    /** @return maior número de mensagens que esteve na fila de saída */
+    public int getMaximoPendentes() {
+        return maximoFila;
+    }
+
+    /** @return true se a ligação já foi fechada, ou se o fecho já foi pedido com {@link #close()} */
+    public boolean isFechada() {
+        return fechada.get() || aFechar.get();
+    }
+
+    /**
+     * Fecha a ligação e avisa o ouvinte, uma única vez, sempre na thread do
+     * ciclo; chamado de outra thread, só recusa as mensagens seguintes e pede
+     * ao ciclo que feche.
+     *
+     * @param causa erro que fechou a ligação, ou null se foi fechada localmente
+     */
+    void fechar(IOException causa) {
+        if (!ciclo.naThreadDoCiclo()) {
+            // Se o ciclo já tiver terminado, fechou a ligação e avisou o ouvinte ao terminar
+            aFechar.set(true);
+            ciclo.executar(() -> fechar(causa));
+            return;
+        }
+        if (!fechada.compareAndSet(false, true)) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // O canal fica fechado na mesma
+        }
+        if (ligando != null) ligando.completeExceptionally(causa != null ? causa : new ClosedChannelException());
+        ouvinte.fechada(this, causa);
+    }
+
+    /**
+     * Fecho pedido com close() (thread do ciclo): escreve o que ainda estiver
+     * na fila e espera pelo fim do outro lado, no máximo {@link #FECHO_MS}. Uma
+     * ligação por estabelecer não tem nada a escrever e fecha logo.
+     */
+    private void terminar() {
+        if (fechada.get()) return;
+        if (ligando != null) {
+            fechar(null);
+            return;
+        }
+        ciclo.agendar(() -> fechar(null), FECHO_MS);
+        escreverPedido();
+    }
+
+    /**
+     * Pede o fecho da ligação, sem bloquear: deixa logo de aceitar mensagens,
+     * mas as que já foram enviadas são escritas antes de o canal fechar. O
+     * ouvinte é avisado, sem causa, quando o canal fechar.
+     */
+    @Override
+    public void close() {
+        if (aFechar.compareAndSet(false, true)) ciclo.executar(this::terminar);
+    }
+}
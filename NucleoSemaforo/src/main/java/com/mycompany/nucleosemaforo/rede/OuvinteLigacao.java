@@ -0,0 +1,34 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+
+import java.io.IOException;
+
+/**
+ * Recetor das mensagens de uma {@link Ligacao}.
+ *
+ * Os métodos são chamados na thread do {@link CicloRede} e não devem bloquear.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public interface OuvinteLigacao {
+
+    /**
+     * Chegou uma mensagem. O objeto é reutilizado pela ligação e só é válido
+     * durante esta chamada; para o guardar, use {@link Mensagem#copiar}.
+     *
+     * @param ligacao ligação de origem
+     * @param mensagem mensagem recebida
+     */
+    void mensagem(Ligacao ligacao, Mensagem mensagem);
+
+    /**
+     * A ligação foi fechada.
+     *
+     * @param ligacao ligação fechada
+     * @param causa erro que a fechou, ou null se foi fechada localmente
+     */
+    void fechada(Ligacao ligacao, IOException causa);
+}
@@ -0,0 +1,106 @@
+package com.mycompany.nucleosemaforo.registo;
+
+import com.mycompany.nucleosemaforo.tablebase.Tablebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Percorre ficheiros de registo sem interface e mostra estatísticas agregadas:
+ * resultados, vantagem de quem começa, duração dos jogos e aberturas.
+ *
+ * <pre>
+ * java -p NucleoSemaforo-1.0-SNAPSHOT.jar -m com.mycompany.nucleosemaforo/com.mycompany.nucleosemaforo.registo.AnaliseJogos jogos.smg...
+ * </pre>
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class AnaliseJogos {
+
+    private long jogos;
+    private long jogadas;
+    private long bytes;
+    private final long[] resultados = new long[4];
+    private long vitoriasPrimeiro;
+    private long vitoriasLocal;
+    private long jogosComputador;
+    private final long[] duracoes = new long[25];
+    private final long[] aberturas = new long[12];
+
+    /**
+     * Acrescenta um ficheiro às estatísticas.
+     *
+     * @param caminho ficheiro de registo
+     * @throws IOException se a leitura falhar
+     */
+    public void analisar(Path caminho) throws IOException {
+        bytes += Files.size(caminho);
+        try (LeitorJogos leitor = LeitorJogos.abrir(caminho)) {
+            int evento;
+            while ((evento = leitor.proximo()) != LeitorJogos.FIM_FICHEIRO) {
+                if (evento == LeitorJogos.JOGADA) {
+                    if (leitor.getJogadas() == 1) aberturas[leitor.getCelula()]++;
+                } else if (evento == LeitorJogos.FIM) {
+                    terminar(leitor);
+                }
+            }
+        }
+    }
+
+    private void terminar(LeitorJogos leitor) {
+        int n = leitor.getJogadas();
+        jogos++;
+        jogadas += n;
+        duracoes[n]++;
+        resultados[leitor.getResultado()]++;
+        boolean computador = (leitor.getFlags() & FormatoRegisto.COMPUTADOR) != 0;
+        if (computador) jogosComputador++;
+        if (leitor.getResultado() != FormatoRegisto.VITORIA) return;
+        // Quem fez a última jogada ganhou: o primeiro jogador se o número de jogadas for ímpar
+        boolean ganhouPrimeiro = (n & 1) == 1;
+        if (ganhouPrimeiro) vitoriasPrimeiro++;
+        boolean comecouLocal = (leitor.getFlags() & FormatoRegisto.COMECOU) != 0;
+        if (computador && ganhouPrimeiro == comecouLocal) vitoriasLocal++;
+    }
+
+    private void imprimir(double segundos) {
+        System.out.printf("Jogos: %d (%d jogadas, média %.1f por jogo)%n", jogos, jogadas,
+                jogos == 0 ? 0.0 : (double) jogadas / jogos);
+        for (int r = 0; r < resultados.length; r++)
+            System.out.printf("  %-13s %d%n", FormatoRegisto.texto(r) + ":", resultados[r]);
+        long vitorias = resultados[FormatoRegisto.VITORIA];
+        if (vitorias > 0)
+            System.out.printf("Vitórias de quem começa: %.1f%%%n", 100.0 * vitoriasPrimeiro / vitorias);
+        if (jogosComputador > 0)
+            System.out.printf("Contra o computador: %d jogos, %d vitórias do jogador%n", jogosComputador, vitoriasLocal);
+        System.out.println("Duração (jogadas: jogos):");
+        for (int n = 0; n < duracoes.length; n++)
+            if (duracoes[n] > 0) System.out.printf("  %2d: %d%n", n, duracoes[n]);
+        System.out.println("Primeira jogada (célula: jogos):");
+        for (int c = 0; c < aberturas.length; c++)
+            if (aberturas[c] > 0) System.out.printf("  %s: %d%n", Tablebase.nomeCelula(c), aberturas[c]);
+        System.out.printf("Lidos %.1f MB em %.2f s (%.0f jogos/s)%n", bytes / 1e6, segundos,
+                segundos > 0 ? jogos / segundos : 0.0);
+    }
+
+    /**
+     * Analisa os ficheiros indicados.
+     *
+     * @param args ficheiros de registo
+     * @throws IOException se algum não puder ser lido
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: AnaliseJogos ficheiro...");
+            System.exit(1);
+        }
+        AnaliseJogos analise = new AnaliseJogos();
+        long inicio = System.nanoTime();
+        for (String ficheiro : args) analise.analisar(Paths.get(ficheiro));
+        analise.imprimir((System.nanoTime() - inicio) / 1e9);
+    }
+}
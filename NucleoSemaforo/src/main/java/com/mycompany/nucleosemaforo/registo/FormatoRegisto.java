@@ -0,0 +1,85 @@
+package com.mycompany.nucleosemaforo.registo;
+
+/**
+ * Formato dos ficheiros de registo de jogos (versão 1).
+ *
+ * <pre>
+ * cabeçalho:  "SMGR" versão(1 byte) 3 bytes reservados
+ * jogo:       INICIO|flags  instante(4 bytes, segundos desde 1970)
+ *             jogada*       (1 byte: índice da célula, 0 a 11)
+ *             FIM|resultado
+ * </pre>
+ *
+ * A cor de cada jogada não é guardada, porque decorre do tabuleiro. Um jogo
+ * sem FIM (por exemplo, se a aplicação terminou a meio) acaba no INICIO
+ * seguinte ou no fim do ficheiro e é lido como interrompido.
+ *
+ * O índice, num ficheiro ao lado com a extensão {@value #EXTENSAO_INDICE},
+ * guarda a posição de um em cada {@value #INTERVALO_INDICE} jogos, como pares
+ * (número do jogo, posição) de 8 bytes cada.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class FormatoRegisto {
+
+    /** Identificação do ficheiro */
+    static final int MAGIC = 0x534D4752; // "SMGR"
+
+    /** Versão do formato */
+    static final int VERSAO = 1;
+
+    /** Tamanho do cabeçalho, em bytes */
+    static final int CABECALHO = 8;
+
+    /** Byte de início de jogo; os 4 bits baixos são as flags */
+    static final int INICIO = 0x80;
+
+    /** Byte de fim de jogo; os 4 bits baixos são o resultado */
+    static final int FIM = 0x90;
+
+    /** Flag de INICIO: o jogador local fez a primeira jogada */
+    public static final int COMECOU = 1;
+
+    /** Flag de INICIO: jogo contra o computador */
+    public static final int COMPUTADOR = 2;
+
+    /** Resultado: quem fez a última jogada completou uma linha */
+    public static final int VITORIA = 0;
+
+    /** Resultado: não havia jogadas possíveis */
+    public static final int EMPATE = 1;
+
+    /** Resultado: um jogador saiu ou a ligação foi perdida */
+    public static final int ABANDONADO = 2;
+
+    /** Resultado: o jogo não tem FIM no ficheiro, ou não foi registado até ao fim */
+    public static final int INTERROMPIDO = 3;
+
+    /** Número de jogos entre entradas do índice */
+    static final int INTERVALO_INDICE = 1024;
+
+    /** Extensão do ficheiro de índice */
+    public static final String EXTENSAO_INDICE = ".idx";
+
+    private FormatoRegisto() {
+    }
+
+    /**
+     * @param resultado código de resultado
+     * @return descrição em português
+     */
+    public static String texto(int resultado) {
+        switch (resultado) {
+            case VITORIA:
+                return "vitória";
+            case EMPATE:
+                return "empate";
+            case ABANDONADO:
+                return "abandonado";
+            default:
+                return "interrompido";
+        }
+    }
+}
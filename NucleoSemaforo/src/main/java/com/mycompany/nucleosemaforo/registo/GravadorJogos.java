@@ -0,0 +1,139 @@
+package com.mycompany.nucleosemaforo.registo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Acrescenta jogos a um ficheiro de registo (ver {@link FormatoRegisto}).
+ *
+ * Os bytes de cada jogo ficam num buffer e são escritos de uma vez quando o
+ * jogo termina, pelo que registar uma jogada é só escrever um byte em memória.
+ * Ao abrir um ficheiro existente, o gravador lê o índice e os jogos depois da
+ * última entrada para saber quantos jogos já há.
+ *
+ * Não é seguro para várias threads: deve ser usado sempre pela mesma.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class GravadorJogos implements Closeable {
+
+    private final FileChannel ficheiro;
+    private final FileChannel indice;
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private final ByteBuffer entradaIndice = ByteBuffer.allocate(16);
+    private long jogos;
+    private boolean emCurso;
+
+    private GravadorJogos(FileChannel ficheiro, FileChannel indice, long jogos) {
+        this.ficheiro = ficheiro;
+        this.indice = indice;
+        this.jogos = jogos;
+    }
+
+    /**
+     * Abre um ficheiro de registo para acrescentar jogos, criando-o se não existir.
+     *
+     * @param caminho ficheiro de registo
+     * @return gravador posicionado no fim do ficheiro
+     * @throws IOException se o ficheiro não puder ser aberto ou não for um registo
+     */
+    public static GravadorJogos abrir(Path caminho) throws IOException {
+        Path pasta = caminho.toAbsolutePath().getParent();
+        if (pasta != null) Files.createDirectories(pasta);
+        long jogos = 0;
+        if (Files.exists(caminho) && Files.size(caminho) > 0) {
+            try (LeitorJogos leitor = LeitorJogos.abrir(caminho)) {
+                jogos = leitor.contarJogos();
+            }
+        }
+        FileChannel ficheiro = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        FileChannel indice = FileChannel.open(LeitorJogos.caminhoIndice(caminho), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        GravadorJogos gravador = new GravadorJogos(ficheiro, indice, jogos);
+        if (ficheiro.size() == 0) {
+            gravador.buffer.putInt(FormatoRegisto.MAGIC).put((byte) FormatoRegisto.VERSAO).put(new byte[3]);
+            gravador.escrever();
+        }
+        return gravador;
+    }
+
+    /**
+     * Começa um jogo; se o anterior não tiver terminado, fica como interrompido.
+     *
+     * @param flags {@link FormatoRegisto#COMECOU} e/ou {@link FormatoRegisto#COMPUTADOR}
+     * @throws IOException se a escrita falhar
+     */
+    public void iniciar(int flags) throws IOException {
+        if (emCurso) terminar(FormatoRegisto.INTERROMPIDO);
+        if (jogos % FormatoRegisto.INTERVALO_INDICE == 0) {
+            entradaIndice.clear();
+            entradaIndice.putLong(jogos).putLong(ficheiro.size() + buffer.position()).flip();
+            while (entradaIndice.hasRemaining()) indice.write(entradaIndice);
+        }
+        buffer.put((byte) (FormatoRegisto.INICIO | flags & 0xF));
+        buffer.putInt((int) (System.currentTimeMillis() / 1000));
+        jogos++;
+        emCurso = true;
+    }
+
+    /**
+     * Regista uma jogada do jogo em curso.
+     *
+     * @param celula índice da célula
+     */
+    public void jogada(int celula) {
+        if (!emCurso) return;
+        // Um jogo tem no máximo 24 jogadas, pelo que o buffer nunca enche a meio de um jogo
+        buffer.put((byte) celula);
+    }
+
+    /**
+     * Termina o jogo em curso e escreve-o no ficheiro; sem jogo em curso, não faz nada.
+     *
+     * @param resultado código de resultado de {@link FormatoRegisto}
+     * @throws IOException se a escrita falhar
+     */
+    public void terminar(int resultado) throws IOException {
+        if (!emCurso) return;
+        emCurso = false;
+        buffer.put((byte) (FormatoRegisto.FIM | resultado & 0xF));
+        escrever();
+    }
+
+    /** @return número de jogos no ficheiro, incluindo o que estiver em curso */
+    public long getJogos() {
+        return jogos;
+    }
+
+    /** @return true se houver um jogo começado e ainda não terminado */
+    public boolean isEmCurso() {
+        return emCurso;
+    }
+
+    private void escrever() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) ficheiro.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Escreve o que faltar (um jogo a meio fica sem FIM) e fecha os ficheiros.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            escrever();
+        } finally {
+            ficheiro.close();
+            indice.close();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mycompany.nucleosemaforo.registo;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitura sequencial de um ficheiro de registo (ver {@link FormatoRegisto}).
+ *
+ * O ficheiro é lido aos blocos para um único buffer, pelo que pode ter
+ * qualquer tamanho. Cada chamada a {@link #proximo()} devolve o evento
+ * seguinte (início de jogo, jogada ou fim) e atualiza o tabuleiro, sem criar
+ * objetos, o que serve tanto para rever um jogo passo a passo como para
+ * percorrer milhões de jogos à velocidade do disco.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class LeitorJogos implements Closeable {
+
+    /** Evento: não há mais nada no ficheiro */
+    public static final int FIM_FICHEIRO = 0;
+
+    /** Evento: começou um jogo (ver {@link #getFlags()} e {@link #getInstante()}) */
+    public static final int INICIO = 1;
+
+    /** Evento: uma jogada (ver {@link #getCelula()}) */
+    public static final int JOGADA = 2;
+
+    /** Evento: terminou o jogo (ver {@link #getResultado()}) */
+    public static final int FIM = 3;
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final Path caminho;
+    private final FileChannel ficheiro;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+    private long jogo = -1;
+    private boolean emJogo;
+    private int flags;
+    private long instante;
+    private int celula;
+    private int resultado;
+    private int jogadas;
+    private long tabuleiro = Tabuleiro.INICIAL;
+
+    private LeitorJogos(Path caminho, FileChannel ficheiro) {
+        this.caminho = caminho;
+        this.ficheiro = ficheiro;
+        buffer.limit(0);
+    }
+
+    /**
+     * Abre um ficheiro de registo para leitura.
+     *
+     * @param caminho ficheiro de registo
+     * @return leitor posicionado antes do primeiro jogo
+     * @throws IOException se o ficheiro não existir ou não for um registo
+     */
+    public static LeitorJogos abrir(Path caminho) throws IOException {
+        FileChannel ficheiro = FileChannel.open(caminho, StandardOpenOption.READ);
+        LeitorJogos leitor = new LeitorJogos(caminho, ficheiro);
+        if (!leitor.garantir(FormatoRegisto.CABECALHO) || leitor.buffer.getInt() != FormatoRegisto.MAGIC
+                || leitor.buffer.get() != FormatoRegisto.VERSAO) {
+            ficheiro.close();
+            throw new IOException("Não é um registo de jogos: " + caminho);
+        }
+        leitor.buffer.position(FormatoRegisto.CABECALHO);
+        return leitor;
+    }
+
+    /**
+     * @param registo ficheiro de registo
+     * @return caminho do seu índice
+     */
+    static Path caminhoIndice(Path registo) {
+        return registo.resolveSibling(registo.getFileName() + FormatoRegisto.EXTENSAO_INDICE);
+    }
+
+    /**
+     * Lê o evento seguinte.
+     *
+     * @return {@link #INICIO}, {@link #JOGADA}, {@link #FIM} ou {@link #FIM_FICHEIRO}
+     * @throws IOException se a leitura falhar ou o ficheiro estiver corrompido
+     */
+    public int proximo() throws IOException {
+        if (!garantir(1)) return terminarInterrompido() ? FIM : FIM_FICHEIRO;
+        int b = buffer.get(buffer.position()) & 0xFF;
+        switch (b & 0xF0) {
+            case FormatoRegisto.INICIO:
+                // Um jogo sem FIM termina no início do seguinte
+                if (terminarInterrompido()) return FIM;
+                if (!garantir(5)) return FIM_FICHEIRO;
+                buffer.get();
+                flags = b & 0xF;
+                instante = buffer.getInt() & 0xFFFFFFFFL;
+                jogo++;
+                emJogo = true;
+                jogadas = 0;
+                tabuleiro = Tabuleiro.INICIAL;
+                return INICIO;
+            case FormatoRegisto.FIM:
+                if (!emJogo) throw corrompido();
+                buffer.get();
+                resultado = b & 0xF;
+                emJogo = false;
+                return FIM;
+            default:
+                if (!emJogo || !Regras.jogadaLegal(tabuleiro, b)) throw corrompido();
+                buffer.get();
+                celula = b;
+                jogadas++;
+                tabuleiro = Regras.jogar(tabuleiro, b);
+                return JOGADA;
+        }
+    }
+
+    /**
+     * Posiciona o leitor antes do início de um jogo, usando o índice para não
+     * ter de ler o ficheiro desde o princípio.
+     *
+     * @param numero número do jogo (o primeiro é 0)
+     * @return true se o jogo existir; se não existir, o leitor fica no fim do ficheiro
+     * @throws IOException se a leitura falhar
+     */
+    public boolean saltarPara(long numero) throws IOException {
+        long[] entrada = procurarIndice(numero);
+        if (entrada[0] > jogo || numero <= jogo) {
+            ficheiro.position(entrada[1]);
+            buffer.limit(0);
+            jogo = entrada[0] - 1;
+        }
+        emJogo = false;
+        // Os bytes de INICIO (0x8_) só aparecem no início de um jogo, fora do instante que o segue
+        while (garantir(1)) {
+            int b = buffer.get(buffer.position()) & 0xF0;
+            if (b == FormatoRegisto.INICIO) {
+                if (jogo + 1 == numero) return true;
+                if (!garantir(5)) break;
+                buffer.position(buffer.position() + 5);
+                jogo++;
+            } else {
+                buffer.get();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Conta os jogos do ficheiro, deixando o leitor no fim.
+     *
+     * @return número de jogos, incluindo os interrompidos
+     * @throws IOException se a leitura falhar
+     */
+    public long contarJogos() throws IOException {
+        saltarPara(Long.MAX_VALUE);
+        return jogo + 1;
+    }
+
+    /**
+     * Devolve a entrada do índice mais próxima antes de um jogo, ou o início
+     * do ficheiro se o índice não existir ou não servir.
+     */
+    private long[] procurarIndice(long numero) throws IOException {
+        long[] melhor = {0, FormatoRegisto.CABECALHO};
+        Path indice = caminhoIndice(caminho);
+        if (!Files.exists(indice)) return melhor;
+        ByteBuffer entradas = ByteBuffer.wrap(Files.readAllBytes(indice));
+        ByteBuffer marca = ByteBuffer.allocate(1);
+        long tamanho = ficheiro.size();
+        while (entradas.remaining() >= 16) {
+            long n = entradas.getLong(), posicao = entradas.getLong();
+            if (n > numero) break;
+            // Uma entrada escrita antes de o jogo chegar ao disco é ignorada
+            marca.clear();
+            if (posicao < tamanho && ficheiro.read(marca, posicao) == 1
+                    && (marca.get(0) & 0xF0) == FormatoRegisto.INICIO) {
+                melhor[0] = n;
+                melhor[1] = posicao;
+            }
+        }
+        return melhor;
+    }
+
+    private boolean terminarInterrompido() {
+        if (!emJogo) return false;
+        emJogo = false;
+        resultado = FormatoRegisto.INTERROMPIDO;
+        return true;
+    }
+
+    private boolean garantir(int n) throws IOException {
+        if (buffer.remaining() >= n) return true;
+        buffer.compact();
+        while (buffer.position() < n) {
+            if (ficheiro.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+
+    private IOException corrompido() throws IOException {
+        return new IOException("Registo corrompido na posição " + (ficheiro.position() - buffer.remaining()));
+    }
+
+    /** @return número do jogo atual (o primeiro é 0) */
+    public long getJogo() {
+        return jogo;
+    }
+
+    /** @return flags do jogo atual ({@link FormatoRegisto#COMECOU}, {@link FormatoRegisto#COMPUTADOR}) */
+    public int getFlags() {
+        return flags;
+    }
+
+    /** @return início do jogo atual, em segundos desde 1970 */
+    public long getInstante() {
+        return instante;
+    }
+
+    /** @return célula da última jogada lida */
+    public int getCelula() {
+        return celula;
+    }
+
+    /** @return resultado do último jogo terminado */
+    public int getResultado() {
+        return resultado;
+    }
+
+    /** @return número de jogadas lidas no jogo atual */
+    public int getJogadas() {
+        return jogadas;
+    }
+
+    /** @return tabuleiro depois da última jogada lida */
+    public long getTabuleiro() {
+        return tabuleiro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ficheiro.close();
+    }
+}
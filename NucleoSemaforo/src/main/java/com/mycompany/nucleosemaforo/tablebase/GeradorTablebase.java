@@ -0,0 +1,131 @@
+package com.mycompany.nucleosemaforo.tablebase;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Resolve todas as posições alcançáveis do Jogo Semáforo e grava a tablebase.
+ *
+ * A pesquisa percorre o jogo em profundidade a partir do tabuleiro vazio,
+ * guardando cada posição canónica uma só vez. Os blocos sem posições
+ * alcançáveis não são escritos, pelo que o ficheiro fica esparso nos sistemas
+ * de ficheiros que o suportam.
+ *
+ * Uso: {@code java com.mycompany.nucleosemaforo.tablebase.GeradorTablebase [ficheiro]}
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class GeradorTablebase {
+
+    /** Tamanho dos blocos escritos no ficheiro */
+    private static final int BLOCO = 4096;
+
+    private final byte[] valores = new byte[Simetria.INDICES];
+    private int posicoes;
+
+    /**
+     * Resolve o jogo a partir do tabuleiro vazio.
+     *
+     * @return número de posições canónicas resolvidas
+     */
+    public int resolver() {
+        resolver(Tabuleiro.INICIAL);
+        return posicoes;
+    }
+
+    /**
+     * Resolve uma posição e devolve o seu byte (resultado e distância).
+     */
+    private int resolver(long tabuleiro) {
+        int indice = Simetria.canonico(tabuleiro);
+        if (valores[indice] != 0) return valores[indice] & 0xFF;
+
+        byte valor;
+        if (Tabuleiro.vitoria(tabuleiro)) {
+            // Quem jogou antes completou uma linha
+            valor = Tablebase.valor(Tablebase.DERROTA, 0);
+        } else {
+            int legais = Regras.jogadasLegais(tabuleiro);
+            if (legais == 0) {
+                valor = Tablebase.valor(Tablebase.EMPATE, 0);
+            } else {
+                int vitoria = Integer.MAX_VALUE, empate = Integer.MAX_VALUE, derrota = -1;
+                for (int m = legais; m != 0; m &= m - 1) {
+                    int filho = resolver(Regras.jogar(tabuleiro, Integer.numberOfTrailingZeros(m)));
+                    int d = Tablebase.distancia(filho) + 1;
+                    switch (Tablebase.resultado(filho)) {
+                        case Tablebase.DERROTA:
+                            vitoria = Math.min(vitoria, d);
+                            break;
+                        case Tablebase.EMPATE:
+                            empate = Math.min(empate, d);
+                            break;
+                        default:
+                            derrota = Math.max(derrota, d);
+                            break;
+                    }
+                }
+                if (vitoria != Integer.MAX_VALUE) valor = Tablebase.valor(Tablebase.VITORIA, vitoria);
+                else if (empate != Integer.MAX_VALUE) valor = Tablebase.valor(Tablebase.EMPATE, empate);
+                else valor = Tablebase.valor(Tablebase.DERROTA, derrota);
+            }
+        }
+        valores[indice] = valor;
+        posicoes++;
+        return valor & 0xFF;
+    }
+
+    /**
+     * Grava a tablebase num ficheiro.
+     *
+     * @param ficheiro destino
+     * @throws IOException se a escrita falhar
+     */
+    public void gravar(Path ficheiro) throws IOException {
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canal.write(Tablebase.cabecalho(), 0);
+            for (int inicio = 0; inicio < valores.length; inicio += BLOCO) {
+                if (vazio(inicio)) continue;
+                canal.write(ByteBuffer.wrap(valores, inicio, BLOCO), Tablebase.CABECALHO + (long) inicio);
+            }
+            // Garante o tamanho final mesmo que os últimos blocos estejam vazios
+            canal.write(ByteBuffer.wrap(valores, valores.length - 1, 1),
+                    Tablebase.CABECALHO + (long) valores.length - 1);
+        }
+    }
+
+    private boolean vazio(int inicio) {
+        for (int i = inicio; i < inicio + BLOCO; i++)
+            if (valores[i] != 0) return false;
+        return true;
+    }
+
+    /**
+     * Gera a tablebase no ficheiro indicado (por omissão "semaforo.tb").
+     *
+     * @param args caminho opcional do ficheiro
+     * @throws IOException se a escrita falhar
+     */
+    public static void main(String[] args) throws IOException {
+        Path destino = Paths.get(args.length > 0 ? args[0] : "semaforo.tb");
+        long inicio = System.nanoTime();
+        GeradorTablebase gerador = new GeradorTablebase();
+        int posicoes = gerador.resolver();
+        gerador.gravar(destino);
+        long ms = (System.nanoTime() - inicio) / 1_000_000L;
+        System.out.println("Posições canónicas resolvidas: " + posicoes);
+        System.out.println("Tabuleiro inicial: " + Tablebase.texto(gerador.valores[0] & 0xFF)
+                + " para quem começa");
+        System.out.println("Gravado em " + destino + " (" + ms + " ms)");
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.nucleosemaforo.tablebase;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+/**
+ * Simetrias do tabuleiro 3x4 usadas pela tablebase.
+ *
+ * Um tabuleiro, o seu reflexo horizontal, o vertical e a rotação de 180 graus
+ * têm o mesmo valor, por isso a tablebase guarda apenas o de menor índice
+ * (a forma canónica). Os reflexos de uma máscara de 12 células são lidos de
+ * tabelas pré-calculadas.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Simetria {
+
+    /** Número de índices possíveis (dois planos de 12 bits) */
+    public static final int INDICES = 1 << (2 * Tabuleiro.CELULAS);
+
+    private static final int MASCARAS = 1 << Tabuleiro.CELULAS;
+
+    /** Reflexo esquerda-direita de cada máscara de células */
+    private static final short[] HORIZONTAL = new short[MASCARAS];
+
+    /** Reflexo cima-baixo de cada máscara de células */
+    private static final short[] VERTICAL = new short[MASCARAS];
+
+    static {
+        for (int m = 0; m < MASCARAS; m++) {
+            int h = 0, v = 0;
+            for (int celula = 0; celula < Tabuleiro.CELULAS; celula++) {
+                if ((m >>> celula & 1) == 0) continue;
+                int linha = celula / Tabuleiro.COLUNAS;
+                int coluna = celula % Tabuleiro.COLUNAS;
+                h |= 1 << (linha * Tabuleiro.COLUNAS + Tabuleiro.COLUNAS - 1 - coluna);
+                v |= 1 << ((Tabuleiro.LINHAS - 1 - linha) * Tabuleiro.COLUNAS + coluna);
+            }
+            HORIZONTAL[m] = (short) h;
+            VERTICAL[m] = (short) v;
+        }
+    }
+
+    private Simetria() {
+    }
+
+    /**
+     * Converte um tabuleiro no seu índice de 24 bits (plano baixo seguido do alto).
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return índice entre 0 e {@link #INDICES} - 1
+     */
+    public static int indice(long tabuleiro) {
+        return (int) tabuleiro & (MASCARAS - 1) | (int) (tabuleiro >>> 32) << Tabuleiro.CELULAS;
+    }
+
+    /**
+     * Converte um índice de volta no tabuleiro compacto.
+     *
+     * @param indice índice de 24 bits
+     * @return tabuleiro compacto
+     */
+    public static long tabuleiro(int indice) {
+        return indice & (MASCARAS - 1) | (long) (indice >>> Tabuleiro.CELULAS) << 32;
+    }
+
+    /**
+     * Devolve o índice canónico de um tabuleiro, o menor entre os índices
+     * das suas quatro formas simétricas.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return índice canónico
+     */
+    public static int canonico(long tabuleiro) {
+        int baixo = (int) tabuleiro & (MASCARAS - 1);
+        int alto = (int) (tabuleiro >>> 32);
+        int hb = HORIZONTAL[baixo], ha = HORIZONTAL[alto];
+        int minimo = baixo | alto << Tabuleiro.CELULAS;
+        minimo = Math.min(minimo, hb | ha << Tabuleiro.CELULAS);
+        minimo = Math.min(minimo, VERTICAL[baixo] | VERTICAL[alto] << Tabuleiro.CELULAS);
+        minimo = Math.min(minimo, VERTICAL[hb] | VERTICAL[ha] << Tabuleiro.CELULAS);
+        return minimo;
+    }
+}
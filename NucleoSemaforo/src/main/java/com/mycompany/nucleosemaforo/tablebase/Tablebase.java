@@ -0,0 +1,195 @@
+package com.mycompany.nucleosemaforo.tablebase;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Consulta da tablebase do Jogo Semáforo, gerada por {@link GeradorTablebase}.
+ *
+ * O ficheiro é mapeado em memória, pelo que cada consulta é uma leitura direta
+ * de um byte, sem ocupar memória da heap. Cada byte guarda o resultado com jogo
+ * perfeito, na perspetiva do jogador a jogar, e o número de jogadas até ao fim.
+ *
+ * Formato: um cabeçalho de {@link #CABECALHO} bytes ("SMTB", versão) seguido de um
+ * byte por índice canónico ({@link Simetria#canonico}).
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Tablebase implements Closeable {
+
+    /** Identificação do ficheiro */
+    static final int MAGICO = 0x534D5442;
+
+    /** Versão do formato */
+    static final int VERSAO = 1;
+
+    /** Tamanho do cabeçalho em bytes */
+    static final int CABECALHO = 16;
+
+    /** Resultados possíveis de uma posição */
+    public static final int DESCONHECIDO = 0, VITORIA = 1, DERROTA = 2, EMPATE = 3;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer dados;
+
+    private Tablebase(FileChannel canal, MappedByteBuffer dados) {
+        this.canal = canal;
+        this.dados = dados;
+    }
+
+    /**
+     * Abre e mapeia uma tablebase.
+     *
+     * @param ficheiro caminho do ficheiro gerado
+     * @return tablebase pronta a consultar
+     * @throws IOException se o ficheiro não existir ou não for uma tablebase válida
+     */
+    public static Tablebase abrir(Path ficheiro) throws IOException {
+        FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ);
+        try {
+            if (canal.size() != CABECALHO + Simetria.INDICES)
+                throw new IOException("Tamanho inesperado da tablebase: " + canal.size());
+            MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (dados.getInt(0) != MAGICO || dados.getInt(4) != VERSAO)
+                throw new IOException("Ficheiro não é uma tablebase do Semáforo: " + ficheiro);
+            return new Tablebase(canal, dados);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Consulta o byte de uma posição.
+     *
+     * @param tabuleiro tabuleiro compacto
+     * @return byte com resultado e distância
+     */
+    public int consultar(long tabuleiro) {
+        return dados.get(CABECALHO + Simetria.canonico(tabuleiro)) & 0xFF;
+    }
+
+    /**
+     * @param valor byte devolvido por {@link #consultar}
+     * @return {@link #VITORIA}, {@link #DERROTA}, {@link #EMPATE} ou {@link #DESCONHECIDO}
+     */
+    public static int resultado(int valor) {
+        return valor >>> 6;
+    }
+
+    /**
+     * @param valor byte devolvido por {@link #consultar}
+     * @return número de jogadas até ao fim do jogo, com jogo perfeito
+     */
+    public static int distancia(int valor) {
+        return valor & 0x3F;
+    }
+
+    /**
+     * Empacota um resultado e uma distância num byte.
+     */
+    static byte valor(int resultado, int distancia) {
+        return (byte) (resultado << 6 | distancia);
+    }
+
+    /**
+     * Escolhe a melhor jogada: a vitória mais rápida, senão um empate,
+     * senão a derrota mais demorada.
+     *
+     * @param tabuleiro posição atual
+     * @return melhor célula, ou -1 se não houver jogadas
+     */
+    public int melhorJogada(long tabuleiro) {
+        int melhor = -1;
+        int melhorOrdem = Integer.MIN_VALUE;
+        for (int m = Regras.jogadasLegais(tabuleiro); m != 0; m &= m - 1) {
+            int celula = Integer.numberOfTrailingZeros(m);
+            int valor = consultar(Regras.jogar(tabuleiro, celula));
+            int ordem = ordem(resultado(valor), distancia(valor));
+            if (ordem > melhorOrdem) {
+                melhorOrdem = ordem;
+                melhor = celula;
+            }
+        }
+        return melhor;
+    }
+
+    /**
+     * Ordena uma posição filha do ponto de vista de quem joga antes dela.
+     */
+    private static int ordem(int resultadoFilho, int distancia) {
+        switch (resultadoFilho) {
+            case DERROTA:
+                return 1000 - distancia;
+            case EMPATE:
+                return 0;
+            case VITORIA:
+                return -1000 + distancia;
+            default:
+                return -2000;
+        }
+    }
+
+    /**
+     * Texto curto que descreve o resultado de uma posição para quem joga.
+     *
+     * @param tabuleiro posição atual
+     * @return descrição, por exemplo "vitória em 5 jogadas"
+     */
+    public String descrever(long tabuleiro) {
+        return texto(consultar(tabuleiro));
+    }
+
+    /**
+     * Texto curto que descreve um byte da tablebase.
+     *
+     * @param valor byte devolvido por {@link #consultar}
+     * @return descrição do resultado
+     */
+    public static String texto(int valor) {
+        switch (resultado(valor)) {
+            case VITORIA:
+                return "vitória em " + distancia(valor) + " jogadas";
+            case DERROTA:
+                return "derrota em " + distancia(valor) + " jogadas";
+            case EMPATE:
+                return "empate";
+            default:
+                return "desconhecido";
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Devolve a célula escolhida em texto, para mensagens de sugestão.
+     *
+     * @param celula índice da célula
+     * @return por exemplo "linha 2, coluna 3"
+     */
+    public static String nomeCelula(int celula) {
+        return "linha " + (celula / Tabuleiro.COLUNAS + 1) + ", coluna " + (celula % Tabuleiro.COLUNAS + 1);
+    }
+
+    /**
+     * Cria o cabeçalho de um ficheiro novo.
+     */
+    static ByteBuffer cabecalho() {
+        ByteBuffer b = ByteBuffer.allocate(CABECALHO);
+        b.putInt(MAGICO).putInt(VERSAO).putInt(Simetria.INDICES).putInt(0).flip();
+        return b;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mycompany.nucleosemaforo.torneio;
+
+/**
+ * Gerador pseudoaleatório SplitMix64, pequeno e sem alocações, para que
+ * cada jogo de um torneio possa ser repetido a partir da sua semente.
+ *
+ * Não é seguro entre threads: cada thread do torneio tem o seu.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Aleatorio {
+
+    private long estado;
+
+    /**
+     * @param semente semente inicial
+     */
+    public Aleatorio(long semente) {
+        estado = semente;
+    }
+
+    /**
+     * Recomeça a sequência a partir de outra semente.
+     *
+     * @param semente nova semente
+     */
+    public void semear(long semente) {
+        estado = semente;
+    }
+
+    /** @return próximo valor de 64 bits */
+    public long proximo() {
+        return misturar(estado += 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @param limite limite exclusivo, maior do que 0
+     * @return valor uniforme entre 0 e limite - 1
+     */
+    public int proximo(int limite) {
+        // Multiplicação em vez de resto: sem divisão e sem favorecer os valores baixos
+        return (int) (((proximo() >>> 32) * limite) >>> 32);
+    }
+
+    /**
+     * Escolhe uma célula ao acaso de uma máscara.
+     *
+     * @param mascara máscara de células, não vazia
+     * @return índice de uma das células
+     */
+    public int sortear(int mascara) {
+        for (int k = proximo(Integer.bitCount(mascara)); k > 0; k--) mascara &= mascara - 1;
+        return Integer.numberOfTrailingZeros(mascara);
+    }
+
+    /**
+     * Função de mistura do SplitMix64, também usada para derivar as sementes
+     * de cada jogo a partir da semente do torneio.
+     *
+     * @param z valor a misturar
+     * @return valor misturado
+     */
+    public static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mycompany.nucleosemaforo.torneio;
+
+/**
+ * Estratégia de um jogador automático no {@link Torneio}.
+ *
+ * Cada thread do torneio cria as suas instâncias com {@link Estrategias#criar},
+ * pelo que uma estratégia pode guardar estado (um motor, tabelas) sem
+ * sincronização. {@link #escolher} é chamado milhões de vezes por segundo,
+ * pelo que deve evitar alocar memória.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public interface Estrategia {
+
+    /** @return nome da estratégia, como é escrito na linha de comandos */
+    String getNome();
+
+    /**
+     * Escolhe uma jogada no tabuleiro 3x4.
+     *
+     * @param tabuleiro posição atual, com o jogo em curso
+     * @param legais máscara das jogadas legais, não vazia
+     * @param aleatorio gerador do jogo, para desempates reprodutíveis
+     * @return célula escolhida, que tem de estar em {@code legais}
+     */
+    int escolher(long tabuleiro, int legais, Aleatorio aleatorio);
+
+    /**
+     * Esquece o que aprendeu nos jogos anteriores, para cada jogo depender
+     * apenas da sua semente. Por omissão não faz nada.
+     */
+    default void novoJogo() {
+    }
+}
@@ -0,0 +1,137 @@
+package com.mycompany.nucleosemaforo.torneio;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.motor.Motor;
+import com.mycompany.nucleosemaforo.motor.ResultadoPesquisa;
+
+/**
+ * Estratégias incluídas, criadas pelo nome:
+ * <ul>
+ *   <li>{@code aleatoria}: qualquer jogada legal;</li>
+ *   <li>{@code gulosa}: ganha se puder e evita as jogadas que deixam o
+ *       adversário ganhar logo a seguir;</li>
+ *   <li>{@code pesquisa:N}: pesquisa do {@link Motor} até N jogadas (4 por
+ *       omissão); sem resultado à vista, sorteia entre as jogadas que não perdem.</li>
+ * </ul>
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Estrategias {
+
+    /** Profundidade da estratégia de pesquisa quando o nome não a indica */
+    private static final int PROFUNDIDADE_POR_OMISSAO = 4;
+
+    /** Bits da tabela de transposição do motor de cada thread (4096 entradas) */
+    private static final int BITS_TABELA = 12;
+
+    private Estrategias() {
+    }
+
+    /**
+     * Cria uma instância nova de uma estratégia.
+     *
+     * @param nome nome da estratégia
+     * @return estratégia
+     * @throws IllegalArgumentException se o nome não for conhecido
+     */
+    public static Estrategia criar(String nome) {
+        if (nome.equals("aleatoria")) return new Aleatoria();
+        if (nome.equals("gulosa")) return new Gulosa();
+        if (nome.equals("pesquisa")) return new Pesquisa(nome, PROFUNDIDADE_POR_OMISSAO);
+        if (nome.startsWith("pesquisa:")) {
+            try {
+                int profundidade = Integer.parseInt(nome.substring("pesquisa:".length()));
+                if (profundidade > 0) return new Pesquisa(nome, profundidade);
+            } catch (NumberFormatException e) {
+                // Cai na exceção abaixo
+            }
+        }
+        throw new IllegalArgumentException("Estratégia desconhecida: " + nome);
+    }
+
+    /**
+     * Indica se o jogador a jogar tem uma jogada que ganha logo.
+     */
+    static boolean ganhaJa(long tabuleiro, int legais) {
+        for (; legais != 0; legais &= legais - 1) {
+            if (Tabuleiro.vitoria(Regras.jogar(tabuleiro, Integer.numberOfTrailingZeros(legais)))) return true;
+        }
+        return false;
+    }
+
+    private static final class Aleatoria implements Estrategia {
+
+        @Override
+        public String getNome() {
+            return "aleatoria";
+        }
+
+        @Override
+        public int escolher(long tabuleiro, int legais, Aleatorio aleatorio) {
+            return aleatorio.sortear(legais);
+        }
+    }
+
+    private static final class Gulosa implements Estrategia {
+
+        @Override
+        public String getNome() {
+            return "gulosa";
+        }
+
+        @Override
+        public int escolher(long tabuleiro, int legais, Aleatorio aleatorio) {
+            int seguras = 0;
+            for (int m = legais; m != 0; m &= m - 1) {
+                int celula = Integer.numberOfTrailingZeros(m);
+                long filho = Regras.jogar(tabuleiro, celula);
+                if (Tabuleiro.vitoria(filho)) return celula;
+                if (!ganhaJa(filho, Regras.jogadasLegais(filho))) seguras |= 1 << celula;
+            }
+            return aleatorio.sortear(seguras != 0 ? seguras : legais);
+        }
+    }
+
+    private static final class Pesquisa implements Estrategia {
+
+        /** Sem limite de tempo prático: a profundidade é que limita a pesquisa */
+        private static final long TEMPO_MS = 60_000;
+
+        private final String nome;
+        private final int profundidade;
+        private final Motor motor = new Motor(BITS_TABELA);
+
+        Pesquisa(String nome, int profundidade) {
+            this.nome = nome;
+            this.profundidade = profundidade;
+        }
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public void novoJogo() {
+            motor.limpar();
+        }
+
+        @Override
+        public int escolher(long tabuleiro, int legais, Aleatorio aleatorio) {
+            ResultadoPesquisa r = motor.pesquisar(tabuleiro, profundidade, TEMPO_MS);
+            if (Motor.decisiva(r.getPontuacao())) return r.getCelula();
+            // Sem resultado à vista todas as jogadas valem o mesmo para o motor, que
+            // escolheria sempre a primeira: sorteia entre as que não perdem
+            int seguras = 0;
+            for (int m = legais; m != 0; m &= m - 1) {
+                int celula = Integer.numberOfTrailingZeros(m);
+                int resposta = motor.pesquisar(Regras.jogar(tabuleiro, celula), profundidade - 1, TEMPO_MS).getPontuacao();
+                if (!(Motor.decisiva(resposta) && resposta > 0)) seguras |= 1 << celula;
+            }
+            return aleatorio.sortear(seguras != 0 ? seguras : legais);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.mycompany.nucleosemaforo.torneio;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Torneio sem interface entre estratégias automáticas: cada par de
+ * estratégias joga o mesmo número de jogos, metade a começar cada uma, e no
+ * fim são mostradas as percentagens de vitória com intervalos de confiança
+ * de 95% (Wilson) e o ritmo em jogos por segundo.
+ *
+ * Os jogos são divididos em blocos que as threads vão buscando a um contador
+ * partilhado. Cada thread tem as suas estratégias, o seu gerador e os seus
+ * contadores, e o ciclo de jogo só usa o tabuleiro compacto, sem alocações.
+ * A semente de cada jogo depende apenas da semente do torneio, do par e do
+ * número do jogo, pelo que os resultados são os mesmos com qualquer número
+ * de threads.
+ *
+ * <pre>
+ * java -p NucleoSemaforo-1.0-SNAPSHOT.jar -m com.mycompany.nucleosemaforo/com.mycompany.nucleosemaforo.torneio.Torneio
+ *      [--jogos N] [--semente S] [--threads T] [estrategia...]
+ * </pre>
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Torneio {
+
+    /** Jogos de cada bloco de trabalho (par), o suficiente para diluir o contador partilhado */
+    private static final int BLOCO = 4096;
+
+    /** Quantil da normal para o intervalo de 95% */
+    private static final double Z = 1.96;
+
+    /** Contadores por par: vitórias do primeiro do par, do segundo, empates e jogadas */
+    private static final int VITORIAS_A = 0, VITORIAS_B = 1, EMPATES = 2, JOGADAS = 3, CONTADORES = 4;
+
+    private final String[] nomes;
+    private final int[][] pares;
+    private final long jogosPorPar;
+    private final long semente;
+    private final int blocosPorPar;
+    private final AtomicInteger proximoBloco = new AtomicInteger();
+
+    /**
+     * @param nomes estratégias participantes (pelo menos duas)
+     * @param jogosPorPar jogos de cada par de estratégias
+     * @param semente semente do torneio
+     * @throws IllegalArgumentException se alguma estratégia não existir
+     */
+    public Torneio(String[] nomes, long jogosPorPar, long semente) {
+        for (String nome : nomes) Estrategias.criar(nome);
+        this.nomes = nomes.clone();
+        this.jogosPorPar = jogosPorPar;
+        this.semente = semente;
+        this.blocosPorPar = (int) ((jogosPorPar + BLOCO - 1) / BLOCO);
+        List<int[]> lista = new ArrayList<>();
+        for (int a = 0; a < nomes.length; a++)
+            for (int b = a + 1; b < nomes.length; b++)
+                lista.add(new int[] {a, b});
+        this.pares = lista.toArray(new int[0][]);
+    }
+
+    /**
+     * Joga o torneio todo.
+     *
+     * @param threads número de threads
+     * @return contadores por par ({@link #CONTADORES} por par)
+     * @throws InterruptedException se a espera pelas threads for interrompida
+     */
+    long[] jogar(int threads) throws InterruptedException {
+        long[][] parciais = new long[threads][];
+        Thread[] trabalhadores = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int indice = i;
+            trabalhadores[i] = new Thread(() -> parciais[indice] = trabalhar(), "torneio-" + i);
+            trabalhadores[i].start();
+        }
+        long[] total = new long[pares.length * CONTADORES];
+        for (int i = 0; i < threads; i++) {
+            trabalhadores[i].join();
+            for (int k = 0; k < total.length; k++) total[k] += parciais[i][k];
+        }
+        return total;
+    }
+
+    /**
+     * Ciclo de uma thread: vai buscando blocos até não haver mais.
+     */
+    private long[] trabalhar() {
+        Estrategia[] estrategias = new Estrategia[nomes.length];
+        for (int i = 0; i < nomes.length; i++) estrategias[i] = Estrategias.criar(nomes[i]);
+        Aleatorio aleatorio = new Aleatorio(0);
+        long[] contadores = new long[pares.length * CONTADORES];
+
+        int blocos = pares.length * blocosPorPar;
+        for (int bloco; (bloco = proximoBloco.getAndIncrement()) < blocos; ) {
+            int par = bloco / blocosPorPar;
+            Estrategia a = estrategias[pares[par][0]];
+            Estrategia b = estrategias[pares[par][1]];
+            long inicio = (long) (bloco % blocosPorPar) * BLOCO;
+            long fim = Math.min(inicio + BLOCO, jogosPorPar);
+            int base = par * CONTADORES;
+            for (long jogo = inicio; jogo < fim; jogo++) {
+                aleatorio.semear(Aleatorio.misturar(semente ^ Aleatorio.misturar((long) par << 40 ^ jogo)));
+                // Nos jogos pares começa a primeira estratégia do par, nos ímpares a segunda
+                boolean comecaA = (jogo & 1) == 0;
+                int r = jogarUm(comecaA ? a : b, comecaA ? b : a, aleatorio);
+                contadores[base + JOGADAS] += r >>> 2;
+                switch (r & 3) {
+                    case PRIMEIRO:
+                        contadores[base + (comecaA ? VITORIAS_A : VITORIAS_B)]++;
+                        break;
+                    case SEGUNDO:
+                        contadores[base + (comecaA ? VITORIAS_B : VITORIAS_A)]++;
+                        break;
+                    default:
+                        contadores[base + EMPATES]++;
+                        break;
+                }
+            }
+        }
+        return contadores;
+    }
+
+    /** Resultado de um jogo, nos 2 bits baixos; o número de jogadas vai nos restantes */
+    private static final int EMPATE = 0, PRIMEIRO = 1, SEGUNDO = 2;
+
+    /**
+     * Joga um jogo do princípio ao fim.
+     *
+     * @return resultado e número de jogadas ({@code jogadas << 2 | resultado})
+     */
+    private static int jogarUm(Estrategia primeiro, Estrategia segundo, Aleatorio aleatorio) {
+        primeiro.novoJogo();
+        segundo.novoJogo();
+        long tabuleiro = Tabuleiro.INICIAL;
+        for (int n = 0; ; n++) {
+            int legais = Regras.jogadasLegais(tabuleiro);
+            if (legais == 0) {
+                // Quem fez a última jogada (a n-ésima) ganhou
+                int resultado = !Tabuleiro.vitoria(tabuleiro) ? EMPATE : (n & 1) == 1 ? PRIMEIRO : SEGUNDO;
+                return n << 2 | resultado;
+            }
+            Estrategia vez = (n & 1) == 0 ? primeiro : segundo;
+            int celula = vez.escolher(tabuleiro, legais, aleatorio);
+            if ((legais >>> celula & 1) == 0)
+                throw new IllegalStateException(vez.getNome() + " fez uma jogada ilegal na célula " + celula);
+            tabuleiro = Regras.jogar(tabuleiro, celula);
+        }
+    }
+
+    /**
+     * Intervalo de confiança de Wilson para uma proporção.
+     *
+     * @param sucessos número de sucessos
+     * @param n número de tentativas
+     * @return limites inferior e superior
+     */
+    static double[] wilson(long sucessos, long n) {
+        if (n == 0) return new double[] {0, 1};
+        double p = (double) sucessos / n;
+        double z2 = Z * Z / n;
+        double centro = (p + z2 / 2) / (1 + z2);
+        double margem = Z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n)) / (1 + z2);
+        return new double[] {Math.max(0, centro - margem), Math.min(1, centro + margem)};
+    }
+
+    private static String percentagem(long sucessos, long n) {
+        double[] ic = wilson(sucessos, n);
+        return String.format("%5.1f%% [%5.1f, %5.1f]", n == 0 ? 0.0 : 100.0 * sucessos / n, 100 * ic[0], 100 * ic[1]);
+    }
+
+    private void imprimir(long[] total, double segundos) {
+        long jogos = 0, jogadas = 0;
+        long[] vitorias = new long[nomes.length], disputados = new long[nomes.length];
+        System.out.println("Confrontos (vitórias com intervalo de confiança de 95%):");
+        for (int par = 0; par < pares.length; par++) {
+            int a = pares[par][0], b = pares[par][1], base = par * CONTADORES;
+            long n = total[base + VITORIAS_A] + total[base + VITORIAS_B] + total[base + EMPATES];
+            jogos += n;
+            jogadas += total[base + JOGADAS];
+            vitorias[a] += total[base + VITORIAS_A];
+            vitorias[b] += total[base + VITORIAS_B];
+            disputados[a] += n;
+            disputados[b] += n;
+            System.out.printf("  %-12s vs %-12s %s  %s  empates %d%n", nomes[a], nomes[b],
+                    percentagem(total[base + VITORIAS_A], n), percentagem(total[base + VITORIAS_B], n),
+                    total[base + EMPATES]);
+        }
+        System.out.println("Classificação:");
+        for (int i = 0; i < nomes.length; i++)
+            System.out.printf("  %-12s %s em %d jogos%n", nomes[i], percentagem(vitorias[i], disputados[i]), disputados[i]);
+        System.out.printf("%d jogos (%.1f jogadas por jogo) em %.2f s: %.0f jogos/s%n", jogos,
+                jogos == 0 ? 0.0 : (double) jogadas / jogos, segundos, segundos > 0 ? jogos / segundos : 0.0);
+    }
+
+    /**
+     * Corre um torneio a partir da linha de comandos.
+     *
+     * @param args opções e nomes das estratégias (por omissão aleatoria, gulosa e pesquisa:4)
+     * @throws InterruptedException se a espera pelas threads for interrompida
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long jogos = 100_000;
+        long semente = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> nomes = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--jogos":
+                        jogos = Long.parseLong(args[++i]);
+                        break;
+                    case "--semente":
+                        semente = Long.parseLong(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        nomes.add(args[i]);
+                        break;
+                }
+            }
+            if (nomes.isEmpty()) nomes.addAll(List.of("aleatoria", "gulosa", "pesquisa:4"));
+            if (nomes.size() < 2 || jogos <= 0 || threads <= 0) throw new IllegalArgumentException("são precisas duas estratégias");
+
+            Torneio torneio = new Torneio(nomes.toArray(new String[0]), jogos, semente);
+            System.out.printf("%d jogos por confronto, semente %d, %d threads%n", jogos, semente, threads);
+            long inicio = System.nanoTime();
+            long[] total = torneio.jogar(threads);
+            torneio.imprimir(total, (System.nanoTime() - inicio) / 1e9);
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Uso: Torneio [--jogos N] [--semente S] [--threads T] [aleatoria|gulosa|pesquisa:N]...");
+            if (e.getMessage() != null) System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+module com.mycompany.nucleosemaforo {
+    exports com.mycompany.nucleosemaforo;
+    exports com.mycompany.nucleosemaforo.historico;
+    exports com.mycompany.nucleosemaforo.metricas;
+    exports com.mycompany.nucleosemaforo.motor;
+    exports com.mycompany.nucleosemaforo.protocolo;
+    exports com.mycompany.nucleosemaforo.registo;
+    exports com.mycompany.nucleosemaforo.rede;
+    exports com.mycompany.nucleosemaforo.tablebase;
+    exports com.mycompany.nucleosemaforo.torneio;
+}
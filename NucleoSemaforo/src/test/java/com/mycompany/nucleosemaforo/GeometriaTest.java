@@ -0,0 +1,131 @@
+package com.mycompany.nucleosemaforo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Testes da {@link Geometria}: a vitória verificada só pelas linhas da célula
+ * jogada concorda com uma verificação de todo o tabuleiro, a geometria 3x4 é
+ * sempre a instância {@link Geometria#PADRAO} e os limites são respeitados.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class GeometriaTest {
+
+    /**
+     * Verifica todas as linhas do tabuleiro célula a célula, sem as máscaras
+     * da geometria.
+     */
+    private static boolean vitoriaCompleta(Geometria g, long tabuleiro) {
+        int[][] direcoes = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int i = 0; i < g.getLinhas(); i++) {
+            for (int j = 0; j < g.getColunas(); j++) {
+                int cor = Tabuleiro.celula(tabuleiro, g.celula(i, j));
+                if (cor == Tabuleiro.VAZIO) continue;
+                for (int[] d : direcoes) {
+                    int k = 1;
+                    while (k < g.getComprimento()) {
+                        int l = i + k * d[0], c = j + k * d[1];
+                        if (l >= g.getLinhas() || c < 0 || c >= g.getColunas()) break;
+                        if (Tabuleiro.celula(tabuleiro, g.celula(l, c)) != cor) break;
+                        k++;
+                    }
+                    if (k == g.getComprimento()) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void verificarPartidas(Geometria g, int partidas) {
+        Random aleatorio = new Random(g.hashCode());
+        for (int p = 0; p < partidas; p++) {
+            long t = Tabuleiro.INICIAL;
+            while (true) {
+                int possiveis = g.jogadasPossiveis(t);
+                if (possiveis == 0) {
+                    Assertions.assertEquals(Regras.EMPATE, g.resultado(t));
+                    break;
+                }
+                int k = aleatorio.nextInt(Integer.bitCount(possiveis));
+                for (int i = 0; i < k; i++) possiveis &= possiveis - 1;
+                int celula = Integer.numberOfTrailingZeros(possiveis);
+                Assertions.assertTrue(g.jogadaLegal(t, celula));
+                t = Regras.jogar(t, celula);
+                boolean ganhou = vitoriaCompleta(g, t);
+                Assertions.assertEquals(ganhou, g.vitoriaEm(t, celula), g + ", célula " + celula);
+                Assertions.assertEquals(ganhou, g.vitoria(t), g.toString());
+                if (ganhou) {
+                    Assertions.assertEquals(Regras.VITORIA, g.resultado(t, celula));
+                    Assertions.assertEquals(Regras.VITORIA, g.resultado(t));
+                    break;
+                }
+                Assertions.assertEquals(g.resultado(t), g.resultado(t, celula));
+            }
+        }
+    }
+
+    @Test
+    void vitoriaIncrementalConcordaComTodoOTabuleiro() {
+        verificarPartidas(Geometria.PADRAO, 2000);
+        verificarPartidas(Geometria.ler("5x6:4:10"), 1000);
+        verificarPartidas(Geometria.ler("4x8:4:12"), 1000);
+        verificarPartidas(Geometria.ler("4x8:3:3"), 1000);
+    }
+
+    @Test
+    void padraoTemAsLinhasDoTabuleiro() {
+        Assertions.assertEquals(Tabuleiro.LINHAS_VENCEDORAS.length, Geometria.PADRAO.getNumeroLinhasVencedoras());
+        Random aleatorio = new Random(3);
+        for (int n = 0; n < 100_000; n++) {
+            long t = Tabuleiro.INICIAL;
+            for (int c = 0; c < Tabuleiro.CELULAS; c++) t = Tabuleiro.colocar(t, c, aleatorio.nextInt(4));
+            Assertions.assertEquals(Tabuleiro.vitoria(t), Geometria.PADRAO.vitoria(t));
+            Assertions.assertEquals(Regras.resultado(t), Geometria.PADRAO.resultado(t));
+        }
+    }
+
+    @Test
+    void empateQuandoAsPecasAcabam() {
+        // Uma peça de cada cor: a mesma célula sobe até vermelho e não há mais jogadas
+        Geometria g = Geometria.ler("3x4:3:1");
+        long t = Tabuleiro.INICIAL;
+        for (int n = 0; n < 3; n++) {
+            Assertions.assertEquals(Regras.EM_CURSO, g.resultado(t));
+            t = Regras.jogar(t, 5);
+        }
+        Assertions.assertEquals(0, g.jogadasPossiveis(t));
+        Assertions.assertEquals(Regras.EMPATE, g.resultado(t, 5));
+        Assertions.assertEquals(Regras.EMPATE, g.resultado(t));
+    }
+
+    @Test
+    void lerDevolveAInstanciaPadrao() {
+        Assertions.assertSame(Geometria.PADRAO, Geometria.ler(Geometria.PADRAO.toString()));
+        Assertions.assertSame(Geometria.PADRAO, Geometria.ler("3x4"));
+        Assertions.assertSame(Geometria.PADRAO, Geometria.ler(" 3x4:3 "));
+        Assertions.assertNotSame(Geometria.PADRAO, Geometria.ler("3x4:3:7"));
+
+        Geometria g = Geometria.ler("5x6:4:10");
+        Assertions.assertEquals(g, Geometria.ler(g.toString()));
+        Assertions.assertEquals(30, g.getCelulas());
+        Assertions.assertEquals(4, g.getComprimento());
+        Assertions.assertEquals(10, g.getPecasPorCor());
+    }
+
+    @Test
+    void recusaDimensoesForaDosLimites() {
+        // 49 células não cabem nos planos de 32 bits; 9 não cabe num lado da jogada binária
+        String[] invalidas = {"7x7", "6x6", "9x3", "3x9", "0x4", "3x-1", "3x4:1", "3x4:5", "3x4:3:0",
+                "3x4:3:8:1", "3", "3x4x5", "axb", "3x4:tres", ""};
+        for (String texto : invalidas)
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Geometria.ler(texto), texto);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Geometria(8, 5, 3, 8));
+        Assertions.assertEquals(Geometria.MAXIMO_CELULAS, new Geometria(8, 4, 3, 8).getCelulas());
+        Assertions.assertEquals(Geometria.MAXIMO_CELULAS, new Geometria(4, 8, 3, 8).getCelulas());
+    }
+}
@@ -0,0 +1,123 @@
+package com.mycompany.nucleosemaforo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Testes da {@link HistoriaJogo}: uma história nunca muda depois de criada,
+ * mesmo quando outra que partilha as suas posições continua ou se desvia, e
+ * ir para qualquer jogada não depende do comprimento da história.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class HistoriaJogoTest {
+
+    /** Tabuleiro distinto para cada número, para reconhecer as posições */
+    private static long posicao(int n) {
+        return (long) n << 32 | n;
+    }
+
+    private static HistoriaJogo historia(int jogadas) {
+        HistoriaJogo h = HistoriaJogo.inicio(posicao(0));
+        for (int n = 1; n <= jogadas; n++) h = h.jogar(posicao(n));
+        return h;
+    }
+
+    private static void verificar(HistoriaJogo h, int jogadas) {
+        Assertions.assertEquals(jogadas, h.getJogadas());
+        for (int n = 0; n <= jogadas; n++) Assertions.assertEquals(posicao(n), h.posicao(n), "posição " + n);
+        Assertions.assertEquals(posicao(jogadas), h.getAtual());
+    }
+
+    @Test
+    void jogarNaoAlteraAHistoriaAnterior() {
+        HistoriaJogo h = HistoriaJogo.inicio(posicao(0));
+        HistoriaJogo[] todas = new HistoriaJogo[100];
+        todas[0] = h;
+        // Mais do que a capacidade inicial, para o array partilhado crescer
+        for (int n = 1; n < todas.length; n++) todas[n] = todas[n - 1].jogar(posicao(n));
+        for (int n = 0; n < todas.length; n++) verificar(todas[n], n);
+    }
+
+    @Test
+    void prefixoNaoVeAsJogadasSeguintes() {
+        HistoriaJogo h = historia(20);
+        HistoriaJogo prefixo = h.ate(5);
+        verificar(prefixo, 5);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> prefixo.posicao(6));
+        Assertions.assertSame(h, h.ate(20));
+
+        // Continuar a história original depois de tirar o prefixo não o muda
+        HistoriaJogo maior = h.jogar(posicao(21));
+        verificar(prefixo, 5);
+        verificar(h, 20);
+        verificar(maior, 21);
+    }
+
+    @Test
+    void jogarDepoisDeAteCriaUmaVariante() {
+        HistoriaJogo h = historia(20);
+        HistoriaJogo variante = h.ate(5).jogar(-1L);
+        Assertions.assertEquals(6, variante.getJogadas());
+        Assertions.assertEquals(-1L, variante.getAtual());
+        for (int n = 0; n <= 5; n++) Assertions.assertEquals(posicao(n), variante.posicao(n));
+
+        // A original continua com as suas jogadas, e as duas podem crescer à vontade
+        verificar(h, 20);
+        HistoriaJogo continuada = h.jogar(posicao(21));
+        HistoriaJogo outra = variante.jogar(-2L);
+        verificar(continuada, 21);
+        Assertions.assertEquals(-1L, outra.posicao(6));
+        Assertions.assertEquals(-2L, outra.getAtual());
+        Assertions.assertEquals(-1L, variante.getAtual());
+    }
+
+    @Test
+    void duasVariantesDoMesmoPrefixo() {
+        HistoriaJogo prefixo = historia(10).ate(3);
+        HistoriaJogo a = prefixo.jogar(-1L);
+        HistoriaJogo b = prefixo.jogar(-2L);
+        Assertions.assertEquals(-1L, a.getAtual());
+        Assertions.assertEquals(-2L, b.getAtual());
+        verificar(prefixo, 3);
+    }
+
+    @Test
+    void celulaJogada() {
+        long t = Tabuleiro.INICIAL;
+        HistoriaJogo h = HistoriaJogo.inicio(t);
+        int[] celulas = {5, 5, 0, 11, 5};
+        for (int celula : celulas) {
+            t = Regras.jogar(t, celula);
+            h = h.jogar(t);
+        }
+        for (int n = 0; n < celulas.length; n++) Assertions.assertEquals(celulas[n], h.celulaJogada(n + 1));
+    }
+
+    @Test
+    void limitesDasJogadas() {
+        HistoriaJogo h = historia(3);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> h.ate(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> h.ate(4));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> h.posicao(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> h.posicao(4));
+    }
+
+    @Test
+    @Timeout(10)
+    void ateEPosicaoNaoPercorremAHistoria() {
+        // Se ate ou posicao copiassem ou percorressem as jogadas, seriam 10^11 passos
+        int jogadas = 100_000;
+        HistoriaJogo h = historia(jogadas);
+        long soma = 0;
+        for (int n = 0; n < 1_000_000; n++) {
+            int k = (int) ((n * 7919L) % (jogadas + 1));
+            HistoriaJogo prefixo = h.ate(k);
+            soma += prefixo.getAtual() ^ h.posicao(k);
+        }
+        Assertions.assertEquals(0, soma);
+    }
+}
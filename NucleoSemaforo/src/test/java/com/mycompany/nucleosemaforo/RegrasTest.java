@@ -0,0 +1,131 @@
+package com.mycompany.nucleosemaforo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.mycompany.nucleosemaforo.TabuleiroTest.tabuleiro;
+
+/**
+ * Testes das {@link Regras} do 3x4: peças disponíveis, ordem das cores, vez
+ * de cada jogador e estado do jogo.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class RegrasTest {
+
+    @Test
+    void pecasDisponiveisContamASubidaDeCor() {
+        // Uma vermelha gastou uma verde, uma amarela e uma vermelha
+        long t = tabuleiro("VA..", "R...", "....");
+        Assertions.assertEquals(5, Regras.disponiveis(t, Tabuleiro.VERDE));
+        Assertions.assertEquals(6, Regras.disponiveis(t, Tabuleiro.AMARELO));
+        Assertions.assertEquals(7, Regras.disponiveis(t, Tabuleiro.VERMELHO));
+        Assertions.assertEquals(0, Regras.disponiveis(t, Tabuleiro.VAZIO));
+        Assertions.assertEquals(Regras.PECAS_POR_COR, Regras.disponiveis(Tabuleiro.INICIAL, Tabuleiro.VERDE));
+    }
+
+    @Test
+    void semVerdesNaoSeJogaEmCelulasVazias() {
+        long t = tabuleiro("VAVA", "AVAV", "....");
+        Assertions.assertEquals(0, Regras.disponiveis(t, Tabuleiro.VERDE));
+        Assertions.assertEquals(Regras.EM_CURSO, Regras.resultado(t));
+        Assertions.assertEquals(0xFF, Regras.jogadasLegais(t), "só as oito peças sobem de cor");
+        Assertions.assertFalse(Regras.jogadaLegal(t, 8));
+        Assertions.assertTrue(Regras.jogadaLegal(t, 0));
+    }
+
+    @Test
+    void semAmarelasAsVerdesNaoSobem() {
+        // Oito peças gastaram as oito amarelas; só as amarelas podem passar a vermelhas
+        long t = tabuleiro("ARAR", "RARA", "....");
+        Assertions.assertEquals(0, Regras.disponiveis(t, Tabuleiro.VERDE));
+        Assertions.assertEquals(0, Regras.disponiveis(t, Tabuleiro.AMARELO));
+        Assertions.assertEquals(4, Regras.disponiveis(t, Tabuleiro.VERMELHO));
+        Assertions.assertEquals(Tabuleiro.mascara(t, Tabuleiro.AMARELO), Regras.jogadasLegais(t));
+        Assertions.assertFalse(Regras.jogadaLegal(t, 1), "uma vermelha não sobe mais");
+    }
+
+    @Test
+    void jogadaForaDoTabuleiroNaoELegal() {
+        Assertions.assertFalse(Regras.jogadaLegal(Tabuleiro.INICIAL, -1));
+        Assertions.assertFalse(Regras.jogadaLegal(Tabuleiro.INICIAL, Tabuleiro.CELULAS));
+    }
+
+    @Test
+    void coresSobemPorOrdem() {
+        long t = Tabuleiro.INICIAL;
+        int[] ordem = {Tabuleiro.VERDE, Tabuleiro.AMARELO, Tabuleiro.VERMELHO};
+        for (int cor : ordem) {
+            Assertions.assertEquals(cor, Regras.proximaCor(t, 5));
+            t = Regras.jogar(t, 5);
+            Assertions.assertEquals(cor, Tabuleiro.celula(t, 5));
+        }
+        Assertions.assertEquals(Tabuleiro.VAZIO, Regras.proximaCor(t, 5));
+        Assertions.assertFalse(Regras.jogadaLegal(t, 5), "uma vermelha não sobe mais");
+    }
+
+    @Test
+    void vezAlternaACadaJogada() {
+        Random aleatorio = new Random(7);
+        for (int jogo = 0; jogo < 200; jogo++) {
+            long t = Tabuleiro.INICIAL;
+            Assertions.assertTrue(Regras.vezDoPrimeiro(t));
+            for (int n = 1; Regras.jogadasLegais(t) != 0; n++) {
+                int legais = Regras.jogadasLegais(t);
+                int celula = escolher(legais, aleatorio);
+                boolean antes = Regras.vezDoPrimeiro(t);
+                t = Regras.jogar(t, celula);
+                Assertions.assertEquals(n, Regras.numeroJogadas(t));
+                Assertions.assertEquals(!antes, Regras.vezDoPrimeiro(t));
+            }
+        }
+    }
+
+    @Test
+    void resultadoDeVitoriaEEmCurso() {
+        Assertions.assertEquals(Regras.EM_CURSO, Regras.resultado(Tabuleiro.INICIAL));
+        Assertions.assertFalse(Regras.terminado(Tabuleiro.INICIAL));
+
+        long quase = tabuleiro("AA..", "V...", "V...");
+        Assertions.assertEquals(Regras.EM_CURSO, Regras.resultado(quase));
+        long ganho = Regras.jogar(Regras.jogar(quase, 2), 2);
+        Assertions.assertEquals(Regras.VITORIA, Regras.resultado(ganho));
+        Assertions.assertTrue(Regras.terminado(ganho));
+        Assertions.assertEquals(0, Regras.jogadasLegais(ganho), "sem jogadas depois de ganho");
+    }
+
+    /**
+     * No 3x4 com 8 peças de cada cor não há empates: só se fica sem jogadas
+     * com as 8 vermelhas no tabuleiro, e quaisquer 8 células contêm uma linha.
+     * Percorre todos os tabuleiros possíveis (4^12) para o confirmar e para
+     * verificar que o resultado é o que a sua definição diz.
+     */
+    @Test
+    void resultadoEmTodosOsTabuleiros() {
+        int empates = 0;
+        for (int codigo = 0; codigo < 1 << 2 * Tabuleiro.CELULAS; codigo++) {
+            long t = Tabuleiro.INICIAL;
+            for (int c = 0; c < Tabuleiro.CELULAS; c++) t = Tabuleiro.colocar(t, c, codigo >>> 2 * c & 3);
+            int resultado = Regras.resultado(t);
+            if (Tabuleiro.vitoria(t)) {
+                Assertions.assertEquals(Regras.VITORIA, resultado);
+            } else if (Regras.jogadasLegais(t) == 0) {
+                Assertions.assertEquals(Regras.EMPATE, resultado);
+                empates++;
+            } else {
+                Assertions.assertEquals(Regras.EM_CURSO, resultado);
+            }
+        }
+        Assertions.assertEquals(0, empates);
+    }
+
+    private static int escolher(int legais, Random aleatorio) {
+        int k = aleatorio.nextInt(Integer.bitCount(legais));
+        for (int i = 0; i < k; i++) legais &= legais - 1;
+        return Integer.numberOfTrailingZeros(legais);
+    }
+}
@@ -0,0 +1,135 @@
+package com.mycompany.nucleosemaforo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Testes do {@link Tabuleiro}: leitura e escrita das células, máscaras por cor
+ * e deteção de vitória em cada uma das linhas do 3x4.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class TabuleiroTest {
+
+    /**
+     * Monta um tabuleiro a partir de uma linha de texto por linha do
+     * tabuleiro: '.' vazio, 'V' verde, 'A' amarelo e 'R' vermelho.
+     */
+    static long tabuleiro(String... linhas) {
+        long t = Tabuleiro.INICIAL;
+        for (int i = 0; i < linhas.length; i++) {
+            for (int j = 0; j < linhas[i].length(); j++) {
+                int cor = ".VAR".indexOf(linhas[i].charAt(j));
+                if (cor < 0) throw new IllegalArgumentException("Célula inválida: " + linhas[i].charAt(j));
+                t = Tabuleiro.colocar(t, i, j, cor);
+            }
+        }
+        return t;
+    }
+
+    /** Máscara das células indicadas por pares (linha, coluna) */
+    private static int celulas(int... coordenadas) {
+        int m = 0;
+        for (int k = 0; k < coordenadas.length; k += 2) m |= 1 << (coordenadas[k] * Tabuleiro.COLUNAS + coordenadas[k + 1]);
+        return m;
+    }
+
+    /** As 14 linhas do 3x4, escritas à mão em vez de calculadas */
+    private static final int[] ESPERADAS = {
+        celulas(0, 0, 0, 1, 0, 2), celulas(0, 1, 0, 2, 0, 3),
+        celulas(1, 0, 1, 1, 1, 2), celulas(1, 1, 1, 2, 1, 3),
+        celulas(2, 0, 2, 1, 2, 2), celulas(2, 1, 2, 2, 2, 3),
+        celulas(0, 0, 1, 0, 2, 0), celulas(0, 1, 1, 1, 2, 1),
+        celulas(0, 2, 1, 2, 2, 2), celulas(0, 3, 1, 3, 2, 3),
+        celulas(0, 0, 1, 1, 2, 2), celulas(0, 1, 1, 2, 2, 3),
+        celulas(0, 2, 1, 1, 2, 0), celulas(0, 3, 1, 2, 2, 1),
+    };
+
+    /** Tabuleiro com a cor indicada nas células da máscara */
+    private static long pintar(int mascara, int cor) {
+        long t = Tabuleiro.INICIAL;
+        for (int c = 0; c < Tabuleiro.CELULAS; c++)
+            if ((mascara >>> c & 1) != 0) t = Tabuleiro.colocar(t, c, cor);
+        return t;
+    }
+
+    @Test
+    void colocarELerCadaCelula() {
+        for (int c = 0; c < Tabuleiro.CELULAS; c++) {
+            for (int cor = Tabuleiro.VAZIO; cor <= Tabuleiro.VERMELHO; cor++) {
+                // Com as outras células cheias, para apanhar bits que passem para as vizinhas
+                long cheio = pintar((1 << Tabuleiro.CELULAS) - 1, Tabuleiro.VERMELHO);
+                long t = Tabuleiro.colocar(cheio, c, cor);
+                Assertions.assertEquals(cor, Tabuleiro.celula(t, c));
+                Assertions.assertEquals(cor, Tabuleiro.celula(t, c / Tabuleiro.COLUNAS, c % Tabuleiro.COLUNAS));
+                for (int outra = 0; outra < Tabuleiro.CELULAS; outra++)
+                    if (outra != c) Assertions.assertEquals(Tabuleiro.VERMELHO, Tabuleiro.celula(t, outra));
+                Assertions.assertEquals(Tabuleiro.VAZIO, Tabuleiro.celula(Tabuleiro.colocar(t, c, Tabuleiro.VAZIO), c));
+            }
+        }
+    }
+
+    @Test
+    void mascarasPorCor() {
+        long t = tabuleiro("VA.R", "..VV", "RA..");
+        Assertions.assertEquals(celulas(0, 0, 1, 2, 1, 3), Tabuleiro.mascara(t, Tabuleiro.VERDE));
+        Assertions.assertEquals(celulas(0, 1, 2, 1), Tabuleiro.mascara(t, Tabuleiro.AMARELO));
+        Assertions.assertEquals(celulas(0, 3, 2, 0), Tabuleiro.mascara(t, Tabuleiro.VERMELHO));
+        Assertions.assertEquals(celulas(0, 2, 1, 0, 1, 1, 2, 2, 2, 3), Tabuleiro.mascara(t, Tabuleiro.VAZIO));
+        Assertions.assertEquals((1 << Tabuleiro.CELULAS) - 1, Tabuleiro.mascara(Tabuleiro.INICIAL, Tabuleiro.VAZIO));
+    }
+
+    @Test
+    void linhasVencedorasSaoAsDo3x4() {
+        Set<Integer> calculadas = new HashSet<>();
+        for (int linha : Tabuleiro.LINHAS_VENCEDORAS) calculadas.add(linha);
+        Set<Integer> esperadas = new HashSet<>();
+        for (int linha : ESPERADAS) esperadas.add(linha);
+        Assertions.assertEquals(ESPERADAS.length, Tabuleiro.LINHAS_VENCEDORAS.length);
+        Assertions.assertEquals(esperadas, calculadas);
+    }
+
+    @Test
+    void cadaLinhaCompletaGanhaComQualquerCor() {
+        for (int linha : ESPERADAS) {
+            for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++) {
+                long t = pintar(linha, cor);
+                Assertions.assertTrue(Tabuleiro.vitoria(t, cor), "linha " + Integer.toBinaryString(linha));
+                Assertions.assertTrue(Tabuleiro.vitoria(t));
+                for (int outra = Tabuleiro.VERDE; outra <= Tabuleiro.VERMELHO; outra++)
+                    if (outra != cor) Assertions.assertFalse(Tabuleiro.vitoria(t, outra));
+
+                // Duas peças da linha não chegam, e uma de outra cor estraga-a
+                int primeira = Integer.numberOfTrailingZeros(linha);
+                Assertions.assertFalse(Tabuleiro.vitoria(Tabuleiro.colocar(t, primeira, Tabuleiro.VAZIO)));
+                int outraCor = cor == Tabuleiro.VERDE ? Tabuleiro.AMARELO : Tabuleiro.VERDE;
+                Assertions.assertFalse(Tabuleiro.vitoria(Tabuleiro.colocar(t, primeira, outraCor)));
+            }
+        }
+    }
+
+    @Test
+    void vitoriaSoComTresCelulasDeUmaLinha() {
+        // Todas as máscaras de 3 células: só as das linhas ganham, nenhuma dá a volta ao tabuleiro
+        Set<Integer> linhas = new HashSet<>();
+        for (int linha : ESPERADAS) linhas.add(linha);
+        for (int m = 0; m < 1 << Tabuleiro.CELULAS; m++) {
+            if (Integer.bitCount(m) != 3) continue;
+            Assertions.assertEquals(linhas.contains(m), Tabuleiro.vitoria(pintar(m, Tabuleiro.AMARELO)),
+                    "células " + Integer.toBinaryString(m));
+        }
+    }
+
+    @Test
+    void nomesDasPecas() {
+        for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++)
+            Assertions.assertEquals(cor, Tabuleiro.cor(Tabuleiro.tipo(cor)));
+        Assertions.assertNull(Tabuleiro.tipo(Tabuleiro.VAZIO));
+        Assertions.assertEquals(Tabuleiro.VAZIO, Tabuleiro.cor("azul"));
+    }
+}
@@ -0,0 +1,317 @@
+package com.mycompany.nucleosemaforo.historico;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Testes do {@link HistoricoPartidas}: consultas, recuperação depois de uma
+ * escrita interrompida ou de um índice desatualizado, e compactação.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class HistoricoPartidasTest {
+
+    @TempDir
+    Path pasta;
+
+    /**
+     * Regista um pequeno torneio, sempre com os mesmos resultados:
+     * <pre>
+     * 1000  Ana   contra Bruno: vitória de Ana
+     * 2000  Bruno contra Ana:   vitória de Ana
+     * 3000  Ana   contra Carla: empate
+     * 4000  Carla contra Ana:   desistência de Carla
+     * 5000  Ana   contra Bruno: desistência de Ana
+     * 6000  Bruno contra Carla: vitória de Carla
+     * </pre>
+     */
+    private static void torneio(HistoricoPartidas historico) throws IOException {
+        historico.registar(1000, 60_000, "Ana", "Bruno", FormatoHistorico.VITORIA_A, 7);
+        historico.registar(2000, 50_000, "Bruno", "Ana", FormatoHistorico.VITORIA_B, 9);
+        historico.registar(3000, 90_000, "Ana", "Carla", FormatoHistorico.EMPATE, 24);
+        historico.registar(4000, 10_000, "Carla", "Ana", FormatoHistorico.SAIU_A, 3);
+        historico.registar(5000, 20_000, "Ana", "Bruno", FormatoHistorico.SAIU_A, 5);
+        historico.registar(6000, 30_000, "Bruno", "Carla", FormatoHistorico.VITORIA_B, 11);
+    }
+
+    private static void verificarBalanco(EstatisticasJogador e, int jogos, int vitorias, int derrotas, int empates,
+            int abandonos) {
+        Assertions.assertEquals(jogos, e.getJogos(), "jogos de " + e.getNome());
+        Assertions.assertEquals(vitorias, e.getVitorias(), "vitórias de " + e.getNome());
+        Assertions.assertEquals(derrotas, e.getDerrotas(), "derrotas de " + e.getNome());
+        Assertions.assertEquals(empates, e.getEmpates(), "empates de " + e.getNome());
+        Assertions.assertEquals(abandonos, e.getAbandonos(), "abandonos de " + e.getNome());
+    }
+
+    private static void verificarTorneio(HistoricoPartidas historico) throws IOException {
+        Assertions.assertEquals(6, historico.getPartidas());
+        Assertions.assertEquals(3, historico.getJogadores());
+        verificarBalanco(historico.estatisticas("Ana"), 5, 3, 1, 1, 1);
+        verificarBalanco(historico.estatisticas("Bruno"), 4, 1, 3, 0, 0);
+        verificarBalanco(historico.estatisticas("Carla"), 3, 1, 1, 1, 1);
+    }
+
+    private static long[] instantes(List<PartidaRegistada> partidas) {
+        return partidas.stream().mapToLong(PartidaRegistada::getInstante).toArray();
+    }
+
+    private Path ficheiro(int geracao, String nome) {
+        return pasta.resolve("g" + geracao).resolve(nome);
+    }
+
+    @Test
+    void balancoDeCadaJogador() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+            verificarTorneio(historico);
+            verificarBalanco(historico.estatisticas("Desconhecido"), 0, 0, 0, 0, 0);
+        }
+    }
+
+    @Test
+    void recentesSeguemAListaDoJogador() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+            Assertions.assertArrayEquals(new long[] {5000, 4000, 3000, 2000, 1000},
+                    instantes(historico.recentes("Ana", 10)));
+            Assertions.assertArrayEquals(new long[] {6000, 5000}, instantes(historico.recentes("Bruno", 2)));
+
+            PartidaRegistada ultima = historico.recentes("Carla", 1).get(0);
+            Assertions.assertEquals(5, ultima.getNumero());
+            Assertions.assertEquals("Bruno", ultima.getJogadorA());
+            Assertions.assertEquals("Carla", ultima.getJogadorB());
+            Assertions.assertEquals("Carla", ultima.getVencedor());
+            Assertions.assertEquals(30_000, ultima.getDuracaoMs());
+            Assertions.assertEquals(11, ultima.getJogadas());
+
+            Assertions.assertTrue(historico.recentes("Desconhecido", 10).isEmpty());
+        }
+    }
+
+    @Test
+    void frenteAFrenteDosDoisLados() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+            verificarBalanco(historico.frenteAFrente("Ana", "Bruno"), 3, 2, 1, 0, 1);
+            verificarBalanco(historico.frenteAFrente("Bruno", "Ana"), 3, 1, 2, 0, 0);
+            verificarBalanco(historico.frenteAFrente("Carla", "Ana"), 2, 0, 1, 1, 1);
+            verificarBalanco(historico.frenteAFrente("Ana", "Desconhecido"), 0, 0, 0, 0, 0);
+        }
+    }
+
+    @Test
+    void entreIncluiOsLimitesERespeitaOLimite() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+            Assertions.assertArrayEquals(new long[] {2000, 3000, 4000}, instantes(historico.entre(2000, 4000, 10)));
+            Assertions.assertArrayEquals(new long[] {2000, 3000}, instantes(historico.entre(1500, 4500, 2)));
+            Assertions.assertTrue(historico.entre(7000, 8000, 10).isEmpty());
+        }
+    }
+
+    @Test
+    void entrePesquisaOIndicePorTempo() throws IOException {
+        int n = 5 * FormatoHistorico.INTERVALO_TEMPO + 17;
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            for (int i = 0; i < n; i++)
+                historico.registar(i * 10L, 1000, "J" + i % 7, "J" + (i + 1) % 7, FormatoHistorico.EMPATE, 24);
+            List<PartidaRegistada> partidas = historico.entre(30_000, 30_040, 100);
+            Assertions.assertArrayEquals(new long[] {30_000, 30_010, 30_020, 30_030, 30_040}, instantes(partidas));
+            Assertions.assertEquals(3000, partidas.get(0).getNumero());
+            Assertions.assertEquals(n - 1, historico.entre(10 * (n - 1), Long.MAX_VALUE, 10).get(0).getNumero());
+        }
+    }
+
+    @Test
+    void instanteAnteriorFicaIgualAoDaUltimaPartida() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            historico.registar(5000, 1000, "Ana", "Bruno", FormatoHistorico.EMPATE, 24);
+            historico.registar(4000, 1000, "Ana", "Bruno", FormatoHistorico.EMPATE, 24);
+            Assertions.assertArrayEquals(new long[] {5000, 5000}, instantes(historico.entre(0, 10_000, 10)));
+        }
+    }
+
+    @Test
+    void resultadoInvalidoERecusado() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> historico.registar(1000, 1000, "Ana", "Bruno", 9, 1));
+            Assertions.assertEquals(0, historico.getPartidas());
+        }
+    }
+
+    @Test
+    void reabreComOsMesmosDados() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+        }
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            verificarTorneio(historico);
+            Assertions.assertArrayEquals(new long[] {6000, 5000, 2000, 1000}, instantes(historico.recentes("Bruno", 10)));
+        }
+    }
+
+    @Test
+    void partidaEscritaAMeioEDescartada() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+        }
+        Path partidas = ficheiro(1, FormatoHistorico.PARTIDAS);
+        long tamanho = Files.size(partidas);
+        // O processo terminou a meio da sétima partida
+        Files.write(partidas, new byte[FormatoHistorico.TAMANHO_PARTIDA / 2], StandardOpenOption.APPEND);
+
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            Assertions.assertEquals(tamanho, Files.size(partidas));
+            verificarTorneio(historico);
+            historico.registar(7000, 1000, "Carla", "Bruno", FormatoHistorico.VITORIA_A, 8);
+            Assertions.assertEquals(7, historico.getPartidas());
+            Assertions.assertArrayEquals(new long[] {7000, 6000, 4000, 3000},
+                    instantes(historico.recentes("Carla", 10)));
+        }
+    }
+
+    @Test
+    void nomeEscritoAMeioEDescartado() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+        }
+        Path nomes = ficheiro(1, FormatoHistorico.NOMES);
+        long tamanho = Files.size(nomes);
+        // Comprimento de um nome de 5 bytes, mas só 2 deles escritos
+        Files.write(nomes, new byte[] {0, 5, 'D', 'a'}, StandardOpenOption.APPEND);
+
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            Assertions.assertEquals(tamanho, Files.size(nomes));
+            verificarTorneio(historico);
+            historico.registar(7000, 1000, "Daniel", "Ana", FormatoHistorico.VITORIA_A, 8);
+            Assertions.assertEquals(4, historico.getJogadores());
+        }
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            verificarBalanco(historico.estatisticas("Daniel"), 1, 1, 0, 0, 0);
+        }
+    }
+
+    @Test
+    void indiceDeJogadoresDesatualizadoEReconstruido() throws IOException {
+        Path indice = ficheiro(1, FormatoHistorico.JOGADORES);
+        Path copia = pasta.resolve("jogadores.idx.antigo");
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            historico.registar(1000, 60_000, "Ana", "Bruno", FormatoHistorico.VITORIA_A, 7);
+            historico.forcar();
+            Files.copy(indice, copia);
+        }
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            historico.registar(2000, 50_000, "Bruno", "Ana", FormatoHistorico.VITORIA_B, 9);
+            historico.registar(3000, 90_000, "Ana", "Carla", FormatoHistorico.EMPATE, 24);
+            historico.registar(4000, 10_000, "Carla", "Ana", FormatoHistorico.SAIU_A, 3);
+            historico.registar(5000, 20_000, "Ana", "Bruno", FormatoHistorico.SAIU_A, 5);
+            historico.registar(6000, 30_000, "Bruno", "Carla", FormatoHistorico.VITORIA_B, 11);
+        }
+        // O índice volta a ser o de quando só havia uma partida
+        Files.copy(copia, indice, StandardCopyOption.REPLACE_EXISTING);
+
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            verificarTorneio(historico);
+            Assertions.assertArrayEquals(new long[] {5000, 4000, 3000, 2000, 1000},
+                    instantes(historico.recentes("Ana", 10)));
+        }
+    }
+
+    @Test
+    void indicesEmFaltaSaoReconstruidos() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+        }
+        Files.delete(ficheiro(1, FormatoHistorico.JOGADORES));
+        Files.delete(ficheiro(1, FormatoHistorico.TEMPO));
+
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            verificarTorneio(historico);
+            Assertions.assertArrayEquals(new long[] {3000, 4000}, instantes(historico.entre(2500, 4500, 10)));
+        }
+    }
+
+    @Test
+    void ficheiroDeOutroFormatoERecusado() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+        }
+        try (FileChannel canal = FileChannel.open(ficheiro(1, FormatoHistorico.PARTIDAS), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap("XXXX".getBytes(StandardCharsets.US_ASCII)), 0);
+        }
+        Assertions.assertThrows(IOException.class, () -> HistoricoPartidas.abrir(pasta));
+    }
+
+    @Test
+    void compactarApagaAsPartidasAntigasERecontaOsBalancos() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+            historico.registar(7000, 1000, "Daniel", "Eva", FormatoHistorico.VITORIA_A, 7);
+
+            Assertions.assertEquals(3, historico.compactar(4000));
+            Assertions.assertEquals(4, historico.getPartidas());
+            verificarBalanco(historico.estatisticas("Ana"), 2, 1, 1, 0, 1);
+            verificarBalanco(historico.estatisticas("Bruno"), 2, 1, 1, 0, 0);
+            verificarBalanco(historico.estatisticas("Carla"), 2, 1, 1, 0, 1);
+            Assertions.assertArrayEquals(new long[] {5000, 4000}, instantes(historico.recentes("Ana", 10)));
+            Assertions.assertArrayEquals(new long[] {4000, 5000, 6000, 7000},
+                    instantes(historico.entre(Long.MIN_VALUE, Long.MAX_VALUE, 10)));
+
+            // Daniel e Eva só têm uma partida recente; uma compactação mais tarde deixa só essa
+            Assertions.assertEquals(3, historico.compactar(6500));
+            Assertions.assertEquals(2, historico.getJogadores());
+            verificarBalanco(historico.estatisticas("Ana"), 0, 0, 0, 0, 0);
+            verificarBalanco(historico.estatisticas("Daniel"), 1, 1, 0, 0, 0);
+        }
+        Assertions.assertEquals("3", new String(Files.readAllBytes(pasta.resolve(FormatoHistorico.ATUAL)),
+                StandardCharsets.US_ASCII).trim());
+        Assertions.assertFalse(Files.exists(pasta.resolve("g1")));
+        Assertions.assertFalse(Files.exists(pasta.resolve("g2")));
+
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            Assertions.assertEquals(1, historico.getPartidas());
+            Assertions.assertEquals("Daniel", historico.recentes("Eva", 1).get(0).getVencedor());
+            historico.registar(8000, 1000, "Eva", "Daniel", FormatoHistorico.VITORIA_A, 9);
+            verificarBalanco(historico.frenteAFrente("Daniel", "Eva"), 2, 1, 1, 0, 0);
+        }
+    }
+
+    @Test
+    void compactarSemApagarReescreveOsFicheiros() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+            Assertions.assertEquals(0, historico.compactar(Long.MIN_VALUE));
+            verificarTorneio(historico);
+        }
+        Assertions.assertTrue(Files.exists(ficheiro(2, FormatoHistorico.PARTIDAS)));
+    }
+
+    @Test
+    void compactacaoInterrompidaEDescartada() throws IOException {
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            torneio(historico);
+        }
+        // Uma compactação que terminou antes de trocar o ficheiro ATUAL
+        Files.createDirectories(pasta.resolve("g2"));
+        Files.write(ficheiro(2, FormatoHistorico.PARTIDAS), new byte[3]);
+
+        try (HistoricoPartidas historico = HistoricoPartidas.abrir(pasta)) {
+            verificarTorneio(historico);
+        }
+        Assertions.assertFalse(Files.exists(pasta.resolve("g2")));
+    }
+}
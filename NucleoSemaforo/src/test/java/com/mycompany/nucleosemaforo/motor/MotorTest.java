@@ -0,0 +1,162 @@
+package com.mycompany.nucleosemaforo.motor;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Random;
+
+/**
+ * Testes do {@link Motor}: vitórias e defesas imediatas, pontuação igual à de
+ * um negamax sem cortes nem tabela, e cancelamento antes de a pesquisa começar.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class MotorTest {
+
+    /** Tabuleiro a partir de uma linha de texto por linha: '.', 'V', 'A' ou 'R' */
+    private static long tabuleiro(String... linhas) {
+        long t = Tabuleiro.INICIAL;
+        for (int i = 0; i < linhas.length; i++)
+            for (int j = 0; j < linhas[i].length(); j++)
+                t = Tabuleiro.colocar(t, i, j, ".VAR".indexOf(linhas[i].charAt(j)));
+        return t;
+    }
+
+    /**
+     * Negamax simples, sem cortes nem tabela, com as pontuações do motor: uma
+     * vitória ao fim de {@code n} jogadas vale {@code VITORIA - n}, uma
+     * vitória imediata é sempre vista (mesmo sem profundidade) e o resto das
+     * posições não decididas vale 0.
+     */
+    private static int negamax(long tabuleiro, int profundidade) {
+        int legais = Regras.jogadasLegais(tabuleiro);
+        if (legais == 0)
+            return Tabuleiro.vitoria(tabuleiro) ? -(Motor.VITORIA - Regras.numeroJogadas(tabuleiro)) : 0;
+        for (int m = legais; m != 0; m &= m - 1)
+            if (Tabuleiro.vitoria(Regras.jogar(tabuleiro, Integer.numberOfTrailingZeros(m))))
+                return Motor.VITORIA - (Regras.numeroJogadas(tabuleiro) + 1);
+        if (profundidade == 0) return 0;
+        int melhor = -Motor.VITORIA - 1;
+        for (int m = legais; m != 0; m &= m - 1)
+            melhor = Math.max(melhor, -negamax(Regras.jogar(tabuleiro, Integer.numberOfTrailingZeros(m)), profundidade - 1));
+        return melhor;
+    }
+
+    /** @return true se alguma jogada ganhar de imediato */
+    private static boolean vitoriaImediata(long tabuleiro) {
+        for (int m = Regras.jogadasLegais(tabuleiro); m != 0; m &= m - 1)
+            if (Tabuleiro.vitoria(Regras.jogar(tabuleiro, Integer.numberOfTrailingZeros(m)))) return true;
+        return false;
+    }
+
+    /** Posição ao fim de 8 a 15 jogadas aleatórias, ou antes se o jogo acabar */
+    private static long posicao(Random aleatorio) {
+        long t = Tabuleiro.INICIAL;
+        int jogadas = 8 + aleatorio.nextInt(8);
+        for (int n = 0; n < jogadas && Regras.jogadasLegais(t) != 0; n++) {
+            int legais = Regras.jogadasLegais(t);
+            int k = aleatorio.nextInt(Integer.bitCount(legais));
+            for (int i = 0; i < k; i++) legais &= legais - 1;
+            t = Regras.jogar(t, Integer.numberOfTrailingZeros(legais));
+        }
+        return t;
+    }
+
+    @Test
+    void encontraAVitoriaNumaJogada() {
+        // Duas amarelas e uma verde na primeira linha: subir a verde ganha
+        long t = tabuleiro("AAV.", "V...", "....");
+        ResultadoPesquisa r = new Motor().pesquisar(t, 1000);
+        Assertions.assertEquals(2, r.getCelula());
+        Assertions.assertEquals(Motor.VITORIA - (Regras.numeroJogadas(t) + 1), r.getPontuacao());
+        Assertions.assertTrue(r.isDecidido());
+    }
+
+    @Test
+    void evitaDarUmaVitoriaAoAdversario() {
+        // As linhas são de cores, não de jogadores: uma jogada que deixe duas
+        // peças iguais com a terceira à mão perde logo. Procura posições em que
+        // algumas jogadas perdem assim e outras não.
+        Random aleatorio = new Random(32);
+        int verificadas = 0;
+        while (verificadas < 100) {
+            long t = posicao(aleatorio);
+            if (Regras.jogadasLegais(t) == 0 || vitoriaImediata(t)) continue;
+            int perdem = 0, seguras = 0;
+            for (int m = Regras.jogadasLegais(t); m != 0; m &= m - 1) {
+                if (vitoriaImediata(Regras.jogar(t, Integer.numberOfTrailingZeros(m)))) perdem++;
+                else seguras++;
+            }
+            if (perdem == 0 || seguras == 0) continue;
+            ResultadoPesquisa r = new Motor(12).pesquisar(t, 2, 10_000);
+            Assertions.assertFalse(vitoriaImediata(Regras.jogar(t, r.getCelula())),
+                    "a jogada " + r.getCelula() + " deixa uma vitória ao adversário");
+            verificadas++;
+        }
+    }
+
+    @Test
+    void pontuacaoIgualAoNegamaxSimples() {
+        Random aleatorio = new Random(31);
+        for (int n = 0; n < 300; n++) {
+            long t = posicao(aleatorio);
+            for (int profundidade = 1; profundidade <= 3; profundidade++) {
+                int esperado = negamax(t, profundidade);
+                // Um motor novo por pesquisa: a profundidade fixa não deve herdar entradas mais fundas
+                ResultadoPesquisa r = new Motor(12).pesquisar(t, profundidade, 10_000);
+                Assertions.assertEquals(esperado, r.getPontuacao(), "profundidade " + profundidade);
+                if (r.getCelula() >= 0) Assertions.assertTrue(Regras.jogadaLegal(t, r.getCelula()));
+            }
+        }
+    }
+
+    @Test
+    void semJogadasDevolveMenosUm() {
+        long ganho = tabuleiro("VVV.", "....", "....");
+        ResultadoPesquisa r = new Motor().pesquisar(ganho, 1000);
+        Assertions.assertEquals(-1, r.getCelula());
+        Assertions.assertEquals(-(Motor.VITORIA - Regras.numeroJogadas(ganho)), r.getPontuacao());
+    }
+
+    @Test
+    @Timeout(5)
+    void cancelarAntesDeComecarTerminaLogo() {
+        Motor motor = new Motor();
+        int pedido = motor.getGeracao();
+        motor.cancelar();
+        // O tabuleiro vazio levaria muito mais do que o tempo do teste a resolver
+        ResultadoPesquisa r = motor.pesquisar(Tabuleiro.INICIAL, 24, 60_000, () -> false, pedido);
+        Assertions.assertTrue(motor.isInterrompida());
+        Assertions.assertEquals(0, r.getProfundidade(), "nenhuma iteração completa");
+        Assertions.assertTrue(Regras.jogadaLegal(Tabuleiro.INICIAL, r.getCelula()), "devolve uma jogada legal");
+
+        // Uma pesquisa pedida depois do cancelamento não é afetada
+        ResultadoPesquisa seguinte = motor.pesquisar(Tabuleiro.INICIAL, 2, 60_000);
+        Assertions.assertFalse(motor.isInterrompida());
+        Assertions.assertEquals(2, seguinte.getProfundidade());
+    }
+
+    @Test
+    @Timeout(5)
+    void cancelarDuranteAPesquisa() throws InterruptedException {
+        Motor motor = new Motor();
+        Thread cancelamento = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            motor.cancelar();
+        });
+        cancelamento.start();
+        ResultadoPesquisa r = motor.pesquisar(Tabuleiro.INICIAL, 60_000);
+        cancelamento.join();
+        Assertions.assertTrue(motor.isInterrompida());
+        Assertions.assertTrue(r.getTempoMs() < 4000, r.toString());
+    }
+}
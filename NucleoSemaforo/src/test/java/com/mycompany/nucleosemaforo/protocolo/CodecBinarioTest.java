@@ -0,0 +1,232 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testes do {@link CodecBinario}: ida e volta de cada mensagem, cabeçalhos
+ * numerados e de outro jogo, tramas incompletas e tramas inválidas.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class CodecBinarioTest {
+
+    private final CodecBinario codec = new CodecBinario();
+
+    /** Uma mensagem de cada tipo que existe em binário */
+    private static List<Mensagem> mensagens() {
+        return Arrays.asList(
+                new Mensagem().jogada(2, 3, Tabuleiro.AMARELO),
+                new Mensagem().fim("Ana"),
+                new Mensagem().fim("João Gonçalves"),
+                new Mensagem().fim(""),
+                new Mensagem().novoJogo(true),
+                new Mensagem().novoJogo(false),
+                new Mensagem().sinal(Mensagem.SAIU),
+                new Mensagem().sinal(Mensagem.COMECAR),
+                new Mensagem().sinal(Mensagem.ESPERAR),
+                new Mensagem().sinal(Mensagem.PRONTO),
+                new Mensagem().sinal(Mensagem.RECOMECAR));
+    }
+
+    private ByteBuffer codificar(Mensagem m) {
+        ByteBuffer b = ByteBuffer.allocate(512);
+        codec.codificar(m, b);
+        return b.flip();
+    }
+
+    private Mensagem descodificar(ByteBuffer b) throws ProtocoloException {
+        Mensagem lida = new Mensagem();
+        Assertions.assertTrue(codec.descodificar(b, lida), "trama completa");
+        return lida;
+    }
+
+    private void idaEVolta(Mensagem m) throws ProtocoloException {
+        ByteBuffer b = codificar(m);
+        Assertions.assertNotEquals(0, b.get(0), "o primeiro byte distingue o binário do texto");
+        Mensagem lida = descodificar(b);
+        Assertions.assertEquals(m.toString(), lida.toString());
+        Assertions.assertFalse(b.hasRemaining(), "a trama foi lida toda: " + m);
+    }
+
+    @Test
+    void idaEVoltaDeCadaMensagem() throws ProtocoloException {
+        for (Mensagem m : mensagens()) idaEVolta(m);
+    }
+
+    @Test
+    void idaEVoltaDeTodasAsJogadas() throws ProtocoloException {
+        for (int linha = 0; linha < 8; linha++)
+            for (int coluna = 0; coluna < 8; coluna++)
+                for (int cor = Tabuleiro.VERDE; cor <= Tabuleiro.VERMELHO; cor++)
+                    idaEVolta(new Mensagem().jogada(linha, coluna, cor));
+    }
+
+    @Test
+    void jogadaOcupaDoisBytes() {
+        ByteBuffer b = codificar(new Mensagem().jogada(1, 2, Tabuleiro.VERDE));
+        Assertions.assertEquals(2, b.remaining());
+        Assertions.assertEquals(Mensagem.JOGADA, b.get(0));
+        Assertions.assertEquals(1 << 5 | 2 << 2 | Tabuleiro.VERDE, b.get(1));
+    }
+
+    @Test
+    void idaEVoltaNumeradaEDeOutroJogo() throws ProtocoloException {
+        int[] numeros = {1, 127, 128, 300, 16_383, 16_384, Integer.MAX_VALUE};
+        for (Mensagem m : mensagens()) {
+            for (int seq : numeros) idaEVolta(m.numerar(seq).paraJogo(0));
+            for (int jogo : numeros) idaEVolta(m.numerar(0).paraJogo(jogo));
+            for (int seq : numeros)
+                for (int jogo : numeros) idaEVolta(m.numerar(seq).paraJogo(jogo));
+        }
+    }
+
+    @Test
+    void cabecalhoComOsBitsDeNumeracao() {
+        ByteBuffer b = codificar(new Mensagem().sinal(Mensagem.PRONTO).numerar(5));
+        Assertions.assertEquals(2, b.remaining());
+        Assertions.assertEquals((byte) (0x80 | Mensagem.PRONTO), b.get(0));
+        Assertions.assertEquals(5, b.get(1));
+
+        b = codificar(new Mensagem().sinal(Mensagem.PRONTO).paraJogo(3));
+        Assertions.assertEquals(2, b.remaining());
+        Assertions.assertEquals((byte) (0x40 | Mensagem.PRONTO), b.get(0));
+        Assertions.assertEquals(3, b.get(1));
+
+        // 128 = 0b1_0000000: o grupo baixo com o bit de continuação, depois 1
+        b = codificar(new Mensagem().jogada(0, 0, Tabuleiro.VERDE).numerar(128).paraJogo(1));
+        Assertions.assertEquals(5, b.remaining());
+        Assertions.assertEquals((byte) (0xC0 | Mensagem.JOGADA), b.get(0));
+        Assertions.assertEquals((byte) 0x80, b.get(1));
+        Assertions.assertEquals(1, b.get(2));
+        Assertions.assertEquals(1, b.get(3));
+    }
+
+    @Test
+    void mensagemReutilizadaPerdeONumeroAnterior() throws ProtocoloException {
+        ByteBuffer b = ByteBuffer.allocate(64);
+        codec.codificar(new Mensagem().sinal(Mensagem.SAIU).numerar(9).paraJogo(2), b);
+        codec.codificar(new Mensagem().sinal(Mensagem.SAIU), b);
+        b.flip();
+        Mensagem m = new Mensagem();
+        Assertions.assertTrue(codec.descodificar(b, m));
+        Assertions.assertEquals(9, m.getSeq());
+        Assertions.assertEquals(2, m.getJogo());
+        Assertions.assertTrue(codec.descodificar(b, m));
+        Assertions.assertEquals(0, m.getSeq());
+        Assertions.assertEquals(0, m.getJogo());
+    }
+
+    @Test
+    void variasTramasSeguidas() throws ProtocoloException {
+        ByteBuffer b = ByteBuffer.allocate(1024);
+        List<Mensagem> mensagens = mensagens();
+        for (int i = 0; i < mensagens.size(); i++) codec.codificar(mensagens.get(i).numerar(i + 1), b);
+        b.flip();
+        for (Mensagem m : mensagens) Assertions.assertEquals(m.toString(), descodificar(b).toString());
+        Assertions.assertFalse(codec.descodificar(b, new Mensagem()));
+    }
+
+    @Test
+    void tramaIncompletaNaoAvancaOBuffer() throws ProtocoloException {
+        for (Mensagem m : mensagens()) {
+            ByteBuffer completa = codificar(m.numerar(300).paraJogo(20_000));
+            for (int n = 0; n < completa.remaining(); n++) {
+                ByteBuffer parte = ByteBuffer.allocate(n + 1);
+                parte.put((byte) 0x55).put(completa.duplicate().limit(n)).flip().position(1);
+                Assertions.assertFalse(codec.descodificar(parte, new Mensagem()), n + " bytes de " + m);
+                Assertions.assertEquals(1, parte.position(), "posição depois de " + n + " bytes de " + m);
+            }
+        }
+    }
+
+    @Test
+    void nomeNoLimite() throws ProtocoloException {
+        char[] nome = new char[CodecBinario.MAXIMO_NOME];
+        Arrays.fill(nome, 'a');
+        idaEVolta(new Mensagem().fim(new String(nome)));
+
+        // Cada "ç" ocupa 2 bytes: o limite é em bytes, não em carateres
+        Arrays.fill(nome, 0, 128, 'ç');
+        Mensagem comprido = new Mensagem().fim(new String(nome, 0, 128));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codificar(comprido));
+    }
+
+    @Test
+    void nomeDemasiadoComprido() {
+        char[] nome = new char[CodecBinario.MAXIMO_NOME + 1];
+        Arrays.fill(nome, 'a');
+        Mensagem m = new Mensagem().fim(new String(nome));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codificar(m));
+    }
+
+    @Test
+    void limitarNome() throws ProtocoloException {
+        Assertions.assertNull(CodecBinario.limitarNome(null));
+        String curto = "Bartolomeu";
+        Assertions.assertSame(curto, CodecBinario.limitarNome(curto));
+
+        char[] nome = new char[300];
+        Arrays.fill(nome, 'a');
+        String limitado = CodecBinario.limitarNome(new String(nome));
+        Assertions.assertEquals(CodecBinario.MAXIMO_NOME, limitado.length());
+        idaEVolta(new Mensagem().fim(limitado));
+
+        // 127 "ç" ocupam 254 bytes: o seguinte já não cabe
+        Arrays.fill(nome, 'ç');
+        Assertions.assertEquals(127, CodecBinario.limitarNome(new String(nome)).length());
+
+        // Um emoji são dois substitutos de 3 bytes: não fica cortado a meio
+        String emojis = "a".repeat(CodecBinario.MAXIMO_NOME - 4) + "😀";
+        Assertions.assertEquals(CodecBinario.MAXIMO_NOME - 4, CodecBinario.limitarNome(emojis).length());
+        idaEVolta(new Mensagem().fim(CodecBinario.limitarNome(emojis)));
+    }
+
+    @Test
+    void mensagensSoDeTexto() {
+        List<Mensagem> soTexto = Arrays.asList(
+                new Mensagem().ola("Ana", Protocolo.BINARIO),
+                new Mensagem().capacidades(Protocolo.BINARIO),
+                new Mensagem().sessao(1),
+                new Mensagem().ping(1),
+                new Mensagem().pong(1));
+        for (Mensagem m : soTexto)
+            Assertions.assertThrows(IllegalArgumentException.class, () -> codificar(m), m.toString());
+    }
+
+    @Test
+    void tramaMaiorQueOBufferDeDestino() {
+        ByteBuffer b = ByteBuffer.allocate(3);
+        Assertions.assertThrows(BufferOverflowException.class,
+                () -> codec.codificar(new Mensagem().fim("Ana"), b));
+    }
+
+    @Test
+    void codigoDesconhecido() {
+        ByteBuffer b = ByteBuffer.wrap(new byte[]{0x3F, 0});
+        Assertions.assertThrows(ProtocoloException.class, () -> codec.descodificar(b, new Mensagem()));
+    }
+
+    @Test
+    void numeroDemasiadoComprido() {
+        // Cinco grupos de 7 bits chegam para um int; o sexto é inválido
+        byte[] trama = {(byte) (0x80 | Mensagem.PRONTO), -1, -1, -1, -1, -1, -1, 1};
+        Assertions.assertThrows(ProtocoloException.class,
+                () -> codec.descodificar(ByteBuffer.wrap(trama), new Mensagem()));
+    }
+
+    @Test
+    void nomeComUtf8Invalido() {
+        byte[] trama = {Mensagem.FIM, 2, (byte) 0xFF, 'a'};
+        Assertions.assertThrows(ProtocoloException.class,
+                () -> codec.descodificar(ByteBuffer.wrap(trama), new Mensagem()));
+    }
+}
@@ -0,0 +1,280 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testes do {@link CodecTexto}: ida e volta de cada mensagem, compatibilidade
+ * com {@code writeUTF}/{@code readUTF}, prefixos de sequência e de jogo,
+ * tramas incompletas e tramas inválidas.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class CodecTextoTest {
+
+    private final CodecTexto codec = new CodecTexto();
+
+    /** Uma mensagem de cada tipo */
+    private static List<Mensagem> mensagens() {
+        return Arrays.asList(
+                new Mensagem().jogada(2, 3, Tabuleiro.AMARELO),
+                new Mensagem().jogada(0, 0, Tabuleiro.VERDE),
+                new Mensagem().jogada(7, 7, Tabuleiro.VERMELHO),
+                new Mensagem().fim("Ana"),
+                new Mensagem().fim("João Gonçalves"),
+                new Mensagem().novoJogo(true),
+                new Mensagem().novoJogo(false),
+                new Mensagem().sinal(Mensagem.SAIU),
+                new Mensagem().sinal(Mensagem.COMECAR),
+                new Mensagem().sinal(Mensagem.ESPERAR),
+                new Mensagem().sinal(Mensagem.PRONTO),
+                new Mensagem().sinal(Mensagem.RECOMECAR),
+                new Mensagem().ola("Ana", 0),
+                new Mensagem().ola("Bruno", Protocolo.SUPORTADAS),
+                new Mensagem().capacidades(Protocolo.BINARIO | Protocolo.SEQUENCIA),
+                new Mensagem().sessao(0x8000_0000_0000_0001L),
+                new Mensagem().retomar(0xCAFE_BABEL, 42),
+                new Mensagem().retomada(17),
+                new Mensagem().estado(0x1234_5678_9ABCL, true),
+                new Mensagem().estado(0, false),
+                new Mensagem().assistir(Mensagem.QUALQUER_MESA),
+                new Mensagem().assistir(12),
+                new Mensagem().mesa(12),
+                new Mensagem().geometria(Geometria.PADRAO),
+                new Mensagem().geometria(new Geometria(5, 6, 4, 10)),
+                new Mensagem().ping(-1),
+                new Mensagem().pong(123_456_789L),
+                new Mensagem().desconhecida("olá, mundo"));
+    }
+
+    private ByteBuffer codificar(Mensagem m) {
+        ByteBuffer b = ByteBuffer.allocate(1024);
+        codec.codificar(m, b);
+        return b.flip();
+    }
+
+    private Mensagem descodificar(ByteBuffer b) throws ProtocoloException {
+        Mensagem lida = new Mensagem();
+        Assertions.assertTrue(codec.descodificar(b, lida), "trama completa");
+        return lida;
+    }
+
+    private void idaEVolta(Mensagem m) throws ProtocoloException {
+        ByteBuffer b = codificar(m);
+        Mensagem lida = descodificar(b);
+        Assertions.assertEquals(m.toString(), lida.toString());
+        Assertions.assertFalse(b.hasRemaining(), "a trama foi lida toda: " + m);
+    }
+
+    /** Trama igual à de {@code DataOutputStream.writeUTF} */
+    private static ByteBuffer escreverUTF(String texto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeUTF(texto);
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    /** Texto lido por {@code DataInputStream.readUTF} */
+    private static String lerUTF(ByteBuffer trama) throws IOException {
+        byte[] bytes = new byte[trama.remaining()];
+        trama.duplicate().get(bytes);
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(bytes));
+        String texto = entrada.readUTF();
+        Assertions.assertEquals(0, entrada.available(), "readUTF leu a trama toda");
+        return texto;
+    }
+
+    @Test
+    void idaEVoltaDeCadaMensagem() throws ProtocoloException {
+        for (Mensagem m : mensagens()) idaEVolta(m);
+    }
+
+    @Test
+    void idaEVoltaNumeradaEDeOutroJogo() throws ProtocoloException {
+        int[] numeros = {0, 1, 9, 10, 300, Integer.MAX_VALUE};
+        for (Mensagem m : mensagens())
+            for (int seq : numeros)
+                for (int jogo : numeros) idaEVolta(m.numerar(seq).paraJogo(jogo));
+    }
+
+    @Test
+    void compativelComWriteUTF() throws IOException {
+        Assertions.assertEquals("JOGADA:1:2:verde", lerUTF(codificar(new Mensagem().jogada(1, 2, Tabuleiro.VERDE))));
+        Assertions.assertEquals("FIM:João", lerUTF(codificar(new Mensagem().fim("João"))));
+        Assertions.assertEquals("NOVO_JOGO:COMEÇAR", lerUTF(codificar(new Mensagem().novoJogo(true))));
+        Assertions.assertEquals("NOVO_JOGO:ESPERAR", lerUTF(codificar(new Mensagem().novoJogo(false))));
+        Assertions.assertEquals("RECOMEÇAR", lerUTF(codificar(new Mensagem().sinal(Mensagem.RECOMECAR))));
+        Assertions.assertEquals("Jogador Ana conectado!", lerUTF(codificar(new Mensagem().ola("Ana", 0))));
+        Assertions.assertEquals("Jogador Ana conectado! [BIN1,SEQ1]",
+                lerUTF(codificar(new Mensagem().ola("Ana", Protocolo.BINARIO | Protocolo.SEQUENCIA))));
+        Assertions.assertEquals("RETOMAR:cafe:3", lerUTF(codificar(new Mensagem().retomar(0xCAFE, 3))));
+        Assertions.assertEquals("GEOMETRIA:5x6:4:10",
+                lerUTF(codificar(new Mensagem().geometria(new Geometria(5, 6, 4, 10)))));
+    }
+
+    @Test
+    void prefixosDeSequenciaEDeJogo() throws IOException {
+        Mensagem m = new Mensagem().jogada(1, 2, Tabuleiro.VERDE);
+        Assertions.assertEquals("17#JOGADA:1:2:verde", lerUTF(codificar(m.numerar(17))));
+        Assertions.assertEquals("3@JOGADA:1:2:verde", lerUTF(codificar(m.numerar(0).paraJogo(3))));
+        Assertions.assertEquals("17#3@JOGADA:1:2:verde", lerUTF(codificar(m.numerar(17).paraJogo(3))));
+    }
+
+    @Test
+    void lidoDeWriteUTF() throws IOException {
+        Mensagem m = descodificar(escreverUTF("17#3@JOGADA:1:2:vermelho"));
+        Assertions.assertEquals(Mensagem.JOGADA, m.getTipo());
+        Assertions.assertEquals(1, m.getLinha());
+        Assertions.assertEquals(2, m.getColuna());
+        Assertions.assertEquals(Tabuleiro.VERMELHO, m.getCor());
+        Assertions.assertEquals(17, m.getSeq());
+        Assertions.assertEquals(3, m.getJogo());
+
+        m = descodificar(escreverUTF("4@SAIU"));
+        Assertions.assertEquals(Mensagem.SAIU, m.getTipo());
+        Assertions.assertEquals(0, m.getSeq());
+        Assertions.assertEquals(4, m.getJogo());
+
+        m = descodificar(escreverUTF("Jogador Ana conectado! [BIN1,XPTO,ESP1]"));
+        Assertions.assertEquals(Mensagem.OLA, m.getTipo());
+        Assertions.assertEquals("Ana", m.getTexto());
+        Assertions.assertEquals(Protocolo.BINARIO | Protocolo.ESPECTADOR, m.getCapacidades());
+    }
+
+    @Test
+    void algarismosSemSeparadorNaoSaoPrefixo() throws IOException {
+        // Sem '#' ou '@' a seguir, os algarismos são texto livre
+        Mensagem m = descodificar(escreverUTF("123"));
+        Assertions.assertEquals(Mensagem.DESCONHECIDA, m.getTipo());
+        Assertions.assertEquals("123", m.getTexto());
+        Assertions.assertEquals(0, m.getSeq());
+
+        m = descodificar(escreverUTF("12#"));
+        Assertions.assertEquals(Mensagem.DESCONHECIDA, m.getTipo());
+        Assertions.assertEquals("", m.getTexto());
+        Assertions.assertEquals(12, m.getSeq());
+    }
+
+    @Test
+    void mensagemReutilizadaPerdeONumeroAnterior() throws IOException {
+        Mensagem m = new Mensagem();
+        Assertions.assertTrue(codec.descodificar(escreverUTF("9#2@PRONTO"), m));
+        Assertions.assertEquals(9, m.getSeq());
+        Assertions.assertEquals(2, m.getJogo());
+        Assertions.assertTrue(codec.descodificar(escreverUTF("PRONTO"), m));
+        Assertions.assertEquals(0, m.getSeq());
+        Assertions.assertEquals(0, m.getJogo());
+    }
+
+    @Test
+    void variasTramasSeguidas() throws ProtocoloException {
+        ByteBuffer b = ByteBuffer.allocate(4096);
+        List<Mensagem> mensagens = mensagens();
+        for (int i = 0; i < mensagens.size(); i++) codec.codificar(mensagens.get(i).numerar(i), b);
+        b.flip();
+        for (Mensagem m : mensagens) Assertions.assertEquals(m.toString(), descodificar(b).toString());
+        Assertions.assertFalse(codec.descodificar(b, new Mensagem()));
+    }
+
+    @Test
+    void tramaIncompletaNaoAvancaOBuffer() throws ProtocoloException {
+        for (Mensagem m : mensagens()) {
+            ByteBuffer completa = codificar(m.numerar(300).paraJogo(7));
+            for (int n = 0; n < completa.remaining(); n++) {
+                ByteBuffer parte = ByteBuffer.allocate(n + 1);
+                parte.put((byte) 0x55).put(completa.duplicate().limit(n)).flip().position(1);
+                Assertions.assertFalse(codec.descodificar(parte, new Mensagem()), n + " bytes de " + m);
+                Assertions.assertEquals(1, parte.position(), "posição depois de " + n + " bytes de " + m);
+            }
+        }
+    }
+
+    @Test
+    void nomeComprido() throws ProtocoloException {
+        // Em texto o nome só está limitado pelo tamanho da trama
+        char[] nome = new char[400];
+        Arrays.fill(nome, 'ç');
+        idaEVolta(new Mensagem().fim(new String(nome)));
+    }
+
+    @Test
+    void tramaNoLimiteDoComprimento() throws ProtocoloException {
+        char[] nome = new char[CodecTexto.MAXIMO_TRAMA - "FIM:".length()];
+        Arrays.fill(nome, 'a');
+        Mensagem m = new Mensagem().fim(new String(nome));
+        ByteBuffer b = ByteBuffer.allocate(2 * CodecTexto.MAXIMO_TRAMA);
+        codec.codificar(m, b);
+        Assertions.assertEquals(2 + CodecTexto.MAXIMO_TRAMA, b.position());
+        Assertions.assertEquals(m.toString(), descodificar(b.flip()).toString());
+    }
+
+    @Test
+    void tramaDemasiadoComprida() {
+        // O comprimento não cabe em 2 bytes: writeUTF também a recusa
+        char[] nome = new char[CodecTexto.MAXIMO_TRAMA];
+        Arrays.fill(nome, 'a');
+        Mensagem m = new Mensagem().fim(new String(nome));
+        ByteBuffer b = ByteBuffer.allocate(2 * CodecTexto.MAXIMO_TRAMA);
+        b.put((byte) 7);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.codificar(m, b));
+        Assertions.assertEquals(1, b.position(), "a trama recusada não fica no buffer");
+    }
+
+    @Test
+    void tramaMaiorQueOBufferDeDestino() {
+        ByteBuffer b = ByteBuffer.allocate(8);
+        Assertions.assertThrows(BufferOverflowException.class,
+                () -> codec.codificar(new Mensagem().fim("Bartolomeu"), b));
+    }
+
+    @Test
+    void comprimentoMaiorQueOsDados() {
+        // Diz ter 200 bytes, mas só chegaram 4
+        ByteBuffer b = ByteBuffer.wrap(new byte[]{0, (byte) 200, 'F', 'I', 'M', ':'});
+        Assertions.assertDoesNotThrow(() -> Assertions.assertFalse(codec.descodificar(b, new Mensagem())));
+        Assertions.assertEquals(0, b.position());
+    }
+
+    @Test
+    void tramasInvalidas() {
+        String[] invalidas = {
+            "JOGADA:",
+            "JOGADA:1",
+            "JOGADA::2:verde",
+            "JOGADA:1:2:roxo",
+            "JOGADA:a:2:verde",
+            "JOGADA:4294967295:5:verde",
+            "JOGADA:1:12345678901:verde",
+            "RETOMAR:cafe",
+            "RETOMAR:xyz:1",
+            "RETOMADA:dez",
+            "ESTADO:12",
+            "SESSAO:",
+            "MESA:1.5",
+            "GEOMETRIA:9x9",
+            "PING:-",
+        };
+        for (String texto : invalidas)
+            Assertions.assertThrows(ProtocoloException.class,
+                    () -> codec.descodificar(escreverUTF(texto), new Mensagem()), texto);
+    }
+
+    @Test
+    void textoUtf8Invalido() {
+        ByteBuffer b = ByteBuffer.wrap(new byte[]{0, 6, 'F', 'I', 'M', ':', (byte) 0xFF, 'a'});
+        Assertions.assertThrows(ProtocoloException.class, () -> codec.descodificar(b, new Mensagem()));
+    }
+}
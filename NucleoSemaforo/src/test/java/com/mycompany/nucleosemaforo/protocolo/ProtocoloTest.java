@@ -0,0 +1,119 @@
+package com.mycompany.nucleosemaforo.protocolo;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Testes do {@link Protocolo}: escolha do formato de cada trama pelas
+ * capacidades negociadas e pelo primeiro byte.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class ProtocoloTest {
+
+    @Test
+    void semBinarioEscreveTexto() {
+        Protocolo protocolo = new Protocolo();
+        ByteBuffer b = ByteBuffer.allocate(64);
+        protocolo.codificar(new Mensagem().jogada(1, 2, Tabuleiro.VERDE), b);
+        Assertions.assertEquals(0, b.get(0), "trama de texto curta");
+        Assertions.assertEquals("JOGADA:1:2:verde".length() + 2, b.position());
+    }
+
+    @Test
+    void comBinarioEscreveBinarioSoNasMensagensDoJogo() {
+        Protocolo protocolo = new Protocolo();
+        protocolo.ativar(Protocolo.BINARIO);
+        ByteBuffer b = ByteBuffer.allocate(64);
+        protocolo.codificar(new Mensagem().jogada(1, 2, Tabuleiro.VERDE), b);
+        Assertions.assertEquals(Mensagem.JOGADA, b.get(0));
+        Assertions.assertEquals(2, b.position());
+
+        // As mensagens de saudação e de sessão continuam em texto
+        b.clear();
+        protocolo.codificar(new Mensagem().sessao(0xABC), b);
+        Assertions.assertEquals(0, b.get(0));
+        b.clear();
+        protocolo.codificar(new Mensagem().ping(1), b);
+        Assertions.assertEquals(0, b.get(0));
+    }
+
+    @Test
+    void comBinarioAceitaTramasDosDoisFormatos() throws ProtocoloException {
+        CodecTexto texto = new CodecTexto();
+        CodecBinario binario = new CodecBinario();
+        ByteBuffer b = ByteBuffer.allocate(256);
+        texto.codificar(new Mensagem().capacidades(Protocolo.BINARIO), b);
+        binario.codificar(new Mensagem().jogada(1, 2, Tabuleiro.VERDE).numerar(5), b);
+        texto.codificar(new Mensagem().fim("Ana").numerar(6).paraJogo(2), b);
+        binario.codificar(new Mensagem().fim("Bruno").numerar(7).paraJogo(2), b);
+        texto.codificar(new Mensagem().pong(99), b);
+        b.flip();
+
+        Protocolo protocolo = new Protocolo();
+        protocolo.ativar(Protocolo.BINARIO);
+        Mensagem m = new Mensagem();
+        Assertions.assertTrue(protocolo.descodificar(b, m));
+        Assertions.assertEquals("CAPACIDADES BIN1", m.toString());
+        Assertions.assertTrue(protocolo.descodificar(b, m));
+        Assertions.assertEquals("#5 JOGADA 1:2:1", m.toString());
+        Assertions.assertTrue(protocolo.descodificar(b, m));
+        Assertions.assertEquals("#6 @2 FIM Ana", m.toString());
+        Assertions.assertTrue(protocolo.descodificar(b, m));
+        Assertions.assertEquals("#7 @2 FIM Bruno", m.toString());
+        Assertions.assertTrue(protocolo.descodificar(b, m));
+        Assertions.assertEquals("PONG 63", m.toString());
+        Assertions.assertFalse(protocolo.descodificar(b, m));
+    }
+
+    @Test
+    void comBinarioTramasDeTextoNaoPassamDe255Bytes() throws ProtocoloException {
+        Protocolo protocolo = new Protocolo();
+        protocolo.ativar(Protocolo.BINARIO);
+        ByteBuffer b = ByteBuffer.allocate(1024);
+        Mensagem noLimite = new Mensagem().ola("a".repeat(Protocolo.MAXIMO_TEXTO_BINARIO - "Jogador  conectado!".length()), 0);
+        protocolo.codificar(noLimite, b);
+        Assertions.assertEquals(0, b.get(0), "o primeiro byte continua a ser 0");
+        Assertions.assertEquals(Protocolo.MAXIMO_TEXTO_BINARIO + 2, b.position());
+
+        // Com mais um byte, o outro lado leria a trama como binária: não é escrita
+        Mensagem comprida = new Mensagem().ola("a".repeat(Protocolo.MAXIMO_TEXTO_BINARIO + 1 - "Jogador  conectado!".length()), 0);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> protocolo.codificar(comprida, b));
+        Assertions.assertEquals(Protocolo.MAXIMO_TEXTO_BINARIO + 2, b.position(), "o buffer fica como estava");
+
+        b.flip();
+        Mensagem m = new Mensagem();
+        Assertions.assertTrue(protocolo.descodificar(b, m));
+        Assertions.assertEquals(noLimite.toString(), m.toString());
+
+        // Sem binário, a mesma trama é só texto
+        b.clear();
+        new Protocolo().codificar(comprida, b);
+        Assertions.assertEquals(Protocolo.MAXIMO_TEXTO_BINARIO + 3, b.position());
+    }
+
+    @Test
+    void semBinarioLeTudoComoTexto() throws ProtocoloException {
+        // Um servidor antigo não ativa o binário: o código 1 é lido como o início
+        // do comprimento de uma trama de texto que ainda não chegou
+        ByteBuffer b = ByteBuffer.allocate(16);
+        new CodecBinario().codificar(new Mensagem().jogada(1, 2, Tabuleiro.VERDE), b);
+        b.flip();
+        Assertions.assertFalse(new Protocolo().descodificar(b, new Mensagem()));
+        Assertions.assertEquals(0, b.position());
+    }
+
+    @Test
+    void capacidadesDesconhecidasSaoIgnoradas() {
+        Protocolo protocolo = new Protocolo();
+        protocolo.ativar(-1);
+        Assertions.assertEquals(Protocolo.SUPORTADAS, protocolo.getCapacidades());
+        Assertions.assertEquals(Protocolo.BINARIO | Protocolo.ECO, Protocolo.lerCapacidades("BIN1, XPTO,ECO1"));
+        Assertions.assertEquals("BIN1,ECO1", Protocolo.nomesCapacidades(Protocolo.BINARIO | Protocolo.ECO));
+    }
+}
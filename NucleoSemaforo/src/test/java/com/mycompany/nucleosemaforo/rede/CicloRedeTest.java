@@ -0,0 +1,110 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import com.mycompany.nucleosemaforo.protocolo.CanalMensagens;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testes do {@link CicloRede}: uma ligação que não pode ser tentada falha o
+ * seu futuro, o ciclo continua a servir as seguintes, e terminar o ciclo
+ * deixa as ligações escrever o que têm na fila.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class CicloRedeTest {
+
+    /** Ouvinte que ignora tudo */
+    private static final OuvinteLigacao NENHUM = new OuvinteLigacao() {
+        @Override
+        public void mensagem(Ligacao ligacao, Mensagem mensagem) {
+        }
+
+        @Override
+        public void fechada(Ligacao ligacao, IOException causa) {
+        }
+    };
+
+    @Test
+    @Timeout(10)
+    void enderecoPorResolverFalhaOFuturo() throws Exception {
+        try (CicloRede ciclo = new CicloRede("teste-rede")) {
+            CompletableFuture<Ligacao> futuro = ciclo.ligar(InetSocketAddress.createUnresolved("servidor.invalid", 5000), NENHUM);
+            ExecutionException erro = Assertions.assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(erro.getCause() instanceof UnresolvedAddressException, erro.getCause().toString());
+            Assertions.assertTrue(ciclo.isAberto());
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void cicloContinuaDepoisDeUmaLigacaoFalhada() throws Exception {
+        try (CicloRede ciclo = new CicloRede("teste-rede");
+             ServerSocketChannel servidor = ServerSocketChannel.open()) {
+            servidor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            CompletableFuture<Ligacao> falhada = ciclo.ligar(InetSocketAddress.createUnresolved("servidor.invalid", 5000), NENHUM);
+            CompletableFuture<Ligacao> futuro = ciclo.ligar(servidor.getLocalAddress(), NENHUM);
+            try (SocketChannel aceite = servidor.accept()) {
+                Ligacao ligacao = futuro.get(5, TimeUnit.SECONDS);
+                Assertions.assertFalse(ligacao.isFechada());
+                ligacao.close();
+            }
+            Assertions.assertTrue(falhada.isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void terminarEscreveAsFilasAntesDeFechar() throws Exception {
+        CicloRede ciclo = new CicloRede("teste-rede");
+        try (ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Ligacao> futuro = ciclo.ligar(servidor.getLocalSocketAddress(), NENHUM);
+            try (CanalMensagens canal = new CanalMensagens(servidor.accept())) {
+                Ligacao ligacao = futuro.get(5, TimeUnit.SECONDS);
+                // O outro lado lê e fecha noutra thread, como um servidor
+                CompletableFuture<Integer> recebida = CompletableFuture.supplyAsync(() -> {
+                    Mensagem m = new Mensagem();
+                    try (CanalMensagens c = canal) {
+                        int tipo = c.receber(m).getTipo();
+                        Assertions.assertThrows(EOFException.class, () -> c.receber(m));
+                        return tipo;
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
+                });
+                ligacao.enviar(new Mensagem().sinal(Mensagem.SAIU));
+                ciclo.terminar(5000);
+                Assertions.assertFalse(ciclo.isAberto());
+                Assertions.assertTrue(ligacao.isFechada());
+                Assertions.assertEquals(Mensagem.SAIU, recebida.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            ciclo.close();
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void terminarSemLigacoesNaoEspera() throws Exception {
+        CicloRede ciclo = new CicloRede("teste-rede");
+        long inicio = System.nanoTime();
+        ciclo.terminar(60_000);
+        Assertions.assertFalse(ciclo.isAberto());
+        Assertions.assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(2));
+    }
+}
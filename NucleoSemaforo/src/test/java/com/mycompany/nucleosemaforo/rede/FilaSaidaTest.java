@@ -0,0 +1,218 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testes da {@link FilaSaida}: limite de capacidade e, com vários produtores
+ * em simultâneo, ordem de cada produtor e nenhuma mensagem aceite perdida.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class FilaSaidaTest {
+
+    private static final int PRODUTORES = 4;
+
+    /** Valor de um PING com o produtor nos 32 bits altos e o número nos baixos */
+    private static long valor(int produtor, int numero) {
+        return (long) produtor << 32 | numero;
+    }
+
+    @Test
+    void capacidadeTemDeSerPotenciaDe2() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FilaSaida(6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FilaSaida(0));
+        Assertions.assertEquals(8, new FilaSaida(8).capacidade());
+    }
+
+    @Test
+    void recusaExatamenteQuandoEstaCheia() {
+        FilaSaida fila = new FilaSaida(4);
+        Mensagem m = new Mensagem();
+        Assertions.assertNull(fila.espreitar());
+        // Várias voltas ao anel, sempre cheio antes de retirar
+        int escritas = 0, lidas = 0;
+        for (int volta = 0; volta < 10; volta++) {
+            while (fila.tamanho() < fila.capacidade())
+                Assertions.assertTrue(fila.oferecer(m.ping(escritas++)), "há lugar com " + fila.tamanho());
+            Assertions.assertFalse(fila.oferecer(m.ping(-1)), "cheia com " + fila.tamanho());
+            Assertions.assertEquals(4, fila.tamanho());
+            for (int i = 0; i <= volta % 4; i++) {
+                Assertions.assertEquals(lidas++, fila.espreitar().getValor());
+                fila.retirar();
+            }
+            Assertions.assertTrue(fila.oferecer(m.ping(escritas++)), "lugar libertado por retirar");
+            if (volta % 4 == 0) Assertions.assertFalse(fila.oferecer(m.ping(-1)));
+        }
+        while (fila.espreitar() != null) {
+            Assertions.assertEquals(lidas++, fila.espreitar().getValor());
+            fila.retirar();
+        }
+        Assertions.assertEquals(escritas, lidas);
+        Assertions.assertEquals(0, fila.tamanho());
+    }
+
+    @Test
+    void guardaUmaCopia() {
+        FilaSaida fila = new FilaSaida(2);
+        Mensagem m = new Mensagem().fim("Ana").numerar(3);
+        Assertions.assertTrue(fila.oferecer(m));
+        m.fim("Bruno");
+        Assertions.assertEquals("#3 FIM Ana", fila.espreitar().toString());
+    }
+
+    /**
+     * Cada produtor tenta até a fila aceitar; o consumidor tem de receber
+     * todas as mensagens, pela ordem de cada produtor.
+     */
+    @Test
+    @Timeout(value = 60, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void variosProdutoresSemPerdas() throws InterruptedException {
+        int porProdutor = 50_000;
+        FilaSaida fila = new FilaSaida(16);
+        CountDownLatch partida = new CountDownLatch(1);
+        List<Thread> produtores = new ArrayList<>();
+        for (int p = 0; p < PRODUTORES; p++) {
+            int produtor = p;
+            Thread t = new Thread(() -> {
+                Mensagem m = new Mensagem();
+                try {
+                    partida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < porProdutor; i++) {
+                    m.ping(valor(produtor, i));
+                    while (!fila.oferecer(m)) Thread.yield();
+                }
+            }, "produtor-" + p);
+            t.setDaemon(true);
+            t.start();
+            produtores.add(t);
+        }
+
+        int[] seguinte = new int[PRODUTORES];
+        partida.countDown();
+        for (int recebidas = 0; recebidas < PRODUTORES * porProdutor; ) {
+            Assertions.assertTrue(fila.tamanho() <= fila.capacidade());
+            Mensagem m = fila.espreitar();
+            if (m == null) {
+                Thread.yield();
+                continue;
+            }
+            int produtor = (int) (m.getValor() >>> 32);
+            Assertions.assertEquals(seguinte[produtor]++, (int) m.getValor(), "ordem do produtor " + produtor);
+            fila.retirar();
+            recebidas++;
+        }
+        for (Thread t : produtores) t.join();
+        Assertions.assertNull(fila.espreitar());
+        for (int p = 0; p < PRODUTORES; p++) Assertions.assertEquals(porProdutor, seguinte[p]);
+    }
+
+    /**
+     * Os produtores não insistem: cada mensagem recusada fica de fora, mas
+     * todas as aceites chegam, pela ordem de cada produtor.
+     */
+    @Test
+    @Timeout(value = 60, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void mensagensAceitesNuncaSePerdem() throws InterruptedException {
+        int porProdutor = 50_000;
+        FilaSaida fila = new FilaSaida(8);
+        List<List<Integer>> aceites = new ArrayList<>();
+        CountDownLatch partida = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(PRODUTORES);
+        for (int p = 0; p < PRODUTORES; p++) {
+            int produtor = p;
+            List<Integer> minhas = new ArrayList<>();
+            aceites.add(minhas);
+            Thread t = new Thread(() -> {
+                Mensagem m = new Mensagem();
+                try {
+                    partida.await();
+                    for (int i = 0; i < porProdutor; i++) {
+                        if (fila.oferecer(m.ping(valor(produtor, i)))) minhas.add(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            }, "produtor-" + p);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        List<List<Integer>> recebidas = new ArrayList<>();
+        for (int p = 0; p < PRODUTORES; p++) recebidas.add(new ArrayList<>());
+        partida.countDown();
+        while (fim.getCount() > 0 || fila.espreitar() != null) {
+            Mensagem m = fila.espreitar();
+            if (m == null) {
+                Thread.yield();
+                continue;
+            }
+            recebidas.get((int) (m.getValor() >>> 32)).add((int) m.getValor());
+            fila.retirar();
+        }
+        fim.await();
+        for (int p = 0; p < PRODUTORES; p++) {
+            Assertions.assertEquals(aceites.get(p).size(), recebidas.get(p).size(), "mensagens do produtor " + p);
+            Assertions.assertTrue(aceites.get(p).equals(recebidas.get(p)), "ordem do produtor " + p);
+        }
+    }
+
+    /**
+     * Sem consumidor, os produtores em simultâneo enchem a fila: são aceites
+     * exatamente tantas mensagens quanto a capacidade.
+     */
+    @Test
+    @Timeout(value = 60, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void produtoresEmSimultaneoParamNaCapacidade() throws InterruptedException {
+        for (int ronda = 0; ronda < 200; ronda++) {
+            FilaSaida fila = new FilaSaida(64);
+            AtomicInteger aceites = new AtomicInteger();
+            CountDownLatch partida = new CountDownLatch(1);
+            List<Thread> produtores = new ArrayList<>();
+            for (int p = 0; p < PRODUTORES; p++) {
+                int produtor = p;
+                Thread t = new Thread(() -> {
+                    Mensagem m = new Mensagem();
+                    try {
+                        partida.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 100; i++)
+                        if (fila.oferecer(m.ping(valor(produtor, i)))) aceites.incrementAndGet();
+                }, "produtor-" + p);
+                t.setDaemon(true);
+                t.start();
+                produtores.add(t);
+            }
+            partida.countDown();
+            for (Thread t : produtores) t.join();
+
+            Assertions.assertEquals(fila.capacidade(), aceites.get(), "ronda " + ronda);
+            Assertions.assertEquals(fila.capacidade(), fila.tamanho());
+            int[] ultimo = {-1, -1, -1, -1};
+            for (int n = 0; n < fila.capacidade(); n++) {
+                Mensagem m = fila.espreitar();
+                int produtor = (int) (m.getValor() >>> 32);
+                Assertions.assertTrue((int) m.getValor() > ultimo[produtor], "ordem do produtor " + produtor);
+                ultimo[produtor] = (int) m.getValor();
+                fila.retirar();
+            }
+            Assertions.assertNull(fila.espreitar());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.mycompany.nucleosemaforo.rede;
+
+import com.mycompany.nucleosemaforo.protocolo.CanalMensagens;
+import com.mycompany.nucleosemaforo.protocolo.CodecTexto;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testes da {@link Ligacao}: tramas até à maior que o protocolo permite passam
+ * nos dois sentidos, entre uma ligação e um {@link CanalMensagens} com buffers
+ * pequenos, como os do servidor, fechar logo depois de enviar não perde as
+ * últimas mensagens, e o ouvinte é sempre avisado na thread do ciclo.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class LigacaoTest {
+
+    /** Nome que enche uma trama de texto até ao limite do comprimento */
+    private static String nomeMaximo(char c) {
+        char[] nome = new char[CodecTexto.MAXIMO_TRAMA - "FIM:".length()];
+        Arrays.fill(nome, c);
+        return new String(nome);
+    }
+
+    @Test
+    @Timeout(20)
+    void fecharDepoisDeEnviarEscreveTudo() throws Exception {
+        try (CicloRede ciclo = new CicloRede("teste-rede");
+             ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            for (int n = 0; n < 200; n++) {
+                CompletableFuture<IOException> fecho = new CompletableFuture<>();
+                OuvinteLigacao ouvinte = new OuvinteLigacao() {
+                    @Override
+                    public void mensagem(Ligacao ligacao, Mensagem mensagem) {
+                    }
+
+                    @Override
+                    public void fechada(Ligacao ligacao, IOException causa) {
+                        fecho.complete(causa);
+                    }
+                };
+                CompletableFuture<Ligacao> futuro = ciclo.ligar(servidor.getLocalSocketAddress(), ouvinte);
+                try (Socket socket = servidor.accept();
+                     CanalMensagens canal = new CanalMensagens(socket, 512)) {
+                    Ligacao ligacao = futuro.get(5, TimeUnit.SECONDS);
+                    // De vez em quando uma trama grande, que fica a meio no buffer de saída
+                    if (n % 10 == 0) ligacao.enviar(new Mensagem().fim(nomeMaximo('a')));
+                    ligacao.enviar(new Mensagem().sinal(Mensagem.SAIU));
+                    ligacao.close();
+                    Assertions.assertTrue(ligacao.isFechada(), "fechada assim que o fecho é pedido");
+                    Assertions.assertThrows(IOException.class, () -> ligacao.enviar(new Mensagem().sinal(Mensagem.SAIU)));
+
+                    Mensagem m = new Mensagem();
+                    if (n % 10 == 0) Assertions.assertEquals(Mensagem.FIM, canal.receber(m).getTipo());
+                    Assertions.assertEquals(Mensagem.SAIU, canal.receber(m).getTipo(), "ligação " + n);
+                    Assertions.assertThrows(EOFException.class, () -> canal.receber(m));
+                }
+                Assertions.assertNull(fecho.get(5, TimeUnit.SECONDS), "fechada localmente, sem causa");
+            }
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void fecharSemRespostaDoOutroLado() throws Exception {
+        CompletableFuture<IOException> fecho = new CompletableFuture<>();
+        OuvinteLigacao ouvinte = new OuvinteLigacao() {
+            @Override
+            public void mensagem(Ligacao ligacao, Mensagem mensagem) {
+            }
+
+            @Override
+            public void fechada(Ligacao ligacao, IOException causa) {
+                fecho.complete(causa);
+            }
+        };
+        try (CicloRede ciclo = new CicloRede("teste-rede");
+             ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Ligacao> futuro = ciclo.ligar(servidor.getLocalSocketAddress(), ouvinte);
+            try (Socket socket = servidor.accept()) {
+                // O outro lado nunca fecha: a ligação desiste ao fim do prazo do fecho
+                futuro.get(5, TimeUnit.SECONDS).close();
+                Assertions.assertNull(fecho.get(5, TimeUnit.SECONDS));
+                Assertions.assertEquals(-1, socket.getInputStream().read());
+            }
+        }
+    }
+
+    @Test
+    @Timeout(20)
+    void filaCheiaAvisaOOuvinteNaThreadDoCiclo() throws Exception {
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        CompletableFuture<IOException> fecho = new CompletableFuture<>();
+        OuvinteLigacao ouvinte = new OuvinteLigacao() {
+            @Override
+            public void mensagem(Ligacao ligacao, Mensagem mensagem) {
+            }
+
+            @Override
+            public void fechada(Ligacao ligacao, IOException causa) {
+                thread.complete(Thread.currentThread().getName());
+                fecho.complete(causa);
+            }
+        };
+        try (CicloRede ciclo = new CicloRede("teste-rede");
+             ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Ligacao> futuro = ciclo.ligar(servidor.getLocalSocketAddress(), ouvinte);
+            try (Socket socket = servidor.accept()) {
+                Ligacao ligacao = futuro.get(5, TimeUnit.SECONDS);
+                // O outro lado não lê: os sockets enchem, depois a fila de saída, e enviar fecha a ligação
+                Mensagem grande = new Mensagem().fim(nomeMaximo('a'));
+                IOException erro = null;
+                for (int n = 0; n < 100_000 && erro == null; n++) {
+                    try {
+                        ligacao.enviar(grande);
+                    } catch (IOException e) {
+                        erro = e;
+                    }
+                }
+                Assertions.assertNotNull(erro, "a fila de saída nunca encheu");
+                Assertions.assertTrue(ligacao.isFechada());
+                Assertions.assertThrows(IOException.class, () -> ligacao.enviar(grande));
+                Assertions.assertEquals("teste-rede", thread.get(5, TimeUnit.SECONDS));
+                Assertions.assertSame(erro, fecho.get());
+            }
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void tramasMaioresQueOsBuffers() throws Exception {
+        CompletableFuture<String> recebido = new CompletableFuture<>();
+        OuvinteLigacao ouvinte = new OuvinteLigacao() {
+            @Override
+            public void mensagem(Ligacao ligacao, Mensagem mensagem) {
+                // A mensagem é reutilizada pela ligação: guarda-se só o texto
+                recebido.complete(mensagem.getTexto());
+            }
+
+            @Override
+            public void fechada(Ligacao ligacao, IOException causa) {
+                recebido.completeExceptionally(causa != null ? causa : new IOException("Fechada"));
+            }
+        };
+        try (CicloRede ciclo = new CicloRede("teste-rede");
+             ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Ligacao> futuro = ciclo.ligar(servidor.getLocalSocketAddress(), ouvinte);
+            try (Socket socket = servidor.accept();
+                 CanalMensagens canal = new CanalMensagens(socket, 512)) {
+                Ligacao ligacao = futuro.get(5, TimeUnit.SECONDS);
+
+                // Da ligação para o canal, e depois uma curta com os buffers já grandes
+                String grande = nomeMaximo('a');
+                ligacao.enviar(new Mensagem().fim(grande));
+                ligacao.enviar(new Mensagem().fim("Bartolomeu"));
+                Mensagem m = new Mensagem();
+                Assertions.assertEquals(grande, canal.receber(m).getTexto());
+                Assertions.assertEquals("Bartolomeu", canal.receber(m).getTexto());
+
+                // Do canal para a ligação
+                String outro = nomeMaximo('b');
+                canal.enviar(new Mensagem().fim(outro));
+                Assertions.assertEquals(outro, recebido.get(5, TimeUnit.SECONDS));
+                Assertions.assertFalse(ligacao.isFechada());
+                ligacao.close();
+            }
+        }
+    }
+}
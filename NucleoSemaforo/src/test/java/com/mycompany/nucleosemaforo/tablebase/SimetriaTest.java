@@ -0,0 +1,77 @@
+package com.mycompany.nucleosemaforo.tablebase;
+
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Testes da {@link Simetria}: o índice é reversível e as quatro formas
+ * simétricas de um tabuleiro têm a mesma forma canónica.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class SimetriaTest {
+
+    /**
+     * Reflete um tabuleiro célula a célula, sem as tabelas da simetria.
+     */
+    static long refletir(long tabuleiro, boolean horizontal, boolean vertical) {
+        long r = Tabuleiro.INICIAL;
+        for (int i = 0; i < Tabuleiro.LINHAS; i++) {
+            for (int j = 0; j < Tabuleiro.COLUNAS; j++) {
+                int linha = vertical ? Tabuleiro.LINHAS - 1 - i : i;
+                int coluna = horizontal ? Tabuleiro.COLUNAS - 1 - j : j;
+                r = Tabuleiro.colocar(r, linha, coluna, Tabuleiro.celula(tabuleiro, i, j));
+            }
+        }
+        return r;
+    }
+
+    private static long aleatorio(Random aleatorio) {
+        long t = Tabuleiro.INICIAL;
+        for (int c = 0; c < Tabuleiro.CELULAS; c++) t = Tabuleiro.colocar(t, c, aleatorio.nextInt(4));
+        return t;
+    }
+
+    @Test
+    void indiceEReversivel() {
+        Random aleatorio = new Random(11);
+        for (int n = 0; n < 100_000; n++) {
+            long t = aleatorio(aleatorio);
+            int indice = Simetria.indice(t);
+            Assertions.assertTrue(indice >= 0 && indice < Simetria.INDICES);
+            Assertions.assertEquals(t, Simetria.tabuleiro(indice));
+        }
+        Assertions.assertEquals(0, Simetria.indice(Tabuleiro.INICIAL));
+    }
+
+    @Test
+    void formasSimetricasTemOMesmoCanonico() {
+        Random aleatorio = new Random(12);
+        for (int n = 0; n < 100_000; n++) {
+            long t = aleatorio(aleatorio);
+            int canonico = Simetria.canonico(t);
+            long[] formas = {t, refletir(t, true, false), refletir(t, false, true), refletir(t, true, true)};
+            int menor = Integer.MAX_VALUE;
+            for (long forma : formas) {
+                Assertions.assertEquals(canonico, Simetria.canonico(forma));
+                menor = Math.min(menor, Simetria.indice(forma));
+            }
+            Assertions.assertEquals(menor, canonico, "o canónico é o menor índice das quatro formas");
+        }
+    }
+
+    @Test
+    void canonicoDistingueTabuleirosNaoSimetricos() {
+        // Verde num canto e verde ao lado dele não são a mesma posição
+        long canto = Tabuleiro.colocar(Tabuleiro.INICIAL, 0, 0, Tabuleiro.VERDE);
+        long lado = Tabuleiro.colocar(Tabuleiro.INICIAL, 0, 1, Tabuleiro.VERDE);
+        long outroCanto = Tabuleiro.colocar(Tabuleiro.INICIAL, 2, 3, Tabuleiro.VERDE);
+        Assertions.assertNotEquals(Simetria.canonico(canto), Simetria.canonico(lado));
+        Assertions.assertEquals(Simetria.canonico(canto), Simetria.canonico(outroCanto));
+    }
+}
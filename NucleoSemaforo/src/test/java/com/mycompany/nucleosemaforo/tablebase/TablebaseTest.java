@@ -0,0 +1,141 @@
+package com.mycompany.nucleosemaforo.tablebase;
+
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.motor.Motor;
+import com.mycompany.nucleosemaforo.motor.ResultadoPesquisa;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Testes da {@link Tablebase}: gerada para uma pasta temporária, mapeada e
+ * comparada com a pesquisa do {@link Motor} em posições de jogos aleatórios.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+class TablebaseTest {
+
+    @TempDir
+    static Path pasta;
+
+    private static Path ficheiro;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void gerar() throws IOException {
+        GeradorTablebase gerador = new GeradorTablebase();
+        Assertions.assertTrue(gerador.resolver() > 0);
+        ficheiro = pasta.resolve("semaforo.tb");
+        gerador.gravar(ficheiro);
+        tablebase = Tablebase.abrir(ficheiro);
+    }
+
+    @AfterAll
+    static void fechar() throws IOException {
+        tablebase.close();
+    }
+
+    /** Posição ao fim de {@code minimo} a 19 jogadas aleatórias, ou antes se o jogo acabar */
+    private static long posicao(Random aleatorio, int minimo) {
+        long t = Tabuleiro.INICIAL;
+        int jogadas = minimo + aleatorio.nextInt(20 - minimo);
+        for (int n = 0; n < jogadas && Regras.jogadasLegais(t) != 0; n++) {
+            int legais = Regras.jogadasLegais(t);
+            int k = aleatorio.nextInt(Integer.bitCount(legais));
+            for (int i = 0; i < k; i++) legais &= legais - 1;
+            t = Regras.jogar(t, Integer.numberOfTrailingZeros(legais));
+        }
+        return t;
+    }
+
+    /** Pontuação do motor que corresponde a um byte da tablebase */
+    private static int pontuacao(long tabuleiro, int valor) {
+        int fim = Regras.numeroJogadas(tabuleiro) + Tablebase.distancia(valor);
+        switch (Tablebase.resultado(valor)) {
+            case Tablebase.VITORIA:
+                return Motor.VITORIA - fim;
+            case Tablebase.DERROTA:
+                return -(Motor.VITORIA - fim);
+            default:
+                return 0;
+        }
+    }
+
+    @Test
+    void concordaComAPesquisaDoMotor() {
+        Random aleatorio = new Random(21);
+        int comparadas = 0;
+        while (comparadas < 150) {
+            // Com poucas peças no tabuleiro, a pesquisa completa demora segundos
+            long t = posicao(aleatorio, 6);
+            int valor = tablebase.consultar(t);
+            Assertions.assertNotEquals(Tablebase.DESCONHECIDO, Tablebase.resultado(valor), "posição alcançável");
+            if (Regras.jogadasLegais(t) == 0) {
+                // Terminada: quem jogou antes ganhou
+                Assertions.assertEquals(Tablebase.valor(Tablebase.DERROTA, 0) & 0xFF, valor);
+                continue;
+            }
+            ResultadoPesquisa r = new Motor(16).pesquisar(t, 60_000);
+            Assertions.assertEquals(pontuacao(t, valor), r.getPontuacao(), Tablebase.texto(valor) + ", motor: " + r);
+            comparadas++;
+        }
+    }
+
+    @Test
+    void formasSimetricasTemOMesmoValor() {
+        Random aleatorio = new Random(22);
+        for (int n = 0; n < 10_000; n++) {
+            long t = posicao(aleatorio, 0);
+            int valor = tablebase.consultar(t);
+            Assertions.assertEquals(valor, tablebase.consultar(SimetriaTest.refletir(t, true, false)));
+            Assertions.assertEquals(valor, tablebase.consultar(SimetriaTest.refletir(t, false, true)));
+            Assertions.assertEquals(valor, tablebase.consultar(SimetriaTest.refletir(t, true, true)));
+        }
+    }
+
+    @Test
+    void melhorJogadaMantemOResultado() {
+        Random aleatorio = new Random(23);
+        for (int n = 0; n < 10_000; n++) {
+            long t = posicao(aleatorio, 0);
+            int celula = tablebase.melhorJogada(t);
+            if (Regras.jogadasLegais(t) == 0) {
+                Assertions.assertEquals(-1, celula);
+                continue;
+            }
+            int valor = tablebase.consultar(t);
+            int filho = tablebase.consultar(Regras.jogar(t, celula));
+            // O filho é visto pelo adversário, com uma jogada a menos até ao fim
+            int esperado = Tablebase.resultado(valor) == Tablebase.VITORIA ? Tablebase.DERROTA : Tablebase.VITORIA;
+            Assertions.assertEquals(esperado, Tablebase.resultado(filho));
+            Assertions.assertEquals(Tablebase.distancia(valor) - 1, Tablebase.distancia(filho));
+        }
+    }
+
+    @Test
+    void recusaFicheirosQueNaoSaoTablebases() throws IOException {
+        Path curto = pasta.resolve("curto.tb");
+        Files.write(curto, new byte[Tablebase.CABECALHO]);
+        Assertions.assertThrows(IOException.class, () -> Tablebase.abrir(curto));
+
+        Path semMagico = pasta.resolve("magico.tb");
+        Files.copy(ficheiro, semMagico);
+        try (FileChannel canal = FileChannel.open(semMagico, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4), 0);
+        }
+        Assertions.assertThrows(IOException.class, () -> Tablebase.abrir(semMagico));
+    }
+}
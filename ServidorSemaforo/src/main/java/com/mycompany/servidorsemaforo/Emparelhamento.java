@@ -0,0 +1,66 @@
+package com.mycompany.servidorsemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.historico.HistoricoPartidas;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Emparelhamento sem bloqueios dos jogadores prontos.
+ *
+ * Para cada geometria pedida há no máximo um jogador à espera, guardado numa
+ * referência atómica: quem chega ou ocupa o lugar vazio, ou retira quem lá
+ * está e começa uma partida com ele. Todas as alterações são feitas por
+ * compare-and-set, pelo que duas chegadas simultâneas nunca ficam ambas à espera.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Emparelhamento {
+
+    private final ConcurrentHashMap<Geometria, AtomicReference<Jogador>> esperas = new ConcurrentHashMap<>();
+    private final Mesas mesas;
+    private final HistoricoPartidas historico;
+
+    /**
+     * @param mesas registo onde as partidas começadas ficam visíveis
+     * @param historico onde ficam os jogos terminados, ou null para não os guardar
+     */
+    Emparelhamento(Mesas mesas, HistoricoPartidas historico) {
+        this.mesas = mesas;
+        this.historico = historico;
+    }
+
+    /**
+     * Junta um jogador pronto a uma partida, ou deixa-o à espera de adversário.
+     *
+     * @param jogador jogador que enviou PRONTO
+     */
+    void entrar(Jogador jogador) {
+        Geometria geometria = jogador.getGeometria();
+        AtomicReference<Jogador> espera = esperas.computeIfAbsent(geometria, g -> new AtomicReference<>());
+        while (true) {
+            Jogador outro = espera.get();
+            if (outro == jogador) return;
+            if (outro == null) {
+                if (espera.compareAndSet(null, jogador)) return;
+            } else if (espera.compareAndSet(outro, null)) {
+                if (outro.isFechado()) continue;
+                Partida.iniciar(mesas, historico, geometria, outro, jogador);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retira um jogador da espera, se ainda lá estiver.
+     *
+     * @param jogador jogador que saiu
+     */
+    void cancelar(Jogador jogador) {
+        AtomicReference<Jogador> espera = esperas.get(jogador.getGeometria());
+        if (espera != null) espera.compareAndSet(jogador, null);
+    }
+}
@@ -0,0 +1,492 @@
+package com.mycompany.servidorsemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.protocolo.CanalMensagens;
+import com.mycompany.nucleosemaforo.protocolo.CodecBinario;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Jogador ligado ao servidor, desde a saudação até sair.
+ *
+ * As mensagens do cliente são lidas pela thread virtual da sua ligação e
+ * entregues à {@link Partida}; as mensagens para o cliente podem ser enviadas
+ * por qualquer thread.
+ *
+ * Se o cliente aceitar {@link Protocolo#SEQUENCIA}, o jogador sobrevive à queda
+ * da ligação: as mensagens que lhe são enviadas são numeradas e as últimas
+ * {@value #REGISTO} ficam guardadas, para serem reenviadas quando o cliente
+ * retomar a sessão numa nova ligação. Se faltarem mais do que isso, é enviado
+ * o estado completo da partida.
+ *
+ * Em vez de jogar, o cliente pode assistir a uma mesa (ASSISTIR): uma thread
+ * virtual envia-lhe a mesa até esta terminar (ver {@link Partida#assistir}),
+ * enquanto a thread de leitura continua a responder aos PING.
+ *
+ * Se o cliente aceitar {@link Protocolo#JOGOS}, pode ter vários jogos na mesma
+ * ligação: cada número de jogo novo cria um jogador filho, que joga ou assiste
+ * à sua mesa como um jogador normal, mas envia pela ligação deste, com o
+ * número do jogo em cada mensagem. A ligação, a sessão e a numeração são
+ * sempre do jogador raiz. Uma ligação pode ser emparelhada
+ * consigo própria, por exemplo um bot que põe duas estratégias a jogar.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Jogador implements Closeable {
+
+    /** Número de mensagens enviadas guardadas para reenvio (potência de 2) */
+    private static final int REGISTO = 64;
+
+    private final Sessoes sessoes;
+    private final Emparelhamento emparelhamento;
+    private final Mesas mesas;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Jogador dono da ligação (o próprio, exceto nos jogos filhos) e número do jogo */
+    private final Jogador raiz;
+    private final int jogo;
+
+    /** Jogos filhos, por número (só na raiz) */
+    private final ConcurrentHashMap<Integer, Jogador> jogos;
+
+    /** Thread que envia a mesa assistida */
+    private volatile Thread transmissao;
+
+    private volatile String nome = "Jogador";
+    private volatile Partida partida;
+    private volatile Geometria geometria = Geometria.PADRAO;
+    private volatile boolean fechado;
+    private int lugar;
+
+    // Protegidos pelo lock
+    private CanalMensagens canal;
+    private int capacidades;
+    private long token;
+    private Mensagem[] registo;
+    private int enviadas;
+    private int geracao;
+
+    /** Número de sequência da última mensagem do cliente aplicada (só usado pela thread de leitura) */
+    private volatile int aplicada;
+
+    Jogador(CanalMensagens canal, Sessoes sessoes, Emparelhamento emparelhamento, Mesas mesas) {
+        this.canal = canal;
+        this.sessoes = sessoes;
+        this.emparelhamento = emparelhamento;
+        this.mesas = mesas;
+        this.raiz = this;
+        this.jogo = 0;
+        this.jogos = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Cria um jogo filho, que usa a ligação da raiz.
+     */
+    private Jogador(Jogador raiz, int jogo) {
+        this.sessoes = raiz.sessoes;
+        this.emparelhamento = raiz.emparelhamento;
+        this.mesas = raiz.mesas;
+        this.raiz = raiz;
+        this.jogo = jogo;
+        this.jogos = null;
+    }
+
+    /**
+     * Trata uma mensagem do cliente; as repetidas (já aplicadas antes de uma
+     * retoma) são ignoradas. As de outro jogo seguem para o jogo filho, que é
+     * criado na primeira mensagem com o seu número.
+     *
+     * @param m mensagem recebida
+     */
+    void receber(Mensagem m) {
+        if (m.getSeq() != 0) {
+            if (m.getSeq() <= aplicada) return;
+            aplicada = m.getSeq();
+        }
+        switch (m.getTipo()) {
+            case Mensagem.OLA:
+                saudar(m);
+                return;
+            case Mensagem.PING:
+                eco(m.getValor());
+                return;
+            default:
+                break;
+        }
+        if (m.getJogo() == 0) {
+            receberJogo(m);
+        } else if (aceita(Protocolo.JOGOS) && !fechado) {
+            jogos.computeIfAbsent(m.getJogo(), n -> new Jogador(this, n)).receberJogo(m);
+        }
+    }
+
+    /**
+     * Trata uma mensagem deste jogo.
+     */
+    private void receberJogo(Mensagem m) {
+        Partida p = partida;
+        switch (m.getTipo()) {
+            case Mensagem.GEOMETRIA:
+                if (p == null && aceita(Protocolo.GEOMETRIA)) {
+                    // Um pedido anterior ficou à espera com as dimensões antigas
+                    emparelhamento.cancelar(this);
+                    geometria = m.getGeometria();
+                }
+                break;
+            case Mensagem.PRONTO:
+                if (p == null) emparelhamento.entrar(this);
+                break;
+            case Mensagem.JOGADA:
+                if (p != null) p.jogada(this, m);
+                break;
+            case Mensagem.FIM:
+                if (p != null) p.fim(this);
+                break;
+            case Mensagem.RECOMECAR:
+                if (p != null) p.recomecar(this);
+                break;
+            case Mensagem.ASSISTIR:
+                if (p == null) assistir(m.getMesa());
+                break;
+            case Mensagem.SAIU:
+                // Saída voluntária: não se espera pela retoma (num jogo filho, sai só desse jogo)
+                close();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Responde à saudação com as capacidades aceites e, se forem numeradas, com o token da sessão.
+     */
+    private void saudar(Mensagem ola) {
+        // O nome segue em FIM para o adversário e os espectadores, que podem usar o protocolo binário
+        nome = CodecBinario.limitarNome(ola.getTexto());
+        lock.lock();
+        try {
+            capacidades = ola.getCapacidades() & Protocolo.SUPORTADAS;
+            if (capacidades == 0 || canal == null) return;
+            canal.enviar(new Mensagem().capacidades(capacidades));
+            if ((capacidades & Protocolo.SEQUENCIA) != 0 && token == 0) {
+                registo = new Mensagem[REGISTO];
+                for (int i = 0; i < REGISTO; i++) registo[i] = new Mensagem();
+                token = sessoes.registar(this);
+                canal.enviar(new Mensagem().sessao(token));
+            }
+        } catch (IOException e) {
+            fecharCanal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Assiste a uma mesa até esta terminar; se não existir, responde logo SAIU.
+     * A transmissão corre numa thread virtual própria, que substitui a anterior,
+     * para que a ligação continue a ser lida (e os PING tenham resposta).
+     *
+     * @param numero número da mesa, ou {@link Mensagem#QUALQUER_MESA}
+     */
+    private void assistir(int numero) {
+        emparelhamento.cancelar(this);
+        CanalMensagens c;
+        raiz.lock.lock();
+        try {
+            c = raiz.canal;
+        } finally {
+            raiz.lock.unlock();
+        }
+        if (c == null) return;
+        Thread anterior = transmissao;
+        if (anterior != null) anterior.interrupt();
+        transmissao = Thread.ofVirtual().name("espectador-" + jogo).start(() -> transmitir(c, numero));
+    }
+
+    private void transmitir(CanalMensagens c, int numero) {
+        Partida mesa = mesas.procurar(numero);
+        try {
+            if (mesa != null) {
+                mesa.assistir(c, jogo);
+            } else {
+                c.enviar(new Mensagem().sinal(Mensagem.SAIU).paraJogo(jogo));
+            }
+        } catch (IOException e) {
+            fechar(c);
+        } catch (InterruptedException e) {
+            // Deixou de assistir: saiu, pediu outra mesa ou a ligação caiu
+        }
+    }
+
+    /**
+     * Associa o jogador a uma partida.
+     *
+     * @param partida nova partida
+     * @param lugar 0 para quem estava à espera, 1 para quem chegou depois
+     */
+    void entrar(Partida partida, int lugar) {
+        this.lugar = lugar;
+        this.partida = partida;
+    }
+
+    /**
+     * Envia uma mensagem ao cliente, com o número deste jogo; se a ligação
+     * falhar, fecha-a e a mensagem fica guardada para quando o cliente retomar
+     * a sessão.
+     *
+     * @param mensagem mensagem a enviar
+     */
+    void enviar(Mensagem mensagem) {
+        raiz.enviarNoCanal(mensagem.paraJogo(jogo));
+    }
+
+    private void enviarNoCanal(Mensagem mensagem) {
+        lock.lock();
+        try {
+            if (registo != null) {
+                mensagem.numerar(++enviadas);
+                registo[enviadas & (REGISTO - 1)].copiar(mensagem);
+            }
+            if (canal != null) escrever(canal, mensagem);
+        } catch (IOException e) {
+            fecharCanal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Escreve uma mensagem do jogo no canal. Uma que o protocolo do cliente
+     * não consiga codificar é descartada, sem fechar a ligação de quem a
+     * recebe nem a thread de quem a originou; o cliente não dá pela falta do
+     * número.
+     */
+    private static void escrever(CanalMensagens c, Mensagem mensagem) throws IOException {
+        try {
+            c.enviar(mensagem);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Mensagem descartada (" + e.getMessage() + "): " + mensagem);
+        }
+    }
+
+    /**
+     * Responde a um PING, fora da numeração das mensagens do jogo: um eco
+     * perdido numa queda da ligação não é reenviado.
+     *
+     * @param valor valor a devolver
+     */
+    private void eco(long valor) {
+        lock.lock();
+        try {
+            if (canal != null && (capacidades & (Protocolo.ECO | Protocolo.BATIMENTO)) != 0)
+                canal.enviar(new Mensagem().pong(valor));
+        } catch (IOException e) {
+            fecharCanal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retoma a sessão numa nova ligação (pedido RETOMAR).
+     *
+     * @param novo canal da nova ligação
+     * @param ultima última mensagem do servidor que o cliente aplicou
+     */
+    void retomar(CanalMensagens novo, int ultima) throws IOException {
+        if (fechado) {
+            novo.enviar(new Mensagem().retomada(-1));
+            fechar(novo);
+            return;
+        }
+        // Lidos antes de bloquear a ligação: as partidas bloqueiam-se antes dos jogadores
+        List<Mensagem> outrosJogos = new ArrayList<>();
+        for (Jogador filho : jogos.values()) {
+            Partida p = filho.partida;
+            if (p != null) p.estado(filho, outrosJogos);
+        }
+        Partida p = partida;
+        if (p != null) {
+            p.retomar(this, novo, ultima, outrosJogos);
+        } else {
+            religar(novo, ultima, null, null, outrosJogos);
+        }
+    }
+
+    /**
+     * Troca de ligação e envia ao cliente o que lhe falta: as mensagens
+     * guardadas, ou o estado da partida se já não estiverem todas guardadas.
+     *
+     * @param novo canal da nova ligação
+     * @param ultima última mensagem do servidor que o cliente aplicou
+     * @param geometria dimensões do tabuleiro (GEOMETRIA), enviadas antes do estado, ou null
+     * @param estado estado da partida (ESTADO), ou null se não houver partida
+     * @param outrosJogos geometria e estado das partidas dos jogos filhos, já com o número do jogo
+     */
+    void religar(CanalMensagens novo, int ultima, Mensagem geometria, Mensagem estado, List<Mensagem> outrosJogos) {
+        lock.lock();
+        try {
+            CanalMensagens antigo = canal;
+            canal = novo;
+            geracao++;
+            if (antigo != null) fechar(antigo);
+            novo.getProtocolo().ativar(capacidades);
+            novo.enviar(new Mensagem().retomada(aplicada));
+            if (ultima >= 0 && ultima <= enviadas && enviadas - ultima <= REGISTO) {
+                for (int seq = ultima + 1; seq <= enviadas; seq++) escrever(novo, registo[seq & (REGISTO - 1)]);
+            } else {
+                for (Mensagem m : outrosJogos)
+                    if (m.getTipo() != Mensagem.GEOMETRIA || (capacidades & Protocolo.GEOMETRIA) != 0) novo.enviar(m);
+                if (estado != null) {
+                    if (geometria != null && (capacidades & Protocolo.GEOMETRIA) != 0) novo.enviar(geometria);
+                    novo.enviar(estado.numerar(enviadas));
+                }
+            }
+        } catch (IOException e) {
+            fecharCanal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A ligação de um canal terminou. Sem sessão retomável, o jogador sai;
+     * com ela, fica à espera de um RETOMAR até a sessão expirar.
+     *
+     * @param terminado canal cuja leitura terminou
+     */
+    void desligado(CanalMensagens terminado) {
+        int g;
+        lock.lock();
+        try {
+            fechar(terminado);
+            // Já foi substituído por uma retoma
+            if (canal != terminado) return;
+            canal = null;
+            g = ++geracao;
+        } finally {
+            lock.unlock();
+        }
+        // As transmissões escreviam no canal que caiu; numa retoma, o cliente volta a pedir as mesas
+        pararTransmissao();
+        for (Jogador filho : jogos.values()) filho.pararTransmissao();
+        if (token == 0) {
+            close();
+        } else if (!fechado) {
+            sessoes.agendarExpiracao(this, g);
+        }
+    }
+
+    /**
+     * Termina a sessão se ainda não tiver sido retomada desde que a ligação caiu.
+     *
+     * @param g geração da ligação que caiu
+     */
+    void expirar(int g) {
+        lock.lock();
+        try {
+            if (canal != null || geracao != g) return;
+        } finally {
+            lock.unlock();
+        }
+        close();
+    }
+
+    /**
+     * @param capacidade capacidade do protocolo (ver {@link Protocolo})
+     * @return true se o cliente a aceitou na saudação
+     */
+    boolean aceita(int capacidade) {
+        if (raiz != this) return raiz.aceita(capacidade);
+        lock.lock();
+        try {
+            return (capacidades & capacidade) != 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return número do jogo na ligação do cliente (0 na raiz) */
+    int getJogo() {
+        return jogo;
+    }
+
+    /** @return lugar na partida (0 ou 1) */
+    int getLugar() {
+        return lugar;
+    }
+
+    /** @return dimensões do tabuleiro pedidas pelo cliente */
+    Geometria getGeometria() {
+        return geometria;
+    }
+
+    /** @return nome indicado na saudação */
+    String getNome() {
+        return raiz.nome;
+    }
+
+    /** @return true se o jogador (ou a sua ligação) já saiu */
+    boolean isFechado() {
+        return fechado || raiz.fechado;
+    }
+
+    /** @return partida atual, ou null */
+    Partida getPartida() {
+        return partida;
+    }
+
+    /**
+     * Termina a sessão, fecha a ligação e avisa o adversário, se houver.
+     * Num jogo filho, termina só esse jogo.
+     */
+    @Override
+    public void close() {
+        if (fechado) return;
+        fechado = true;
+        emparelhamento.cancelar(this);
+        Partida p = partida;
+        if (p != null) p.saiu(this);
+        pararTransmissao();
+        if (raiz != this) {
+            raiz.jogos.remove(jogo, this);
+            return;
+        }
+        for (Jogador filho : jogos.values()) filho.close();
+        lock.lock();
+        try {
+            if (token != 0) sessoes.remover(token, this);
+            fecharCanal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Interrompe a transmissão da mesa assistida, se houver. */
+    private void pararTransmissao() {
+        Thread t = transmissao;
+        if (t != null) t.interrupt();
+    }
+
+    /** Fecha a ligação atual; a thread que a lê termina e chama {@link #desligado}. */
+    private void fecharCanal() {
+        if (canal != null) fechar(canal);
+    }
+
+    private static void fechar(CanalMensagens c) {
+        try {
+            c.close();
+        } catch (IOException e) {
+            // O socket fica fechado na mesma
+        }
+    }
+}
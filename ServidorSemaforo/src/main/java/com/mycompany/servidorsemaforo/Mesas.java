@@ -0,0 +1,67 @@
+package com.mycompany.servidorsemaforo;
+
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mesas em jogo, por número, para que os espectadores as possam encontrar.
+ *
+ * Cada partida recebe um número ao começar e sai daqui quando é abandonada.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Mesas {
+
+    private final ConcurrentHashMap<Integer, Partida> partidas = new ConcurrentHashMap<>();
+    private final AtomicInteger numeros = new AtomicInteger();
+
+    /** @return número para uma nova mesa (nunca {@link Mensagem#QUALQUER_MESA}) */
+    int novoNumero() {
+        return numeros.incrementAndGet();
+    }
+
+    /**
+     * Regista uma partida que começou.
+     *
+     * @param partida partida com número atribuído
+     */
+    void abrir(Partida partida) {
+        partidas.put(partida.getMesa(), partida);
+    }
+
+    /**
+     * Retira uma partida terminada.
+     *
+     * @param partida partida abandonada
+     */
+    void fechar(Partida partida) {
+        partidas.remove(partida.getMesa(), partida);
+    }
+
+    /**
+     * Procura uma mesa para assistir.
+     *
+     * @param mesa número da mesa, ou {@link Mensagem#QUALQUER_MESA} para a que
+     *             tem mais espectadores (a mais recente, em caso de empate)
+     * @return partida, ou null se não existir
+     */
+    Partida procurar(int mesa) {
+        if (mesa != Mensagem.QUALQUER_MESA) return partidas.get(mesa);
+        Partida melhor = null;
+        for (Partida p : partidas.values()) {
+            if (melhor == null || p.getEspectadores() > melhor.getEspectadores()
+                    || p.getEspectadores() == melhor.getEspectadores() && p.getMesa() > melhor.getMesa())
+                melhor = p;
+        }
+        return melhor;
+    }
+
+    /** @return número de mesas em jogo */
+    int getAbertas() {
+        return partidas.size();
+    }
+}
@@ -0,0 +1,351 @@
+package com.mycompany.servidorsemaforo;
+
+import com.mycompany.nucleosemaforo.Geometria;
+import com.mycompany.nucleosemaforo.Regras;
+import com.mycompany.nucleosemaforo.Tabuleiro;
+import com.mycompany.nucleosemaforo.historico.FormatoHistorico;
+import com.mycompany.nucleosemaforo.historico.HistoricoPartidas;
+import com.mycompany.nucleosemaforo.protocolo.CanalMensagens;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partida entre dois jogadores no servidor.
+ *
+ * O estado é compacto: o tabuleiro num {@code long} (ver {@link Tabuleiro}) e
+ * um {@code int} com quem começou o jogo atual, os pedidos de recomeço e se
+ * algum jogador saiu. As jogadas são validadas com a {@link Geometria} da
+ * partida e só as legais, feitas na vez certa, são reenviadas ao adversário;
+ * a vitória é verificada só nas linhas que passam pela célula jogada.
+ *
+ * As threads dos dois jogadores entram aqui; um {@link ReentrantLock} garante
+ * a ordem das mensagens sem prender threads virtuais durante os envios.
+ *
+ * Cada partida é uma mesa numerada (ver {@link Mesas}) a que se pode
+ * assistir: as mensagens enviadas aos jogadores são também publicadas numa
+ * {@link Transmissao}, que os espectadores leem nas suas próprias threads.
+ *
+ * Cada jogo ganho, empatado ou abandonado a meio fica no histórico, se houver
+ * um; a escrita é feita depois de libertar a partida.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Partida {
+
+    /** Bits de {@link #estado} */
+    private static final int PRIMEIRO = 1, RECOMECAR_0 = 2, RECOMECAR_1 = 4, ABANDONADA = 8, GANHO = 16,
+            REGISTADO = 32;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Jogador[] jogadores;
+    private final Mesas mesas;
+    private final HistoricoPartidas historico;
+    private final Geometria geometria;
+    private final int mesa;
+    private final Transmissao transmissao = new Transmissao();
+    private final Mensagem saida = new Mensagem();
+    private long tabuleiro = Tabuleiro.INICIAL;
+    private int estado;
+    private int jogadas;
+    private long inicioJogo = System.currentTimeMillis();
+
+    private Partida(Mesas mesas, HistoricoPartidas historico, Geometria geometria, Jogador a, Jogador b) {
+        this.jogadores = new Jogador[] {a, b};
+        this.mesas = mesas;
+        this.historico = historico;
+        this.geometria = geometria;
+        this.mesa = mesas.novoNumero();
+    }
+
+    /**
+     * Começa uma partida: quem estava à espera faz a primeira jogada.
+     *
+     * @param mesas registo onde a partida fica visível para espectadores
+     * @param historico onde ficam os jogos terminados, ou null para não os guardar
+     * @param geometria dimensões do tabuleiro, pedidas pelos dois jogadores
+     * @param espera jogador que estava à espera
+     * @param chegado jogador que acabou de ficar pronto
+     */
+    static void iniciar(Mesas mesas, HistoricoPartidas historico, Geometria geometria, Jogador espera,
+            Jogador chegado) {
+        Partida p = new Partida(mesas, historico, geometria, espera, chegado);
+        espera.entrar(p, 0);
+        chegado.entrar(p, 1);
+        mesas.abrir(p);
+        p.lock.lock();
+        try {
+            for (Jogador j : p.jogadores)
+                if (j.aceita(Protocolo.GEOMETRIA)) j.enviar(p.saida.geometria(geometria));
+            espera.enviar(p.saida.sinal(Mensagem.COMECAR));
+            chegado.enviar(p.saida.sinal(Mensagem.ESPERAR));
+            for (Jogador j : p.jogadores)
+                if (j.aceita(Protocolo.ESPECTADOR)) j.enviar(p.saida.mesa(p.mesa));
+        } finally {
+            p.lock.unlock();
+        }
+        // Um jogador que fechou antes de ver a partida não avisou o adversário
+        if (espera.isFechado()) p.saiu(espera);
+        if (chegado.isFechado()) p.saiu(chegado);
+    }
+
+    /**
+     * Valida e reenvia uma jogada.
+     *
+     * @param jogador quem jogou
+     * @param m mensagem JOGADA recebida
+     */
+    void jogada(Jogador jogador, Mensagem m) {
+        int resultado = -1;
+        long jogo = 0;
+        lock.lock();
+        try {
+            if ((estado & (ABANDONADA | GANHO)) != 0 || jogador.getLugar() != aJogar()) return;
+            int linha = m.getLinha(), coluna = m.getColuna();
+            if (linha < 0 || coluna < 0 || linha >= geometria.getLinhas() || coluna >= geometria.getColunas()) return;
+            int celula = geometria.celula(linha, coluna);
+            if (!geometria.jogadaLegal(tabuleiro, celula) || Regras.proximaCor(tabuleiro, celula) != m.getCor())
+                return;
+            tabuleiro = Regras.jogar(tabuleiro, celula);
+            jogadas++;
+            if (geometria.vitoriaEm(tabuleiro, celula)) {
+                estado |= GANHO;
+                resultado = primeiro(jogador) ? FormatoHistorico.VITORIA_A : FormatoHistorico.VITORIA_B;
+            } else if (geometria.jogadasPossiveis(tabuleiro) == 0) {
+                resultado = FormatoHistorico.EMPATE;
+            }
+            if (resultado >= 0) jogo = terminarJogo();
+            adversario(jogador).enviar(saida.jogada(linha, coluna, m.getCor()));
+            transmissao.publicar(saida);
+        } finally {
+            lock.unlock();
+        }
+        if (resultado >= 0) registar(resultado, jogo);
+    }
+
+    /**
+     * Reenvia o anúncio de vitória, se quem o envia acabou mesmo de completar
+     * uma linha. O nome anunciado é o da saudação, já limitado ao que o
+     * protocolo binário aceita, e não o texto que o cliente enviou.
+     *
+     * @param jogador quem anunciou
+     */
+    void fim(Jogador jogador) {
+        lock.lock();
+        try {
+            if ((estado & (ABANDONADA | GANHO)) != GANHO) return;
+            if (jogador.getLugar() == aJogar()) return;
+            adversario(jogador).enviar(saida.fim(jogador.getNome()));
+            transmissao.publicar(saida);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Regista um pedido de recomeço; quando os dois o pedem, começa um novo jogo
+     * e a vez de começar passa para o outro jogador.
+     *
+     * @param jogador quem pediu
+     */
+    void recomecar(Jogador jogador) {
+        lock.lock();
+        try {
+            if ((estado & ABANDONADA) != 0 || (estado & GANHO) == 0 && geometria.jogadasPossiveis(tabuleiro) != 0) return;
+            estado |= jogador.getLugar() == 0 ? RECOMECAR_0 : RECOMECAR_1;
+            if ((estado & (RECOMECAR_0 | RECOMECAR_1)) != (RECOMECAR_0 | RECOMECAR_1)) return;
+            estado = (estado ^ PRIMEIRO) & PRIMEIRO;
+            tabuleiro = Tabuleiro.INICIAL;
+            jogadas = 0;
+            inicioJogo = System.currentTimeMillis();
+            int primeiro = estado & PRIMEIRO;
+            for (Jogador j : jogadores) j.enviar(saida.novoJogo(j.getLugar() == primeiro));
+            transmissao.publicar(saida.novoJogo(false));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retoma a sessão de um jogador numa nova ligação, com a partida bloqueada
+     * para que o estado enviado não mude entretanto.
+     *
+     * @param jogador jogador que se religou
+     * @param canal canal da nova ligação
+     * @param ultima última mensagem do servidor que o cliente aplicou
+     * @param outrosJogos estado das partidas dos outros jogos da mesma ligação
+     */
+    void retomar(Jogador jogador, CanalMensagens canal, int ultima, List<Mensagem> outrosJogos) {
+        lock.lock();
+        try {
+            boolean comecou = (estado & PRIMEIRO) == jogador.getLugar();
+            jogador.religar(canal, ultima, new Mensagem().geometria(geometria), new Mensagem().estado(tabuleiro, comecou),
+                    outrosJogos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Junta a geometria e o estado da partida, tal como um jogador os vê, com
+     * o número do seu jogo na ligação.
+     *
+     * @param jogador jogador desta partida
+     * @param destino lista onde são acrescentadas as duas mensagens
+     */
+    void estado(Jogador jogador, List<Mensagem> destino) {
+        lock.lock();
+        try {
+            boolean comecou = (estado & PRIMEIRO) == jogador.getLugar();
+            destino.add(new Mensagem().geometria(geometria).paraJogo(jogador.getJogo()));
+            destino.add(new Mensagem().estado(tabuleiro, comecou).paraJogo(jogador.getJogo()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Termina a partida porque um jogador saiu, avisando o outro.
+     *
+     * @param jogador quem saiu
+     */
+    void saiu(Jogador jogador) {
+        int resultado = -1;
+        long jogo = 0;
+        lock.lock();
+        try {
+            if ((estado & ABANDONADA) != 0) return;
+            // Sair de um jogo já terminado, ou ainda sem jogadas, não conta
+            if ((estado & REGISTADO) == 0 && jogadas > 0) {
+                resultado = primeiro(jogador) ? FormatoHistorico.SAIU_A : FormatoHistorico.SAIU_B;
+                jogo = terminarJogo();
+            }
+            estado |= ABANDONADA;
+            adversario(jogador).enviar(saida.sinal(Mensagem.SAIU));
+            transmissao.publicar(saida);
+            transmissao.terminar();
+        } finally {
+            lock.unlock();
+        }
+        mesas.fechar(this);
+        if (resultado >= 0) registar(resultado, jogo);
+    }
+
+    /**
+     * Envia a mesa a um espectador, na thread virtual da sua ligação, até a
+     * partida terminar ou a ligação falhar: primeiro a geometria, o número da
+     * mesa e o estado completo e depois
+     * as mensagens publicadas. Um espectador lento só se atrasa a si próprio;
+     * se perder mensagens, recebe de novo o estado completo.
+     *
+     * @param canal ligação do espectador
+     * @param jogo número do jogo na ligação do espectador, enviado em cada mensagem
+     * @throws IOException se a ligação falhar
+     * @throws InterruptedException se a thread for interrompida
+     */
+    void assistir(CanalMensagens canal, int jogo) throws IOException, InterruptedException {
+        Mensagem m = new Mensagem();
+        transmissao.entrar();
+        try {
+            canal.enviar(m.geometria(geometria).paraJogo(jogo));
+            canal.enviar(m.mesa(mesa).paraJogo(jogo));
+            long proxima = instantaneo(m);
+            canal.enviar(m.paraJogo(jogo));
+            while (true) {
+                long publicadas = transmissao.aguardar(proxima);
+                if (publicadas == proxima) return;
+                while (proxima < publicadas) {
+                    if (transmissao.ler(proxima, m)) {
+                        canal.enviar(m.paraJogo(jogo));
+                        proxima++;
+                    } else {
+                        proxima = instantaneo(m);
+                        canal.enviar(m.paraJogo(jogo));
+                    }
+                }
+            }
+        } finally {
+            transmissao.sair();
+        }
+    }
+
+    /**
+     * Lê o estado da mesa e a posição correspondente na transmissão, com a
+     * partida bloqueada para que sejam coerentes.
+     *
+     * @param m mensagem a preencher com ESTADO (ou SAIU, se a partida já terminou)
+     * @return número da primeira mensagem publicada depois deste estado
+     */
+    private long instantaneo(Mensagem m) {
+        lock.lock();
+        try {
+            if ((estado & ABANDONADA) != 0) {
+                m.sinal(Mensagem.SAIU);
+            } else {
+                m.estado(tabuleiro, (estado & PRIMEIRO) == 0);
+            }
+            return transmissao.getPublicadas();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return número da mesa */
+    int getMesa() {
+        return mesa;
+    }
+
+    /** @return número de espectadores a assistir */
+    int getEspectadores() {
+        return transmissao.getEspectadores();
+    }
+
+    /** @return lugar do jogador a quem cabe a próxima jogada */
+    private int aJogar() {
+        int primeiro = estado & PRIMEIRO;
+        return Regras.vezDoPrimeiro(tabuleiro) ? primeiro : 1 - primeiro;
+    }
+
+    /** @return true se o jogador começou o jogo atual */
+    private boolean primeiro(Jogador jogador) {
+        return jogador.getLugar() == (estado & PRIMEIRO);
+    }
+
+    /**
+     * Marca o jogo atual como terminado e junta o que o histórico precisa
+     * dele, com a partida bloqueada: quem começou no bit 63, o número de
+     * jogadas nos bits 48 a 55 e o instante em que começou nos 48 mais baixos.
+     */
+    private long terminarJogo() {
+        estado |= REGISTADO;
+        return (long) (estado & PRIMEIRO) << 63 | (long) jogadas << 48 | inicioJogo;
+    }
+
+    /**
+     * Guarda no histórico um jogo terminado, já sem a partida bloqueada.
+     *
+     * @param resultado código de resultado de {@link FormatoHistorico}
+     * @param jogo devolvido por {@link #terminarJogo()}
+     */
+    private void registar(int resultado, long jogo) {
+        if (historico == null) return;
+        int primeiro = (int) (jogo >>> 63);
+        long agora = System.currentTimeMillis();
+        long inicio = jogo & 0xFFFF_FFFF_FFFFL;
+        try {
+            historico.registar(agora, agora - inicio, jogadores[primeiro].getNome(), jogadores[1 - primeiro].getNome(),
+                    resultado, (int) (jogo >>> 48) & 0xFF);
+        } catch (IOException e) {
+            System.err.println("Histórico de partidas: " + e.getMessage());
+        }
+    }
+
+    private Jogador adversario(Jogador jogador) {
+        return jogadores[1 - jogador.getLugar()];
+    }
+}
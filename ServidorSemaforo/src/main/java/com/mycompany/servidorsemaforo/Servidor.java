@@ -0,0 +1,185 @@
+package com.mycompany.servidorsemaforo;
+
+import com.mycompany.nucleosemaforo.historico.HistoricoPartidas;
+import com.mycompany.nucleosemaforo.protocolo.CanalMensagens;
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+import com.mycompany.nucleosemaforo.protocolo.Protocolo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor do Jogo Semáforo.
+ *
+ * Aceita ligações de clientes e atende cada uma numa thread virtual própria,
+ * com E/S bloqueante simples; o custo de cada ligação é a sua pilha virtual e
+ * dois buffers pequenos, pelo que suporta dezenas de milhares de pares.
+ * Os jogadores prontos são emparelhados por ordem de chegada e as jogadas são
+ * validadas com as mesmas regras do cliente antes de serem reenviadas. Um
+ * cliente que perca a ligação pode retomar a sessão noutra (ver {@link Sessoes})
+ * e qualquer cliente pode assistir a uma mesa em jogo (ver {@link Mesas}).
+ *
+ * Um cliente que aceite {@link Protocolo#BATIMENTO} envia um PING a cada poucos
+ * segundos; se ficar calado mais do que {@code semaforo.servidor.prazo} ms, a
+ * leitura expira e a ligação é tratada como caída. Para os outros fica só o
+ * keep-alive do TCP.
+ *
+ * Com {@code -Dsemaforo.historico=pasta}, cada jogo terminado fica guardado
+ * num {@link HistoricoPartidas}, consultável com a ConsultaHistorico do núcleo.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+public final class Servidor implements Closeable {
+
+    /** Porta usada quando não é indicada nenhuma */
+    public static final int PORTA_POR_OMISSAO = 5000;
+
+    /** Número máximo de ligações pendentes de aceitação */
+    private static final int FILA_ACEITACAO = 4096;
+
+    /** Tamanho dos buffers de cada ligação: as mensagens do jogo são curtas */
+    private static final int TAMANHO_BUFFER = 512;
+
+    /** Silêncio máximo de um cliente com batimentos: três vezes o intervalo máximo entre eles */
+    private static final int PRAZO_LEITURA_MS = Integer.getInteger("semaforo.servidor.prazo",
+            (int) (3 * Protocolo.INTERVALO_MAXIMO_BATIMENTO_MS));
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Mesas mesas = new Mesas();
+    private final HistoricoPartidas historico;
+    private final Emparelhamento emparelhamento;
+    private final Sessoes sessoes = new Sessoes();
+    private final AtomicInteger ligados = new AtomicInteger();
+
+    /**
+     * Abre o socket do servidor.
+     *
+     * @param porta porta onde escutar (0 para uma porta livre qualquer)
+     * @throws IOException se a porta estiver ocupada ou o histórico não puder ser aberto
+     */
+    public Servidor(int porta) throws IOException {
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(porta), FILA_ACEITACAO);
+        String pasta = System.getProperty("semaforo.historico");
+        try {
+            this.historico = pasta != null ? HistoricoPartidas.abrir(Paths.get(pasta)) : null;
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        this.emparelhamento = new Emparelhamento(mesas, historico);
+    }
+
+    /** @return porta onde o servidor escuta */
+    public int getPorta() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return número de clientes ligados neste momento */
+    public int getLigados() {
+        return ligados.get();
+    }
+
+    /** @return número de mesas em jogo neste momento */
+    public int getMesas() {
+        return mesas.getAbertas();
+    }
+
+    /**
+     * Aceita ligações até o servidor ser fechado.
+     *
+     * @throws IOException se o socket do servidor falhar
+     */
+    public void servir() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) return;
+                throw e;
+            }
+            threads.submit(() -> atender(socket));
+        }
+    }
+
+    /**
+     * Atende um cliente até este sair ou a ligação falhar (numa thread virtual).
+     * A primeira mensagem é a saudação ou, numa retoma, RETOMAR.
+     */
+    private void atender(Socket socket) {
+        ligados.incrementAndGet();
+        CanalMensagens canal = null;
+        Jogador jogador = null;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            canal = new CanalMensagens(socket, TAMANHO_BUFFER);
+            Mensagem m = canal.receber(new Mensagem());
+            if (m.getTipo() == Mensagem.RETOMAR) {
+                jogador = sessoes.procurar(m.getValor());
+                if (jogador == null) {
+                    canal.enviar(m.retomada(-1));
+                    return;
+                }
+                jogador.retomar(canal, m.getUltima());
+            } else {
+                jogador = new Jogador(canal, sessoes, emparelhamento, mesas);
+                jogador.receber(m);
+            }
+            // A saudação (ou a sessão retomada) diz se o cliente promete batimentos
+            if (jogador.aceita(Protocolo.BATIMENTO)) socket.setSoTimeout(PRAZO_LEITURA_MS);
+            while (true) jogador.receber(canal.receber(m));
+        } catch (IOException e) {
+            // Cliente desligou-se ou calou-se; o jogador decide se espera pela retoma ou sai
+        } finally {
+            if (jogador != null) {
+                jogador.desligado(canal);
+            } else {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Já fechado
+                }
+            }
+            ligados.decrementAndGet();
+        }
+    }
+
+    /**
+     * Fecha o socket do servidor e termina as ligações em curso.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        threads.shutdownNow();
+        sessoes.close();
+        if (historico != null) historico.close();
+    }
+
+    /**
+     * Arranca o servidor.
+     *
+     * @param args porta opcional (por omissão {@value #PORTA_POR_OMISSAO})
+     * @throws IOException se a porta estiver ocupada
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_POR_OMISSAO;
+        try (Servidor servidor = new Servidor(porta)) {
+            System.out.println("Servidor Semáforo à escuta na porta " + servidor.getPorta());
+            servidor.servir();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mycompany.servidorsemaforo;
+
+import java.io.Closeable;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sessões retomáveis dos jogadores, indexadas pelo token enviado em SESSAO.
+ *
+ * Quando a ligação de um jogador cai, a sessão (e a partida) fica à espera de
+ * um RETOMAR durante {@code -Dsemaforo.retomar.segundos} (60 por omissão);
+ * passado esse tempo, o jogador é dado como tendo saído.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Sessoes implements Closeable {
+
+    private static final long TOLERANCIA_MS = TimeUnit.SECONDS.toMillis(Long.getLong("semaforo.retomar.segundos", 60));
+
+    private final Map<Long, Jogador> ativas = new ConcurrentHashMap<>();
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final ScheduledExecutorService relogio = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sessoes-expiracao");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Regista um jogador e gera o token da sua sessão.
+     *
+     * @param jogador jogador que aceitou {@link com.mycompany.nucleosemaforo.protocolo.Protocolo#SEQUENCIA}
+     * @return token, nunca 0
+     */
+    long registar(Jogador jogador) {
+        while (true) {
+            long token = aleatorio.nextLong();
+            if (token != 0 && ativas.putIfAbsent(token, jogador) == null) return token;
+        }
+    }
+
+    /**
+     * @param token token apresentado em RETOMAR
+     * @return jogador da sessão, ou null se já expirou
+     */
+    Jogador procurar(long token) {
+        return ativas.get(token);
+    }
+
+    /**
+     * Retira uma sessão terminada.
+     *
+     * @param token token da sessão
+     * @param jogador jogador da sessão
+     */
+    void remover(long token, Jogador jogador) {
+        ativas.remove(token, jogador);
+    }
+
+    /**
+     * Dá o jogador como saído se a ligação não for retomada a tempo.
+     *
+     * @param jogador jogador desligado
+     * @param geracao ligação que caiu (ver {@link Jogador#expirar})
+     */
+    void agendarExpiracao(Jogador jogador, int geracao) {
+        relogio.schedule(() -> jogador.expirar(geracao), TOLERANCIA_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        relogio.shutdownNow();
+    }
+}
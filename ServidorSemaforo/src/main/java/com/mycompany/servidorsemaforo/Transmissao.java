@@ -0,0 +1,131 @@
+package com.mycompany.servidorsemaforo;
+
+import com.mycompany.nucleosemaforo.protocolo.Mensagem;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Difusão das mensagens de uma mesa para os seus espectadores.
+ *
+ * A partida é o único escritor: publica cada mensagem num anel de
+ * {@value #CAPACIDADE} posições e avança um contador, sem esperar por nenhum
+ * espectador, pelo que o custo de uma jogada não depende de quantos estão a
+ * assistir. Cada espectador lê o anel ao seu ritmo, na sua thread virtual, e
+ * envia o que lá encontra; se ficar tão atrasado que a posição que ia ler já
+ * foi reescrita, a leitura falha e o espectador recomeça a partir do estado
+ * completo da mesa.
+ *
+ * @author Grupo 07
+ * @version 1.0
+ * @since 2025-06-16
+ */
+final class Transmissao {
+
+    /** Número de mensagens guardadas (potência de 2) */
+    private static final int CAPACIDADE = 256;
+
+    private final Mensagem[] anel = new Mensagem[CAPACIDADE];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition novas = lock.newCondition();
+    private final AtomicInteger espectadores = new AtomicInteger();
+
+    /** Número de mensagens publicadas; a escrita publica o conteúdo da posição */
+    private volatile long publicadas;
+    private volatile boolean terminada;
+
+    Transmissao() {
+        for (int i = 0; i < CAPACIDADE; i++) anel[i] = new Mensagem();
+    }
+
+    /**
+     * Publica uma mensagem (só pela partida, com o seu lock).
+     *
+     * @param m mensagem a difundir; é copiada, sem número de sequência
+     */
+    void publicar(Mensagem m) {
+        long n = publicadas;
+        anel[(int) n & (CAPACIDADE - 1)].copiar(m).numerar(0);
+        publicadas = n + 1;
+        acordar();
+    }
+
+    /**
+     * Termina a difusão; os espectadores recebem o que falta e saem.
+     */
+    void terminar() {
+        terminada = true;
+        acordar();
+    }
+
+    /** @return número de mensagens publicadas até agora */
+    long getPublicadas() {
+        return publicadas;
+    }
+
+    /** @return true se a difusão terminou */
+    boolean isTerminada() {
+        return terminada;
+    }
+
+    /** @return número de espectadores ligados */
+    int getEspectadores() {
+        return espectadores.get();
+    }
+
+    /** Regista a entrada de um espectador. */
+    void entrar() {
+        espectadores.incrementAndGet();
+    }
+
+    /** Regista a saída de um espectador. */
+    void sair() {
+        espectadores.decrementAndGet();
+    }
+
+    /**
+     * Espera até haver mensagens a partir da indicada, ou até a difusão terminar.
+     *
+     * @param proxima número da próxima mensagem a ler
+     * @return número de mensagens publicadas (igual a {@code proxima} se terminou)
+     * @throws InterruptedException se a thread for interrompida
+     */
+    long aguardar(long proxima) throws InterruptedException {
+        long n = publicadas;
+        if (n > proxima || terminada) return n;
+        lock.lock();
+        try {
+            while ((n = publicadas) <= proxima && !terminada) novas.await();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copia uma mensagem publicada.
+     *
+     * @param n número da mensagem
+     * @param destino mensagem a preencher
+     * @return false se a posição já foi (ou pode estar a ser) reescrita; o destino fica inválido
+     */
+    boolean ler(long n, Mensagem destino) {
+        if (publicadas - n >= CAPACIDADE) return false;
+        destino.copiar(anel[(int) n & (CAPACIDADE - 1)]);
+        // A cópia tem de estar feita antes de se voltar a ler o contador
+        VarHandle.acquireFence();
+        return publicadas - n < CAPACIDADE;
+    }
+
+    private void acordar() {
+        if (espectadores.get() == 0) return;
+        lock.lock();
+        try {
+            novas.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+module com.mycompany.servidorsemaforo {
+    requires com.mycompany.nucleosemaforo;
+
+    exports com.mycompany.servidorsemaforo;
+}